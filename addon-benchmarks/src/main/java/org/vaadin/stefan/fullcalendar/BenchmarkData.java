@@ -0,0 +1,72 @@
+package org.vaadin.stefan.fullcalendar;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Creates reproducible test data for the benchmarks.
+ */
+final class BenchmarkData {
+
+    static final LocalDateTime REFERENCE_DATE = LocalDate.of(2020, 1, 6).atStartOfDay();
+
+    private BenchmarkData() {
+    }
+
+    /**
+     * Creates an entry with all commonly used properties set.
+     *
+     * @param id id
+     * @return entry
+     */
+    static Entry createFullEntry(String id) {
+        Entry entry = new Entry(id);
+        entry.setTitle("Entry " + id);
+        entry.setStart(REFERENCE_DATE.plusHours(10));
+        entry.setEnd(REFERENCE_DATE.plusHours(12));
+        entry.setColor("#ff0000");
+        entry.setBorderColor("#00ff00");
+        entry.setDescription("Some description for entry " + id);
+        entry.addClassNames("class-a", "class-b");
+        entry.setCustomProperty("priority", 3);
+        entry.setCustomProperty("owner", "someone");
+        return entry;
+    }
+
+    /**
+     * Creates the given amount of timed entries, randomly distributed over one year. Every 20th entry is recurring,
+     * if the respective flag is set.
+     *
+     * @param amount    amount of entries
+     * @param recurring create recurring entries
+     * @return entries
+     */
+    static List<Entry> createEntries(int amount, boolean recurring) {
+        Random random = new Random(42);
+        List<Entry> entries = new ArrayList<>(amount);
+        for (int i = 0; i < amount; i++) {
+            Entry entry = new Entry(String.valueOf(i));
+            entry.setTitle("Entry " + i);
+
+            if (recurring && i % 20 == 0) {
+                entry.setRecurringDaysOfWeek(DayOfWeek.of(random.nextInt(7) + 1));
+                entry.setRecurringStartDate(REFERENCE_DATE.toLocalDate().plusDays(random.nextInt(365)));
+                entry.setRecurringEndDate(entry.getRecurringStartDate().plusDays(random.nextInt(180)));
+                entry.setRecurringStartTime(RecurringTime.of(random.nextInt(20)));
+                entry.setRecurringEndTime(RecurringTime.of(entry.getRecurringStartTime().getHour() + 1));
+            } else {
+                LocalDateTime start = REFERENCE_DATE.plusMinutes(random.nextInt(365 * 24 * 4) * 15L);
+                entry.setStart(start);
+                entry.setEnd(start.plusMinutes((random.nextInt(16) + 1) * 15L));
+                entry.setAllDay(random.nextInt(10) == 0);
+            }
+
+            entries.add(entry);
+        }
+        return entries;
+    }
+}
@@ -0,0 +1,61 @@
+package org.vaadin.stefan.fullcalendar;
+
+import elemental.json.Json;
+import elemental.json.JsonObject;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks the conversion of single entries from and to json and copying them.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class EntryBenchmark {
+
+    private Entry entry;
+    private JsonObject updateJson;
+
+    @Setup
+    public void setup() {
+        entry = BenchmarkData.createFullEntry("1");
+
+        updateJson = Json.createObject();
+        updateJson.put("id", "1");
+        updateJson.put("start", JsonUtils.formatClientSideDateTimeString(BenchmarkData.REFERENCE_DATE.plusHours(11)));
+        updateJson.put("end", JsonUtils.formatClientSideDateTimeString(BenchmarkData.REFERENCE_DATE.plusHours(13)));
+        updateJson.put("allDay", false);
+    }
+
+    @Benchmark
+    public JsonObject toJson() {
+        return entry.toJson();
+    }
+
+    @Benchmark
+    public String toJsonSerialized() {
+        return entry.toJson().toJson();
+    }
+
+    @Benchmark
+    public String toJsonString() {
+        StringBuilder builder = new StringBuilder();
+        entry.appendJson(builder);
+        return builder.toString();
+    }
+
+    @Benchmark
+    public Entry updateFromJson() {
+        entry.updateFromJson(updateJson);
+        return entry;
+    }
+
+    @Benchmark
+    public Entry copy() {
+        return entry.copy();
+    }
+}
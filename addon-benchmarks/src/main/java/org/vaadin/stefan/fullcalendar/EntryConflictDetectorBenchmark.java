@@ -0,0 +1,53 @@
+package org.vaadin.stefan.fullcalendar;
+
+import org.openjdk.jmh.annotations.*;
+import org.vaadin.stefan.fullcalendar.dataprovider.EntryConflictDetector;
+import org.vaadin.stefan.fullcalendar.dataprovider.IndexedInMemoryEntryProvider;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks the server side conflict check of a dropped entry and listing the conflicts of a week.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgs = "-Xmx4g")
+@State(Scope.Benchmark)
+public class EntryConflictDetectorBenchmark {
+
+    @Param({"1000", "100000"})
+    private int entryCount;
+
+    private EntryConflictDetector<Entry> detector;
+    private Entry droppedEntry;
+
+    private LocalDateTime start;
+    private LocalDateTime end;
+
+    @Setup
+    public void setup() {
+        List<Entry> entries = BenchmarkData.createEntries(entryCount, true);
+        detector = new EntryConflictDetector<>(IndexedInMemoryEntryProvider.from(entries));
+
+        start = BenchmarkData.REFERENCE_DATE.plusWeeks(20);
+        end = start.plusWeeks(1);
+
+        droppedEntry = new Entry("dropped");
+        droppedEntry.setStart(start.plusDays(2).plusHours(10));
+        droppedEntry.setEnd(start.plusDays(2).plusHours(11));
+    }
+
+    @Benchmark
+    public boolean hasConflict() {
+        return detector.hasConflict(droppedEntry);
+    }
+
+    @Benchmark
+    public int conflictsOfWeek() {
+        return detector.getConflicts(start, end).size();
+    }
+}
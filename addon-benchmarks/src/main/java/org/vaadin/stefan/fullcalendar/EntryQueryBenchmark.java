@@ -0,0 +1,46 @@
+package org.vaadin.stefan.fullcalendar;
+
+import org.openjdk.jmh.annotations.*;
+import org.vaadin.stefan.fullcalendar.dataprovider.EntryQuery;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks filtering a mix of timed and recurring entries by a query.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class EntryQueryBenchmark {
+
+    @Param({"10000"})
+    private int entryCount;
+
+    private List<Entry> entries;
+    private EntryQuery query;
+    private EntryQuery timedOnlyQuery;
+
+    @Setup
+    public void setup() {
+        entries = BenchmarkData.createEntries(entryCount, true);
+
+        LocalDateTime start = BenchmarkData.REFERENCE_DATE.plusWeeks(20);
+        query = new EntryQuery(start, start.plusWeeks(1));
+        timedOnlyQuery = new EntryQuery(start, start.plusWeeks(1), EntryQuery.AllDay.TIMED_ONLY);
+    }
+
+    @Benchmark
+    public long applyFilter() {
+        return query.applyFilter(entries.stream()).count();
+    }
+
+    @Benchmark
+    public long applyFilterTimedOnly() {
+        return timedOnlyQuery.applyFilter(entries.stream()).count();
+    }
+}
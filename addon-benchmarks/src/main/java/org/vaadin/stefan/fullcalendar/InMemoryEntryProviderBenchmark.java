@@ -0,0 +1,51 @@
+package org.vaadin.stefan.fullcalendar;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.vaadin.stefan.fullcalendar.dataprovider.IndexedInMemoryEntryProvider;
+import org.vaadin.stefan.fullcalendar.dataprovider.InMemoryEntryProvider;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks fetching a week of entries from the in memory entry providers.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgs = "-Xmx4g")
+@State(Scope.Benchmark)
+public class InMemoryEntryProviderBenchmark {
+
+    @Param({"1000", "100000", "1000000"})
+    private int entryCount;
+
+    private InMemoryEntryProvider<Entry> provider;
+    private IndexedInMemoryEntryProvider<Entry> indexedProvider;
+
+    private LocalDateTime start;
+    private LocalDateTime end;
+
+    @Setup
+    public void setup() {
+        List<Entry> entries = BenchmarkData.createEntries(entryCount, false);
+        provider = InMemoryEntryProvider.from(entries);
+        indexedProvider = IndexedInMemoryEntryProvider.from(entries);
+
+        start = BenchmarkData.REFERENCE_DATE.plusWeeks(20);
+        end = start.plusWeeks(1);
+    }
+
+    @Benchmark
+    public void fetch(Blackhole blackhole) {
+        provider.fetch(start, end).forEach(blackhole::consume);
+    }
+
+    @Benchmark
+    public void fetchIndexed(Blackhole blackhole) {
+        indexedProvider.fetch(start, end).forEach(blackhole::consume);
+    }
+}
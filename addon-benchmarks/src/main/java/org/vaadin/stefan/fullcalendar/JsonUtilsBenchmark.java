@@ -0,0 +1,57 @@
+package org.vaadin.stefan.fullcalendar;
+
+import elemental.json.JsonValue;
+import org.openjdk.jmh.annotations.*;
+
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks the json conversion utilities.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class JsonUtilsBenchmark {
+
+    private String dateTimeString;
+    private Map<String, Object> map;
+    private List<String> list;
+
+    @Setup
+    public void setup() {
+        dateTimeString = JsonUtils.formatClientSideDateTimeString(BenchmarkData.REFERENCE_DATE.plusHours(10));
+
+        map = new HashMap<>();
+        map.put("text", "value");
+        map.put("number", 5);
+        map.put("flag", true);
+        map.put("nested", Collections.singletonMap("key", "value"));
+
+        list = Arrays.asList("a", "b", "c", "d", "e");
+    }
+
+    @Benchmark
+    public LocalDateTime parseClientSideDateTime() {
+        return JsonUtils.parseClientSideDateTime(dateTimeString);
+    }
+
+    @Benchmark
+    public JsonValue toJsonValueString() {
+        return JsonUtils.toJsonValue("some string value");
+    }
+
+    @Benchmark
+    public JsonValue toJsonValueMap() {
+        return JsonUtils.toJsonValue(map);
+    }
+
+    @Benchmark
+    public JsonValue toJsonValueList() {
+        return JsonUtils.toJsonValue(list);
+    }
+}
@@ -0,0 +1,47 @@
+package org.vaadin.stefan.fullcalendar;
+
+import elemental.json.JsonObject;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks the json conversion of resource trees.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class ResourceBenchmark {
+
+    /**
+     * Depth of the resource tree. Every resource has three children, so the tree contains (3^(depth+1) - 1) / 2
+     * resources.
+     */
+    @Param({"2", "5", "7"})
+    private int depth;
+
+    private Resource root;
+
+    @Setup
+    public void setup() {
+        root = createTree("0", depth);
+    }
+
+    @Benchmark
+    public JsonObject toJson() {
+        return root.toJson();
+    }
+
+    private static Resource createTree(String id, int depth) {
+        Resource resource = new Resource(id, "Resource " + id, "#ff0000");
+        if (depth > 0) {
+            for (int i = 0; i < 3; i++) {
+                resource.addChild(createTree(id + "-" + i, depth - 1));
+            }
+        }
+        return resource;
+    }
+}
@@ -16,6 +16,8 @@
  */
 package org.vaadin.stefan.fullcalendar;
 
+import com.vaadin.flow.component.AttachEvent;
+import com.vaadin.flow.component.ClientCallable;
 import com.vaadin.flow.component.ComponentEventListener;
 import com.vaadin.flow.component.Tag;
 import com.vaadin.flow.component.dependency.CssImport;
@@ -25,11 +27,19 @@ import com.vaadin.flow.shared.Registration;
 import elemental.json.Json;
 import elemental.json.JsonArray;
 import elemental.json.JsonObject;
+import elemental.json.JsonType;
 import org.vaadin.stefan.fullcalendar.dataprovider.EntryProvider;
+import org.vaadin.stefan.fullcalendar.dataprovider.EntryQuery;
+import org.vaadin.stefan.fullcalendar.dataprovider.InMemoryResourceProvider;
+import org.vaadin.stefan.fullcalendar.dataprovider.ResourceEntryQuery;
+import org.vaadin.stefan.fullcalendar.dataprovider.ResourceProvider;
+import org.vaadin.stefan.fullcalendar.dataprovider.ResourceQuery;
 
 import java.io.Serializable;
+import java.time.LocalDateTime;
 import java.util.*;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 import java.util.stream.StreamSupport;
 
 /**
@@ -55,6 +65,13 @@ public class FullCalendarScheduler extends FullCalendar implements Scheduler {
      */
     public static final String FC_SCHEDULER_CLIENT_VERSION = "6.1.9";
     private final Map<String, Resource> resources = new HashMap<>();
+    private final ResourceEntryIndex resourceEntryIndex = new ResourceEntryIndex();
+
+    private ResourceProvider resourceProvider;
+    private Registration resourceProviderListenerRegistration;
+    private String resourceFilter;
+    private int resourcePageSize;
+    private Boolean resourcesInitiallyExpanded;
 
     /**
      * Creates a new instance without any settings beside the default locale ({@link CalendarLocale#getDefault()}).
@@ -113,6 +130,17 @@ public class FullCalendarScheduler extends FullCalendar implements Scheduler {
         super(initialOptions);
     }
 
+    @Override
+    protected void onAttach(AttachEvent attachEvent) {
+        super.onAttach(attachEvent);
+
+        // a newly attached client element starts with an empty resource set
+        if (resourceProvider != null) {
+            resources.clear();
+            getElement().callJsFunction("setLazyResources", true);
+        }
+    }
+
     @Override
     public void setSchedulerLicenseKey(String schedulerLicenseKey) {
         setOption(SchedulerOption.LICENSE_KEY, schedulerLicenseKey);
@@ -135,7 +163,23 @@ public class FullCalendarScheduler extends FullCalendar implements Scheduler {
     
     @Override
     public void setResourcesInitiallyExpanded(boolean resourcesInitiallyExpanded) {
-        setOption(SchedulerOption.RESOURCES_INITIALLY_EXPANDED, resourcesInitiallyExpanded);
+        this.resourcesInitiallyExpanded = resourcesInitiallyExpanded;
+        updateResourcesInitiallyExpanded();
+    }
+
+    /**
+     * Sends the initial expansion of resources to the client. While a resource provider is set, resources are
+     * never expanded initially, since the children of expanded resources are fetched immediately. The value set by
+     * {@link #setResourcesInitiallyExpanded(boolean)} is kept as server side value and restored, when the provider
+     * is removed.
+     */
+    private void updateResourcesInitiallyExpanded() {
+        if (resourceProvider != null) {
+            setOption(SchedulerOption.RESOURCES_INITIALLY_EXPANDED, false, resourcesInitiallyExpanded);
+        } else if (resourcesInitiallyExpanded != null || getOption(SchedulerOption.RESOURCES_INITIALLY_EXPANDED).isPresent()) {
+            // FC expands resources initially by default
+            setOption(SchedulerOption.RESOURCES_INITIALLY_EXPANDED, resourcesInitiallyExpanded != null ? resourcesInitiallyExpanded : true);
+        }
     }
     
     @Override
@@ -155,39 +199,34 @@ public class FullCalendarScheduler extends FullCalendar implements Scheduler {
 
     @Override
     public void addResources(@NotNull Iterable<Resource> iterableResource) {
-        Objects.requireNonNull(iterableResource);
-
-        JsonArray array = Json.createArray();
-        iterableResource.forEach(resource -> {
-            String id = resource.getId();
-            if (!resources.containsKey(id)) {
-                resources.put(id, resource);
-                array.set(array.length(), resource.toJson()); // this automatically sends sub resources to the client side
-            }
-
-            // now also register child resources
-            registerResourcesInternally(resource.getChildren());
-        });
-
-        getElement().callJsFunction("addResources", array, true);
+        addResources(iterableResource, true);
     }
 
     @Override
     public void addResources(@NotNull Iterable<Resource> iterableResource, boolean scrollToLast) {
         Objects.requireNonNull(iterableResource);
 
+        if (resourceProvider != null) {
+            getInMemoryResourceProvider().addResources(iterableResource);
+            resourceProvider.refreshAll();
+            return;
+        }
+
+        long startTime = System.nanoTime();
         JsonArray array = Json.createArray();
         iterableResource.forEach(resource -> {
             String id = resource.getId();
             if (!resources.containsKey(id)) {
                 resources.put(id, resource);
                 array.set(array.length(), resource.toJson()); // this automatically sends sub resources to the client side
-        }
+            }
 
             // now also register child resources
             registerResourcesInternally(resource.getChildren());
         });
         getElement().callJsFunction("addResources", array, scrollToLast);
+
+        getMetrics().onResourcesAdded(this, array.length(), System.nanoTime() - startTime);
     }
 
     /**
@@ -207,6 +246,14 @@ public class FullCalendarScheduler extends FullCalendar implements Scheduler {
     public void removeResources(@NotNull Iterable<Resource> iterableResources) {
         Objects.requireNonNull(iterableResources);
 
+        if (resourceProvider != null) {
+            removeFromEntries(iterableResources);
+            getInMemoryResourceProvider().removeResources(iterableResources);
+            resourceProvider.refreshAll();
+            return;
+        }
+
+        long startTime = System.nanoTime();
         removeFromEntries(iterableResources);
 
         // create registry of removed items to send to client
@@ -221,29 +268,85 @@ public class FullCalendarScheduler extends FullCalendar implements Scheduler {
 
         getElement().callJsFunction("removeResources", array);
 
+        getMetrics().onResourcesRemoved(this, array.length(), System.nanoTime() - startTime);
     }
 
     /**
-     * Removes the given resources from the known entries of this calendar.
+     * Removes the given resources from the known entries of this calendar. Only the entries assigned to
+     * the given resources are touched.
      * @param iterableResources resources
      */
     private void removeFromEntries(Iterable<Resource> iterableResources) {
         List<Resource> resources = StreamSupport.stream(iterableResources.spliterator(), false).collect(Collectors.toList());
-        // TODO integrate in memory resource provider
+        for (Resource resource : resources) {
+            for (ResourceEntry entry : resourceEntryIndex.getEntries(resource.getId())) {
+                entry.removeResources(resources);
+            }
+        }
+    }
+
+    @Override
+    public Set<ResourceEntry> getResourceEntries(@NotNull Resource resource) {
+        Objects.requireNonNull(resource);
+        return new LinkedHashSet<>(resourceEntryIndex.getEntries(resource.getId()));
+    }
+
+    @Override
+    public void refreshResourceEntries(@NotNull Iterable<Resource> resources) {
+        Objects.requireNonNull(resources);
+
+        Set<ResourceEntry> entries = new LinkedHashSet<>();
+        for (Resource resource : resources) {
+            entries.addAll(resourceEntryIndex.getEntries(resource.getId()));
+        }
+
+        if (!entries.isEmpty()) {
+            requestRefresh(entries);
+        }
+    }
+
+    /**
+     * Called, when a resource entry has been connected to this calendar. Entries owned by an in memory entry
+     * provider are added to the resource entry index. Instances fetched from other providers are
+     * transient and thus not indexed.
+     *
+     * @param entry entry
+     */
+    void onEntryConnected(ResourceEntry entry) {
         EntryProvider<Entry> entryProvider = getEntryProvider();
-        if (entryProvider.isInMemory()) {
-            entryProvider.asInMemory()
-                    .getEntries()
-                    .stream()
-                    .filter(e -> e instanceof ResourceEntry)
-                    .forEach(e -> ((ResourceEntry) e).unassignResources(resources));
+        if (entryProvider != null && entryProvider.isInMemory() && entryProvider.fetchById(entry.getId()).orElse(null) == entry) {
+            resourceEntryIndex.addEntry(entry);
         }
     }
 
+    /**
+     * Called, when a resource entry has been disconnected from this calendar.
+     *
+     * @param entry entry
+     */
+    void onEntryDisconnected(ResourceEntry entry) {
+        resourceEntryIndex.removeEntry(entry);
+    }
+
+    /**
+     * Called, when the resources of a connected resource entry have changed.
+     *
+     * @param entry   entry
+     * @param added   assigned resources
+     * @param removed unassigned resources
+     */
+    void onEntryResourcesChanged(ResourceEntry entry, Collection<Resource> added, Collection<Resource> removed) {
+        resourceEntryIndex.onResourcesChanged(entry, added, removed);
+    }
+
     @Override
     public Optional<Resource> getResourceById(@NotNull String id) {
         Objects.requireNonNull(id);
-        return Optional.ofNullable(resources.get(id));
+        Resource resource = resources.get(id);
+        if (resource == null && resourceProvider != null) {
+            return resourceProvider.fetchById(id);
+        }
+        return Optional.ofNullable(resource);
     }
 
     @Override
@@ -253,9 +356,236 @@ public class FullCalendarScheduler extends FullCalendar implements Scheduler {
 
     @Override
     public void removeAllResources() {
+        if (resourceProvider != null) {
+            removeFromEntries(getInMemoryResourceProvider().getResources());
+            getInMemoryResourceProvider().removeAllResources();
+            resourceProvider.refreshAll();
+            return;
+        }
+
+        long startTime = System.nanoTime();
+        int resourceCount = resources.size();
+
         removeFromEntries(resources.values());
     	resources.clear();
         getElement().callJsFunction("removeAllResources");
+
+        getMetrics().onResourcesRemoved(this, resourceCount, System.nanoTime() - startTime);
+    }
+
+    @Override
+    public void setResourceProvider(ResourceProvider resourceProvider) {
+        if (this.resourceProvider == resourceProvider) {
+            return;
+        }
+
+        if (resourceProviderListenerRegistration != null) {
+            resourceProviderListenerRegistration.remove();
+            resourceProviderListenerRegistration = null;
+        }
+
+        // the client side replaces all resources when switching the mode
+        resources.clear();
+        this.resourceProvider = resourceProvider;
+
+        if (resourceProvider != null) {
+            resourceProviderListenerRegistration = resourceProvider.addResourcesChangeListener(event -> refreshAllResources());
+        }
+
+        updateResourcesInitiallyExpanded();
+        getElement().callJsFunction("setLazyResources", resourceProvider != null);
+
+        if (resourcePageSize > 0) {
+            // entries are restricted to the known resources only while a provider is set
+            requestRefreshAllEntries();
+        }
+    }
+
+    @Override
+    public Optional<ResourceProvider> getResourceProvider() {
+        return Optional.ofNullable(resourceProvider);
+    }
+
+    @Override
+    public void setResourceFilter(String filter) {
+        if (!Objects.equals(this.resourceFilter, filter)) {
+            this.resourceFilter = filter;
+            refreshAllResources();
+        }
+    }
+
+    @Override
+    public Optional<String> getResourceFilter() {
+        return Optional.ofNullable(resourceFilter);
+    }
+
+    @Override
+    public void refreshAllResources() {
+        if (resourceProvider != null) {
+            getElement().callJsFunction("refreshLazyResources");
+        }
+    }
+
+    /**
+     * Called by the client side to fetch one level of resources from the resource provider. The query
+     * contains the optional parent id, the filter is taken from the server side state. The result is
+     * sent back via the client side function "receiveResources".
+     *
+     * @param jsonQuery query
+     */
+    @ClientCallable
+    protected void requestResources(@NotNull JsonObject jsonQuery) {
+        Objects.requireNonNull(jsonQuery);
+        if (resourceProvider == null) {
+            return;
+        }
+
+        String parentId = jsonQuery.hasKey("parentId") && jsonQuery.get("parentId").getType() == JsonType.STRING
+                ? jsonQuery.getString("parentId")
+                : null;
+
+        // the offset is sent by the client and thus not trusted
+        int offset = jsonQuery.hasKey("offset") && jsonQuery.get("offset").getType() == JsonType.NUMBER
+                ? Math.max(0, (int) jsonQuery.getNumber("offset"))
+                : 0;
+
+        // only top level resources are paged, children of an expanded resource are fetched at once
+        boolean paged = parentId == null && isResourcePagingActive();
+        ResourceQuery query = new ResourceQuery(parentId, resourceFilter, offset, paged ? resourcePageSize : null);
+        JsonArray array = fetchResources(query);
+
+        // a full page indicates, that there might be more resources
+        boolean hasMore = paged && array.length() == resourcePageSize;
+        getElement().callJsFunction("receiveResources", parentId != null ? Json.create(parentId) : Json.createNull(), array, offset, hasMore);
+
+        if (isResourcePagingActive()) {
+            Set<String> fetchedIds = new HashSet<>();
+            for (int i = 0; i < array.length(); i++) {
+                fetchedIds.add(array.getObject(i).getString("id"));
+            }
+            sendEntriesOfResources(fetchedIds);
+        }
+    }
+
+    @Override
+    public void setResourcePageSize(int resourcePageSize) {
+        if (resourcePageSize < 0) {
+            throw new IllegalArgumentException("Page size must not be negative");
+        }
+
+        if (this.resourcePageSize != resourcePageSize) {
+            this.resourcePageSize = resourcePageSize;
+            refreshAllResources();
+            requestRefreshAllEntries();
+        }
+    }
+
+    @Override
+    public int getResourcePageSize() {
+        return resourcePageSize;
+    }
+
+    /**
+     * Indicates, if the top level resources are fetched page wise and the entries are restricted to the
+     * resources known to the client.
+     *
+     * @return resource paging is active
+     */
+    boolean isResourcePagingActive() {
+        return resourceProvider != null && resourcePageSize > 0;
+    }
+
+    /**
+     * Restricts the fetched entries to the resources known to the client, when resource paging is active.
+     * The query is based on a live view of the known resource ids, so that entries of resources fetched after the
+     * entries are still considered to be shown.
+     */
+    @Override
+    protected EntryQuery createEntryQuery(LocalDateTime start, LocalDateTime end) {
+        if (isResourcePagingActive()) {
+            return new ResourceEntryQuery(start, end, EntryQuery.AllDay.BOTH, resources.keySet());
+        }
+        return super.createEntryQuery(start, end);
+    }
+
+    /**
+     * Resolves resource entry queries by the resource entry index, when the entry provider is in memory. This way
+     * the costs only depend on the entries of the resources known to the client instead of all entries.
+     */
+    @Override
+    protected Stream<? extends Entry> fetchEntries(EntryQuery query) {
+        if (query instanceof ResourceEntryQuery && getEntryProvider().isInMemory()) {
+            Map<String, ResourceEntry> entries = new LinkedHashMap<>();
+            for (String resourceId : ((ResourceEntryQuery) query).getResourceIds()) {
+                for (ResourceEntry entry : resourceEntryIndex.getEntries(resourceId)) {
+                    entries.putIfAbsent(entry.getId(), entry);
+                }
+            }
+            return query.applyFilter(entries.values().stream());
+        }
+        return super.fetchEntries(query);
+    }
+
+    /**
+     * Sends the entries of the given, newly fetched resources for the time range of the last entry fetch.
+     *
+     * @param resourceIds resource ids
+     */
+    private void sendEntriesOfResources(Set<String> resourceIds) {
+        if (resourceIds.isEmpty()) {
+            return;
+        }
+
+        getLastFetchedQuery().ifPresent(lastQuery -> {
+            EntryQuery query = new ResourceEntryQuery(lastQuery.getStart(), lastQuery.getEnd(), lastQuery.getAllDay(), resourceIds);
+            sendAdditionalEntries(fetchEntries(query).collect(Collectors.toList()));
+        });
+    }
+
+    /**
+     * Fetches the resources for the given query from the resource provider and registers them as known resources.
+     * The resulting array contains the resources without their children. Resources, that have children to be
+     * fetched lazily, are marked with the key "lazyChildren".
+     *
+     * @param query query
+     * @return json array of the fetched resources
+     */
+    JsonArray fetchResources(ResourceQuery query) {
+        long startTime = System.nanoTime();
+
+        if (query.isTopLevel() && query.getOffset() == 0) {
+            // the client replaces all resources
+            resources.clear();
+        }
+
+        JsonArray array = Json.createArray();
+        resourceProvider.fetch(query).forEach(resource -> {
+            resources.put(resource.getId(), resource);
+
+            JsonObject json = resource.toJson(false);
+            if (query.isTopLevel()) {
+                json.remove("parentId");
+            } else {
+                json.put("parentId", query.getParentId());
+            }
+
+            if (resourceProvider.hasChildren(resource)) {
+                json.put("lazyChildren", true);
+            }
+
+            array.set(array.length(), json);
+        });
+
+        getMetrics().onResourcesAdded(this, array.length(), System.nanoTime() - startTime);
+        return array;
+    }
+
+    private InMemoryResourceProvider getInMemoryResourceProvider() {
+        if (!resourceProvider.isInMemory()) {
+            throw new UnsupportedOperationException("The resource provider is not in memory. Please modify the resources " +
+                    "in the provider's backend and call refreshAll() on the provider instead.");
+        }
+        return resourceProvider.asInMemory();
     }
 
     @Override
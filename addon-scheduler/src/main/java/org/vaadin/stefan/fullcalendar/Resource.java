@@ -22,6 +22,7 @@ import elemental.json.JsonObject;
 import lombok.EqualsAndHashCode;
 import lombok.Getter;
 
+import java.io.Serializable;
 import java.util.*;
 
 /**
@@ -30,7 +31,7 @@ import java.util.*;
  */
 @Getter
 @EqualsAndHashCode(of = "id")
-public class Resource {
+public class Resource implements Serializable {
 
     /**
      * The id of this resource.
@@ -258,6 +259,17 @@ public class Resource {
      * @return json object
      */
     protected JsonObject toJson() {
+        return toJson(true);
+    }
+
+    /**
+     * Converts the instance to a JsonObject. Children are only converted, if the parameter is true, otherwise
+     * the resulting object contains only this resource's own data (e.g. to be used for lazy loading).
+     *
+     * @param includeChildren include the children recursively
+     * @return json object
+     */
+    protected JsonObject toJson(boolean includeChildren) {
         JsonObject jsonObject = Json.createObject();
 
         jsonObject.put("id", getId());
@@ -274,7 +286,7 @@ public class Resource {
 
         getParent().ifPresent(parent -> jsonObject.put("parentId", parent.getId()));
 
-        Set<Resource> children = getChildren();
+        Set<Resource> children = includeChildren ? getChildren() : Collections.emptySet();
         if (!children.isEmpty()) {
             JsonArray jsonArray = Json.createArray();
 
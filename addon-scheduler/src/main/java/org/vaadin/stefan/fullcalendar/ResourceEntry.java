@@ -16,7 +16,6 @@
  */
 package org.vaadin.stefan.fullcalendar;
 
-import elemental.json.JsonObject;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
@@ -25,6 +24,7 @@ import org.vaadin.stefan.fullcalendar.json.JsonConverter;
 import org.vaadin.stefan.fullcalendar.json.JsonName;
 import org.vaadin.stefan.fullcalendar.json.JsonUpdateAllowed;
 
+import java.io.Serializable;
 import java.util.*;
 import java.util.stream.Stream;
 
@@ -75,7 +75,19 @@ public class ResourceEntry extends Entry {
         if (calendar != null && !(calendar instanceof Scheduler)) {
             throw new IllegalArgumentException("ResourceEntries must be added to a FullCalendar that implements Scheduler");
         }
+
+        FullCalendar oldCalendar = getCalendar().orElse(null);
         super.setCalendar(calendar);
+
+        if (oldCalendar != calendar) {
+            if (oldCalendar instanceof FullCalendarScheduler) {
+                ((FullCalendarScheduler) oldCalendar).onEntryDisconnected(this);
+            }
+
+            if (calendar instanceof FullCalendarScheduler) {
+                ((FullCalendarScheduler) calendar).onEntryConnected(this);
+            }
+        }
     }
 
     /**
@@ -110,12 +122,39 @@ public class ResourceEntry extends Entry {
      */
     public Set<Resource> getOrCreateResources() {
         if (resources == null) {
-            resources = new LinkedHashSet<>();
+            resources = new ResourceSet(this);
         }
 
         return resources;
     }
 
+    /**
+     * Sets the entry's resources. The given set is copied, changes to it are not reflected to this entry
+     * afterwards. Use {@link #getOrCreateResources()} to modify the entry's resources directly.
+     *
+     * @param resources resources or null
+     */
+    public void setResources(Set<Resource> resources) {
+        Set<Resource> oldResources = this.resources != null ? new LinkedHashSet<>(this.resources) : Collections.emptySet();
+
+        if (resources != null) {
+            ResourceSet newResources = new ResourceSet(this);
+            newResources.delegate.addAll(resources);
+            this.resources = newResources;
+        } else {
+            this.resources = null;
+        }
+
+        Set<Resource> added = new LinkedHashSet<>(getResourcesOrEmpty());
+        added.removeAll(oldResources);
+        Set<Resource> removed = new LinkedHashSet<>(oldResources);
+        removed.removeAll(getResourcesOrEmpty());
+
+        if (!added.isEmpty() || !removed.isEmpty()) {
+            onResourcesChanged(added, removed);
+        }
+    }
+
     /**
      * Returns this instance's resources. Can be null.
      * @see #getOrCreateResources()
@@ -256,10 +295,84 @@ public class ResourceEntry extends Entry {
         setResources(null);
     }
 
-    @Override
-    public JsonObject toJson() {
-        JsonObject json = super.toJson();
-        return json;
+    /**
+     * Informs the scheduler about changed resources to keep its resource entry index up to date.
+     *
+     * @param added   assigned resources
+     * @param removed unassigned resources
+     */
+    private void onResourcesChanged(Collection<Resource> added, Collection<Resource> removed) {
+        getCalendar().ifPresent(calendar -> {
+            if (calendar instanceof FullCalendarScheduler) {
+                ((FullCalendarScheduler) calendar).onEntryResourcesChanged(this, added, removed);
+            }
+        });
+    }
+
+    /**
+     * The set of assigned resources. Tracks all modifications, so that the scheduler can be informed about
+     * them, regardless of whether they are done via the entry's api or on the set directly.
+     */
+    private static class ResourceSet extends AbstractSet<Resource> implements Serializable {
+        private final ResourceEntry entry;
+        private final Set<Resource> delegate = new LinkedHashSet<>();
+
+        private ResourceSet(ResourceEntry entry) {
+            this.entry = entry;
+        }
+
+        @Override
+        public boolean add(Resource resource) {
+            if (delegate.add(Objects.requireNonNull(resource))) {
+                entry.onResourcesChanged(Collections.singleton(resource), Collections.emptySet());
+                return true;
+            }
+            return false;
+        }
+
+        @Override
+        public boolean remove(Object o) {
+            if (delegate.remove(o)) {
+                entry.onResourcesChanged(Collections.emptySet(), Collections.singleton((Resource) o));
+                return true;
+            }
+            return false;
+        }
+
+        @Override
+        public boolean contains(Object o) {
+            return delegate.contains(o);
+        }
+
+        @Override
+        public int size() {
+            return delegate.size();
+        }
+
+        @Override
+        public Iterator<Resource> iterator() {
+            Iterator<Resource> iterator = delegate.iterator();
+            return new Iterator<Resource>() {
+                private Resource current;
+
+                @Override
+                public boolean hasNext() {
+                    return iterator.hasNext();
+                }
+
+                @Override
+                public Resource next() {
+                    current = iterator.next();
+                    return current;
+                }
+
+                @Override
+                public void remove() {
+                    iterator.remove();
+                    entry.onResourcesChanged(Collections.emptySet(), Collections.singleton(current));
+                }
+            };
+        }
     }
 
     //    @Override
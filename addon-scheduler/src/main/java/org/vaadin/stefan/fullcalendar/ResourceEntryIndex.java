@@ -0,0 +1,114 @@
+package org.vaadin.stefan.fullcalendar;
+
+import java.io.Serializable;
+import java.util.*;
+
+/**
+ * Bidirectional index between resources and the resource entries assigned to them. The resources of an
+ * entry are taken from the entry itself, this index adds the reverse direction, so that the entries of a
+ * resource can be obtained without iterating all entries.
+ * <p></p>
+ * The index is kept up to date by the scheduler, when entries are added to or removed from its in memory
+ * entry provider and when resources of an indexed entry are changed. Since in memory providers might be modified
+ * by background threads, all operations are synchronized.
+ */
+final class ResourceEntryIndex implements Serializable {
+
+    private final Map<String, ResourceEntry> entries = new HashMap<>();
+    private final Map<String, Map<String, ResourceEntry>> entriesByResourceId = new HashMap<>();
+
+    /**
+     * Adds the given entry and its currently assigned resources to the index. Replaces any other instance
+     * with the same id.
+     *
+     * @param entry entry
+     */
+    synchronized void addEntry(ResourceEntry entry) {
+        ResourceEntry old = entries.put(entry.getId(), entry);
+        if (old == entry) {
+            return;
+        }
+
+        if (old != null) {
+            unindex(old, old.getResourcesOrEmpty());
+        }
+
+        index(entry, entry.getResourcesOrEmpty());
+    }
+
+    /**
+     * Removes the given entry from the index. Noop, if the instance is not indexed.
+     *
+     * @param entry entry
+     */
+    synchronized void removeEntry(ResourceEntry entry) {
+        if (contains(entry)) {
+            entries.remove(entry.getId());
+            unindex(entry, entry.getResourcesOrEmpty());
+        }
+    }
+
+    /**
+     * Indicates, if this exact entry instance is indexed.
+     *
+     * @param entry entry
+     * @return is indexed
+     */
+    synchronized boolean contains(ResourceEntry entry) {
+        return entries.get(entry.getId()) == entry;
+    }
+
+    /**
+     * Updates the index for the given changes of an entry's resources. Noop, if the entry is not indexed.
+     *
+     * @param entry   entry
+     * @param added   resources assigned to the entry
+     * @param removed resources unassigned from the entry
+     */
+    synchronized void onResourcesChanged(ResourceEntry entry, Collection<Resource> added, Collection<Resource> removed) {
+        if (contains(entry)) {
+            unindex(entry, removed);
+            index(entry, added);
+        }
+    }
+
+    /**
+     * Returns the entries assigned to the resource with the given id. The returned collection is a copy.
+     *
+     * @param resourceId resource id
+     * @return entries
+     */
+    synchronized List<ResourceEntry> getEntries(String resourceId) {
+        Map<String, ResourceEntry> map = entriesByResourceId.get(resourceId);
+        return map != null ? new ArrayList<>(map.values()) : new ArrayList<>();
+    }
+
+    /**
+     * Returns the amount of indexed entries.
+     *
+     * @return size
+     */
+    synchronized int size() {
+        return entries.size();
+    }
+
+    synchronized void clear() {
+        entries.clear();
+        entriesByResourceId.clear();
+    }
+
+    private void index(ResourceEntry entry, Collection<Resource> resources) {
+        for (Resource resource : resources) {
+            entriesByResourceId.computeIfAbsent(resource.getId(), id -> new LinkedHashMap<>()).put(entry.getId(), entry);
+        }
+    }
+
+    private void unindex(ResourceEntry entry, Collection<Resource> resources) {
+        for (Resource resource : resources) {
+            Map<String, ResourceEntry> map = entriesByResourceId.get(resource.getId());
+            if (map != null && map.remove(entry.getId(), entry) && map.isEmpty()) {
+                entriesByResourceId.remove(resource.getId());
+            }
+        }
+    }
+}
@@ -20,6 +20,10 @@ import com.vaadin.flow.component.ComponentEventListener;
 import com.vaadin.flow.shared.Registration;
 
 import org.vaadin.stefan.fullcalendar.NotNull;
+import org.vaadin.stefan.fullcalendar.dataprovider.ResourceEntryQuery;
+import org.vaadin.stefan.fullcalendar.dataprovider.ResourceProvider;
+import org.vaadin.stefan.fullcalendar.dataprovider.ResourceQuery;
+
 import java.util.*;
 import java.util.stream.Collectors;
 
@@ -181,7 +185,8 @@ public interface Scheduler {
     void removeResources(@NotNull Iterable<Resource> resources);
 
     /**
-     * Returns the resource with the given id. Is empty when the id is not registered.
+     * Returns the resource with the given id. Is empty when the id is not registered. When a
+     * {@link ResourceProvider} is set, resources that have not been fetched yet are looked up by the provider.
      *
      * @param id id
      * @return resource or empty
@@ -196,6 +201,8 @@ public interface Scheduler {
      * Changes in the list are not reflected to the calendar's list instance. Also please note, that the content
      * of the list is <b>unsorted</b> and may vary with each call. The return of a list is due to presenting
      * a convenient way of using the returned values without the need to encapsulate them yourselves.
+     * <br><br>
+     * When a {@link ResourceProvider} is set, only the resources fetched by the client so far are returned.
      *
      * @return resources resources
      */
@@ -225,6 +232,135 @@ public interface Scheduler {
      */
     void removeAllResources();
 
+    /**
+     * Returns the entries, that are assigned to the given resource. The entries are looked up in an index, that
+     * is maintained for the entries of an in memory entry provider, so the costs are proportional to the
+     * amount of returned entries. For other entry providers the returned set is empty.
+     * <br><br>
+     * The returned set is a copy. The default implementation returns an empty set.
+     *
+     * @param resource resource
+     * @return entries of the resource
+     * @throws NullPointerException when null is passed
+     */
+    default Set<ResourceEntry> getResourceEntries(@NotNull Resource resource) {
+        Objects.requireNonNull(resource);
+        return Collections.emptySet();
+    }
+
+    /**
+     * Refreshes the entries assigned to the given resources on the client side (see {@link #getResourceEntries(Resource)}).
+     * All entries are sent with one client side call. The default implementation does nothing.
+     *
+     * @param resources resources
+     * @throws NullPointerException when null is passed
+     */
+    default void refreshResourceEntries(@NotNull Iterable<Resource> resources) {
+        Objects.requireNonNull(resources);
+    }
+
+    /**
+     * Refreshes the entries assigned to the given resources on the client side.
+     *
+     * @param resources resources
+     * @throws NullPointerException when null is passed
+     * @see #refreshResourceEntries(Iterable)
+     */
+    default void refreshResourceEntries(@NotNull Resource... resources) {
+        refreshResourceEntries(Arrays.asList(resources));
+    }
+
+    /**
+     * Sets a resource provider, from which the resources are fetched lazily. The client requests the top level
+     * resources first and the children of a resource, when that resource is expanded. Resources, that
+     * have been added to the calendar before, are removed from the client. Passing null switches back to resources,
+     * that are added directly to the calendar.
+     * <br><br>
+     * While a provider is set, {@link #addResources(Iterable)}, {@link #removeResources(Iterable)} and
+     * {@link #removeAllResources()} modify the provider, if it is in memory, and throw an exception otherwise.
+     * <br><br>
+     * Children are fetched, when their parent is expanded by the user. Therefore resources are not expanded initially
+     * while a provider is set (see {@link #setResourcesInitiallyExpanded(boolean)}).
+     * <br><br>
+     * The default implementation does not support resource providers and throws an exception.
+     *
+     * @param resourceProvider resource provider or null
+     * @throws UnsupportedOperationException when the implementation does not support resource providers
+     */
+    default void setResourceProvider(ResourceProvider resourceProvider) {
+        throw new UnsupportedOperationException("Resource providers are not supported by " + getClass().getName());
+    }
+
+    /**
+     * Returns the resource provider, if one has been set. The default implementation returns an empty optional.
+     *
+     * @return resource provider or empty
+     */
+    default Optional<ResourceProvider> getResourceProvider() {
+        return Optional.empty();
+    }
+
+    /**
+     * Sets a text filter, that is passed to the resource provider (see {@link ResourceQuery#getFilter()}). Changing
+     * the filter refetches the resources. Has no effect, if no resource provider is set.
+     * <br><br>
+     * The default implementation does not support resource providers and throws an exception.
+     *
+     * @param filter filter or null
+     * @throws UnsupportedOperationException when the implementation does not support resource providers
+     */
+    default void setResourceFilter(String filter) {
+        throw new UnsupportedOperationException("Resource providers are not supported by " + getClass().getName());
+    }
+
+    /**
+     * Returns the current resource filter or empty. The default implementation returns an empty optional.
+     *
+     * @return resource filter or empty
+     */
+    default Optional<String> getResourceFilter() {
+        return Optional.empty();
+    }
+
+    /**
+     * Refetches all resources from the resource provider. Has no effect, if no resource provider is set.
+     * The default implementation does nothing.
+     */
+    default void refreshAllResources() {
+    }
+
+    /**
+     * Sets the amount of top level resources, that are fetched at once from the resource provider. When set to a
+     * positive number, the client initially only fetches the first page of resources and fetches the next one, when
+     * the resource area is scrolled near its end. The page size should therefore exceed the amount of visible rows,
+     * e.g. by factor two, to have a buffer when scrolling. Views without a resource area (e.g. resource time grid
+     * views) show the resources fetched so far and do not fetch further pages.
+     * <br><br>
+     * While paging is active, only the entries of the resources fetched so far are fetched from the entry provider
+     * (see {@link ResourceEntryQuery}). Entries of further pages are sent with the respective page.
+     * <br><br>
+     * Has only an effect, when a resource provider is set. 0 disables paging (default).
+     * <br><br>
+     * The default implementation does not support resource providers and throws an exception.
+     *
+     * @param resourcePageSize page size or 0
+     * @throws IllegalArgumentException when a negative number is passed
+     * @throws UnsupportedOperationException when the implementation does not support resource providers
+     */
+    default void setResourcePageSize(int resourcePageSize) {
+        throw new UnsupportedOperationException("Resource providers are not supported by " + getClass().getName());
+    }
+
+    /**
+     * Returns the amount of top level resources, that are fetched at once. 0 means, that all resources
+     * are fetched at once. The default implementation returns 0.
+     *
+     * @return page size
+     */
+    default int getResourcePageSize() {
+        return 0;
+    }
+
     /**
      * The given string will be interpreted as JS function on the client side
      * and attached to the calendar as callback. It must be a valid JavaScript function.
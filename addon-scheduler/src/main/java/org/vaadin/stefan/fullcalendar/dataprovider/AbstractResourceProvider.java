@@ -0,0 +1,30 @@
+package org.vaadin.stefan.fullcalendar.dataprovider;
+
+import com.vaadin.flow.shared.Registration;
+import lombok.NonNull;
+
+import java.io.Serializable;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Base implementation of a resource provider, that takes care of the listener handling.
+ */
+public abstract class AbstractResourceProvider implements ResourceProvider, Serializable {
+
+    // concurrent collection, since events might be fired by background threads
+    private final List<ResourcesChangeEvent.ResourcesChangeListener> listeners = new CopyOnWriteArrayList<>();
+
+    @Override
+    public void refreshAll() {
+        ResourcesChangeEvent event = new ResourcesChangeEvent(this);
+        for (ResourcesChangeEvent.ResourcesChangeListener listener : listeners) {
+            listener.onResourcesChange(event);
+        }
+    }
+
+    @Override
+    public Registration addResourcesChangeListener(@NonNull ResourcesChangeEvent.ResourcesChangeListener listener) {
+        return Registration.addAndRemove(listeners, listener);
+    }
+}
@@ -0,0 +1,45 @@
+package org.vaadin.stefan.fullcalendar.dataprovider;
+
+import com.vaadin.flow.function.SerializableFunction;
+import com.vaadin.flow.function.SerializablePredicate;
+import lombok.NonNull;
+import org.vaadin.stefan.fullcalendar.NotNull;
+import org.vaadin.stefan.fullcalendar.Resource;
+
+import java.util.Objects;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+/**
+ * A resource provider, that fetches its resources from the given callbacks, for instance a backend service.
+ */
+public class CallbackResourceProvider extends AbstractResourceProvider {
+    private final SerializableFunction<ResourceQuery, Stream<Resource>> fetchItems;
+    private final SerializableFunction<String, Resource> fetchSingleItem;
+    private final SerializablePredicate<Resource> hasChildren;
+
+    public CallbackResourceProvider(@NotNull SerializableFunction<ResourceQuery, Stream<Resource>> fetchItems, @NotNull SerializableFunction<String, Resource> fetchSingleItem) {
+        this(fetchItems, fetchSingleItem, resource -> !resource.getChildren().isEmpty());
+    }
+
+    public CallbackResourceProvider(@NotNull SerializableFunction<ResourceQuery, Stream<Resource>> fetchItems, @NotNull SerializableFunction<String, Resource> fetchSingleItem, @NotNull SerializablePredicate<Resource> hasChildren) {
+        this.fetchItems = Objects.requireNonNull(fetchItems);
+        this.fetchSingleItem = Objects.requireNonNull(fetchSingleItem);
+        this.hasChildren = Objects.requireNonNull(hasChildren);
+    }
+
+    @Override
+    public Stream<Resource> fetch(@NonNull ResourceQuery query) {
+        return fetchItems.apply(query);
+    }
+
+    @Override
+    public Optional<Resource> fetchById(@NonNull String id) {
+        return Optional.ofNullable(fetchSingleItem.apply(id));
+    }
+
+    @Override
+    public boolean hasChildren(@NonNull Resource resource) {
+        return hasChildren.test(resource);
+    }
+}
@@ -0,0 +1,179 @@
+package org.vaadin.stefan.fullcalendar.dataprovider;
+
+import lombok.NonNull;
+import org.vaadin.stefan.fullcalendar.NotNull;
+import org.vaadin.stefan.fullcalendar.Resource;
+
+import java.util.*;
+import java.util.stream.Stream;
+
+/**
+ * Basic implementation of an in memory resource provider. Added resources are registered together with
+ * all their children, so that they can be fetched level by level.
+ * <p></p>
+ * Changes to this provider are not sent to the client automatically. Call {@link #refreshAll()} afterwards.
+ * <p></p>
+ * A text filter matches a resource, when the resource's title or the title of any of its descendants
+ * contains the filter text (ignoring the case).
+ */
+public class InMemoryResourceProvider extends AbstractResourceProvider {
+
+    private final Map<String, Resource> resources = new LinkedHashMap<>();
+
+    public InMemoryResourceProvider() {
+    }
+
+    public InMemoryResourceProvider(@NotNull Iterable<Resource> resources) {
+        addResources(resources);
+    }
+
+    /**
+     * Creates a new instance. The given resources (including their children) are used as initial items.
+     *
+     * @param resources initial resources
+     * @return in memory provider
+     */
+    public static InMemoryResourceProvider from(@NotNull Resource... resources) {
+        return new InMemoryResourceProvider(Arrays.asList(resources));
+    }
+
+    /**
+     * Creates a new instance. The given resources (including their children) are used as initial items, but
+     * the given iterable is not used as the backing collection or similar.
+     *
+     * @param resources initial resources
+     * @return in memory provider
+     */
+    public static InMemoryResourceProvider from(@NotNull Iterable<Resource> resources) {
+        return new InMemoryResourceProvider(resources);
+    }
+
+    @Override
+    public Stream<Resource> fetch(@NonNull ResourceQuery query) {
+        Stream<Resource> stream;
+        if (query.isTopLevel()) {
+            stream = resources.values().stream().filter(this::isTopLevel);
+        } else {
+            Resource parent = resources.get(query.getParentId());
+            stream = parent != null ? parent.getChildren().stream().filter(child -> resources.containsKey(child.getId())) : Stream.empty();
+        }
+
+        if (query.hasFilter()) {
+            String filter = query.getFilter().toLowerCase();
+            stream = stream.filter(resource -> matches(resource, filter));
+        }
+
+        if (query.getOffset() > 0) {
+            stream = stream.skip(query.getOffset());
+        }
+
+        if (query.getLimit() != null) {
+            stream = stream.limit(query.getLimit());
+        }
+
+        return stream;
+    }
+
+    @Override
+    public Optional<Resource> fetchById(@NonNull String id) {
+        return getResourceById(id);
+    }
+
+    /**
+     * Adds the given resources and all their children. Already registered resources are ignored.
+     *
+     * @param resources resources to add
+     * @throws NullPointerException when null is passed
+     */
+    public void addResources(@NotNull Iterable<Resource> resources) {
+        Objects.requireNonNull(resources);
+        resources.forEach(this::register);
+    }
+
+    /**
+     * Adds the given resources and all their children. Already registered resources are ignored.
+     *
+     * @param resources resources to add
+     * @throws NullPointerException when null is passed
+     */
+    public void addResources(@NotNull Resource... resources) {
+        addResources(Arrays.asList(resources));
+    }
+
+    /**
+     * Removes the given resources and all their children.
+     *
+     * @param resources resources to remove
+     * @throws NullPointerException when null is passed
+     */
+    public void removeResources(@NotNull Iterable<Resource> resources) {
+        Objects.requireNonNull(resources);
+        resources.forEach(this::unregister);
+    }
+
+    /**
+     * Removes the given resources and all their children.
+     *
+     * @param resources resources to remove
+     * @throws NullPointerException when null is passed
+     */
+    public void removeResources(@NotNull Resource... resources) {
+        removeResources(Arrays.asList(resources));
+    }
+
+    /**
+     * Removes all resources.
+     */
+    public void removeAllResources() {
+        resources.clear();
+    }
+
+    /**
+     * Returns the resource with the given id or an empty optional.
+     *
+     * @param id id
+     * @return optional resource or empty
+     */
+    public Optional<Resource> getResourceById(@NotNull String id) {
+        Objects.requireNonNull(id);
+        return Optional.ofNullable(resources.get(id));
+    }
+
+    /**
+     * Returns all registered resources including children. The returned set is a copy.
+     *
+     * @return resources
+     */
+    public Set<Resource> getResources() {
+        return new LinkedHashSet<>(resources.values());
+    }
+
+    private void register(Resource resource) {
+        resources.putIfAbsent(resource.getId(), resource);
+        resource.getChildren().forEach(this::register);
+    }
+
+    private void unregister(Resource resource) {
+        resources.remove(resource.getId());
+        resource.getChildren().forEach(this::unregister);
+    }
+
+    private boolean isTopLevel(Resource resource) {
+        return resource.getParent().map(parent -> !resources.containsKey(parent.getId())).orElse(true);
+    }
+
+    private static boolean matches(Resource resource, String lowerCaseFilter) {
+        String title = resource.getTitle();
+        if (title != null && title.toLowerCase().contains(lowerCaseFilter)) {
+            return true;
+        }
+
+        for (Resource child : resource.getChildren()) {
+            if (matches(child, lowerCaseFilter)) {
+                return true;
+            }
+        }
+
+        return false;
+    }
+}
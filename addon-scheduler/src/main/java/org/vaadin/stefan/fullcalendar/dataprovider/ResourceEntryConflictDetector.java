@@ -0,0 +1,103 @@
+package org.vaadin.stefan.fullcalendar.dataprovider;
+
+import org.vaadin.stefan.fullcalendar.NotNull;
+import org.vaadin.stefan.fullcalendar.Resource;
+import org.vaadin.stefan.fullcalendar.ResourceEntry;
+
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * A conflict detector for resource entries. Two entries are only conflicting, when they share at least one
+ * resource, so that for instance a room cannot be booked twice at the same time, while different rooms can.
+ * Entries without resources do not conflict with any entry.
+ * <p></p>
+ * Candidates are fetched with a {@link ResourceEntryQuery} restricted to the resources of the checked entry,
+ * so that entry providers fetching from a backend can narrow their query. Conflicts can also be listed for
+ * a single resource by {@link #getConflicts(Resource, LocalDateTime, LocalDateTime)}.
+ *
+ * @param <T> entry type
+ */
+public class ResourceEntryConflictDetector<T extends ResourceEntry> extends EntryConflictDetector<T> {
+
+    /**
+     * Creates a new instance, that checks against the entries of the given provider. Recurring times are
+     * interpreted as UTC.
+     *
+     * @param entryProvider entry provider
+     * @throws NullPointerException when null is passed
+     */
+    public ResourceEntryConflictDetector(@NotNull EntryProvider<T> entryProvider) {
+        super(entryProvider);
+    }
+
+    /**
+     * Creates a new instance, that checks against the entries of the given provider and uses the given
+     * expander for recurring entries. The expander should use the same timezone as the calendar.
+     *
+     * @param entryProvider      entry provider
+     * @param recurrenceExpander recurrence expander
+     * @throws NullPointerException when null is passed
+     */
+    public ResourceEntryConflictDetector(@NotNull EntryProvider<T> entryProvider, @NotNull RecurrenceExpander<T> recurrenceExpander) {
+        super(entryProvider, recurrenceExpander);
+    }
+
+    /**
+     * Checks, if any two entries of the given resource overlap inside the given timespan (both borders exclusive).
+     *
+     * @param resource    resource
+     * @param filterStart start
+     * @param filterEnd   end
+     * @return there are conflicts
+     * @throws NullPointerException when null is passed
+     */
+    public boolean hasConflicts(@NotNull Resource resource, @NotNull LocalDateTime filterStart, @NotNull LocalDateTime filterEnd) {
+        return !findConflicts(fetchCandidates(resource, filterStart, filterEnd), filterStart, filterEnd, true).isEmpty();
+    }
+
+    /**
+     * Returns all conflicts between the entries of the given resource inside the given timespan (both borders
+     * exclusive). See {@link #getConflicts(LocalDateTime, LocalDateTime)}.
+     *
+     * @param resource    resource
+     * @param filterStart start
+     * @param filterEnd   end
+     * @return conflicts
+     * @throws NullPointerException when null is passed
+     */
+    public List<Conflict<T>> getConflicts(@NotNull Resource resource, @NotNull LocalDateTime filterStart, @NotNull LocalDateTime filterEnd) {
+        return findConflicts(fetchCandidates(resource, filterStart, filterEnd), filterStart, filterEnd, false);
+    }
+
+    @Override
+    protected boolean isConflicting(T first, T second) {
+        Set<Resource> resources = second.getResourcesOrEmpty();
+        for (Resource resource : first.getResourcesOrEmpty()) {
+            if (resources.contains(resource)) {
+                return true;
+            }
+        }
+
+        return false;
+    }
+
+    @Override
+    protected Stream<? extends T> fetchCandidates(T entry, LocalDateTime start, LocalDateTime end) {
+        Set<String> resourceIds = entry.getResourcesOrEmpty().stream().map(Resource::getId).collect(Collectors.toSet());
+        if (resourceIds.isEmpty()) {
+            return Stream.empty();
+        }
+
+        return getEntryProvider().fetch(new ResourceEntryQuery(start, end, EntryQuery.AllDay.BOTH, resourceIds));
+    }
+
+    private Stream<? extends T> fetchCandidates(Resource resource, LocalDateTime start, LocalDateTime end) {
+        Objects.requireNonNull(resource);
+        Objects.requireNonNull(start);
+        Objects.requireNonNull(end);
+        return getEntryProvider().fetch(new ResourceEntryQuery(start, end, EntryQuery.AllDay.BOTH, Collections.singleton(resource.getId())));
+    }
+}
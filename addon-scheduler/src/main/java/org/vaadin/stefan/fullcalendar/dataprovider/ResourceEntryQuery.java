@@ -0,0 +1,63 @@
+package org.vaadin.stefan.fullcalendar.dataprovider;
+
+import lombok.Getter;
+import org.vaadin.stefan.fullcalendar.Entry;
+import org.vaadin.stefan.fullcalendar.NotNull;
+import org.vaadin.stefan.fullcalendar.Resource;
+import org.vaadin.stefan.fullcalendar.ResourceEntry;
+
+import java.time.LocalDateTime;
+import java.util.Collections;
+import java.util.Objects;
+import java.util.Set;
+import java.util.stream.Stream;
+
+/**
+ * An entry query, that is additionally restricted to entries assigned to any of the given resource ids. The
+ * scheduler uses this query, when only a part of its resources is known to the client (see
+ * {@link org.vaadin.stefan.fullcalendar.Scheduler#setResourcePageSize(int)}). Entry providers, that fetch from a
+ * backend, should check for this type to narrow their backend query.
+ * <p></p>
+ * Entries, that are not {@link ResourceEntry} instances or have no resources assigned, do not match.
+ */
+@Getter
+public class ResourceEntryQuery extends EntryQuery {
+
+    /**
+     * The ids of the resources, which entries shall be fetched. Unmodifiable.
+     */
+    private final Set<String> resourceIds;
+
+    /**
+     * Creates a new instance.
+     *
+     * @param start       start (might be null)
+     * @param end         end (might be null)
+     * @param allDay      all day filter
+     * @param resourceIds resource ids
+     * @throws NullPointerException when null is passed for the all day filter or resource ids
+     */
+    public ResourceEntryQuery(LocalDateTime start, LocalDateTime end, @NotNull AllDay allDay, @NotNull Set<String> resourceIds) {
+        super(start, end, allDay);
+        this.resourceIds = Collections.unmodifiableSet(Objects.requireNonNull(resourceIds));
+    }
+
+    @Override
+    public <T extends Entry> Stream<T> applyNonTemporalFilter(Stream<T> stream) {
+        return super.applyNonTemporalFilter(stream).filter(this::matchesResources);
+    }
+
+    private boolean matchesResources(Entry entry) {
+        if (!(entry instanceof ResourceEntry)) {
+            return false;
+        }
+
+        for (Resource resource : ((ResourceEntry) entry).getResourcesOrEmpty()) {
+            if (resourceIds.contains(resource.getId())) {
+                return true;
+            }
+        }
+
+        return false;
+    }
+}
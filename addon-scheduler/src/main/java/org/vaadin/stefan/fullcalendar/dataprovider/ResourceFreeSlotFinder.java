@@ -0,0 +1,122 @@
+package org.vaadin.stefan.fullcalendar.dataprovider;
+
+import org.vaadin.stefan.fullcalendar.BusinessHours;
+import org.vaadin.stefan.fullcalendar.NotNull;
+import org.vaadin.stefan.fullcalendar.Resource;
+import org.vaadin.stefan.fullcalendar.ResourceEntry;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * A free slot finder for resources. Searching for multiple resources at once returns only the time, where all of
+ * them are free, e.g. when a room and a person have to be booked together. The business hours of the resources are
+ * intersected, where resources without own business hours use the ones of this instance. The entries of all
+ * resources are treated as occupying.
+ * <p></p>
+ * Occupying entries are fetched with a {@link ResourceEntryQuery} restricted to the searched resources, so that
+ * entry providers fetching from a backend can narrow their query.
+ *
+ * @param <T> entry type
+ */
+public class ResourceFreeSlotFinder<T extends ResourceEntry> extends FreeSlotFinder<T> {
+
+    /**
+     * Creates a new instance. The given business hours are used for resources without own business hours.
+     * Passing no business hours means, that the whole day is available for these resources. Business hours
+     * are interpreted as UTC.
+     *
+     * @param entryProvider entry provider
+     * @param businessHours default business hours
+     * @throws NullPointerException when null is passed for the entry provider
+     */
+    public ResourceFreeSlotFinder(@NotNull EntryProvider<T> entryProvider, BusinessHours... businessHours) {
+        super(entryProvider, businessHours);
+    }
+
+    /**
+     * Creates a new instance. The given business hours are used for resources without own business hours.
+     * Passing no business hours means, that the whole day is available for these resources. Business hours
+     * are interpreted in the timezone of the given expander, which is also used to expand recurring entries.
+     *
+     * @param entryProvider      entry provider
+     * @param recurrenceExpander recurrence expander
+     * @param businessHours      default business hours
+     * @throws NullPointerException when null is passed for the entry provider or expander
+     */
+    public ResourceFreeSlotFinder(@NotNull EntryProvider<T> entryProvider, @NotNull RecurrenceExpander<T> recurrenceExpander, BusinessHours... businessHours) {
+        super(entryProvider, recurrenceExpander, businessHours);
+    }
+
+    /**
+     * Returns a lazy stream of all windows between the given start and end, where all of the given resources
+     * are free and which are at least as long as the given duration.
+     * See {@link #streamFreeWindows(LocalDateTime, LocalDateTime, Duration)}.
+     *
+     * @param resources   resources, that all have to be free
+     * @param from        start of the search
+     * @param until       end of the search
+     * @param minDuration minimal duration of a window
+     * @return free windows
+     * @throws NullPointerException     when null is passed
+     * @throws IllegalArgumentException when the duration is zero or negative or no resources are passed
+     */
+    public Stream<TimeSlot> streamFreeWindows(@NotNull Collection<Resource> resources, @NotNull LocalDateTime from, @NotNull LocalDateTime until, @NotNull Duration minDuration) {
+        if (resources.isEmpty()) {
+            throw new IllegalArgumentException("At least one resource is needed");
+        }
+
+        BusinessHours[] defaultBusinessHours = getBusinessHours().isEmpty() ? null : getBusinessHours().toArray(new BusinessHours[0]);
+        // resources with the same business hours need to be intersected only once (arrays do not implement equals)
+        List<BusinessHours[]> businessHours = resources.stream()
+                .map(Resource::getBusinessHoursArray)
+                .map(hours -> hours != null && hours.length > 0 ? hours : defaultBusinessHours)
+                .map(hours -> hours != null ? Arrays.asList(hours) : null)
+                .distinct()
+                .map(hours -> hours != null ? hours.toArray(new BusinessHours[0]) : null)
+                .collect(Collectors.toList());
+
+        Set<String> resourceIds = resources.stream().map(Resource::getId).collect(Collectors.toSet());
+
+        return streamFreeWindows(businessHours,
+                (start, end) -> getEntryProvider().fetch(new ResourceEntryQuery(start, end, EntryQuery.AllDay.BOTH, resourceIds)),
+                from, until, minDuration);
+    }
+
+    /**
+     * Returns a lazy stream of consecutive slots with the given duration between the given start and end, where
+     * all of the given resources are free. See {@link #streamFreeSlots(LocalDateTime, LocalDateTime, Duration)}.
+     *
+     * @param resources resources, that all have to be free
+     * @param from      start of the search
+     * @param until     end of the search
+     * @param duration  duration of a slot
+     * @return free slots
+     * @throws NullPointerException     when null is passed
+     * @throws IllegalArgumentException when the duration is zero or negative or no resources are passed
+     */
+    public Stream<TimeSlot> streamFreeSlots(@NotNull Collection<Resource> resources, @NotNull LocalDateTime from, @NotNull LocalDateTime until, @NotNull Duration duration) {
+        return toSlots(streamFreeWindows(resources, from, until, duration), duration);
+    }
+
+    /**
+     * Returns the first slots with the given duration between the given start and end, where all of the given
+     * resources are free. See {@link #streamFreeSlots(Collection, LocalDateTime, LocalDateTime, Duration)}.
+     *
+     * @param resources resources, that all have to be free
+     * @param from      start of the search
+     * @param until     end of the search
+     * @param duration  duration of a slot
+     * @param maxSlots  maximal amount of slots to return
+     * @return free slots
+     * @throws NullPointerException     when null is passed
+     * @throws IllegalArgumentException when the duration is zero or negative, the amount is negative or no
+     *                                  resources are passed
+     */
+    public List<TimeSlot> findFreeSlots(@NotNull Collection<Resource> resources, @NotNull LocalDateTime from, @NotNull LocalDateTime until, @NotNull Duration duration, int maxSlots) {
+        return streamFreeSlots(resources, from, until, duration).limit(maxSlots).collect(Collectors.toList());
+    }
+}
@@ -0,0 +1,139 @@
+package org.vaadin.stefan.fullcalendar.dataprovider;
+
+import com.vaadin.flow.function.SerializableFunction;
+import com.vaadin.flow.function.SerializablePredicate;
+import com.vaadin.flow.shared.Registration;
+import lombok.NonNull;
+import org.vaadin.stefan.fullcalendar.Resource;
+
+import java.util.Optional;
+import java.util.stream.Stream;
+
+/**
+ * Provides the resources of a scheduler. Other than resources added directly to the scheduler, resources of a
+ * provider are fetched lazily: the scheduler only requests the top level resources initially and the children
+ * of a resource, when the resource is expanded on the client side. Resources can also be narrowed by a text filter
+ * (see {@link ResourceQuery}).
+ * <p></p>
+ * Resources returned by a provider are sent to the client without their children. Instead the provider is
+ * asked via {@link #hasChildren(Resource)}, if the resource has children to fetch lazily.
+ */
+public interface ResourceProvider {
+
+    /**
+     * Creates a new instance that will fetch its content from the given callbacks. Passing null will lead to an exception.
+     * Resources are considered to have children, when their children set is not empty.
+     *
+     * @param fetchItems      callback to fetch items based on the given query
+     * @param fetchSingleItem callback to fetch a single item based on the given id
+     * @return callback resource provider
+     */
+    static CallbackResourceProvider fromCallbacks(SerializableFunction<ResourceQuery, Stream<Resource>> fetchItems, SerializableFunction<String, Resource> fetchSingleItem) {
+        return new CallbackResourceProvider(fetchItems, fetchSingleItem);
+    }
+
+    /**
+     * Creates a new instance that will fetch its content from the given callbacks. Passing null will lead to an exception.
+     * The third callback is used to determine, if a resource has children, which allows fetching resources without
+     * their children.
+     *
+     * @param fetchItems      callback to fetch items based on the given query
+     * @param fetchSingleItem callback to fetch a single item based on the given id
+     * @param hasChildren     callback to check, if a resource has children
+     * @return callback resource provider
+     */
+    static CallbackResourceProvider fromCallbacks(SerializableFunction<ResourceQuery, Stream<Resource>> fetchItems, SerializableFunction<String, Resource> fetchSingleItem, SerializablePredicate<Resource> hasChildren) {
+        return new CallbackResourceProvider(fetchItems, fetchSingleItem, hasChildren);
+    }
+
+    /**
+     * Creates an in memory instance with no initial resources.
+     *
+     * @return in memory provider
+     */
+    static InMemoryResourceProvider emptyInMemory() {
+        return new InMemoryResourceProvider();
+    }
+
+    /**
+     * Creates an in memory instance. The given resources (including their children) are used as initial items.
+     *
+     * @param resources initial resources
+     * @return in memory provider
+     */
+    static InMemoryResourceProvider inMemoryFrom(Resource... resources) {
+        return InMemoryResourceProvider.from(resources);
+    }
+
+    /**
+     * Creates an in memory instance. The given resources (including their children) are used as initial items, but
+     * the given iterable is not used as the backing collection or similar.
+     *
+     * @param resources initial resources
+     * @return in memory provider
+     */
+    static InMemoryResourceProvider inMemoryFrom(Iterable<Resource> resources) {
+        return InMemoryResourceProvider.from(resources);
+    }
+
+    /**
+     * Streams the resources of one level of the resource tree based on the given query.
+     *
+     * @param query query
+     * @return stream containing the resources matching the query
+     */
+    Stream<Resource> fetch(@NonNull ResourceQuery query);
+
+    /**
+     * Returns a single resource represented by the given id or an empty optional, if there is no resource
+     * with this id.
+     *
+     * @param id id
+     * @return optional resource or empty
+     */
+    Optional<Resource> fetchById(@NonNull String id);
+
+    /**
+     * Indicates, if the given resource has children, that can be fetched with a query for its id. By
+     * default checks, if the resource's children set is not empty.
+     *
+     * @param resource resource
+     * @return has children
+     */
+    default boolean hasChildren(@NonNull Resource resource) {
+        return !resource.getChildren().isEmpty();
+    }
+
+    /**
+     * Informs the calendar, that all resources have changed and need to be fetched again.
+     */
+    void refreshAll();
+
+    /**
+     * Indicates, if this instance is an in memory instance or not. By default checks, if this instance
+     * implements {@link InMemoryResourceProvider}.
+     *
+     * @return is in memory
+     */
+    default boolean isInMemory() {
+        return this instanceof InMemoryResourceProvider;
+    }
+
+    /**
+     * Returns this instance as an in memory resource provider. Check {@link #isInMemory()} before.
+     *
+     * @return in memory provider
+     * @throws ClassCastException if this instance is not in memory
+     */
+    default InMemoryResourceProvider asInMemory() {
+        return (InMemoryResourceProvider) this;
+    }
+
+    /**
+     * Adds a listener, that will be notified, when the resources have changed.
+     *
+     * @param listener listener
+     * @return registration to remove the listener
+     */
+    Registration addResourcesChangeListener(@NonNull ResourcesChangeEvent.ResourcesChangeListener listener);
+}
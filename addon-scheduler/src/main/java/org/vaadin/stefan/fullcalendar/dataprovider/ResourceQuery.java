@@ -0,0 +1,68 @@
+package org.vaadin.stefan.fullcalendar.dataprovider;
+
+import lombok.*;
+
+import java.io.Serializable;
+
+/**
+ * A query to fetch resources from a {@link ResourceProvider}. A query always addresses one level of the resource
+ * tree: either the top level resources (no parent id) or the direct children of the resource with the given parent id.
+ * <p></p>
+ * The query can be narrowed by a text filter and a row range (offset and limit). How the filter is interpreted
+ * is up to the provider.
+ */
+@Getter
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+@EqualsAndHashCode
+@ToString
+public class ResourceQuery implements Serializable {
+
+    /**
+     * The id of the parent resource, which children shall be fetched. Null to fetch the top level resources.
+     */
+    private String parentId;
+
+    /**
+     * An optional text filter. Null or empty, when resources shall not be filtered.
+     */
+    private String filter;
+
+    /**
+     * Index of the first resource to fetch.
+     */
+    private int offset;
+
+    /**
+     * Maximum amount of resources to fetch. Null for no limit.
+     */
+    private Integer limit;
+
+    /**
+     * Creates a query for the children of the given parent id (or top level resources, if null is passed).
+     *
+     * @param parentId parent id
+     */
+    public ResourceQuery(String parentId) {
+        this.parentId = parentId;
+    }
+
+    /**
+     * Indicates, if this query addresses the top level resources.
+     *
+     * @return is top level query
+     */
+    public boolean isTopLevel() {
+        return parentId == null;
+    }
+
+    /**
+     * Indicates, if this query contains a non empty text filter.
+     *
+     * @return has filter
+     */
+    public boolean hasFilter() {
+        return filter != null && !filter.isEmpty();
+    }
+}
@@ -0,0 +1,40 @@
+package org.vaadin.stefan.fullcalendar.dataprovider;
+
+import java.io.Serializable;
+import java.util.EventObject;
+
+/**
+ * This event is fired, when the resources represented by a {@link ResourceProvider} have changed and
+ * the calendar needs to fetch them again.
+ */
+public class ResourcesChangeEvent extends EventObject {
+
+    /**
+     * Constructs a prototypical Event.
+     *
+     * @param source The object on which the Event initially occurred.
+     * @throws IllegalArgumentException if source is null.
+     */
+    public ResourcesChangeEvent(ResourceProvider source) {
+        super(source);
+    }
+
+    @Override
+    public ResourceProvider getSource() {
+        return (ResourceProvider) super.getSource();
+    }
+
+    /**
+     * Listener for resource change events.
+     */
+    @FunctionalInterface
+    public interface ResourcesChangeListener extends Serializable {
+
+        /**
+         * Invoked when the resources of the provider have changed.
+         *
+         * @param event event
+         */
+        void onResourcesChange(ResourcesChangeEvent event);
+    }
+}
@@ -22,8 +22,23 @@ import resourceTimeGridPlugin from '@fullcalendar/resource-timegrid';
 import resourceDayGridPlugin from '@fullcalendar/resource-daygrid';
 import scrollgridPlugin from '@fullcalendar/scrollgrid';
 
+// suffix of the placeholder child, that is added to resources with lazy loaded children
+const LAZY_PLACEHOLDER_SUFFIX = "$$lazy-placeholder";
+
 export class FullCalendarScheduler extends FullCalendar {
 
+    // resources are fetched from the server side resource provider
+    private lazyResources = false;
+    private pendingResourcesCallback: any;
+    private requestedResourceParents = new Set<string>();
+    private customResourceLabelDidMount: any;
+
+    // paging of top level resources, the next page is requested when the resource area is scrolled near its end
+    private topLevelResourceCount = 0;
+    private hasMoreResources = false;
+    private loadingMoreResources = false;
+    private moreResourcesCheckScheduled = false;
+
     // stores any options, that are set before the calendar is attached using "setOption"
 
     protected createInitOptions(initialOptions: any) {
@@ -31,8 +46,21 @@ export class FullCalendarScheduler extends FullCalendar {
 
         options.resources = options.resources ?? [];
 
+        // the placeholder of lazy children is only rendered, when its parent is expanded
+        options.resourceLabelDidMount = (info: any) => {
+            this.onLazyPlaceholderMounted(info.resource);
+            // a resource area might have been rendered, e.g. after switching to a timeline view
+            this.scheduleMoreResourcesCheck();
+            if (this.customResourceLabelDidMount) {
+                this.customResourceLabelDidMount.call(this.calendar, info);
+            }
+        };
+
         options.plugins.push(scrollgridPlugin, resourceTimeGridPlugin, resourceDayGridPlugin, resourceTimelinePlugin);
 
+        // scroll events do not bubble, therefore the listener is registered for the capturing phase
+        this.addEventListener('scroll', () => this.requestMoreResourcesIfNeeded(), true);
+
         return options;
     }
 
@@ -64,6 +92,142 @@ export class FullCalendarScheduler extends FullCalendar {
         });
     }
 
+    /**
+     * Switches between resources added by the server and resources fetched lazily from the server side
+     * resource provider. Both cases replace all current resources.
+     * @param lazy fetch resources lazily
+     */
+    setLazyResources(lazy: boolean) {
+        if (this.lazyResources === lazy) {
+            return;
+        }
+
+        this.lazyResources = lazy;
+        this.requestedResourceParents.clear();
+        this.calendar.setOption('resources', lazy ? this.createLazyResourcesCallback() : []);
+    }
+
+    refreshLazyResources() {
+        if (this.lazyResources) {
+            this.calendar.refetchResources();
+        }
+    }
+
+    /**
+     * Receives one level of lazily fetched resources.
+     * @param parentId id of the parent resource or null for the top level resources
+     * @param array resources
+     * @param offset index of the first received top level resource
+     * @param hasMore there might be further top level resources to fetch
+     */
+    receiveResources(parentId: string | null, array: any[], offset = 0, hasMore = false) {
+        const data = array.map(resource => this.toLazyResourceData(resource));
+
+        if (parentId == null) {
+            if (offset !== 0 && offset !== this.topLevelResourceCount) {
+                // a page, that has been requested before a refetch of all resources
+                return;
+            }
+
+            this.hasMoreResources = hasMore;
+            this.loadingMoreResources = false;
+
+            if (offset === 0) {
+                const callback = this.pendingResourcesCallback;
+                this.pendingResourcesCallback = undefined;
+                this.requestedResourceParents.clear();
+                this.topLevelResourceCount = data.length;
+                if (callback) {
+                    callback(data);
+                }
+            } else {
+                this.topLevelResourceCount += data.length;
+                let calendar = this.calendar;
+                calendar.batchRendering(function () {
+                    for (let i = 0; i < data.length; i++) {
+                        calendar.addResource(data[i], false);
+                    }
+                });
+            }
+
+            // the received page might not fill the resource area
+            this.scheduleMoreResourcesCheck();
+        } else {
+            let calendar = this.calendar;
+            calendar.batchRendering(function () {
+                calendar.getResourceById(parentId + LAZY_PLACEHOLDER_SUFFIX)?.remove();
+                for (let i = 0; i < data.length; i++) {
+                    calendar.addResource(data[i], false);
+                }
+            });
+        }
+    }
+
+    /**
+     * Checks once per animation frame, if the next page of top level resources is needed.
+     */
+    private scheduleMoreResourcesCheck() {
+        if (!this.lazyResources || !this.hasMoreResources || this.moreResourcesCheckScheduled) {
+            return;
+        }
+
+        this.moreResourcesCheckScheduled = true;
+        requestAnimationFrame(() => {
+            this.moreResourcesCheckScheduled = false;
+            this.requestMoreResourcesIfNeeded();
+        });
+    }
+
+    /**
+     * Requests the next page of top level resources, when the resource area is scrolled near its end (less than
+     * one visible height is left). Views without a resource area (e.g. resourceTimeGrid) do not page, they show the
+     * already fetched resources only. Paging continues, when a view with a resource area is shown.
+     */
+    private requestMoreResourcesIfNeeded() {
+        if (!this.lazyResources || !this.hasMoreResources || this.loadingMoreResources) {
+            return;
+        }
+
+        const scroller = this.querySelector('.fc-datagrid-body')?.closest('.fc-scroller') as HTMLElement | null;
+        if (!scroller || scroller.scrollHeight - scroller.scrollTop - scroller.clientHeight > scroller.clientHeight) {
+            return;
+        }
+
+        this.loadingMoreResources = true;
+        // @ts-ignore
+        this.$server.requestResources({offset: this.topLevelResourceCount});
+    }
+
+    private createLazyResourcesCallback() {
+        return (info: any, successCallback: any, failureCallback: any) => {
+            this.pendingResourcesCallback = successCallback;
+            this.topLevelResourceCount = 0;
+            // @ts-ignore
+            this.$server.requestResources({});
+        };
+    }
+
+    private toLazyResourceData(resource: any) {
+        if (resource.lazyChildren) {
+            delete resource.lazyChildren;
+            resource.children = [{
+                id: resource.id + LAZY_PLACEHOLDER_SUFFIX,
+                title: "\u2026",
+                lazyParentId: resource.id
+            }];
+        }
+        return resource;
+    }
+
+    private onLazyPlaceholderMounted(resource: any) {
+        const parentId = resource?.extendedProps?.lazyParentId;
+        if (parentId && !this.requestedResourceParents.has(parentId)) {
+            this.requestedResourceParents.add(parentId);
+            // @ts-ignore
+            this.$server.requestResources({parentId: parentId});
+        }
+    }
+
     setResourceLabelClassNamesCallback(s: string) {
         // @ts-ignore
         this.setOption('resourceLabelClassNames', new Function("return " + s)());
@@ -75,8 +239,8 @@ export class FullCalendarScheduler extends FullCalendar {
     }
 
     setResourceLabelDidMountCallback(s: string) {
-        // @ts-ignore
-        this.setOption('resourceLabelDidMount', new Function("return " + s)());
+        // called by the internal resourceLabelDidMount, which also handles lazy loaded resources
+        this.customResourceLabelDidMount = new Function("return " + s)();
     }
 
     setResourceLablelWillUnmountCallback(s: string) {
@@ -0,0 +1,44 @@
+package org.vaadin.stefan.fullcalendar;
+
+import org.junit.jupiter.api.Test;
+import org.vaadin.stefan.fullcalendar.dataprovider.Conflict;
+import org.vaadin.stefan.fullcalendar.dataprovider.IndexedInMemoryEntryProvider;
+import org.vaadin.stefan.fullcalendar.dataprovider.ResourceEntryConflictDetector;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.vaadin.stefan.fullcalendar.TestUtils.MONDAY;
+import static org.vaadin.stefan.fullcalendar.TestUtils.createEntry;
+
+public class ResourceEntryConflictDetectorTest {
+
+    @Test
+    void test_conflictsPerResource() {
+        Resource roomA = new Resource("a", "A", null);
+        Resource roomB = new Resource("b", "B", null);
+
+        IndexedInMemoryEntryProvider<ResourceEntry> provider = IndexedInMemoryEntryProvider.from(
+                createEntry("1", 8, 10, roomA),
+                createEntry("2", 9, 11, roomB),
+                createEntry("3", 9, 12, roomA, roomB),
+                createEntry("4", 8, 12)
+        );
+
+        ResourceEntryConflictDetector<ResourceEntry> detector = new ResourceEntryConflictDetector<>(provider);
+
+        // only entries sharing a resource conflict
+        assertTrue(detector.hasConflict(createEntry("new", 8, 9, roomA)));
+        assertFalse(detector.hasConflict(createEntry("new", 8, 9, roomB)));
+        assertFalse(detector.hasConflict(createEntry("new", 8, 9)));
+
+        List<Conflict<ResourceEntry>> conflictsOfA = detector.getConflicts(roomA, MONDAY, MONDAY.plusDays(1));
+        assertEquals(1, conflictsOfA.size());
+        assertEquals("1", conflictsOfA.get(0).getFirst().getEntry().getId());
+        assertEquals("3", conflictsOfA.get(0).getSecond().getEntry().getId());
+
+        assertEquals(1, detector.getConflicts(roomB, MONDAY, MONDAY.plusDays(1)).size());
+        assertEquals(2, detector.getConflicts(MONDAY, MONDAY.plusDays(1)).size());
+        assertFalse(detector.hasConflicts(roomA, MONDAY.plusHours(10), MONDAY.plusDays(1)));
+    }
+}
@@ -0,0 +1,136 @@
+package org.vaadin.stefan.fullcalendar;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.vaadin.stefan.fullcalendar.dataprovider.EntryProvider;
+import org.vaadin.stefan.fullcalendar.dataprovider.InMemoryEntryProvider;
+
+import java.util.*;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ResourceEntryIndexTest {
+
+    private FullCalendarScheduler calendar;
+    private InMemoryEntryProvider<ResourceEntry> provider;
+    private Resource resourceA;
+    private Resource resourceB;
+
+    @BeforeEach
+    void init() {
+        calendar = new FullCalendarScheduler();
+        provider = EntryProvider.emptyInMemory();
+        calendar.setEntryProvider(provider);
+
+        resourceA = new Resource("a", "A", null);
+        resourceB = new Resource("b", "B", null);
+        calendar.addResources(resourceA, resourceB);
+    }
+
+    @Test
+    void test_serialization() throws Exception {
+        // an empty scheduler
+        assertNotNull(TestUtils.serializeAndDeserialize(new FullCalendarScheduler()));
+
+        ResourceEntry entry = new ResourceEntry("1");
+        entry.addResources(resourceA);
+        provider.addEntry(entry);
+
+        FullCalendarScheduler deserialized = TestUtils.serializeAndDeserialize(calendar);
+        Resource deserializedA = deserialized.getResourceById("a").orElseThrow(AssertionError::new);
+        Resource deserializedB = deserialized.getResourceById("b").orElseThrow(AssertionError::new);
+        assertEquals(toIds(entry), toIds(deserialized.getResourceEntries(deserializedA)));
+
+        // the deserialized entry still informs the deserialized index about changes
+        InMemoryEntryProvider<ResourceEntry> deserializedProvider = deserialized.getEntryProvider();
+        ResourceEntry deserializedEntry = deserializedProvider.getEntryById("1").orElseThrow(AssertionError::new);
+        deserializedEntry.getOrCreateResources().add(deserializedB);
+        assertEquals(toIds(entry), toIds(deserialized.getResourceEntries(deserializedB)));
+        assertTrue(calendar.getResourceEntries(resourceB).isEmpty());
+    }
+
+    @Test
+    void test_indexFollowsProviderAndEntryChanges() {
+        ResourceEntry entry1 = new ResourceEntry("1");
+        entry1.addResources(resourceA);
+
+        // assigned before being added to the provider
+        provider.addEntry(entry1);
+        assertEquals(toIds(entry1), toIds(calendar.getResourceEntries(resourceA)));
+
+        ResourceEntry entry2 = new ResourceEntry("2");
+        provider.addEntry(entry2);
+        assertTrue(calendar.getResourceEntries(resourceB).isEmpty());
+
+        // assigned after being added, via the api and the set directly
+        entry2.addResources(resourceA);
+        entry2.getOrCreateResources().add(resourceB);
+        assertEquals(toIds(entry1, entry2), toIds(calendar.getResourceEntries(resourceA)));
+        assertEquals(toIds(entry2), toIds(calendar.getResourceEntries(resourceB)));
+
+        entry2.getOrCreateResources().removeIf(resource -> resource.equals(resourceA));
+        assertEquals(toIds(entry1), toIds(calendar.getResourceEntries(resourceA)));
+
+        entry1.setResources(new HashSet<>(Collections.singletonList(resourceB)));
+        assertTrue(calendar.getResourceEntries(resourceA).isEmpty());
+        assertEquals(toIds(entry1, entry2), toIds(calendar.getResourceEntries(resourceB)));
+
+        entry1.removeAllResources();
+        assertEquals(toIds(entry2), toIds(calendar.getResourceEntries(resourceB)));
+
+        // removed entries are not indexed anymore, also for later changes
+        provider.removeEntry(entry2);
+        assertTrue(calendar.getResourceEntries(resourceB).isEmpty());
+        entry2.addResources(resourceA);
+        assertTrue(calendar.getResourceEntries(resourceA).isEmpty());
+    }
+
+    @Test
+    void test_removeResourceOnlyTouchesAssignedEntries() {
+        List<ResourceEntry> entries = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            ResourceEntry entry = new ResourceEntry(String.valueOf(i));
+            entry.addResources(i % 10 == 0 ? resourceA : resourceB);
+            entries.add(entry);
+        }
+        provider.addEntries(entries);
+        assertEquals(10, calendar.getResourceEntries(resourceA).size());
+        assertEquals(90, calendar.getResourceEntries(resourceB).size());
+
+        calendar.removeResource(resourceA);
+        assertTrue(calendar.getResourceEntries(resourceA).isEmpty());
+        assertEquals(100, entries.stream().filter(e -> !e.getResourcesOrEmpty().contains(resourceA)).count());
+        assertEquals(90, calendar.getResourceEntries(resourceB).size());
+    }
+
+    @Test
+    void test_onlyInMemoryEntriesAreIndexed() {
+        ResourceEntry entry = new ResourceEntry("1");
+        entry.addResources(resourceA);
+        provider.addEntry(entry);
+
+        // switching the provider disconnects the entries
+        calendar.setEntryProvider(EntryProvider.fromCallbacks(query -> Stream.of(entry.copy()), id -> null));
+        assertTrue(calendar.getResourceEntries(resourceA).isEmpty());
+
+        ResourceEntry fetched = new ResourceEntry("2");
+        fetched.addResources(resourceA);
+        fetched.setCalendar(calendar);
+        assertTrue(calendar.getResourceEntries(resourceA).isEmpty());
+
+        // copies are not connected with the original's set
+        ResourceEntry copy = entry.copy();
+        copy.addResources(resourceB);
+        assertFalse(entry.getResourcesOrEmpty().contains(resourceB));
+    }
+
+    private static Set<String> toIds(Collection<ResourceEntry> entries) {
+        return entries.stream().map(Entry::getId).collect(Collectors.toSet());
+    }
+
+    private static Set<String> toIds(ResourceEntry... entries) {
+        return toIds(Arrays.asList(entries));
+    }
+}
@@ -0,0 +1,69 @@
+package org.vaadin.stefan.fullcalendar;
+
+import org.junit.jupiter.api.Test;
+import org.vaadin.stefan.fullcalendar.dataprovider.IndexedInMemoryEntryProvider;
+import org.vaadin.stefan.fullcalendar.dataprovider.ResourceFreeSlotFinder;
+import org.vaadin.stefan.fullcalendar.dataprovider.TimeSlot;
+
+import java.time.Duration;
+import java.time.LocalTime;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.vaadin.stefan.fullcalendar.TestUtils.MONDAY;
+import static org.vaadin.stefan.fullcalendar.TestUtils.createEntry;
+
+public class ResourceFreeSlotFinderTest {
+
+    @Test
+    void test_multipleResources() {
+        Resource room = new Resource("room", "Room", null, null, new BusinessHours(LocalTime.of(8, 0), LocalTime.of(18, 0), BusinessHours.ALL_DAYS));
+        Resource person = new Resource("person", "Person", null);
+        Resource other = new Resource("other", "Other", null);
+
+        IndexedInMemoryEntryProvider<ResourceEntry> provider = IndexedInMemoryEntryProvider.from(
+                createEntry("1", 9, 10, room),
+                createEntry("2", 11, 12, person),
+                createEntry("3", 13, 14, other)
+        );
+
+        ResourceFreeSlotFinder<ResourceEntry> finder = new ResourceFreeSlotFinder<>(provider, new BusinessHours(LocalTime.of(10, 0), LocalTime.of(16, 0), BusinessHours.ALL_DAYS));
+
+        List<TimeSlot> windows = finder.streamFreeWindows(Arrays.asList(room, person), MONDAY, MONDAY.plusDays(1), Duration.ofMinutes(30))
+                .collect(Collectors.toList());
+        assertEquals(Arrays.asList(
+                new TimeSlot(MONDAY.plusHours(10), MONDAY.plusHours(11)),
+                new TimeSlot(MONDAY.plusHours(12), MONDAY.plusHours(16))
+        ), windows);
+
+        // the room alone uses its own business hours
+        List<TimeSlot> slots = finder.findFreeSlots(Collections.singleton(room), MONDAY, MONDAY.plusDays(1), Duration.ofHours(1), 2);
+        assertEquals(Arrays.asList(
+                new TimeSlot(MONDAY.plusHours(8), MONDAY.plusHours(9)),
+                new TimeSlot(MONDAY.plusHours(10), MONDAY.plusHours(11))
+        ), slots);
+
+        assertThrows(IllegalArgumentException.class, () -> finder.streamFreeWindows(Collections.emptyList(), MONDAY, MONDAY.plusDays(1), Duration.ofHours(1)));
+    }
+
+    @Test
+    void test_emptyBusinessHoursUseDefault() {
+        Resource resource = new Resource("empty", "Empty", null) {
+            @Override
+            public BusinessHours[] getBusinessHoursArray() {
+                return new BusinessHours[0];
+            }
+        };
+
+        IndexedInMemoryEntryProvider<ResourceEntry> provider = IndexedInMemoryEntryProvider.from(createEntry("1", 10, 11, resource));
+        ResourceFreeSlotFinder<ResourceEntry> finder = new ResourceFreeSlotFinder<>(provider, new BusinessHours(LocalTime.of(9, 0), LocalTime.of(12, 0), BusinessHours.ALL_DAYS));
+
+        assertEquals(Arrays.asList(
+                new TimeSlot(MONDAY.plusHours(9), MONDAY.plusHours(10)),
+                new TimeSlot(MONDAY.plusHours(11), MONDAY.plusHours(12))
+        ), finder.streamFreeWindows(Collections.singleton(resource), MONDAY, MONDAY.plusDays(1), Duration.ofMinutes(30)).collect(Collectors.toList()));
+    }
+}
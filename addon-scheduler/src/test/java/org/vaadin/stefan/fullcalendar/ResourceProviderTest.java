@@ -0,0 +1,254 @@
+package org.vaadin.stefan.fullcalendar;
+
+import elemental.json.Json;
+import elemental.json.JsonArray;
+import elemental.json.JsonObject;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.vaadin.stefan.fullcalendar.dataprovider.*;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ResourceProviderTest {
+
+    private Resource plant;
+    private Resource hallA;
+    private Resource hallB;
+    private Resource office;
+
+    @BeforeEach
+    void init() {
+        hallA = new Resource("hallA", "Hall A", null);
+        hallB = new Resource("hallB", "Hall B", null);
+        plant = new Resource("plant", "Plant", null, Arrays.asList(hallA, hallB));
+        office = new Resource("office", "Office", null);
+    }
+
+    @Test
+    void test_inMemoryFetch() {
+        InMemoryResourceProvider provider = ResourceProvider.inMemoryFrom(plant, office);
+        assertEquals(4, provider.getResources().size());
+
+        // one level per query
+        assertEquals(toIds(plant, office), toIds(provider.fetch(new ResourceQuery())));
+        assertEquals(toIds(hallA, hallB), toIds(provider.fetch(new ResourceQuery("plant"))));
+        assertEquals(toIds(), toIds(provider.fetch(new ResourceQuery("office"))));
+        assertEquals(toIds(), toIds(provider.fetch(new ResourceQuery("unknown"))));
+
+        assertTrue(provider.hasChildren(plant));
+        assertFalse(provider.hasChildren(office));
+
+        // the filter matches the title or any descendant's title
+        assertEquals(toIds(plant), toIds(provider.fetch(ResourceQuery.builder().filter("hall b").build())));
+        assertEquals(toIds(hallB), toIds(provider.fetch(ResourceQuery.builder().parentId("plant").filter("hall b").build())));
+        assertEquals(toIds(office), toIds(provider.fetch(ResourceQuery.builder().filter("OFF").build())));
+
+        // row range
+        assertEquals(toIds(office), toIds(provider.fetch(ResourceQuery.builder().offset(1).build())));
+        assertEquals(toIds(plant), toIds(provider.fetch(ResourceQuery.builder().limit(1).build())));
+
+        // removing a resource removes its children, too
+        provider.removeResources(plant);
+        assertEquals(1, provider.getResources().size());
+        assertFalse(provider.fetchById("hallA").isPresent());
+    }
+
+    @Test
+    void test_callbackProvider() {
+        List<ResourceQuery> queries = new ArrayList<>();
+        CallbackResourceProvider provider = ResourceProvider.fromCallbacks(query -> {
+            queries.add(query);
+            return query.isTopLevel() ? Stream.of(plant, office) : Stream.empty();
+        }, id -> id.equals("plant") ? plant : null, resource -> resource == office);
+
+        assertEquals(toIds(plant, office), toIds(provider.fetch(new ResourceQuery())));
+        assertEquals(1, queries.size());
+        assertTrue(provider.fetchById("plant").isPresent());
+        assertFalse(provider.fetchById("office").isPresent());
+
+        // the callback decides about children
+        assertTrue(provider.hasChildren(office));
+        assertFalse(provider.hasChildren(plant));
+
+        AtomicInteger refreshEvents = new AtomicInteger();
+        provider.addResourcesChangeListener(event -> refreshEvents.incrementAndGet()).remove();
+        provider.addResourcesChangeListener(event -> refreshEvents.incrementAndGet());
+        provider.refreshAll();
+        assertEquals(1, refreshEvents.get());
+    }
+
+    @Test
+    void test_schedulerFetchesLazily() {
+        InMemoryResourceProvider provider = ResourceProvider.inMemoryFrom(plant, office);
+        FullCalendarScheduler calendar = new FullCalendarScheduler();
+        calendar.addResource(new Resource("eager", "Eager", null));
+
+        calendar.setResourceProvider(provider);
+        assertSame(provider, calendar.getResourceProvider().orElse(null));
+        assertTrue(calendar.getResources().isEmpty());
+
+        // top level resources are sent without children, but marked to have some
+        JsonArray topLevel = calendar.fetchResources(new ResourceQuery());
+        assertEquals(2, topLevel.length());
+        JsonObject plantJson = topLevel.getObject(0);
+        assertEquals("plant", plantJson.getString("id"));
+        assertTrue(plantJson.getBoolean("lazyChildren"));
+        assertFalse(plantJson.hasKey("children"));
+        assertFalse(topLevel.getObject(1).hasKey("lazyChildren"));
+        assertEquals(2, calendar.getResources().size());
+
+        // children are fetched, when the parent is expanded
+        JsonArray children = calendar.fetchResources(new ResourceQuery("plant"));
+        assertEquals(2, children.length());
+        assertEquals("plant", children.getObject(0).getString("parentId"));
+        assertEquals(4, calendar.getResources().size());
+
+        // a new top level fetch replaces all known resources
+        calendar.fetchResources(new ResourceQuery());
+        assertEquals(2, calendar.getResources().size());
+
+        // resources not fetched yet are looked up by the provider
+        assertSame(hallB, calendar.getResourceById("hallB").orElse(null));
+        assertFalse(calendar.getResourceById("eager").isPresent());
+
+        // the scheduler api modifies the in memory provider
+        calendar.addResource(new Resource("depot", "Depot", null));
+        assertTrue(provider.getResourceById("depot").isPresent());
+
+        ResourceEntry entry = new ResourceEntry();
+        entry.addResources(office);
+        calendar.getEntryProvider().asInMemory().addEntry(entry);
+        calendar.removeResource(office);
+        assertFalse(provider.getResourceById("office").isPresent());
+        assertTrue(entry.getResourcesOrEmpty().isEmpty());
+
+        // non in memory providers cannot be modified by the scheduler
+        calendar.setResourceProvider(ResourceProvider.fromCallbacks(query -> Stream.empty(), id -> null));
+        assertThrows(UnsupportedOperationException.class, () -> calendar.addResource(new Resource()));
+
+        calendar.setResourceFilter("hall");
+        assertEquals("hall", calendar.getResourceFilter().orElse(null));
+    }
+
+    @Test
+    void test_serialization() throws Exception {
+        FullCalendarScheduler calendar = new FullCalendarScheduler();
+        calendar.setResourceProvider(ResourceProvider.inMemoryFrom(plant, office));
+        calendar.setResourceFilter("a");
+        calendar.fetchResources(new ResourceQuery());
+
+        FullCalendarScheduler deserialized = TestUtils.serializeAndDeserialize(calendar);
+        ResourceProvider provider = deserialized.getResourceProvider().orElseThrow(AssertionError::new);
+        assertTrue(provider.isInMemory());
+        assertEquals(Arrays.asList("plant", "office"), provider.fetch(new ResourceQuery()).map(Resource::getId).collect(Collectors.toList()));
+        assertEquals("a", deserialized.getResourceFilter().orElse(null));
+
+        assertNotNull(TestUtils.serializeAndDeserialize(new ResourceQuery("plant", "hall", 2, 10)));
+
+        Resource callbackResource = new Resource("callback", "Callback", null);
+        calendar.setResourceProvider(ResourceProvider.fromCallbacks(query -> Stream.of(callbackResource), id -> callbackResource));
+        deserialized = TestUtils.serializeAndDeserialize(calendar);
+        assertEquals(1, deserialized.fetchResources(new ResourceQuery()).length());
+    }
+
+    @Test
+    void test_resourcesNotExpandedWhileProviderIsSet() {
+        FullCalendarScheduler calendar = new FullCalendarScheduler();
+        calendar.setResourcesInitiallyExpanded(true);
+
+        calendar.setResourceProvider(ResourceProvider.inMemoryFrom(plant, office));
+        assertEquals(false, calendar.getOption(FullCalendarScheduler.SchedulerOption.RESOURCES_INITIALLY_EXPANDED, true).orElse(null));
+        assertEquals(true, calendar.getOption(FullCalendarScheduler.SchedulerOption.RESOURCES_INITIALLY_EXPANDED).orElse(null));
+
+        calendar.setResourceProvider(null);
+        assertEquals(true, calendar.getOption(FullCalendarScheduler.SchedulerOption.RESOURCES_INITIALLY_EXPANDED, true).orElse(null));
+    }
+
+    @Test
+    void test_negativeResourceOffset() {
+        FullCalendarScheduler calendar = new FullCalendarScheduler();
+        calendar.setResourceProvider(ResourceProvider.inMemoryFrom(plant, office));
+        calendar.setResourcePageSize(1);
+
+        JsonObject query = Json.createObject();
+        query.put("offset", -5);
+        calendar.requestResources(query);
+        assertEquals(1, calendar.getResources().size());
+    }
+
+    @Test
+    void test_resourcePaging() {
+        List<Resource> rows = new ArrayList<>();
+        InMemoryEntryProvider<ResourceEntry> entryProvider = EntryProvider.emptyInMemory();
+        LocalDateTime start = LocalDate.of(2000, 1, 3).atStartOfDay();
+        for (int i = 0; i < 10; i++) {
+            Resource row = new Resource(String.valueOf(i), "Row " + i, null);
+            rows.add(row);
+
+            ResourceEntry entry = new ResourceEntry("entry" + i);
+            entry.setStart(start.plusHours(i));
+            entry.setEnd(start.plusHours(i + 1));
+            entry.addResources(row);
+            entryProvider.addEntry(entry);
+        }
+
+        FullCalendarScheduler calendar = new FullCalendarScheduler();
+        calendar.setEntryProvider(entryProvider);
+        calendar.setResourceProvider(ResourceProvider.inMemoryFrom(rows));
+        calendar.setResourcePageSize(4);
+        assertThrows(IllegalArgumentException.class, () -> calendar.setResourcePageSize(-1));
+
+        // only the first page is fetched and only its entries
+        calendar.requestResources(Json.createObject());
+        assertEquals(4, calendar.getResources().size());
+
+        JsonObject fetchQuery = Json.createObject();
+        fetchQuery.put("start", "2000-01-03T00:00:00Z");
+        fetchQuery.put("end", "2000-01-04T00:00:00Z");
+        String json = calendar.fetchEntriesFromServerAsString(fetchQuery);
+        assertEquals(4, Json.instance().<JsonArray>parse(json).length());
+        assertTrue(calendar.getCachedEntryFromFetch("entry3").isPresent());
+        assertFalse(calendar.getCachedEntryFromFetch("entry4").isPresent());
+
+        // the next page sends the entries of its resources in addition
+        JsonObject nextPage = Json.createObject();
+        nextPage.put("offset", 4);
+        calendar.requestResources(nextPage);
+        assertEquals(8, calendar.getResources().size());
+        assertTrue(calendar.getCachedEntryFromFetch("entry7").isPresent());
+        assertFalse(calendar.getCachedEntryFromFetch("entry8").isPresent());
+
+        // the entry query follows the fetched resources
+        EntryQuery query = calendar.createEntryQuery(start, start.plusDays(1));
+        assertTrue(query instanceof ResourceEntryQuery);
+        assertEquals(8, calendar.fetchEntries(query).count());
+
+        // the same result is returned by the provider itself
+        assertEquals(8, entryProvider.fetch(query).count());
+        assertEquals(2, IndexedInMemoryEntryProvider.from(entryProvider.getEntries())
+                .fetch(new ResourceEntryQuery(start, start.plusDays(1), EntryQuery.AllDay.BOTH, new HashSet<>(Arrays.asList("1", "9"))))
+                .count());
+
+        // without paging, entries are not restricted
+        calendar.setResourcePageSize(0);
+        assertFalse(calendar.createEntryQuery(start, start.plusDays(1)) instanceof ResourceEntryQuery);
+    }
+
+    private static List<String> toIds(Resource... resources) {
+        return Stream.of(resources).map(Resource::getId).collect(Collectors.toList());
+    }
+
+    private static List<String> toIds(Stream<Resource> resources) {
+        return resources.map(Resource::getId).collect(Collectors.toList());
+    }
+}
@@ -0,0 +1,36 @@
+package org.vaadin.stefan.fullcalendar;
+
+import java.io.*;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+public class TestUtils {
+
+    /**
+     * A monday, that the hours of {@link #createEntry(String, int, int, Resource...)} are based on.
+     */
+    public static final LocalDateTime MONDAY = LocalDate.of(2000, 1, 3).atStartOfDay();
+
+    public static ResourceEntry createEntry(String id, int startHour, int endHour, Resource... resources) {
+        ResourceEntry entry = new ResourceEntry(id);
+        entry.setStart(MONDAY.plusHours(startHour));
+        entry.setEnd(MONDAY.plusHours(endHour));
+        entry.addResources(resources);
+        return entry;
+    }
+
+    /**
+     * Serializes and deserializes the given object like a session is serialized.
+     */
+    @SuppressWarnings("unchecked")
+    public static <T extends Serializable> T serializeAndDeserialize(T object) throws IOException, ClassNotFoundException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+            out.writeObject(object);
+        }
+
+        try (ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(bytes.toByteArray()))) {
+            return (T) in.readObject();
+        }
+    }
+}
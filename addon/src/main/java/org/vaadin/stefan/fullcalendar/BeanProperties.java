@@ -9,6 +9,10 @@ import org.apache.commons.lang3.StringUtils;
 import org.apache.commons.lang3.reflect.FieldUtils;
 import org.apache.commons.lang3.reflect.MethodUtils;
 
+import java.lang.invoke.LambdaMetafactory;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
 import java.lang.reflect.Field;
 import java.lang.reflect.Method;
 import java.util.Objects;
@@ -63,40 +67,123 @@ public class BeanProperties<T> {
                         setterMethod = MethodUtils.getAccessibleMethod(type, fieldName, fieldType);
                     }
 
-                    Method finalGetterMethod = getterMethod;
-                    Method finalSetterMethod = setterMethod;
-                    ValueProvider<T, Object> getter = item -> {
-                        try {
-                            return finalGetterMethod.invoke(item);
-                        } catch (Throwable e) {
-                            throw new RuntimeException(e);
-                        }
-                    };
-
-                    // setter is optional
-                    Setter<T, Object> setter;
-                    if (finalSetterMethod != null) {
-                        setter = (item, value) -> {
-                            Object valueToWrite = value;
-                            if(value instanceof Optional) { // special handling for getters, that return optional
-                                valueToWrite = ((Optional<?>) value).orElse(null);
-                            }
-
-                            try {
-                                finalSetterMethod.invoke(item, valueToWrite);
-                            } catch (Throwable e) {
-                                throw new RuntimeException(e);
-                            }
-                        };
-                    } else {
-                        setter = null;
-                    }
+                    ValueProvider<T, Object> getter = createGetter(getterMethod);
+                    Setter<T, Object> setter = setterMethod != null ? createSetter(setterMethod) : null; // setter is optional
                     return new BeanProperties<T>(field, getter, setter);
                 })
                 .filter(Objects::nonNull)
                 .collect(Collectors.toSet());
     }
 
+    /**
+     * Creates a getter for the given method. Tries to create a direct call implementation using the
+     * {@link LambdaMetafactory} first and falls back to reflection, if that is not possible.
+     */
+    @SuppressWarnings("unchecked")
+    private static <T> ValueProvider<T, Object> createGetter(Method method) {
+        if (isDirectlyCallable(method)) {
+            try {
+                MethodHandles.Lookup lookup = MethodHandles.lookup();
+                MethodHandle handle = lookup.unreflect(method);
+                return (ValueProvider<T, Object>) LambdaMetafactory.metafactory(lookup,
+                        "apply",
+                        MethodType.methodType(ValueProvider.class),
+                        MethodType.methodType(Object.class, Object.class),
+                        handle,
+                        handle.type().wrap()).getTarget().invoke();
+            } catch (Throwable e) {
+                // fall back to reflection
+            }
+        }
+
+        return item -> {
+            try {
+                return method.invoke(item);
+            } catch (Throwable e) {
+                throw new RuntimeException(e);
+            }
+        };
+    }
+
+    /**
+     * Creates a setter for the given method. Tries to create a direct call implementation using the
+     * {@link LambdaMetafactory} first and falls back to reflection, if that is not possible.
+     */
+    @SuppressWarnings("unchecked")
+    private static <T> Setter<T, Object> createSetter(Method method) {
+        Setter<T, Object> setter = null;
+        if (isDirectlyCallable(method)) {
+            try {
+                MethodHandles.Lookup lookup = MethodHandles.lookup();
+                MethodHandle handle = lookup.unreflect(method);
+                setter = (Setter<T, Object>) LambdaMetafactory.metafactory(lookup,
+                        "accept",
+                        MethodType.methodType(Setter.class),
+                        MethodType.methodType(void.class, Object.class, Object.class),
+                        handle,
+                        handle.type().wrap().changeReturnType(void.class)).getTarget().invoke();
+            } catch (Throwable e) {
+                // fall back to reflection
+            }
+        }
+
+        if (setter == null) {
+            setter = (item, value) -> {
+                try {
+                    method.invoke(item, value);
+                } catch (Throwable e) {
+                    throw new RuntimeException(e);
+                }
+            };
+        }
+
+        Setter<T, Object> finalSetter = setter;
+        return (item, value) -> {
+            Object valueToWrite = value;
+            if (value instanceof Optional) { // special handling for getters, that return optional
+                valueToWrite = ((Optional<?>) value).orElse(null);
+            }
+
+            finalSetter.accept(item, valueToWrite);
+        };
+    }
+
+    /**
+     * Checks, if the given method can be called by a class generated by the {@link LambdaMetafactory}. The generated
+     * class is defined in the class loader of this class, so all types of the method must be visible to it.
+     * This might not be the case, when the type is loaded by a child class loader (e.g. in some hot
+     * reload scenarios).
+     */
+    private static boolean isDirectlyCallable(Method method) {
+        if (!isVisible(method.getDeclaringClass()) || !isVisible(method.getReturnType())) {
+            return false;
+        }
+
+        for (Class<?> parameterType : method.getParameterTypes()) {
+            if (!isVisible(parameterType)) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    private static boolean isVisible(Class<?> type) {
+        if (type.isArray()) {
+            return isVisible(type.getComponentType());
+        }
+
+        if (type.isPrimitive()) {
+            return true;
+        }
+
+        try {
+            return Class.forName(type.getName(), false, BeanProperties.class.getClassLoader()) == type;
+        } catch (ClassNotFoundException e) {
+            return false;
+        }
+    }
+
     public Optional<Setter<T, Object>> getSetter() {
         return Optional.ofNullable(setter);
     }
@@ -22,6 +22,7 @@ import lombok.EqualsAndHashCode;
 import lombok.ToString;
 
 import org.vaadin.stefan.fullcalendar.NotNull;
+import java.io.Serializable;
 import java.time.DayOfWeek;
 import java.time.LocalTime;
 import java.util.*;
@@ -31,7 +32,7 @@ import java.util.*;
  */
 @EqualsAndHashCode
 @ToString
-public class BusinessHours {
+public class BusinessHours implements Serializable {
     /**
      * Represents all days of week.
      */
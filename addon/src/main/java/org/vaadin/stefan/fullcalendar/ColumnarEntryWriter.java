@@ -0,0 +1,180 @@
+package org.vaadin.stefan.fullcalendar;
+
+import elemental.json.impl.JsonUtil;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.*;
+import java.util.function.IntFunction;
+
+/**
+ * Writes a batch of entries in a columnar json format, that is considerably smaller than an array of
+ * entry json objects. Instead of repeating the property names for every entry, each property is written once
+ * as a column containing the values of all entries:
+ * <ul>
+ *     <li>Columns, where all entries have the same value, are written as a single constant value.</li>
+ *     <li>Date times (e.g. start and end) are written as offsets to a base date time (e.g. the start of the
+ *     fetched range) in seconds or, if possible, in minutes.</li>
+ *     <li>Columns with repeated values (e.g. colors, class names or group ids) are dictionary encoded.</li>
+ *     <li>Any other column is written as plain array of values.</li>
+ * </ul>
+ * Absent values are written as null. The resulting json has the following structure:
+ * <pre>
+ * {
+ *     "count": 3,
+ *     "base": 946684800,
+ *     "columns": [
+ *         {"name": "id", "values": ["1", "2", "3"]},
+ *         {"name": "start", "unit": 60, "values": [600, 660, null]},
+ *         {"name": "color", "dictionary": ["red", "blue"], "values": [0, 0, 1]},
+ *         {"name": "editable", "value": true}
+ *     ]
+ * }
+ * </pre>
+ * The client side decodes it back into the same entry objects as the non columnar format.
+ */
+final class ColumnarEntryWriter {
+
+    private final long base;
+    private final Map<String, Column> columns = new LinkedHashMap<>();
+    private int count;
+
+    /**
+     * Creates a new instance. Date times are written as offsets to the given base.
+     *
+     * @param base base of date time offsets (UTC), might be null
+     */
+    ColumnarEntryWriter(LocalDateTime base) {
+        this.base = base != null ? base.toEpochSecond(ZoneOffset.UTC) : 0;
+    }
+
+    /**
+     * Writes the given entry as the next row.
+     *
+     * @param entry entry
+     */
+    void write(Entry entry) {
+        EntryJsonCodec.of(entry).writeToColumns(entry, this);
+        count++;
+    }
+
+    /**
+     * Writes a single property of the current row. Called by the codec.
+     *
+     * @param name      json name
+     * @param value     property value (used to detect date times)
+     * @param jsonValue json string of the value
+     */
+    void writeProperty(String name, Object value, String jsonValue) {
+        Column column = columns.computeIfAbsent(name, Column::new);
+        column.set(count, jsonValue, value instanceof LocalDateTime ? toOffset((LocalDateTime) value) : null);
+    }
+
+    /**
+     * Returns the amount of written entries.
+     *
+     * @return count
+     */
+    int getCount() {
+        return count;
+    }
+
+    /**
+     * Returns the columnar json string of all written entries.
+     *
+     * @return json string
+     */
+    String toJson() {
+        StringBuilder builder = new StringBuilder();
+        builder.append("{\"count\":").append(count).append(",\"base\":").append(base).append(",\"columns\":[");
+        boolean first = true;
+        for (Column column : columns.values()) {
+            if (!first) {
+                builder.append(',');
+            }
+            column.appendTo(builder, count);
+            first = false;
+        }
+        return builder.append("]}").toString();
+    }
+
+    /**
+     * Returns the offset of the given date time in seconds or null, if it cannot be represented without
+     * losing precision.
+     */
+    private Long toOffset(LocalDateTime dateTime) {
+        return dateTime.getNano() == 0 ? dateTime.toEpochSecond(ZoneOffset.UTC) - base : null;
+    }
+
+    private static final class Column {
+        private final String quotedName;
+        private final List<String> values = new ArrayList<>();
+
+        // offsets of date time columns, null as soon as a value is not an offset representable date time
+        private List<Long> offsets = new ArrayList<>();
+
+        private Column(String name) {
+            this.quotedName = JsonUtil.quote(name);
+        }
+
+        private void set(int index, String jsonValue, Long offset) {
+            while (values.size() < index) {
+                values.add(null);
+                if (offsets != null) {
+                    offsets.add(null);
+                }
+            }
+
+            values.add(jsonValue);
+            if (offsets != null) {
+                if (offset != null) {
+                    offsets.add(offset);
+                } else {
+                    offsets = null;
+                }
+            }
+        }
+
+        private void appendTo(StringBuilder builder, int count) {
+            builder.append("{\"name\":").append(quotedName);
+
+            Map<String, Integer> dictionary = new LinkedHashMap<>();
+            int present = 0;
+            for (String value : values) {
+                if (value != null) {
+                    dictionary.putIfAbsent(value, dictionary.size());
+                    present++;
+                }
+            }
+
+            if (present == count && dictionary.size() == 1) {
+                builder.append(",\"value\":").append(values.get(0));
+            } else if (offsets != null) {
+                int unit = offsets.stream().allMatch(offset -> offset == null || offset % 60 == 0) ? 60 : 1;
+                builder.append(",\"unit\":").append(unit).append(",\"values\":[");
+                appendValues(builder, count, index -> offsets.get(index) != null ? String.valueOf(offsets.get(index) / unit) : null);
+                builder.append(']');
+            } else if (dictionary.size() * 2 <= present) {
+                builder.append(",\"dictionary\":[").append(String.join(",", dictionary.keySet())).append("],\"values\":[");
+                appendValues(builder, count, index -> values.get(index) != null ? String.valueOf(dictionary.get(values.get(index))) : null);
+                builder.append(']');
+            } else {
+                builder.append(",\"values\":[");
+                appendValues(builder, count, values::get);
+                builder.append(']');
+            }
+
+            builder.append('}');
+        }
+
+        private void appendValues(StringBuilder builder, int count, IntFunction<String> valueProvider) {
+            for (int i = 0; i < count; i++) {
+                if (i > 0) {
+                    builder.append(',');
+                }
+                String value = i < values.size() ? valueProvider.apply(i) : null;
+                builder.append(value != null ? value : "null");
+            }
+        }
+    }
+}
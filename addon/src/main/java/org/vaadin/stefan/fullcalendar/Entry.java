@@ -16,13 +16,11 @@
  */
 package org.vaadin.stefan.fullcalendar;
 
-import com.vaadin.flow.data.binder.Setter;
 import com.vaadin.flow.function.SerializableFunction;
 import com.vaadin.flow.function.ValueProvider;
 import elemental.json.Json;
-import elemental.json.JsonNull;
 import elemental.json.JsonObject;
-import elemental.json.JsonValue;
+import lombok.AccessLevel;
 import lombok.EqualsAndHashCode;
 import lombok.Getter;
 import lombok.NonNull;
@@ -34,7 +32,7 @@ import org.vaadin.stefan.fullcalendar.json.JsonIgnore;
 import org.vaadin.stefan.fullcalendar.json.JsonName;
 import org.vaadin.stefan.fullcalendar.json.JsonUpdateAllowed;
 
-import java.lang.reflect.Field;
+import java.io.Serializable;
 import java.time.*;
 import java.util.*;
 import java.util.stream.Stream;
@@ -43,7 +41,7 @@ import java.util.stream.Stream;
 @lombok.Setter // prevent conflicts with Vaadin Setter
 @EqualsAndHashCode(of = "id")
 @FieldNameConstants
-public class Entry {
+public class Entry implements Serializable {
 
     private static final Set<BeanProperties<Entry>> PROPERTIES = BeanProperties.read(Entry.class);
 
@@ -110,6 +108,32 @@ public class Entry {
     @JsonIgnore
     private FullCalendar calendar;
 
+    /**
+     * Names of the tracked properties, that have been changed since the last synchronization with the client.
+     * See {@link EntryJsonCodec} for which properties are tracked.
+     */
+    @JsonIgnore
+    @Getter(AccessLevel.NONE)
+    private final Set<String> changedProperties = new HashSet<>();
+
+    /**
+     * Hash codes of the untracked properties at the time of the last synchronization with the client. Null,
+     * when changes are not tracked.
+     */
+    @JsonIgnore
+    @Getter(AccessLevel.NONE)
+    @lombok.Setter(AccessLevel.NONE)
+    private int[] synchronizedHashCodes;
+
+    /**
+     * The calendar, that this entry has been synchronized with the last time. Other calendars need the whole
+     * entry, since they may have missed changes. Null, when changes are not tracked.
+     */
+    @JsonIgnore
+    @Getter(AccessLevel.NONE)
+    @lombok.Setter(AccessLevel.NONE)
+    private transient FullCalendar synchronizedCalendar;
+
     /**
      * Creates a new editable instance with a generated id.
      */
@@ -151,53 +175,75 @@ public class Entry {
      * reasons.
      * @return json
      */
-    @SuppressWarnings({"rawtypes", "unchecked"})
     public JsonObject toJson() {
         // The toJson is implemented in a dynamic fashion to not need to extend it every time a
-        // new property comes out.
-
+        // new property comes out. The annotations are resolved once per class by the codec.
         JsonObject json = Json.createObject();
+        EntryJsonCodec.of(this).writeToJson(this, json);
+        return json;
+    }
 
-        streamProperties().forEach(def -> {
-            String name = def.getName();
-            Field field = def.getField();
-            try {
-
-                // TODO all the reflection stuff could be moved to an initial static block to spare it to be done
-                //  on each conversion
-                if (field.getAnnotation(JsonIgnore.class) == null) {
-                    Object value = def.getGetter().apply(this);
-
-                    JsonValue jsonValue;
+    /**
+     * Appends the json string of this instance to the given builder. The result is the same as the string
+     * representation of {@link #toJson()}, but is written without creating an intermediate json object. Intended
+     * to be used, when sending multiple entries to the client.
+     *
+     * @param builder builder to append to
+     */
+    void appendJson(StringBuilder builder) {
+        EntryJsonCodec.of(this).writeToJson(this, builder);
+    }
 
-                    JsonConverter converterAnnotation = field.getAnnotation(JsonConverter.class);
-                    JsonItemPropertyConverter converter = null;
-                    if (converterAnnotation != null) {
-                        converter = converterAnnotation.value().getConstructor().newInstance();
-                    }
+    /**
+     * Converts this instance to a json object, that contains only the properties, that have changed since the
+     * last synchronization with the given calendar. Properties, that have been removed since then, are written as
+     * null. The id is always part of the json object. Returns null, when the changes are unknown (e.g. since the
+     * entry has been synchronized with another calendar in the meantime), in which case the complete entry has to
+     * be sent.
+     *
+     * @param calendar calendar to send the changes to
+     * @return changed properties or null
+     */
+    JsonObject toJsonChanges(FullCalendar calendar) {
+        if (synchronizedCalendar == null || synchronizedCalendar != calendar) {
+            return null;
+        }
 
-                    if (converter != null && converter.supports(value)) {
-                        jsonValue = converter.toClientModel(value, this);
-                    } else {
-                        jsonValue = JsonUtils.toJsonValue(value);
-                    }
+        JsonObject json = toJsonWithIdOnly();
+        EntryJsonCodec.of(this).writeChangesToJson(this, json, changedProperties, synchronizedHashCodes);
+        return json;
+    }
 
-                    if (jsonValue != null && !(jsonValue instanceof JsonNull)) {
-                        String jsonName = name;
-                        JsonName nameAnnotation = field.getAnnotation(JsonName.class);
-                        if (nameAnnotation != null) {
-                            jsonName = nameAnnotation.value();
-                        }
+    /**
+     * Marks the current state of this entry as synchronized with the given calendar's client. Subsequent calls of
+     * {@link #toJsonChanges(FullCalendar)} for that calendar will only write properties, that have changed after
+     * this call. When changes shall not be tracked (e.g. since the calendar does not keep this instance), null can be
+     * passed.
+     *
+     * @param calendar calendar or null
+     */
+    void markAsSynchronized(FullCalendar calendar) {
+        changedProperties.clear();
 
-                        json.put(jsonName, jsonValue);
-                    }
-                }
-            } catch (Throwable throwable) {
-                throw new RuntimeException(throwable);
-            }
-        });
+        EntryJsonCodec codec = EntryJsonCodec.of(this);
+        if (calendar != null && codec.supportsChanges()) {
+            synchronizedHashCodes = codec.hashUntrackedProperties(this);
+            synchronizedCalendar = calendar;
+        } else {
+            synchronizedHashCodes = null;
+            synchronizedCalendar = null;
+        }
+    }
 
-        return json;
+    /**
+     * Marks the given properties as changed, so that they are sent to the client with the next refresh. Setters of
+     * tracked properties call this method automatically. Subclasses may call it, when they modify a property of
+     * this class without using its setter.
+     *
+     * @param propertyNames names of the changed properties
+     */
+    protected void markAsChangedProperty(String... propertyNames) {
+        changedProperties.addAll(Arrays.asList(propertyNames));
     }
 
     /**
@@ -217,8 +263,33 @@ public class Entry {
      * @param jsonObject json object
      * @param requiresMatchingId require the ids to match
      */
-    @SuppressWarnings({"unchecked", "rawtypes"})
     public void updateFromJson(JsonObject jsonObject, boolean requiresMatchingId) {
+        applyJson(jsonObject, requiresMatchingId);
+    }
+
+    /**
+     * Updates this instance with the given json object, that has been sent by the client of the given calendar. The
+     * updated properties are marked as synchronized with that calendar, so that they are not sent back as changes.
+     *
+     * @param jsonObject json object
+     * @param calendar calendar, whose client sent the json object
+     */
+    void updateFromClientJson(JsonObject jsonObject, FullCalendar calendar) {
+        Set<String> updatedKeys = applyJson(jsonObject, true);
+        if (synchronizedCalendar != null && synchronizedCalendar == calendar && !updatedKeys.isEmpty()) {
+            EntryJsonCodec.of(this).markAsSynchronized(this, updatedKeys, changedProperties, synchronizedHashCodes);
+        }
+    }
+
+    /**
+     * Updates this instance with the given json object like {@link #updateFromJson(JsonObject, boolean)} and returns
+     * the json names of the updated properties.
+     *
+     * @param jsonObject json object
+     * @param requiresMatchingId require the ids to match
+     * @return updated json keys
+     */
+    Set<String> applyJson(JsonObject jsonObject, boolean requiresMatchingId) {
         if (requiresMatchingId) {
             if (!jsonObject.hasKey(Fields.ID)) {
                 throw new IllegalArgumentException("JsonObject has no id. Id matching is required.");
@@ -229,45 +300,7 @@ public class Entry {
             }
         }
 
-        streamProperties().forEach(def -> {
-            String name = def.getName();
-            Field field = def.getField();
-            try {
-                if (field.getAnnotation(JsonIgnore.class) == null
-                        && field.getAnnotation(JsonUpdateAllowed.class) != null) {
-
-                    Setter<Entry, Object> setter = def.getSetter()
-                            .orElseThrow(() -> new UnsupportedOperationException("No setter found for field " + name));
-
-                    String jsonName = name;
-                    JsonName nameAnnotation = field.getAnnotation(JsonName.class);
-                    if (nameAnnotation != null) {
-                        jsonName = nameAnnotation.value();
-                    }
-
-                    if (jsonObject.hasKey(jsonName)) {
-                        JsonConverter converterAnnotation = field.getAnnotation(JsonConverter.class);
-                        JsonItemPropertyConverter converter = null;
-                        if (converterAnnotation != null) {
-                            converter = converterAnnotation.value().getConstructor().newInstance();
-                        }
-
-                        Object newValue;
-                        JsonValue jsonValue = jsonObject.get(jsonName);
-
-                        if (converter != null) {
-                            newValue = converter.toServerModel(jsonValue, this);
-                        } else {
-                            newValue = JsonUtils.ofJsonValue(jsonValue);
-                        }
-
-                        setter.accept(this, newValue);
-                    }
-                }
-            } catch (Throwable throwable) {
-                throw new RuntimeException(throwable);
-            }
-        });
+        return EntryJsonCodec.of(this).updateFromJson(this, jsonObject);
     }
 
     /**
@@ -405,16 +438,7 @@ public class Entry {
      * @return updateable properties
      */
     protected Stream<BeanProperties<Entry>> streamUpdateableProperties() {
-        return streamProperties().filter(def -> {
-            Field field = def.getField();
-            try {
-                return field.getAnnotation(JsonIgnore.class) == null
-                        && field.getAnnotation(JsonUpdateAllowed.class) != null
-                        && def.getSetter().isPresent();
-            } catch (Throwable throwable) {
-                throw new RuntimeException(throwable);
-            }
-        });
+        return EntryJsonCodec.of(this).getUpdateableProperties().stream();
     }
 
     /**
@@ -493,6 +517,7 @@ public class Entry {
      */
     public void setStart(LocalDateTime start) {
         this.start = start;
+        markAsChangedProperty(Fields.START);
     }
 
     /**
@@ -632,6 +657,7 @@ public class Entry {
      */
     public void setEnd(LocalDateTime end) {
         this.end = end;
+        markAsChangedProperty(Fields.END);
     }
 
     /**
@@ -944,6 +970,51 @@ public class Entry {
         setOverlap(true);
     }
 
+    public void setGroupId(String groupId) {
+        this.groupId = groupId;
+        markAsChangedProperty(Fields.GROUP_ID);
+    }
+
+    public void setTitle(String title) {
+        this.title = title;
+        markAsChangedProperty(Fields.TITLE);
+    }
+
+    public void setAllDay(boolean allDay) {
+        this.allDay = allDay;
+        markAsChangedProperty(Fields.ALL_DAY);
+    }
+
+    public void setEditable(boolean editable) {
+        this.editable = editable;
+        markAsChangedProperty(Fields.EDITABLE);
+    }
+
+    public void setStartEditable(boolean startEditable) {
+        this.startEditable = startEditable;
+        markAsChangedProperty(Fields.START_EDITABLE);
+    }
+
+    public void setDurationEditable(boolean durationEditable) {
+        this.durationEditable = durationEditable;
+        markAsChangedProperty(Fields.DURATION_EDITABLE);
+    }
+
+    public void setOverlap(boolean overlap) {
+        this.overlap = overlap;
+        markAsChangedProperty(Fields.OVERLAP);
+    }
+
+    public void setRecurringStartDate(LocalDate recurringStartDate) {
+        this.recurringStartDate = recurringStartDate;
+        markAsChangedProperty(Fields.RECURRING_START_DATE);
+    }
+
+    public void setRecurringEndDate(LocalDate recurringEndDate) {
+        this.recurringEndDate = recurringEndDate;
+        markAsChangedProperty(Fields.RECURRING_END_DATE);
+    }
+
     /**
      * Sets the entry Constraint.
      * Null or empty string resets the color to the FC's default.
@@ -952,6 +1023,7 @@ public class Entry {
      */
     public void setConstraint(String constraint) {
         this.constraint = StringUtils.trimToNull(constraint);
+        markAsChangedProperty(Fields.CONSTRAINT);
     }
 
     /**
@@ -962,6 +1034,7 @@ public class Entry {
      */
     public void setColor(String color) {
         this.color = StringUtils.trimToNull(color);
+        markAsChangedProperty(Fields.COLOR);
     }
 
     /**
@@ -971,6 +1044,7 @@ public class Entry {
      */
     public void setBackgroundColor(String backgroundColor) {
         this.backgroundColor = StringUtils.trimToNull(backgroundColor);
+        markAsChangedProperty(Fields.BACKGROUND_COLOR);
     }
 
     /**
@@ -980,6 +1054,7 @@ public class Entry {
      */
     public void setTextColor(String textColor) {
         this.textColor = StringUtils.trimToNull(textColor);
+        markAsChangedProperty(Fields.TEXT_COLOR);
     }
 
     /**
@@ -989,6 +1064,7 @@ public class Entry {
      */
     public void setBorderColor(String borderColor) {
         this.borderColor = StringUtils.trimToNull(borderColor);
+        markAsChangedProperty(Fields.BORDER_COLOR);
     }
 
     /**
@@ -1015,6 +1091,7 @@ public class Entry {
      */
     public void setDisplayMode(DisplayMode displayMode) {
         this.displayMode = displayMode != null ? displayMode : DisplayMode.AUTO;
+        markAsChangedProperty(Fields.DISPLAY_MODE);
     }
 
     /**
@@ -1083,6 +1160,7 @@ public class Entry {
      */
     public void setRecurringStartTime(RecurringTime start) {
         this.recurringStartTime = start;
+        markAsChangedProperty(Fields.RECURRING_START_TIME);
     }
 
     /**
@@ -1130,6 +1208,7 @@ public class Entry {
      */
     public void setRecurringEndTime(RecurringTime end) {
         this.recurringEndTime = end;
+        markAsChangedProperty(Fields.RECURRING_END_TIME);
     }
 
     /**
@@ -51,7 +51,7 @@ public abstract class EntryDataEvent extends EntryEvent {
      */
     public Entry applyChangesOnEntry() {
         Entry entry = getEntry();
-        entry.updateFromJson(getJsonObject());
+        entry.updateFromClientJson(getJsonObject(), getSource());
         return entry;
     }
 
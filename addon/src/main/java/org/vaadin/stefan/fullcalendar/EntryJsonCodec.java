@@ -0,0 +1,389 @@
+package org.vaadin.stefan.fullcalendar;
+
+import com.vaadin.flow.data.binder.Setter;
+import com.vaadin.flow.function.ValueProvider;
+import elemental.json.Json;
+import elemental.json.JsonNull;
+import elemental.json.JsonObject;
+import elemental.json.JsonValue;
+import elemental.json.impl.JsonUtil;
+import org.vaadin.stefan.fullcalendar.converters.JsonItemPropertyConverter;
+import org.vaadin.stefan.fullcalendar.json.JsonConverter;
+import org.vaadin.stefan.fullcalendar.json.JsonIgnore;
+import org.vaadin.stefan.fullcalendar.json.JsonName;
+import org.vaadin.stefan.fullcalendar.json.JsonUpdateAllowed;
+
+import java.lang.reflect.Field;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+/**
+ * Converts entries to json and vice versa. A codec is created once per entry class and resolves all
+ * annotations (json names, converters, ignored and updateable properties) at creation time, so that the conversion
+ * itself does not need any further reflection except for reading and writing the property values.
+ * <p></p>
+ * Converters are instantiated once per property and thus have to be stateless.
+ * <p></p>
+ * Changes of simple properties declared by {@link Entry} are tracked by the entry's setters. Any other property
+ * (collections, maps and arrays, which might be modified without calling a setter, as well as properties of
+ * subclasses) is untracked. Changes of untracked properties are detected by comparing the hash code of their
+ * current value with the one of the last synchronization with the client.
+ */
+final class EntryJsonCodec {
+
+    private static final Map<Class<?>, EntryJsonCodec> CODECS = new ConcurrentHashMap<>();
+
+    private final boolean customJson;
+    private final List<PropertyCodec> serializableProperties;
+    private final List<PropertyCodec> updateableProperties;
+    private final List<PropertyCodec> untrackedProperties;
+    private final List<BeanProperties<Entry>> updateableBeanProperties;
+
+    private EntryJsonCodec(Class<? extends Entry> type, Collection<BeanProperties<Entry>> properties) {
+        this.customJson = isToJsonOverridden(type);
+
+        List<PropertyCodec> serializable = new ArrayList<>();
+        List<PropertyCodec> updateable = new ArrayList<>();
+        List<PropertyCodec> untracked = new ArrayList<>();
+
+        for (BeanProperties<Entry> property : properties) {
+            Field field = property.getField();
+            if (field.getAnnotation(JsonIgnore.class) != null) {
+                continue;
+            }
+
+            PropertyCodec codec = new PropertyCodec(property, isTracked(field) ? -1 : untracked.size());
+            serializable.add(codec);
+
+            if (!codec.isTracked()) {
+                untracked.add(codec);
+            }
+
+            if (field.getAnnotation(JsonUpdateAllowed.class) != null) {
+                updateable.add(codec);
+            }
+        }
+
+        this.serializableProperties = Collections.unmodifiableList(serializable);
+        this.updateableProperties = Collections.unmodifiableList(updateable);
+        this.untrackedProperties = Collections.unmodifiableList(untracked);
+        this.updateableBeanProperties = Collections.unmodifiableList(updateable.stream()
+                .filter(codec -> codec.setter != null)
+                .map(codec -> codec.property)
+                .collect(Collectors.toList()));
+    }
+
+    /**
+     * Returns the codec for the given entry's class. The codec is created on the first call based on the
+     * entry's properties.
+     *
+     * @param entry entry
+     * @return codec
+     */
+    static EntryJsonCodec of(Entry entry) {
+        return CODECS.computeIfAbsent(entry.getClass(), type -> new EntryJsonCodec(entry.getClass(), entry.streamProperties().collect(Collectors.toList())));
+    }
+
+    /**
+     * Writes all non ignored properties of the given entry, that have a non null value, into the json object.
+     *
+     * @param entry entry to read from
+     * @param json  json object to write to
+     */
+    void writeToJson(Entry entry, JsonObject json) {
+        for (PropertyCodec codec : serializableProperties) {
+            JsonValue jsonValue = toJsonValue(codec, codec.getter.apply(entry), entry);
+            if (jsonValue != null && !(jsonValue instanceof JsonNull)) {
+                json.put(codec.jsonName, jsonValue);
+            }
+        }
+    }
+
+    /**
+     * Writes the properties of the given entry, that have changed since its last synchronization with the
+     * client, into the json object. Properties, that have been removed since then, are written as null.
+     * Not supported for entry types, that override {@link Entry#toJson()}.
+     *
+     * @param entry             entry to read from
+     * @param json              json object to write to
+     * @param changedProperties names of the tracked properties, that have been changed since the synchronization
+     * @param hashCodes         hash codes of the untracked properties at the time of the synchronization
+     * @see #supportsChanges()
+     */
+    void writeChangesToJson(Entry entry, JsonObject json, Set<String> changedProperties, int[] hashCodes) {
+        for (PropertyCodec codec : serializableProperties) {
+            Object value = codec.getter.apply(entry);
+            boolean changed = codec.isTracked()
+                    ? changedProperties.contains(codec.property.getName())
+                    : hashCodes[codec.untrackedIndex] != Objects.hashCode(value);
+
+            if (changed) {
+                JsonValue jsonValue = toJsonValue(codec, value, entry);
+                json.put(codec.jsonName, jsonValue != null ? jsonValue : Json.createNull());
+            }
+        }
+    }
+
+    /**
+     * Indicates, if entries of this codec's type can be written partially by
+     * {@link #writeChangesToJson(Entry, JsonObject, Set, int[])}. This is not the case for types, that override
+     * {@link Entry#toJson()}.
+     *
+     * @return supports partial writing of changes
+     */
+    boolean supportsChanges() {
+        return !customJson;
+    }
+
+    /**
+     * Returns the hash codes of the current values of all untracked properties of the given entry.
+     *
+     * @param entry entry to read from
+     * @return hash codes
+     */
+    int[] hashUntrackedProperties(Entry entry) {
+        int[] hashCodes = new int[untrackedProperties.size()];
+        for (PropertyCodec codec : untrackedProperties) {
+            hashCodes[codec.untrackedIndex] = Objects.hashCode(codec.getter.apply(entry));
+        }
+        return hashCodes;
+    }
+
+    /**
+     * Marks the properties with the given json names as synchronized with the client. Removes tracked properties
+     * from the given changed properties and updates the hash codes of untracked ones.
+     *
+     * @param entry             entry to read from
+     * @param jsonNames         json names of the synchronized properties
+     * @param changedProperties names of the changed tracked properties
+     * @param hashCodes         hash codes of the untracked properties
+     */
+    void markAsSynchronized(Entry entry, Set<String> jsonNames, Set<String> changedProperties, int[] hashCodes) {
+        for (PropertyCodec codec : serializableProperties) {
+            if (jsonNames.contains(codec.jsonName)) {
+                if (codec.isTracked()) {
+                    changedProperties.remove(codec.property.getName());
+                } else {
+                    hashCodes[codec.untrackedIndex] = Objects.hashCode(codec.getter.apply(entry));
+                }
+            }
+        }
+    }
+
+    /**
+     * Converts the given property value to a json value using the property's converter, if there is any.
+     */
+    @SuppressWarnings({"rawtypes", "unchecked"})
+    private static JsonValue toJsonValue(PropertyCodec codec, Object value, Entry entry) {
+        JsonItemPropertyConverter converter = codec.converter;
+        if (converter != null && converter.supports(value)) {
+            return converter.toClientModel(value, entry);
+        }
+        return JsonUtils.toJsonValue(value);
+    }
+
+    /**
+     * Writes all non ignored properties of the given entry, that have a non null value, as a json object
+     * string to the given builder. The result is the same as the string representation of {@link Entry#toJson()},
+     * but no intermediate json object is created. Entry types, that override {@link Entry#toJson()}, are written
+     * by using that method.
+     *
+     * @param entry   entry to read from
+     * @param builder builder to append the json string to
+     */
+    void writeToJson(Entry entry, StringBuilder builder) {
+        if (customJson) {
+            builder.append(entry.toJson().toJson());
+            return;
+        }
+
+        builder.append('{');
+        boolean first = true;
+        for (PropertyCodec codec : serializableProperties) {
+            String jsonValue = toJsonString(codec, codec.getter.apply(entry), entry);
+            if (jsonValue != null) {
+                if (!first) {
+                    builder.append(',');
+                }
+                builder.append(codec.quotedJsonName).append(':').append(jsonValue);
+                first = false;
+            }
+        }
+        builder.append('}');
+    }
+
+    /**
+     * Writes all non ignored properties of the given entry, that have a non null value, as the next row of the
+     * given columnar writer. Entry types, that override {@link Entry#toJson()}, are written by using that method.
+     *
+     * @param entry  entry to read from
+     * @param writer writer to write the properties to
+     */
+    void writeToColumns(Entry entry, ColumnarEntryWriter writer) {
+        if (customJson) {
+            JsonObject json = entry.toJson();
+            for (String key : json.keys()) {
+                writer.writeProperty(key, null, json.get(key).toJson());
+            }
+            return;
+        }
+
+        for (PropertyCodec codec : serializableProperties) {
+            Object value = codec.getter.apply(entry);
+            String jsonValue = toJsonString(codec, value, entry);
+            if (jsonValue != null) {
+                writer.writeProperty(codec.jsonName, value, jsonValue);
+            }
+        }
+    }
+
+    /**
+     * Converts the given property value to a json string using the property's converter, if there is any.
+     * Returns null for null values.
+     */
+    @SuppressWarnings({"rawtypes", "unchecked"})
+    private static String toJsonString(PropertyCodec codec, Object value, Entry entry) {
+        JsonItemPropertyConverter converter = codec.converter;
+        if (converter != null && converter.supports(value)) {
+            JsonValue convertedValue = converter.toClientModel(value, entry);
+            return convertedValue == null || convertedValue instanceof JsonNull ? null : convertedValue.toJson();
+        }
+
+        return toJsonString(value);
+    }
+
+    /**
+     * Converts the given value to a json string in the same way as {@link JsonUtils#toJsonValue(Object)} would
+     * do, but without creating a json value for simple types. Returns null for null values.
+     */
+    private static String toJsonString(Object value) {
+        if (value instanceof ClientSideValue) {
+            value = ((ClientSideValue) value).getClientSideValue();
+        }
+
+        if (value == null) {
+            return null;
+        }
+
+        if (value instanceof String) {
+            return JsonUtil.quote((String) value);
+        }
+
+        if (value instanceof Boolean) {
+            return value.toString();
+        }
+
+        if (value instanceof Number || value instanceof JsonValue || JsonUtils.isCollectable(value)) {
+            JsonValue jsonValue = JsonUtils.toJsonValue(value);
+            return jsonValue instanceof JsonNull ? null : jsonValue.toJson();
+        }
+
+        return JsonUtil.quote(String.valueOf(value));
+    }
+
+    /**
+     * Applies the values of all updateable properties, that are part of the given json object, to the entry.
+     *
+     * @param entry entry to update
+     * @param json  json object to read from
+     * @return the json names of the updated properties
+     */
+    @SuppressWarnings({"rawtypes", "unchecked"})
+    Set<String> updateFromJson(Entry entry, JsonObject json) {
+        Set<String> updatedKeys = new HashSet<>();
+        for (PropertyCodec codec : updateableProperties) {
+            if (codec.setter == null) {
+                throw new UnsupportedOperationException("No setter found for field " + codec.property.getName());
+            }
+
+            if (json.hasKey(codec.jsonName)) {
+                JsonValue jsonValue = json.get(codec.jsonName);
+
+                Object newValue;
+                JsonItemPropertyConverter converter = codec.converter;
+                if (converter != null) {
+                    newValue = converter.toServerModel(jsonValue, entry);
+                } else {
+                    newValue = JsonUtils.ofJsonValue(jsonValue);
+                }
+
+                codec.setter.accept(entry, newValue);
+                updatedKeys.add(codec.jsonName);
+            }
+        }
+
+        return updatedKeys;
+    }
+
+    /**
+     * Returns all properties, that are not ignored, allowed to be updated from the client and have a setter.
+     *
+     * @return updateable properties
+     */
+    List<BeanProperties<Entry>> getUpdateableProperties() {
+        return updateableBeanProperties;
+    }
+
+    /**
+     * Indicates, if changes of the given field are tracked by the entry's setters.
+     */
+    private static boolean isTracked(Field field) {
+        Class<?> type = field.getType();
+        return field.getDeclaringClass() == Entry.class
+                && !Collection.class.isAssignableFrom(type)
+                && !Map.class.isAssignableFrom(type)
+                && !type.isArray();
+    }
+
+    private static boolean isToJsonOverridden(Class<? extends Entry> type) {
+        try {
+            return type.getMethod("toJson").getDeclaringClass() != Entry.class;
+        } catch (NoSuchMethodException e) {
+            return false;
+        }
+    }
+
+    /**
+     * The resolved json information of a single property.
+     */
+    private static final class PropertyCodec {
+        private final BeanProperties<Entry> property;
+        private final String jsonName;
+        private final String quotedJsonName;
+        private final ValueProvider<Entry, Object> getter;
+        private final Setter<Entry, Object> setter;
+        private final JsonItemPropertyConverter<?, ?> converter;
+
+        // index of the property's hash code for untracked properties, -1 for tracked properties
+        private final int untrackedIndex;
+
+        private PropertyCodec(BeanProperties<Entry> property, int untrackedIndex) {
+            this.property = property;
+            this.untrackedIndex = untrackedIndex;
+
+            Field field = property.getField();
+            JsonName nameAnnotation = field.getAnnotation(JsonName.class);
+            this.jsonName = nameAnnotation != null ? nameAnnotation.value() : property.getName();
+            this.quotedJsonName = JsonUtil.quote(jsonName);
+
+            this.getter = property.getGetter();
+            this.setter = property.getSetter().orElse(null);
+
+            JsonConverter converterAnnotation = field.getAnnotation(JsonConverter.class);
+            if (converterAnnotation != null) {
+                try {
+                    this.converter = converterAnnotation.value().getConstructor().newInstance();
+                } catch (ReflectiveOperationException e) {
+                    throw new IllegalStateException("Could not create converter for field " + property.getName(), e);
+                }
+            } else {
+                this.converter = null;
+            }
+        }
+
+        private boolean isTracked() {
+            return untrackedIndex < 0;
+        }
+    }
+}
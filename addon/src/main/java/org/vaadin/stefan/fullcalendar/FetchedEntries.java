@@ -0,0 +1,75 @@
+package org.vaadin.stefan.fullcalendar;
+
+import java.io.Serializable;
+import java.util.*;
+
+/**
+ * Stores the ids of the entries, that are currently known to the client, plus optionally (some of) their instances.
+ *
+ * @see FetchedEntriesStrategy
+ */
+final class FetchedEntries implements Serializable {
+
+    private final Set<String> ids = new HashSet<>();
+    private final Map<String, Entry> instances;
+
+    FetchedEntries(int maxInstances) {
+        if (maxInstances < 0) {
+            instances = new HashMap<>();
+        } else if (maxInstances == 0) {
+            instances = null;
+        } else {
+            instances = new LinkedHashMap<String, Entry>(16, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+                    return size() > maxInstances;
+                }
+            };
+        }
+    }
+
+    void put(Entry entry) {
+        String id = entry.getId();
+        ids.add(id);
+        if (instances != null) {
+            instances.put(id, entry);
+        }
+    }
+
+    void putId(String id) {
+        ids.add(id);
+    }
+
+    void remove(String id) {
+        ids.remove(id);
+        if (instances != null) {
+            instances.remove(id);
+        }
+    }
+
+    void clear() {
+        ids.clear();
+        if (instances != null) {
+            instances.clear();
+        }
+    }
+
+    boolean contains(String id) {
+        return ids.contains(id);
+    }
+
+    /**
+     * Returns the kept instance for the given id. Null, if the id is unknown or its instance is not kept.
+     */
+    Entry getInstance(String id) {
+        return instances != null ? instances.get(id) : null;
+    }
+
+    int size() {
+        return ids.size();
+    }
+
+    Set<String> getIds() {
+        return Collections.unmodifiableSet(ids);
+    }
+}
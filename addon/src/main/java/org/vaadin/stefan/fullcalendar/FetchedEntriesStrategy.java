@@ -0,0 +1,78 @@
+package org.vaadin.stefan.fullcalendar;
+
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.ToString;
+
+import java.io.Serializable;
+
+/**
+ * Defines, how the calendar remembers the entries of the last fetch. These are needed to resolve the entry ids of
+ * client side events (e.g. an entry click) to entry instances and to decide, if a refresh can send only the
+ * changed properties of an entry.
+ * <p></p>
+ * The ids of the last fetched entries are always kept. The strategy only decides, which entry instances are
+ * kept additionally. Instances, that are not kept, are resolved via {@link org.vaadin.stefan.fullcalendar.dataprovider.EntryProvider#fetchById(String)}
+ * when needed. Keeping fewer instances reduces the session size, but leads to more lookups in the entry provider and
+ * to complete instead of partial entry refreshes for the not kept instances.
+ *
+ * @see FullCalendar#setFetchedEntriesStrategy(FetchedEntriesStrategy)
+ */
+@Getter
+@EqualsAndHashCode
+@ToString
+public final class FetchedEntriesStrategy implements Serializable {
+
+    private static final FetchedEntriesStrategy KEEP_ALL = new FetchedEntriesStrategy(-1);
+    private static final FetchedEntriesStrategy KEEP_IDS_ONLY = new FetchedEntriesStrategy(0);
+
+    /**
+     * The maximal amount of kept entry instances. Negative for an unlimited amount.
+     */
+    private final int maxInstances;
+
+    private FetchedEntriesStrategy(int maxInstances) {
+        this.maxInstances = maxInstances;
+    }
+
+    /**
+     * Keeps all fetched entry instances. This is the default.
+     *
+     * @return strategy
+     */
+    public static FetchedEntriesStrategy keepAll() {
+        return KEEP_ALL;
+    }
+
+    /**
+     * Keeps only the ids of the fetched entries. Any entry is resolved via the entry provider.
+     *
+     * @return strategy
+     */
+    public static FetchedEntriesStrategy keepIdsOnly() {
+        return KEEP_IDS_ONLY;
+    }
+
+    /**
+     * Keeps up to the given amount of entry instances, where the least recently used instances are dropped first.
+     *
+     * @param maxInstances maximal amount of kept instances
+     * @return strategy
+     * @throws IllegalArgumentException when the amount is lower than 1
+     */
+    public static FetchedEntriesStrategy keepRecentlyUsed(int maxInstances) {
+        if (maxInstances < 1) {
+            throw new IllegalArgumentException("Max instances must be at least 1");
+        }
+        return new FetchedEntriesStrategy(maxInstances);
+    }
+
+    /**
+     * Creates the store for the fetched entries based on this strategy.
+     *
+     * @return new store
+     */
+    FetchedEntries createStore() {
+        return new FetchedEntries(maxInstances);
+    }
+}
@@ -27,10 +27,15 @@ import elemental.json.JsonObject;
 import elemental.json.JsonValue;
 import org.apache.commons.lang3.StringUtils;
 import org.apache.commons.text.CaseUtils;
+import org.slf4j.LoggerFactory;
 import org.vaadin.stefan.fullcalendar.CustomCalendarView.AnonymousCustomCalendarView;
+import org.vaadin.stefan.fullcalendar.dataprovider.DailyEntryAggregation;
+import org.vaadin.stefan.fullcalendar.dataprovider.EntriesChangeEvent;
 import org.vaadin.stefan.fullcalendar.dataprovider.EntryProvider;
 import org.vaadin.stefan.fullcalendar.dataprovider.EntryQuery;
 import org.vaadin.stefan.fullcalendar.dataprovider.InMemoryEntryProvider;
+import org.vaadin.stefan.fullcalendar.metrics.CalendarMetrics;
+import org.vaadin.stefan.fullcalendar.metrics.InMemoryCalendarMetrics;
 import org.vaadin.stefan.fullcalendar.model.Footer;
 import org.vaadin.stefan.fullcalendar.model.Header;
 
@@ -85,7 +90,10 @@ public class FullCalendar extends Component implements HasStyle, HasSize, HasThe
     /**
      * Caches the last fetched entries for entry based events.
      */
-    private final Map<String, Entry> lastFetchedEntries = new HashMap<>();
+    private FetchedEntries lastFetchedEntries = FetchedEntriesStrategy.keepAll().createStore();
+    private FetchedEntriesStrategy fetchedEntriesStrategy = FetchedEntriesStrategy.keepAll();
+    private CalendarMetrics metrics = CalendarMetrics.noop();
+    private EntryQuery lastFetchedQuery;
     private final Map<String, Serializable> options = new HashMap<>();
     private final Map<String, Object> serverSideOptions = new HashMap<>();
 
@@ -105,6 +113,18 @@ public class FullCalendar extends Component implements HasStyle, HasSize, HasThe
 
     private boolean refreshAllEntriesRequested;
 
+    // shown entries per day, when the fetched entries are aggregated per day, see setMaxEntriesPerDayAggregated
+    private Integer aggregatedMaxEntriesPerDay;
+    private Registration aggregationMoreLinkListenerRegistration;
+    private final SortedMap<LocalDate, Integer> hiddenEntryCounts = new TreeMap<>();
+
+    private boolean columnarEntryEncoding;
+
+    // the latest fetch requested by the client during the current roundtrip, see requestEntriesFromServer
+    private JsonObject pendingFetchQuery;
+    private boolean fetchScheduled;
+    private double lastFetchSequence = -1;
+
     private Map<String, String> customNativeEventsMap = new LinkedHashMap<>();
     private String eventDidMountCallback;
 
@@ -233,6 +253,11 @@ public class FullCalendar extends Component implements HasStyle, HasSize, HasThe
     protected void onAttach(AttachEvent attachEvent) {
         super.onAttach(attachEvent);
 
+        // a newly attached client element starts its fetch sequence from the beginning
+        lastFetchSequence = -1;
+        pendingFetchQuery = null;
+        fetchScheduled = false;
+
         if(!attachEvent.isInitialAttach()) {
             getElement().getNode().runWhenAttached(ui -> {
                 ui.beforeClientResponse(this, executionContext -> {
@@ -313,7 +338,7 @@ public class FullCalendar extends Component implements HasStyle, HasSize, HasThe
             entryProviderDataListeners.clear();
 
             entryProviderDataListeners.add(entryProvider.addEntryRefreshListener(event -> requestRefresh(event.getItemToRefresh())));
-            entryProviderDataListeners.add(entryProvider.addEntriesChangeListener(event -> requestRefreshAllEntries()));
+            entryProviderDataListeners.add(entryProvider.addEntriesChangeListener(this::onEntriesChange));
         }
     }
 
@@ -327,29 +352,129 @@ public class FullCalendar extends Component implements HasStyle, HasSize, HasThe
         return (T) entryProvider;
     }
 
+    /**
+     * Handles a change event of the entry provider. When the event contains the concrete changes (e.g. the result
+     * of a batch), only the affected entries are sent to the client, otherwise all entries are refetched.
+     * Added or updated entries, that do not belong to the last fetched timespan, are ignored.
+     *
+     * @param event change event
+     */
+    private void onEntriesChange(EntriesChangeEvent<? extends Entry> event) {
+        if (!event.hasChangeDetails()) {
+            requestRefreshAllEntries();
+            return;
+        }
+
+        List<Entry> items = new ArrayList<>();
+        event.getRemovedEntries().stream()
+                .filter(entry -> lastFetchedEntries.contains(entry.getId()))
+                .forEach(items::add);
+        Stream.concat(event.getUpdatedEntries().stream(), event.getAddedEntries().stream())
+                .filter(entry -> lastFetchedEntries.contains(entry.getId()) || matchesLastFetchedQuery(entry))
+                .forEach(items::add);
+
+        if (!items.isEmpty()) {
+            requestRefresh(items);
+        }
+    }
+
     /**
      * This method requests an entry refresh from the client side. Every call of this method will register
      * a client side call, since it might be called for different items. Calls are handled in the order
      * they are requested. This method will not interfere or "communicate" with {@link #requestRefreshAllEntries()}.
+     * <p></p>
+     * The entry is fetched from the entry provider by its id and only its json representation is sent to the
+     * client, where the respective client side event is replaced. If the client already knows the entry instance,
+     * only the properties changed since the last sending are transported. When the entry provider does not know the id
+     * anymore, the client side event is removed. Entries, that the client does not know and that do not match the
+     * last fetched query (e.g. because they are outside the shown timespan), are ignored.
      *
      * @param item item to refresh
      */
     protected void requestRefresh(@NotNull Entry item) {
+        requestRefresh(Collections.singletonList(item));
+    }
+
+    /**
+     * Requests a refresh of the given entries from the client side. Works the same way as {@link #requestRefresh(Entry)},
+     * but all entries are transported with one client side call and rendered at once.
+     *
+     * @param items items to refresh
+     */
+    protected void requestRefresh(@NotNull Collection<? extends Entry> items) {
         getElement().getNode().runWhenAttached(ui -> {
             ui.beforeClientResponse(this, pExecutionContext -> {
-                getEntryProvider()
-                        .fetchById(item.getId())
-                        .ifPresent(refreshedEntry -> {
-                            lastFetchedEntries.put(refreshedEntry.getId(), refreshedEntry);
-                            getElement().callJsFunction("refreshSingleEvent", refreshedEntry.getId());
-                        });
-
+                long startTime = System.nanoTime();
+                JsonArray refreshes = createEntryRefreshes(items);
+                if (refreshes.length() > 0) {
+                    getElement().callJsFunction("refreshEvents", refreshes);
+                }
 
-                // refreshAllRequested = false; // why was this here?
+                metrics.onEntriesRefreshed(this, items.size(), refreshes.length(), System.nanoTime() - startTime);
             });
         });
     }
 
+    /**
+     * Creates the client side refreshes for the given entries, see {@link #requestRefresh(Entry)}. Each refresh
+     * contains the id, the event data (null to remove the event) and a delta flag, if the data contains only the
+     * changed properties. Entries, that do not need to be sent to the client, are skipped.
+     *
+     * @param items items to refresh
+     * @return refreshes
+     */
+    JsonArray createEntryRefreshes(Collection<? extends Entry> items) {
+        JsonArray refreshes = Json.createArray();
+        for (Entry item : items) {
+            String id = item.getId();
+            boolean known = lastFetchedEntries.contains(id);
+            Optional<? extends Entry> refreshedEntry = getEntryProvider().fetchById(id);
+
+            JsonObject refresh = Json.createObject();
+            refresh.put("id", id);
+
+            if (refreshedEntry.isPresent()) {
+                Entry entry = refreshedEntry.get();
+                if (!known && !matchesLastFetchedQuery(entry)) {
+                    continue; // not shown by the client
+                }
+
+                // the same instance has been sent before, so the client only needs the changed properties
+                JsonObject data = lastFetchedEntries.getInstance(id) == entry ? entry.toJsonChanges(this) : null;
+                boolean delta = data != null;
+                if (!delta) {
+                    data = entry.toJson();
+                }
+
+                registerFetchedEntry(entry);
+
+                if (delta && data.keys().length <= 1) {
+                    continue;
+                }
+
+                refresh.put("data", data);
+                refresh.put("delta", delta);
+            } else if (known) {
+                lastFetchedEntries.remove(id);
+                refresh.put("data", Json.createNull());
+            } else {
+                continue;
+            }
+
+            refreshes.set(refreshes.length(), refresh);
+        }
+
+        return refreshes;
+    }
+
+    /**
+     * Indicates, if the given entry matches the query of the last fetch (e.g. it is inside the fetched timespan).
+     * False, when the client has not fetched any entries yet.
+     */
+    private boolean matchesLastFetchedQuery(Entry entry) {
+        return lastFetchedQuery != null && lastFetchedQuery.applyFilter(Stream.of(entry)).findAny().isPresent();
+    }
+
     /**
      * This method is intended to be triggered by the entry provider "refreshAll" methods.
      * Informs the client side, that a "refresh all" has been requested. Subsequent calls to this method during the
@@ -367,6 +492,7 @@ public class FullCalendar extends Component implements HasStyle, HasSize, HasThe
                 ui.beforeClientResponse(this, pExecutionContext -> {
                     getElement().callJsFunction("refreshAllEvents");
                     refreshAllEntriesRequested = false;
+                    metrics.onRefreshAllRequested(this);
                 });
             });
         }
@@ -381,34 +507,341 @@ public class FullCalendar extends Component implements HasStyle, HasSize, HasThe
         return entryProvider instanceof InMemoryEntryProvider;
     }
 
+    /**
+     * Called by the client to request the entries for the given query. The query contains a sequence number, that
+     * increases with every fetch of the client. The fetch itself is deferred to the end of the current roundtrip,
+     * where only the latest requested fetch is executed and sent back to the client. Fetches superseded by a newer one
+     * (e.g. when the user navigates rapidly through the calendar) are skipped, so that the backend load is the
+     * same regardless of how many fetches the client has queued in the meantime.
+     *
+     * @param query query containing the start and end of the fetched timespan and the sequence number
+     * @see #fetchEntriesFromServerAsString(JsonObject)
+     */
+    @ClientCallable
+    protected void requestEntriesFromServer(@NotNull JsonObject query) {
+        Objects.requireNonNull(query);
+
+        double sequence = query.hasKey("sequence") ? query.getNumber("sequence") : Double.MAX_VALUE;
+        if (sequence <= lastFetchSequence) {
+            metrics.onEntriesFetchSkipped(this, 1);
+            return; // outdated, a newer fetch has already been answered
+        }
+
+        if (pendingFetchQuery != null) {
+            metrics.onEntriesFetchSkipped(this, 1);
+        }
+
+        pendingFetchQuery = query;
+        if (!fetchScheduled) {
+            fetchScheduled = true;
+            getElement().getNode().runWhenAttached(ui -> ui.beforeClientResponse(this, pExecutionContext -> handlePendingFetch()));
+        }
+    }
+
+    /**
+     * Executes the latest fetch requested by the client and sends the result back to it. When the fetch fails,
+     * the client is told, that the fetch failed, and the exception is passed to the session's error handler.
+     */
+    void handlePendingFetch() {
+        fetchScheduled = false;
+        JsonObject pendingQuery = pendingFetchQuery;
+        pendingFetchQuery = null;
+
+        if (pendingQuery != null) {
+            // the client's sequence numbers start at 1, a response without a sequence is ignored by the client
+            double sequence = pendingQuery.hasKey("sequence") ? pendingQuery.getNumber("sequence") : 0;
+            if (pendingQuery.hasKey("sequence")) {
+                lastFetchSequence = sequence;
+            }
+
+            String json;
+            try {
+                json = fetchEntriesFromServerAsString(pendingQuery);
+            } catch (RuntimeException e) {
+                // no entries means a failed fetch for the client, otherwise it would wait for the response forever.
+                // The exception is not rethrown here, as it would prevent the response (and thus the failure) from being sent
+                getElement().callJsFunction("receiveEntries", sequence, null, null);
+                handleFetchException(e);
+                return;
+            }
+
+            getElement().callJsFunction("receiveEntries", sequence, json, createHiddenEntryCountsJson());
+        }
+    }
+
+    /**
+     * Passes an exception of a failed fetch to the error handler of the session. The exception is rethrown inside
+     * an access command of the UI, so that the current response is still sent. It is only logged, when the calendar
+     * is not attached.
+     *
+     * @param exception exception
+     */
+    private void handleFetchException(RuntimeException exception) {
+        Optional<UI> ui = getUI();
+        if (ui.isPresent()) {
+            ui.get().access(() -> {
+                throw exception;
+            });
+        } else {
+            LoggerFactory.getLogger(FullCalendar.class).error("Could not fetch entries", exception);
+        }
+    }
+
+    /**
+     * Fetches the entries for the given query from the entry provider. The entries are returned as a single, already
+     * serialized json array string, which is parsed once by the client. This way no intermediate json objects need
+     * to be created for the entries.
+     * <p></p>
+     * When the entries are aggregated per day (see {@link #setMaxEntriesPerDayAggregated(int)}), only the first
+     * entries of each day are returned. The amount of left out entries per day is sent to the client alongside.
+     * <p></p>
+     * When the columnar entry encoding is enabled (see {@link #setColumnarEntryEncoding(boolean)}), a columnar json
+     * object string is returned instead of the json array string.
+     *
+     * @param query query containing the start and end of the fetched timespan
+     * @return json array string or columnar json object string
+     */
+    protected String fetchEntriesFromServerAsString(@NotNull JsonObject query) {
+        return fetchEntriesJson(query, columnarEntryEncoding);
+    }
+
+    /**
+     * Fetches the entries for the given query from the entry provider and returns them as json array. Always
+     * uses the json array format, regardless of the columnar entry encoding.
+     *
+     * @param query query containing the start and end of the fetched timespan
+     * @return json array
+     * @deprecated The client requests entries via {@link #requestEntriesFromServer(JsonObject)} and receives them as
+     * serialized string. Use {@link #fetchEntriesFromServerAsString(JsonObject)} instead.
+     */
+    @Deprecated
     @ClientCallable
     protected JsonArray fetchEntriesFromServer(@NotNull JsonObject query) {
+        return Json.instance().parse(fetchEntriesJson(query, false));
+    }
+
+    private String fetchEntriesJson(JsonObject query, boolean columnar) {
         Objects.requireNonNull(query);
         Objects.requireNonNull(entryProvider);
 
+        long startTime = System.nanoTime();
         lastFetchedEntries.clear();
+        hiddenEntryCounts.clear();
 
         LocalDateTime start = query.hasKey("start") ? JsonUtils.parseClientSideDateTime(query.getString("start")) : null;
         LocalDateTime end = query.hasKey("end") ? JsonUtils.parseClientSideDateTime(query.getString("end")) : null;
 
-        JsonArray array = Json.createArray();
-        entryProvider.fetch(new EntryQuery(start, end, EntryQuery.AllDay.BOTH))
-                .peek(entry -> {
-                    entry.setCalendar(this);
-                    entry.setKnownToTheClient(true); // mark entry as "has been sent to client"
-                    lastFetchedEntries.put(entry.getId(), entry);
-                })
-                .map(Entry::toJson)
-                .forEach(jsonObject -> array.set(array.length(), jsonObject));
+        lastFetchedQuery = createEntryQuery(start, end);
+
+        Stream<? extends Entry> entries;
+        if (aggregatedMaxEntriesPerDay != null) {
+            DailyEntryAggregation<? extends Entry> aggregation = fetchEntriesAggregated(lastFetchedQuery, aggregatedMaxEntriesPerDay);
+            hiddenEntryCounts.putAll(aggregation.getHiddenEntryCounts());
+            entries = aggregation.getEntries().stream();
+        } else {
+            entries = fetchEntries(lastFetchedQuery);
+        }
+
+        String json;
+        if (columnar) {
+            ColumnarEntryWriter writer = new ColumnarEntryWriter(start);
+            entries.forEach(entry -> {
+                writer.write(entry);
+                registerFetchedEntry(entry);
+            });
+
+            json = writer.toJson();
+        } else {
+            StringBuilder builder = new StringBuilder("[");
+            entries.forEach(entry -> {
+                if (builder.length() > 1) {
+                    builder.append(',');
+                }
+
+                entry.appendJson(builder);
+                registerFetchedEntry(entry);
+            });
+
+            json = builder.append(']').toString();
+        }
+
+        metrics.onEntriesFetched(this, lastFetchedQuery, lastFetchedEntries.size(), System.nanoTime() - startTime, json.length());
+        return json;
+    }
 
-        return array;
+    /**
+     * Registers the given entry as sent to the client. Changes of the entry are tracked for this calendar, when
+     * its instance is kept, so that the next refresh can send only the changed properties.
+     */
+    private void registerFetchedEntry(Entry entry) {
+        entry.setCalendar(this);
+        entry.setKnownToTheClient(true); // mark entry as "has been sent to client"
+        lastFetchedEntries.put(entry);
+        entry.markAsSynchronized(lastFetchedEntries.getInstance(entry.getId()) == entry ? this : null);
     }
 
     /**
-     * Returns an entry with the given id from the last fetched set of entries. Returns an empty instance,
-     * when there was no fetch yet or the id is unknown.
+     * Enables or disables the columnar encoding of fetched entries. By default each fetched entry is sent as
+     * a json object, which repeats the property names (like "backgroundColor" or "durationEditable") for
+     * every entry. The columnar encoding sends each property once with the values of all entries instead.
+     * Repeated values (e.g. colors, class names, group ids or flags) are dictionary encoded or sent only once,
+     * when all entries share them, and start and end are sent as numeric offsets to the start of the
+     * fetched range. The client decodes the columns back to the same entries.
      * <p></p>
-     * Uses {@link InMemoryEntryProvider#getEntryById(String)} when the eager in memory provider is used.
+     * This shrinks the response of fetches containing many entries (e.g. long timeline ranges) significantly,
+     * while adding a small decoding overhead on the client. Single entry refreshes are not affected.
+     *
+     * @param columnarEntryEncoding use the columnar encoding
+     */
+    public void setColumnarEntryEncoding(boolean columnarEntryEncoding) {
+        this.columnarEntryEncoding = columnarEntryEncoding;
+    }
+
+    /**
+     * Indicates, if fetched entries are sent in the columnar encoding. By default false.
+     *
+     * @return columnar entry encoding
+     * @see #setColumnarEntryEncoding(boolean)
+     */
+    public boolean isColumnarEntryEncoding() {
+        return columnarEntryEncoding;
+    }
+
+    /**
+     * Creates the query, that is passed to the entry provider, when the client fetches the entries for the given
+     * time range. Subclasses may return a more specific query to narrow the fetched entries.
+     *
+     * @param start start of the fetched time range (might be null)
+     * @param end   end of the fetched time range (might be null)
+     * @return entry query
+     */
+    protected EntryQuery createEntryQuery(LocalDateTime start, LocalDateTime end) {
+        return new EntryQuery(start, end, EntryQuery.AllDay.BOTH);
+    }
+
+    /**
+     * Fetches the entries for the given query, when the client requests entries. By default passes the query
+     * to the entry provider. Subclasses may override this method to resolve the query by other means, as long
+     * as the result matches the entry provider's result.
+     *
+     * @param query query
+     * @return stream of matching entries
+     */
+    protected Stream<? extends Entry> fetchEntries(EntryQuery query) {
+        return entryProvider.fetch(query);
+    }
+
+    /**
+     * Fetches the entries for the given query aggregated per day, when the client requests entries and
+     * the entries are aggregated (see {@link #setMaxEntriesPerDayAggregated(int)}). By default passes the query
+     * to the entry provider's {@link EntryProvider#fetchAggregated(EntryQuery, int, Timezone)}.
+     *
+     * @param query            query
+     * @param maxEntriesPerDay shown entries per day
+     * @return aggregated entries
+     */
+    protected DailyEntryAggregation<? extends Entry> fetchEntriesAggregated(EntryQuery query, int maxEntriesPerDay) {
+        return entryProvider.fetchAggregated(query, maxEntriesPerDay, getTimezone());
+    }
+
+    /**
+     * Sends the entries of the given day to the client, that have been left out by the last aggregated fetch
+     * (see {@link #setMaxEntriesPerDayAggregated(int)}). Called, when the user clicks the "more" link of a day.
+     * Does nothing, if no entries have been left out for the day.
+     *
+     * @param date day to load the left out entries for
+     * @throws NullPointerException when null is passed
+     */
+    protected void fetchHiddenEntries(@NotNull LocalDate date) {
+        Objects.requireNonNull(date);
+        if (!hiddenEntryCounts.containsKey(date)) {
+            return;
+        }
+
+        Timezone timezone = getTimezone();
+        EntryQuery query = createEntryQuery(
+                timezone.removeTimezoneOffset(date.atStartOfDay()),
+                timezone.removeTimezoneOffset(date.plusDays(1).atStartOfDay()));
+
+        List<Entry> hiddenEntries = fetchEntries(query)
+                .filter(entry -> !lastFetchedEntries.contains(entry.getId()) && DailyEntryAggregation.covers(entry, date, timezone))
+                .collect(Collectors.toList());
+
+        // the loaded entries might also be hidden on other days
+        hiddenEntryCounts.remove(date);
+        Iterator<Map.Entry<LocalDate, Integer>> iterator = hiddenEntryCounts.entrySet().iterator();
+        while (iterator.hasNext()) {
+            Map.Entry<LocalDate, Integer> hiddenEntryCount = iterator.next();
+            long loaded = hiddenEntries.stream().filter(entry -> DailyEntryAggregation.covers(entry, hiddenEntryCount.getKey(), timezone)).count();
+            if (loaded >= hiddenEntryCount.getValue()) {
+                iterator.remove();
+            } else {
+                hiddenEntryCount.setValue((int) (hiddenEntryCount.getValue() - loaded));
+            }
+        }
+
+        getElement().callJsFunction("setHiddenEntryCounts", createHiddenEntryCountsJson());
+        sendAdditionalEntries(hiddenEntries);
+    }
+
+    /**
+     * Returns the amount of entries per day, that have been left out by the last aggregated fetch and
+     * not yet been loaded. Empty, when the entries are not aggregated.
+     *
+     * @return hidden entry counts
+     */
+    public Map<LocalDate, Integer> getHiddenEntryCounts() {
+        return Collections.unmodifiableMap(hiddenEntryCounts);
+    }
+
+    private JsonObject createHiddenEntryCountsJson() {
+        JsonObject json = Json.createObject();
+        hiddenEntryCounts.forEach((date, count) -> json.put(date.toString(), count));
+        return json;
+    }
+
+    /**
+     * Returns the query of the last fetch of the client. Empty, if the client has not fetched any entries yet.
+     *
+     * @return last fetched query or empty
+     */
+    protected Optional<EntryQuery> getLastFetchedQuery() {
+        return Optional.ofNullable(lastFetchedQuery);
+    }
+
+    /**
+     * Sends the given entries to the client in addition to the ones of the last fetch, for instance when
+     * the shown data has been extended without a new fetch. The entries are registered as fetched entries and
+     * will be replaced by the next fetch of the client.
+     *
+     * @param entries entries to send
+     * @throws NullPointerException when null is passed
+     */
+    protected void sendAdditionalEntries(@NotNull Collection<? extends Entry> entries) {
+        Objects.requireNonNull(entries);
+        if (entries.isEmpty()) {
+            return;
+        }
+
+        JsonArray refreshes = Json.createArray();
+        for (Entry entry : entries) {
+            JsonObject json = entry.toJson();
+            registerFetchedEntry(entry);
+
+            JsonObject refresh = Json.createObject();
+            refresh.put("id", entry.getId());
+            refresh.put("data", json);
+            refresh.put("delta", false);
+            refreshes.set(refreshes.length(), refresh);
+        }
+
+        getElement().callJsFunction("refreshEvents", refreshes);
+    }
+
+    /**
+     * Returns an entry with the given id from the last fetched set of entries. Returns an empty instance,
+     * when there was no fetch yet or the id is unknown. Depending on the {@link FetchedEntriesStrategy}, the
+     * entry is either taken from the kept instances or fetched from the entry provider.
      * <p></p>
      * This method is an internal method, intended to be used by entry based events only. Do not use it for
      * any other purpose as the implementation or scope may change in future.
@@ -417,7 +850,73 @@ public class FullCalendar extends Component implements HasStyle, HasSize, HasThe
      * @return cached entry from last fetch or empty
      */
     public Optional<Entry> getCachedEntryFromFetch(String id) {
-        return Optional.ofNullable(lastFetchedEntries.get(id));
+        if (!lastFetchedEntries.contains(id)) {
+            return Optional.empty();
+        }
+
+        Entry entry = lastFetchedEntries.getInstance(id);
+        if (entry != null) {
+            return Optional.of(entry);
+        }
+
+        return entryProvider.fetchById(id).map(Entry.class::cast);
+    }
+
+    /**
+     * Sets the strategy, how the entries of the last fetch are kept in memory. By default all fetched entry
+     * instances are kept. When showing a lot of entries in many sessions, keeping only the ids or a limited
+     * amount of instances reduces the session size. Already fetched ids are kept, when changing the strategy.
+     *
+     * @param fetchedEntriesStrategy strategy
+     * @throws NullPointerException when null is passed
+     * @see FetchedEntriesStrategy
+     */
+    public void setFetchedEntriesStrategy(@NotNull FetchedEntriesStrategy fetchedEntriesStrategy) {
+        Objects.requireNonNull(fetchedEntriesStrategy);
+        if (!this.fetchedEntriesStrategy.equals(fetchedEntriesStrategy)) {
+            FetchedEntries newStore = fetchedEntriesStrategy.createStore();
+            for (String id : lastFetchedEntries.getIds()) {
+                Entry entry = lastFetchedEntries.getInstance(id);
+                if (entry != null) {
+                    newStore.put(entry);
+                } else {
+                    newStore.putId(id);
+                }
+            }
+
+            this.fetchedEntriesStrategy = fetchedEntriesStrategy;
+            this.lastFetchedEntries = newStore;
+        }
+    }
+
+    /**
+     * Sets the metrics instance, that receives measurements of this calendar, e.g. how long fetching entries takes.
+     * By default, all measurements are ignored.
+     *
+     * @param metrics metrics
+     * @throws NullPointerException when null is passed
+     * @see InMemoryCalendarMetrics
+     */
+    public void setMetrics(@NotNull CalendarMetrics metrics) {
+        this.metrics = Objects.requireNonNull(metrics);
+    }
+
+    /**
+     * Returns the metrics instance of this calendar. Never null.
+     *
+     * @return metrics
+     */
+    public CalendarMetrics getMetrics() {
+        return metrics;
+    }
+
+    /**
+     * Returns the strategy, how the entries of the last fetch are kept in memory.
+     *
+     * @return strategy
+     */
+    public FetchedEntriesStrategy getFetchedEntriesStrategy() {
+        return fetchedEntriesStrategy;
     }
 
     protected InMemoryEntryProvider<Entry> assureInMemoryProvider() {
@@ -615,6 +1114,7 @@ public class FullCalendar extends Component implements HasStyle, HasSize, HasThe
     private void callOptionUpdate(@NotNull String option, Serializable value, Object valueForServerSide, String method, Serializable... additionalParameters) {
         Objects.requireNonNull(option);
 
+        long startTime = System.nanoTime();
         if (value == null) {
             options.remove(option);
             serverSideOptions.remove(option);
@@ -630,6 +1130,8 @@ public class FullCalendar extends Component implements HasStyle, HasSize, HasThe
 
         Serializable[] parameters = Stream.concat(Stream.of(option, value), Stream.of(additionalParameters)).toArray(Serializable[]::new);
         getElement().callJsFunction(method, parameters);
+
+        metrics.onOptionUpdated(this, option, System.nanoTime() - startTime);
     }
 
     /**
@@ -1108,6 +1610,59 @@ public class FullCalendar extends Component implements HasStyle, HasSize, HasThe
      */
     public void setMaxEntriesPerDay(int maxEntriesPerDay) {
         setOption(Option.MAX_ENTRIES_PER_DAY, maxEntriesPerDay);
+        setAggregatedMaxEntriesPerDay(null);
+    }
+
+    /**
+     * Limits the maximal entries shown per day to the given number like {@link #setMaxEntriesPerDay(int)}, but
+     * also limits the entries sent to the client. For each day only the first entries are fetched plus the
+     * amount of left out entries, which is added to the "+ x more entries" link. When the user clicks the link,
+     * the left out entries of that day are loaded. This reduces the payload of dense month or multi month views
+     * significantly.
+     * <p></p>
+     * Entries are fetched via {@link EntryProvider#fetchAggregated(EntryQuery, int, Timezone)}. Recurring
+     * entries are not aggregated.
+     *
+     * @param maxEntriesPerDay maximal entries per day
+     * @throws IllegalArgumentException when the max entries per day are less than 1
+     * @see #setMaxEntriesPerDay(int)
+     * @see DailyEntryAggregation
+     */
+    public void setMaxEntriesPerDayAggregated(int maxEntriesPerDay) {
+        if (maxEntriesPerDay < 1) {
+            throw new IllegalArgumentException("Max entries per day must be greater than 0");
+        }
+
+        setOption(Option.MAX_ENTRIES_PER_DAY, maxEntriesPerDay);
+        setAggregatedMaxEntriesPerDay(maxEntriesPerDay);
+    }
+
+    /**
+     * Returns the maximal entries shown per day, when the entries are aggregated per day. Empty, if the
+     * entries are not aggregated.
+     *
+     * @return aggregated max entries per day or empty
+     * @see #setMaxEntriesPerDayAggregated(int)
+     */
+    public Optional<Integer> getMaxEntriesPerDayAggregated() {
+        return Optional.ofNullable(aggregatedMaxEntriesPerDay);
+    }
+
+    private void setAggregatedMaxEntriesPerDay(Integer maxEntriesPerDay) {
+        if (Objects.equals(aggregatedMaxEntriesPerDay, maxEntriesPerDay)) {
+            return;
+        }
+
+        aggregatedMaxEntriesPerDay = maxEntriesPerDay;
+        getElement().setProperty("entryAggregationEnabled", maxEntriesPerDay != null);
+        if (maxEntriesPerDay == null) {
+            aggregationMoreLinkListenerRegistration.remove();
+            aggregationMoreLinkListenerRegistration = null;
+        } else if (aggregationMoreLinkListenerRegistration == null) {
+            aggregationMoreLinkListenerRegistration = addMoreLinkClickedListener(event -> fetchHiddenEntries(event.getClickedDate()));
+        }
+
+        requestRefreshAllEntries();
     }
 
     /**
@@ -1119,6 +1674,7 @@ public class FullCalendar extends Component implements HasStyle, HasSize, HasThe
      */
     public void setMaxEntriesPerDayFitToCell() {
         setOption(Option.MAX_ENTRIES_PER_DAY, true);
+        setAggregatedMaxEntriesPerDay(null);
     }
 
     /**
@@ -1130,6 +1686,7 @@ public class FullCalendar extends Component implements HasStyle, HasSize, HasThe
      */
     public void setMaxEntriesPerDayUnlimited() {
         setOption(Option.MAX_ENTRIES_PER_DAY, false);
+        setAggregatedMaxEntriesPerDay(null);
     }
 
     /**
@@ -1502,6 +2059,10 @@ public class FullCalendar extends Component implements HasStyle, HasSize, HasThe
      * The additional fetched entries are not cached on the client side. When switching to an adjacent period,
      * the client will fetch the entries for that period again (inclusive its own adjacent periods). Therefore,
      * if network performance is more important than visual appearence, you should disable prefetching.
+     * <p></p>
+     * As an alternative, a {@link org.vaadin.stefan.fullcalendar.dataprovider.CachingEntryProvider} with a prefetch
+     * executor can be used to load the adjacent periods in the background on the server side, without increasing
+     * the payload sent to the client. Such a provider disables the client side prefetch, while it is set.
      *
      * @param prefetchEnabled enable prefetch
      */
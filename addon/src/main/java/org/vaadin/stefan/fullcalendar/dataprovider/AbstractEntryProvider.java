@@ -8,16 +8,19 @@ import org.vaadin.stefan.fullcalendar.FullCalendar;
 import org.vaadin.stefan.fullcalendar.dataprovider.EntriesChangeEvent.EntriesChangeListener;
 import org.vaadin.stefan.fullcalendar.dataprovider.EntryRefreshEvent.EntryRefreshListener;
 
+import java.io.Serializable;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.function.Consumer;
 
 /**
  * Abstract base implementation of the {@link EntryProvider} interface.
  * @author Stefan Uebe
  */
-public abstract class AbstractEntryProvider<T extends Entry> implements EntryProvider<T> {
+public abstract class AbstractEntryProvider<T extends Entry> implements EntryProvider<T>, Serializable {
 
-    private final Map<Class<?>, List<SerializableConsumer<?>>> listeners = new HashMap<>();
+    private final Map<Class<?>, List<SerializableConsumer<?>>> listeners = new ConcurrentHashMap<>();
 
     @Getter
     private FullCalendar calendar;
@@ -32,6 +35,19 @@ public abstract class AbstractEntryProvider<T extends Entry> implements EntryPro
         fireEvent(new EntryRefreshEvent<>(this, item));
     }
 
+    /**
+     * Called, when entries have been changed outside of this provider, e.g. in a shared backend by another session
+     * (see {@link EntryChangeBroadcaster}). Informs registered listeners about the changed entries, so that they can
+     * update them. Subclasses, that cache entries, should override this method to update their cache.
+     *
+     * @param added   added entries
+     * @param updated updated entries
+     * @param removed removed entries
+     */
+    protected void onEntriesChangedExternally(Collection<T> added, Collection<T> updated, Collection<T> removed) {
+        fireEvent(new EntriesChangeEvent<>(this, added, updated, removed));
+    }
+
     /**
      * Registers a new listener with the specified activation method to listen
      * events generated by this component. If the activation method does not
@@ -45,7 +61,8 @@ public abstract class AbstractEntryProvider<T extends Entry> implements EntryPro
      * @return a registration for the listener
      */
     protected <E> Registration addListener(Class<E> eventType, SerializableConsumer<E> method) {
-        List<SerializableConsumer<?>> list = listeners.computeIfAbsent(eventType, key -> new ArrayList<>());
+        // concurrent collections, since events might be fired by background threads
+        List<SerializableConsumer<?>> list = listeners.computeIfAbsent(eventType, key -> new CopyOnWriteArrayList<>());
 
         return Registration.addAndRemove(list, method);
     }
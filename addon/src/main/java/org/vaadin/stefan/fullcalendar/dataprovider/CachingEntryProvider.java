@@ -0,0 +1,541 @@
+package org.vaadin.stefan.fullcalendar.dataprovider;
+
+import com.vaadin.flow.shared.Registration;
+import lombok.Getter;
+import lombok.NonNull;
+import org.vaadin.stefan.fullcalendar.DatesRenderedEvent;
+import org.vaadin.stefan.fullcalendar.Entry;
+import org.vaadin.stefan.fullcalendar.FullCalendar;
+import org.vaadin.stefan.fullcalendar.NotNull;
+import org.vaadin.stefan.fullcalendar.Timezone;
+
+import java.io.Serializable;
+import java.time.*;
+import java.time.temporal.ChronoUnit;
+import java.time.temporal.TemporalAdjusters;
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * An {@link EntryProvider} decorator, that caches the results of another (lazy loading) entry provider, e.g.
+ * a {@link CallbackEntryProvider}. This prevents fetching the same timespan again and again from the backend,
+ * for instance when the user navigates back and forth in the calendar.
+ * <p></p>
+ * The cache is organized in buckets of a fixed {@link BucketSize} (day, week or month). A fetch is answered
+ * from the cached buckets, only the missing buckets are fetched from the delegate, where adjacent missing buckets
+ * are merged into a single sub query. Queries with an open start or end are not cached and always passed
+ * to the delegate.
+ * <p></p>
+ * Buckets are evicted, when the maximal amount of buckets is exceeded (least recently used first) or when their
+ * time to live has expired. Calling {@link #refreshAll()} clears the whole cache, calling {@link #refreshItem(Entry)}
+ * evicts all buckets containing the given entry or overlapping its current timespan. The same applies to refresh
+ * events fired by the delegate. Change events of the delegate, that contain change details (e.g. from a batch),
+ * only evict the buckets of the changed entries. The cache can also be invalidated manually by {@link #invalidate(LocalDateTime, LocalDateTime)}.
+ * <p></p>
+ * Buckets can also be loaded in advance by {@link #prefetch(LocalDateTime, LocalDateTime)} or asynchronously by
+ * {@link #prefetchAsync(LocalDateTime, LocalDateTime)}. When a prefetch executor is set, the provider automatically
+ * prefetches the time ranges before and after the shown one in the background, each time the calendar has rendered
+ * a new set of dates (see {@link #setPrefetchExecutor(Executor)}). In that case the client side prefetch of the calendar
+ * is disabled automatically, since adjacent ranges are then served from memory anyway.
+ * <p></p>
+ * The delegate is expected to return all entries, that overlap the queried timespan, regardless of the all day
+ * flag of the query. Access to the cache is synchronized, so that it can be filled by background threads, but the
+ * delegate needs to be thread safe when asynchronous prefetching is used.
+ */
+public class CachingEntryProvider<T extends Entry> extends AbstractEntryProvider<T> {
+
+    /**
+     * The default maximal amount of cached buckets.
+     */
+    public static final int DEFAULT_MAX_BUCKETS = 64;
+
+    @Getter
+    private final EntryProvider<T> delegate;
+
+    @Getter
+    private final BucketSize bucketSize;
+
+    private final LinkedHashMap<LocalDateTime, Bucket<T>> buckets = new LinkedHashMap<>(16, 0.75f, true);
+
+    @Getter
+    private int maxBuckets = DEFAULT_MAX_BUCKETS;
+
+    @Getter
+    private Duration timeToLive;
+
+    private Clock clock = Clock.systemUTC();
+
+    @Getter
+    private transient Executor prefetchExecutor;
+    private Registration datesRenderedRegistration;
+
+    // the calendar's client side prefetch has been disabled by this provider and has to be restored
+    private boolean clientPrefetchDisabled;
+
+    // incremented on each invalidation, so that fetches running in parallel do not store outdated buckets
+    private long cacheGeneration;
+
+    /**
+     * Creates a new instance, that caches the given delegate using week buckets.
+     *
+     * @param delegate delegate to cache
+     * @throws NullPointerException when null is passed
+     */
+    public CachingEntryProvider(@NotNull EntryProvider<T> delegate) {
+        this(delegate, BucketSize.WEEK);
+    }
+
+    /**
+     * Creates a new instance, that caches the given delegate using buckets of the given size.
+     *
+     * @param delegate   delegate to cache
+     * @param bucketSize bucket size
+     * @throws NullPointerException when null is passed
+     */
+    public CachingEntryProvider(@NotNull EntryProvider<T> delegate, @NotNull BucketSize bucketSize) {
+        this.delegate = Objects.requireNonNull(delegate);
+        this.bucketSize = Objects.requireNonNull(bucketSize);
+
+        delegate.addEntriesChangeListener(event -> {
+            if (event.hasChangeDetails()) {
+                event.getAddedEntries().forEach(this::invalidate);
+                event.getUpdatedEntries().forEach(this::invalidate);
+                event.getRemovedEntries().forEach(this::invalidate);
+                fireEvent(new EntriesChangeEvent<>(this, event.getAddedEntries(), event.getUpdatedEntries(), event.getRemovedEntries()));
+            } else {
+                invalidateAll();
+                fireEvent(new EntriesChangeEvent<>(this));
+            }
+        });
+
+        delegate.addEntryRefreshListener(event -> {
+            invalidate(event.getItemToRefresh());
+            fireEvent(new EntryRefreshEvent<>(this, event.getItemToRefresh()));
+        });
+    }
+
+    /**
+     * Sets the maximal amount of cached buckets. When exceeded, the least recently used buckets will be evicted.
+     *
+     * @param maxBuckets maximal amount of buckets
+     * @throws IllegalArgumentException when the value is lower than 1
+     */
+    public void setMaxBuckets(int maxBuckets) {
+        if (maxBuckets < 1) {
+            throw new IllegalArgumentException("Max buckets must be at least 1");
+        }
+
+        synchronized (buckets) {
+            this.maxBuckets = maxBuckets;
+            evictExceedingBuckets();
+        }
+    }
+
+    /**
+     * Sets the time to live of a cached bucket. Expired buckets will be refetched on the next access.
+     * Null means, that buckets never expire (default).
+     *
+     * @param timeToLive time to live or null
+     * @throws IllegalArgumentException when the duration is zero or negative
+     */
+    public void setTimeToLive(Duration timeToLive) {
+        if (timeToLive != null && (timeToLive.isNegative() || timeToLive.isZero())) {
+            throw new IllegalArgumentException("Time to live must be positive");
+        }
+
+        this.timeToLive = timeToLive;
+    }
+
+    /**
+     * Sets the clock, that is used to check the time to live. Mainly intended for testing purposes.
+     *
+     * @param clock clock
+     * @throws NullPointerException when null is passed
+     */
+    public void setClock(@NotNull Clock clock) {
+        this.clock = Objects.requireNonNull(clock);
+    }
+
+    /**
+     * Sets the executor, that is used for asynchronous prefetching. When set and this provider is connected with
+     * a calendar, the time ranges before and after the rendered one are prefetched in the background each time
+     * the calendar renders a new set of dates. The prefetched ranges have the same length as the rendered interval
+     * (e.g. a month) plus one week on each side to cover dates of adjacent months shown in the view.
+     * <p></p>
+     * The executor should not be the one handling the http requests, as fetching from the backend may block. Passing
+     * null disables the automatic prefetch (default).
+     * <p></p>
+     * While an executor is set, the client side prefetch of the connected calendar is disabled (see
+     * {@link FullCalendar#setPrefetchEnabled(boolean)}), as it would fetch the adjacent ranges with each fetch again
+     * and send them to the client. It is enabled again, when the executor is removed or the provider is
+     * disconnected from the calendar.
+     * <p></p>
+     * The executor is not serialized. After a session has been deserialized, the client side prefetch is enabled
+     * again, when the calendar renders the next set of dates, unless a new executor has been set in the meantime.
+     *
+     * @param prefetchExecutor executor or null
+     */
+    public void setPrefetchExecutor(Executor prefetchExecutor) {
+        this.prefetchExecutor = prefetchExecutor;
+        updateClientPrefetch(getCalendar());
+    }
+
+    /**
+     * Disables the client side prefetch of the given calendar, as long as the adjacent ranges are prefetched by this
+     * provider, and restores it otherwise.
+     */
+    private void updateClientPrefetch(FullCalendar calendar) {
+        if (calendar == null) {
+            return;
+        }
+
+        if (prefetchExecutor != null && getCalendar() == calendar) {
+            if (calendar.isPrefetchEnabled()) {
+                calendar.setPrefetchEnabled(false);
+                clientPrefetchDisabled = true;
+            }
+        } else if (clientPrefetchDisabled) {
+            calendar.setPrefetchEnabled(true);
+            clientPrefetchDisabled = false;
+        }
+    }
+
+    @Override
+    public Stream<T> fetch(@NonNull EntryQuery query) {
+        LocalDateTime start = query.getStart();
+        LocalDateTime end = query.getEnd();
+
+        if (start == null || end == null || !start.isBefore(end)) {
+            return delegate.fetch(query);
+        }
+
+        Map<LocalDateTime, Bucket<T>> fetchedBuckets = fetchMissingBuckets(start, end);
+
+        // buckets may overlap regarding entries, that span multiple buckets, so we need to remove duplicates
+        Map<String, T> result = new LinkedHashMap<>();
+        synchronized (buckets) {
+            for (LocalDateTime bucketStart = bucketSize.floor(start); bucketStart.isBefore(end); bucketStart = bucketSize.next(bucketStart)) {
+                Bucket<T> bucket = fetchedBuckets.containsKey(bucketStart) ? fetchedBuckets.get(bucketStart) : buckets.get(bucketStart);
+                if (bucket != null) {
+                    bucket.entries.forEach(entry -> result.putIfAbsent(entry.getId(), entry));
+                }
+            }
+
+            evictExceedingBuckets();
+        }
+
+        return query.applyFilter(result.values().stream()).collect(Collectors.toList()).stream();
+    }
+
+    /**
+     * Loads all buckets of the given timespan, that are not yet cached, from the delegate.
+     *
+     * @param start start (inclusive)
+     * @param end   end (exclusive)
+     * @throws NullPointerException when null is passed
+     */
+    public void prefetch(@NotNull LocalDateTime start, @NotNull LocalDateTime end) {
+        Objects.requireNonNull(start);
+        Objects.requireNonNull(end);
+
+        if (start.isBefore(end)) {
+            fetchMissingBuckets(start, end);
+            synchronized (buckets) {
+                evictExceedingBuckets();
+            }
+        }
+    }
+
+    /**
+     * Loads all buckets of the given timespan, that are not yet cached, from the delegate using the prefetch executor.
+     * When no prefetch executor is set, the common fork join pool is used.
+     *
+     * @param start start (inclusive)
+     * @param end   end (exclusive)
+     * @return future, that completes, when the buckets have been loaded
+     * @throws NullPointerException when null is passed
+     */
+    public CompletableFuture<Void> prefetchAsync(@NotNull LocalDateTime start, @NotNull LocalDateTime end) {
+        Objects.requireNonNull(start);
+        Objects.requireNonNull(end);
+
+        Executor executor = prefetchExecutor;
+        return executor != null
+                ? CompletableFuture.runAsync(() -> prefetch(start, end), executor)
+                : CompletableFuture.runAsync(() -> prefetch(start, end));
+    }
+
+    /**
+     * Prefetches the time ranges before and after the rendered one. The rendered dates are based on the
+     * calendar's timezone and thus converted to UTC first.
+     */
+    private void prefetchAdjacentRanges(DatesRenderedEvent event) {
+        if (prefetchExecutor == null) {
+            // the executor is missing after deserialization, so the client side prefetch has to take over again
+            updateClientPrefetch(event.getSource());
+            return;
+        }
+
+        Timezone timezone = event.getSource().getTimezone();
+        Period interval = Period.between(event.getIntervalStart(), event.getIntervalEnd());
+        prefetchAsync(toUtc(event.getIntervalStart().minus(interval).minusWeeks(1), timezone), toUtc(event.getStart(), timezone));
+        prefetchAsync(toUtc(event.getEnd(), timezone), toUtc(event.getIntervalEnd().plus(interval).plusWeeks(1), timezone));
+    }
+
+    private static LocalDateTime toUtc(LocalDate date, Timezone timezone) {
+        return timezone.removeTimezoneOffset(date.atStartOfDay());
+    }
+
+    @Override
+    public Optional<T> fetchById(@NonNull String id) {
+        return delegate.fetchById(id);
+    }
+
+    /**
+     * Evicts all buckets, that contain the given item or overlap its current timespan and informs
+     * registered listeners to refresh this item.
+     *
+     * @param item item to refresh
+     */
+    @Override
+    public void refreshItem(T item) {
+        invalidate(item);
+        super.refreshItem(item);
+    }
+
+    /**
+     * Evicts the buckets of the changed entries and informs registered listeners about the changes.
+     *
+     * @param added   added entries
+     * @param updated updated entries
+     * @param removed removed entries
+     */
+    @Override
+    protected void onEntriesChangedExternally(Collection<T> added, Collection<T> updated, Collection<T> removed) {
+        added.forEach(this::invalidate);
+        updated.forEach(this::invalidate);
+        removed.forEach(this::invalidate);
+        super.onEntriesChangedExternally(added, updated, removed);
+    }
+
+    /**
+     * Clears the cache and informs registered listeners to refresh all data.
+     */
+    @Override
+    public void refreshAll() {
+        invalidateAll();
+        super.refreshAll();
+    }
+
+    @Override
+    public void setCalendar(FullCalendar calendar) {
+        FullCalendar oldCalendar = getCalendar();
+        super.setCalendar(calendar);
+        delegate.setCalendar(calendar);
+
+        if (oldCalendar != calendar) {
+            if (datesRenderedRegistration != null) {
+                datesRenderedRegistration.remove();
+                datesRenderedRegistration = null;
+            }
+
+            updateClientPrefetch(oldCalendar);
+
+            if (calendar != null) {
+                datesRenderedRegistration = calendar.addDatesRenderedListener(this::prefetchAdjacentRanges);
+                updateClientPrefetch(calendar);
+            }
+        }
+    }
+
+    /**
+     * Evicts all buckets, that overlap the given timespan. Null means an open border.
+     *
+     * @param start start (inclusive) or null
+     * @param end   end (exclusive) or null
+     */
+    public void invalidate(LocalDateTime start, LocalDateTime end) {
+        synchronized (buckets) {
+            cacheGeneration++;
+            buckets.keySet().removeIf(bucketStart -> (end == null || bucketStart.isBefore(end))
+                    && (start == null || bucketSize.next(bucketStart).isAfter(start)));
+        }
+    }
+
+    /**
+     * Evicts all buckets, that contain the given entry (based on its id) or overlap its current timespan.
+     *
+     * @param entry entry
+     */
+    public void invalidate(@NonNull T entry) {
+        String id = entry.getId();
+        synchronized (buckets) {
+            cacheGeneration++;
+            buckets.values().removeIf(bucket -> bucket.containsId(id));
+        }
+
+        if (entry.isRecurring()) {
+            // recurring entries may appear in any bucket
+            invalidateAll();
+        } else if (entry.getStart() != null || entry.getEnd() != null) {
+            LocalDateTime start = entry.getStart();
+            LocalDateTime end = entry.getEnd();
+            if (start != null && (end == null || !end.isAfter(start))) {
+                end = start.plusNanos(1);
+            }
+            invalidate(start, end);
+        }
+    }
+
+    /**
+     * Evicts all buckets.
+     */
+    public void invalidateAll() {
+        synchronized (buckets) {
+            cacheGeneration++;
+            buckets.clear();
+        }
+    }
+
+    /**
+     * Returns the current amount of cached buckets, including expired ones, that have not yet been evicted.
+     *
+     * @return amount of buckets
+     */
+    public int getCachedBucketCount() {
+        synchronized (buckets) {
+            return buckets.size();
+        }
+    }
+
+    /**
+     * Fetches the missing or expired buckets of the given timespan from the delegate and stores them in the cache,
+     * if the cache has not been invalidated in the meantime. The delegate is called outside of the lock.
+     *
+     * @return the fetched buckets
+     */
+    private Map<LocalDateTime, Bucket<T>> fetchMissingBuckets(LocalDateTime start, LocalDateTime end) {
+        List<LocalDateTime> missingBuckets = new ArrayList<>();
+        long generation;
+        synchronized (buckets) {
+            generation = cacheGeneration;
+            for (LocalDateTime bucketStart = bucketSize.floor(start); bucketStart.isBefore(end); bucketStart = bucketSize.next(bucketStart)) {
+                Bucket<T> bucket = buckets.get(bucketStart);
+                if (bucket == null || isExpired(bucket)) {
+                    missingBuckets.add(bucketStart);
+                }
+            }
+        }
+
+        if (missingBuckets.isEmpty()) {
+            return Collections.emptyMap();
+        }
+
+        Map<LocalDateTime, Bucket<T>> fetchedBuckets = new HashMap<>();
+        int i = 0;
+        while (i < missingBuckets.size()) {
+            // merge adjacent missing buckets into one sub range
+            int rangeStartIndex = i;
+            LocalDateTime rangeEnd = bucketSize.next(missingBuckets.get(i));
+            while (i + 1 < missingBuckets.size() && missingBuckets.get(i + 1).equals(rangeEnd)) {
+                i++;
+                rangeEnd = bucketSize.next(rangeEnd);
+            }
+
+            List<LocalDateTime> rangeBuckets = missingBuckets.subList(rangeStartIndex, i + 1);
+            List<T> fetched = delegate.fetch(new EntryQuery(rangeBuckets.get(0), rangeEnd, EntryQuery.AllDay.BOTH))
+                    .collect(Collectors.toList());
+
+            Instant now = clock.instant();
+            for (LocalDateTime bucketStart : rangeBuckets) {
+                EntryQuery bucketQuery = new EntryQuery(bucketStart, bucketSize.next(bucketStart), EntryQuery.AllDay.BOTH);
+                fetchedBuckets.put(bucketStart, new Bucket<>(bucketQuery.applyFilter(fetched.stream()).collect(Collectors.toList()), now));
+            }
+
+            i++;
+        }
+
+        synchronized (buckets) {
+            if (generation == cacheGeneration) {
+                buckets.putAll(fetchedBuckets);
+            }
+        }
+
+        return fetchedBuckets;
+    }
+
+    private boolean isExpired(Bucket<T> bucket) {
+        return timeToLive != null && !bucket.fetchedAt.plus(timeToLive).isAfter(clock.instant());
+    }
+
+    private void evictExceedingBuckets() {
+        Iterator<Bucket<T>> iterator = buckets.values().iterator();
+        while (buckets.size() > maxBuckets && iterator.hasNext()) {
+            iterator.next();
+            iterator.remove();
+        }
+    }
+
+    /**
+     * The size of a cache bucket. Each bucket starts at the beginning of its unit (based on UTC), weeks start
+     * on monday.
+     */
+    public enum BucketSize {
+        DAY {
+            @Override
+            LocalDateTime floor(LocalDateTime dateTime) {
+                return dateTime.truncatedTo(ChronoUnit.DAYS);
+            }
+
+            @Override
+            LocalDateTime next(LocalDateTime bucketStart) {
+                return bucketStart.plusDays(1);
+            }
+        },
+        WEEK {
+            @Override
+            LocalDateTime floor(LocalDateTime dateTime) {
+                return dateTime.toLocalDate().with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY)).atStartOfDay();
+            }
+
+            @Override
+            LocalDateTime next(LocalDateTime bucketStart) {
+                return bucketStart.plusWeeks(1);
+            }
+        },
+        MONTH {
+            @Override
+            LocalDateTime floor(LocalDateTime dateTime) {
+                return dateTime.toLocalDate().withDayOfMonth(1).atStartOfDay();
+            }
+
+            @Override
+            LocalDateTime next(LocalDateTime bucketStart) {
+                return bucketStart.plusMonths(1);
+            }
+        };
+
+        abstract LocalDateTime floor(LocalDateTime dateTime);
+
+        abstract LocalDateTime next(LocalDateTime bucketStart);
+    }
+
+    private static final class Bucket<T extends Entry> implements Serializable {
+        private final List<T> entries;
+        private final Set<String> ids;
+        private final Instant fetchedAt;
+
+        private Bucket(List<T> entries, Instant fetchedAt) {
+            this.entries = entries;
+            this.ids = entries.stream().map(Entry::getId).collect(Collectors.toSet());
+            this.fetchedAt = fetchedAt;
+        }
+
+        private boolean containsId(String id) {
+            return ids.contains(id);
+        }
+    }
+}
@@ -0,0 +1,156 @@
+package org.vaadin.stefan.fullcalendar.dataprovider;
+
+import com.vaadin.flow.component.UI;
+import com.vaadin.flow.component.UIDetachedException;
+import org.vaadin.stefan.fullcalendar.Entry;
+import org.vaadin.stefan.fullcalendar.FullCalendar;
+
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.Optional;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * A thread safe variant of the {@link InMemoryEntryProvider}. Entries can be added, removed and updated by
+ * background threads without holding the Vaadin session lock.
+ * <p></p>
+ * Entries are stored in a {@link ConcurrentHashMap}, so fetching entries never blocks any writing thread and
+ * writing threads only block each other, when they modify the same part of the map. A fetch sees a weakly
+ * consistent state, meaning that it may or may not contain modifications, that are done in parallel.
+ * <p></p>
+ * Calls of {@link #refreshAll()} and {@link #refreshItem(Entry)} are not forwarded immediately, but marshalled
+ * into the calendar's UI via {@link UI#access(com.vaadin.flow.server.Command)}. Multiple calls, that happen
+ * before the UI processed the first one, are coalesced into one refresh. A pending "refresh all" supersedes
+ * any pending single item refresh or batch change event (see {@link #batch(java.util.function.Consumer)}). To push these refreshes to the client without any user interaction,
+ * the application needs to have server push enabled. When the calendar is not attached to a UI, refreshes
+ * are handled directly by one of the calling threads. Only one thread handles them at a time, so listeners are
+ * never notified concurrently and in the order of the changes.
+ */
+public class ConcurrentInMemoryEntryProvider<T extends Entry> extends InMemoryEntryProvider<T> {
+
+    private final AtomicBoolean refreshScheduled = new AtomicBoolean();
+    private final Set<T> itemsToRefresh = ConcurrentHashMap.newKeySet();
+    private final Queue<EntriesChangeEvent<T>> pendingBatchEvents = new ConcurrentLinkedQueue<>();
+    private volatile boolean refreshAllRequested;
+
+    public ConcurrentInMemoryEntryProvider() {
+        super(new ConcurrentHashMap<>());
+    }
+
+    public ConcurrentInMemoryEntryProvider(Iterable<T> entries) {
+        this();
+        addEntries(entries);
+    }
+
+    /**
+     * Creates a thread safe instance. The given entries are used as initial items. Leave empty, if there
+     * are no initial entries.
+     * @param entries initial entries
+     * @param <T> type
+     * @return concurrent in memory provider
+     */
+    @SafeVarargs
+    public static <T extends Entry> ConcurrentInMemoryEntryProvider<T> from(T... entries) {
+        return new ConcurrentInMemoryEntryProvider<>(Arrays.asList(entries));
+    }
+
+    /**
+     * Creates a thread safe instance. The given entries are used as initial items, but the given iterable
+     * is not used as the backing collection or similar. It will never be modified by this provider.
+     * @param entries initial entries
+     * @param <T> type
+     * @return concurrent in memory provider
+     */
+    public static <T extends Entry> ConcurrentInMemoryEntryProvider<T> from(Iterable<T> entries) {
+        return new ConcurrentInMemoryEntryProvider<>(entries);
+    }
+
+    @Override
+    public void refreshAll() {
+        refreshAllRequested = true;
+        scheduleRefresh();
+    }
+
+    @Override
+    public void refreshItem(T item) {
+        itemsToRefresh.add(item);
+        scheduleRefresh();
+    }
+
+    /**
+     * Marshals the change event of the batch into the calendar's UI.
+     *
+     * @param event event containing the net changes of the batch
+     */
+    @Override
+    protected void onBatchApplied(EntriesChangeEvent<T> event) {
+        pendingBatchEvents.add(event);
+        scheduleRefresh();
+    }
+
+    /**
+     * Schedules the handling of pending refreshes in the calendar's UI, if not already scheduled. Without a UI,
+     * the pending refreshes are handled directly, unless another thread is already handling them.
+     */
+    private void scheduleRefresh() {
+        Optional<UI> ui = Optional.ofNullable(getCalendar()).flatMap(FullCalendar::getUI);
+        if (!ui.isPresent()) {
+            // refreshes added by other threads while handling are picked up by the next iteration
+            do {
+                if (!refreshScheduled.compareAndSet(false, true)) {
+                    return;
+                }
+
+                try {
+                    drainPendingRefreshes();
+                } finally {
+                    refreshScheduled.set(false);
+                }
+            } while (hasPendingRefreshes());
+            return;
+        }
+
+        if (refreshScheduled.compareAndSet(false, true)) {
+            try {
+                ui.get().access(this::handlePendingRefreshes);
+            } catch (UIDetachedException e) {
+                // the ui has been detached in the meantime, so there is no client to refresh
+                refreshScheduled.set(false);
+            }
+        }
+    }
+
+    private void handlePendingRefreshes() {
+        refreshScheduled.set(false);
+        drainPendingRefreshes();
+    }
+
+    private boolean hasPendingRefreshes() {
+        return refreshAllRequested || !pendingBatchEvents.isEmpty() || !itemsToRefresh.isEmpty();
+    }
+
+    private void drainPendingRefreshes() {
+        if (refreshAllRequested) {
+            refreshAllRequested = false;
+            itemsToRefresh.clear();
+            pendingBatchEvents.clear();
+            super.refreshAll();
+        } else {
+            EntriesChangeEvent<T> batchEvent;
+            while ((batchEvent = pendingBatchEvents.poll()) != null) {
+                super.onBatchApplied(batchEvent);
+            }
+
+            Iterator<T> iterator = itemsToRefresh.iterator();
+            while (iterator.hasNext()) {
+                T item = iterator.next();
+                iterator.remove();
+                super.refreshItem(item);
+            }
+        }
+    }
+}
@@ -0,0 +1,56 @@
+package org.vaadin.stefan.fullcalendar.dataprovider;
+
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.ToString;
+import org.vaadin.stefan.fullcalendar.Entry;
+import org.vaadin.stefan.fullcalendar.NotNull;
+
+import java.io.Serializable;
+import java.time.LocalDateTime;
+import java.util.Objects;
+
+/**
+ * Two overlapping occurrences of different entries, as detected by the {@link EntryConflictDetector}.
+ * The first occurrence is the one starting earlier (or the one of the checked entry, when checking a single entry).
+ *
+ * @param <T> entry type
+ */
+@Getter
+@EqualsAndHashCode
+@ToString
+public final class Conflict<T extends Entry> implements Serializable {
+
+    private final Occurrence<T> first;
+    private final Occurrence<T> second;
+
+    /**
+     * Creates a new instance.
+     *
+     * @param first  first occurrence
+     * @param second second occurrence
+     * @throws NullPointerException when null is passed
+     */
+    public Conflict(@NotNull Occurrence<T> first, @NotNull Occurrence<T> second) {
+        this.first = Objects.requireNonNull(first);
+        this.second = Objects.requireNonNull(second);
+    }
+
+    /**
+     * Returns the start of the overlapping timespan.
+     *
+     * @return overlap start
+     */
+    public LocalDateTime getOverlapStart() {
+        return first.getStart().isAfter(second.getStart()) ? first.getStart() : second.getStart();
+    }
+
+    /**
+     * Returns the (exclusive) end of the overlapping timespan.
+     *
+     * @return overlap end
+     */
+    public LocalDateTime getOverlapEnd() {
+        return first.getEnd().isBefore(second.getEnd()) ? first.getEnd() : second.getEnd();
+    }
+}
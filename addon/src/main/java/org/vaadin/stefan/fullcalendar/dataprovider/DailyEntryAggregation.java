@@ -0,0 +1,229 @@
+package org.vaadin.stefan.fullcalendar.dataprovider;
+
+import lombok.Getter;
+import org.vaadin.stefan.fullcalendar.Entry;
+import org.vaadin.stefan.fullcalendar.NotNull;
+import org.vaadin.stefan.fullcalendar.Timezone;
+
+import java.io.Serializable;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.*;
+import java.util.stream.Stream;
+
+/**
+ * The result of an aggregated fetch. Instead of all entries of a day, only the first entries of each
+ * day are kept plus the amount of entries, that have been left out. This way a month view, that shows only
+ * a few entries per day and a "+x more" link, does not need to receive all entries of busy days.
+ * <p></p>
+ * An entry is kept, when it is one of the first {@code maxEntriesPerDay + 1} entries of any day it covers.
+ * Keeping one more entry than shown makes sure, that the client renders the "more" link for each
+ * aggregated day. Entries are ordered the same way as the client orders them (see {@link #createOrder(Timezone)}).
+ * Recurring entries and entries without a start are always kept and not counted, as they cannot
+ * be assigned to single days without expanding them.
+ * <p></p>
+ * Days are based on the given timezone. Timed entries ending at midnight do not cover the following day.
+ *
+ * @param <T> entry type
+ */
+@Getter
+public final class DailyEntryAggregation<T extends Entry> implements Serializable {
+
+    /**
+     * The kept entries.
+     */
+    private final List<T> entries;
+
+    /**
+     * The amount of left out entries per day. Only contains days with left out entries.
+     */
+    private final SortedMap<LocalDate, Integer> hiddenEntryCounts;
+
+    /**
+     * Creates a new instance.
+     *
+     * @param entries           kept entries
+     * @param hiddenEntryCounts amount of left out entries per day
+     * @throws NullPointerException when null is passed
+     */
+    public DailyEntryAggregation(@NotNull List<T> entries, @NotNull SortedMap<LocalDate, Integer> hiddenEntryCounts) {
+        this.entries = Objects.requireNonNull(entries);
+        this.hiddenEntryCounts = Objects.requireNonNull(hiddenEntryCounts);
+    }
+
+    /**
+     * Aggregates the given entries, which are expected to be the result of the given query. The entries
+     * are processed in one pass, where only a bounded amount of entries is kept per day.
+     *
+     * @param entries          entries to aggregate
+     * @param query            query, that the entries match (used to clip the counted days)
+     * @param maxEntriesPerDay shown entries per day
+     * @param timezone         timezone defining the days
+     * @param <T>              entry type
+     * @return aggregation
+     * @throws NullPointerException     when null is passed
+     * @throws IllegalArgumentException when the max entries per day are less than 1
+     */
+    public static <T extends Entry> DailyEntryAggregation<T> aggregate(@NotNull Stream<? extends T> entries, @NotNull EntryQuery query, int maxEntriesPerDay, @NotNull Timezone timezone) {
+        Objects.requireNonNull(entries);
+        Objects.requireNonNull(query);
+        Objects.requireNonNull(timezone);
+        if (maxEntriesPerDay < 1) {
+            throw new IllegalArgumentException("Max entries per day must be greater than 0");
+        }
+
+        LocalDate rangeStart = query.getStart() != null ? timezone.applyTimezoneOffset(query.getStart()).toLocalDate() : LocalDate.MIN;
+        LocalDate rangeEnd = query.getEnd() != null ? getLastDay(timezone.applyTimezoneOffset(query.getEnd())) : LocalDate.MAX;
+
+        int capacity = maxEntriesPerDay + 1;
+        Comparator<Entry> order = createOrder(timezone);
+        List<T> kept = new ArrayList<>();
+        Map<LocalDate, int[]> totals = new HashMap<>();
+        SortedMap<LocalDate, PriorityQueue<T>> firstEntries = new TreeMap<>();
+
+        entries.forEach(entry -> {
+            LocalDate first = max(getFirstDay(entry, timezone), rangeStart);
+            LocalDate last = first != null ? min(getLastDay(entry, timezone), rangeEnd) : null;
+            if (first == null || first.isAfter(last)) {
+                kept.add(entry);
+                return;
+            }
+
+            for (LocalDate day = first; !day.isAfter(last); day = day.plusDays(1)) {
+                totals.computeIfAbsent(day, d -> new int[1])[0]++;
+
+                // reversed, so that the head is the last entry, that is dropped first
+                PriorityQueue<T> queue = firstEntries.computeIfAbsent(day, d -> new PriorityQueue<>(capacity + 1, order.reversed()));
+                queue.add(entry);
+                if (queue.size() > capacity) {
+                    queue.poll();
+                }
+            }
+        });
+
+        Set<T> selected = new LinkedHashSet<>();
+        firstEntries.values().forEach(selected::addAll);
+
+        // selected entries might be shown on other days than the one they have been selected for
+        Map<LocalDate, int[]> shown = new HashMap<>();
+        for (T entry : selected) {
+            LocalDate last = min(getLastDay(entry, timezone), rangeEnd);
+            for (LocalDate day = max(getFirstDay(entry, timezone), rangeStart); !day.isAfter(last); day = day.plusDays(1)) {
+                shown.computeIfAbsent(day, d -> new int[1])[0]++;
+            }
+        }
+
+        SortedMap<LocalDate, Integer> hiddenEntryCounts = new TreeMap<>();
+        totals.forEach((day, total) -> {
+            int hidden = total[0] - shown.get(day)[0];
+            if (hidden > 0) {
+                hiddenEntryCounts.put(day, hidden);
+            }
+        });
+
+        kept.addAll(selected);
+        return new DailyEntryAggregation<>(kept, hiddenEntryCounts);
+    }
+
+    /**
+     * Creates the order of entries inside a day, that matches the client's default event order
+     * ("start,-duration,allDay,title"). Timed entries are compared by their start and end in the given timezone,
+     * all day entries by their local dates. On the same start, longer entries come first and all day entries
+     * come before timed ones. Must only be used for entries with a start.
+     *
+     * @param timezone timezone defining the days
+     * @return order of entries
+     * @throws NullPointerException when null is passed
+     */
+    public static Comparator<Entry> createOrder(@NotNull Timezone timezone) {
+        Objects.requireNonNull(timezone);
+        return Comparator.<Entry, LocalDateTime>comparing(entry -> getLocalStart(entry, timezone))
+                .thenComparing(entry -> getLocalEnd(entry, timezone), Comparator.reverseOrder())
+                .thenComparing(entry -> !entry.isAllDay())
+                .thenComparing(Entry::getTitle, Comparator.nullsFirst(Comparator.naturalOrder()));
+    }
+
+    /**
+     * Indicates, if the given entry is counted for the given day by an aggregation using the given timezone.
+     *
+     * @param entry    entry
+     * @param day      day
+     * @param timezone timezone defining the days
+     * @return entry covers the day
+     * @throws NullPointerException when null is passed
+     */
+    public static boolean covers(@NotNull Entry entry, @NotNull LocalDate day, @NotNull Timezone timezone) {
+        Objects.requireNonNull(day);
+        LocalDate first = getFirstDay(entry, timezone);
+        return first != null && !day.isBefore(first) && !day.isAfter(getLastDay(entry, timezone));
+    }
+
+    /**
+     * Returns the first local day of the entry or null, if the entry is not assignable to days.
+     */
+    private static LocalDate getFirstDay(Entry entry, Timezone timezone) {
+        if (entry.isRecurring() || entry.getStart() == null) {
+            return null;
+        }
+
+        return entry.isAllDay() ? entry.getStart().toLocalDate() : timezone.applyTimezoneOffset(entry.getStart()).toLocalDate();
+    }
+
+    /**
+     * Returns the last local day of the entry. Must only be called for entries with a first day.
+     */
+    private static LocalDate getLastDay(Entry entry, Timezone timezone) {
+        LocalDateTime start = entry.getStart();
+        LocalDateTime end = entry.getEnd();
+
+        if (entry.isAllDay()) {
+            LocalDate first = start.toLocalDate();
+            LocalDate endExclusive = end != null ? end.toLocalDate() : first;
+            return endExclusive.isAfter(first) ? endExclusive.minusDays(1) : first;
+        }
+
+        return end != null && end.isAfter(start)
+                ? getLastDay(timezone.applyTimezoneOffset(end))
+                : timezone.applyTimezoneOffset(start).toLocalDate();
+    }
+
+    /**
+     * Returns the start of the entry in the given timezone. All day entries are not affected by the timezone.
+     */
+    private static LocalDateTime getLocalStart(Entry entry, Timezone timezone) {
+        return entry.isAllDay() ? entry.getStart() : timezone.applyTimezoneOffset(entry.getStart());
+    }
+
+    /**
+     * Returns the exclusive end of the entry in the given timezone. All day entries without an end cover one day,
+     * timed entries without an end are treated as having no duration.
+     */
+    private static LocalDateTime getLocalEnd(Entry entry, Timezone timezone) {
+        LocalDateTime start = entry.getStart();
+        LocalDateTime end = entry.getEnd();
+
+        if (entry.isAllDay()) {
+            return end != null && end.isAfter(start) ? end : start.toLocalDate().plusDays(1).atStartOfDay();
+        }
+
+        return timezone.applyTimezoneOffset(end != null && end.isAfter(start) ? end : start);
+    }
+
+    /**
+     * Returns the last day covered by a timespan ending at the given exclusive local end.
+     */
+    private static LocalDate getLastDay(LocalDateTime exclusiveEnd) {
+        return exclusiveEnd.toLocalTime().equals(LocalTime.MIDNIGHT)
+                ? exclusiveEnd.toLocalDate().minusDays(1)
+                : exclusiveEnd.toLocalDate();
+    }
+
+    private static LocalDate max(LocalDate a, LocalDate b) {
+        return a == null || a.isAfter(b) ? a : b;
+    }
+
+    private static LocalDate min(LocalDate a, LocalDate b) {
+        return a.isBefore(b) ? a : b;
+    }
+}
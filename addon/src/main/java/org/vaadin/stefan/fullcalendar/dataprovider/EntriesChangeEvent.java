@@ -2,8 +2,13 @@ package org.vaadin.stefan.fullcalendar.dataprovider;
 
 import org.vaadin.stefan.fullcalendar.Entry;
 
+import org.vaadin.stefan.fullcalendar.NotNull;
+
 import java.io.Serializable;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.EventObject;
+import java.util.Objects;
 
 /**
  * This event is fired, when then items represents by an {@link EntryProvider} are about to change
@@ -11,6 +16,11 @@ import java.util.EventObject;
  * @author Stefan Uebe
  */
 public class EntriesChangeEvent<T extends Entry> extends EventObject {
+
+    private final Collection<T> addedEntries;
+    private final Collection<T> updatedEntries;
+    private final Collection<T> removedEntries;
+
     /**
      * Constructs a prototypical Event.
      *
@@ -19,6 +29,67 @@ public class EntriesChangeEvent<T extends Entry> extends EventObject {
      */
     public EntriesChangeEvent(EntryProvider<T> source) {
         super(source);
+        this.addedEntries = null;
+        this.updatedEntries = null;
+        this.removedEntries = null;
+    }
+
+    /**
+     * Constructs an event, that contains the concrete changes of the entry provider (for instance the result of
+     * a batch). Receivers might use this information to only refresh the changed entries instead of all.
+     *
+     * @param source         The object on which the Event initially occurred.
+     * @param addedEntries   added entries
+     * @param updatedEntries updated entries
+     * @param removedEntries removed entries
+     * @throws IllegalArgumentException if source is null.
+     * @throws NullPointerException     if any collection is null.
+     */
+    public EntriesChangeEvent(EntryProvider<T> source, @NotNull Collection<T> addedEntries, @NotNull Collection<T> updatedEntries, @NotNull Collection<T> removedEntries) {
+        super(source);
+        this.addedEntries = Collections.unmodifiableCollection(Objects.requireNonNull(addedEntries));
+        this.updatedEntries = Collections.unmodifiableCollection(Objects.requireNonNull(updatedEntries));
+        this.removedEntries = Collections.unmodifiableCollection(Objects.requireNonNull(removedEntries));
+    }
+
+    /**
+     * Indicates, if this event contains the concrete changes. If not, the receiver should consider
+     * all entries as changed.
+     *
+     * @return contains the concrete changes
+     */
+    public boolean hasChangeDetails() {
+        return addedEntries != null;
+    }
+
+    /**
+     * Returns the added entries. Empty, if there are no change details.
+     *
+     * @return added entries
+     * @see #hasChangeDetails()
+     */
+    public Collection<T> getAddedEntries() {
+        return addedEntries != null ? addedEntries : Collections.emptyList();
+    }
+
+    /**
+     * Returns the updated entries. Empty, if there are no change details.
+     *
+     * @return updated entries
+     * @see #hasChangeDetails()
+     */
+    public Collection<T> getUpdatedEntries() {
+        return updatedEntries != null ? updatedEntries : Collections.emptyList();
+    }
+
+    /**
+     * Returns the removed entries. Empty, if there are no change details.
+     *
+     * @return removed entries
+     * @see #hasChangeDetails()
+     */
+    public Collection<T> getRemovedEntries() {
+        return removedEntries != null ? removedEntries : Collections.emptyList();
     }
 
     @SuppressWarnings("unchecked")
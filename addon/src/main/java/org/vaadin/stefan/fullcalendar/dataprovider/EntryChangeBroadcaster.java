@@ -0,0 +1,408 @@
+package org.vaadin.stefan.fullcalendar.dataprovider;
+
+import com.vaadin.flow.component.UI;
+import com.vaadin.flow.component.UIDetachedException;
+import com.vaadin.flow.shared.Registration;
+import org.vaadin.stefan.fullcalendar.Entry;
+import org.vaadin.stefan.fullcalendar.FullCalendar;
+import org.vaadin.stefan.fullcalendar.NotNull;
+
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.Serializable;
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.*;
+
+/**
+ * Broadcasts entry changes to calendars of any session. This is intended for calendars, whose entry providers
+ * read from a shared backend (e.g. a database via a {@link CallbackEntryProvider}). When one user modifies an entry,
+ * the application publishes the change to the broadcaster, which then updates all subscribed calendars, so other
+ * users see the change without navigating.
+ * <p></p>
+ * Changes are not delivered immediately, but collected for a configurable time window. Changes of the same entry
+ * inside one window are merged to their net result (e.g. an added and removed entry is not delivered at all).
+ * At the end of the window, the changes are passed to each subscribed and attached calendar via
+ * {@link UI#access(com.vaadin.flow.server.Command)}, where they are handed to the calendar's entry provider
+ * (see {@link AbstractEntryProvider#onEntriesChangedExternally(Collection, Collection, Collection)}). The calendar
+ * then only updates the changed entries on the client. To see the changes without any user interaction, the
+ * application needs to have server push enabled.
+ * <p></p>
+ * The broadcaster does not need any external infrastructure. It is thread safe and intended to be application scoped.
+ * When the window is zero, changes are delivered directly in the publishing thread. Pending changes can also be
+ * delivered manually by calling {@link #flush()}.
+ * <p></p>
+ * Attached calendars are referenced weakly, so calendars of sessions, that end without detaching them, do not leak.
+ * The listeners, that the broadcaster adds to a subscribed calendar, reference the broadcaster only by an id, so the
+ * calendar's session can be serialized. After deserialization in the same JVM, the subscription is continued. When
+ * the session is deserialized in another JVM, the broadcaster does not exist there and the subscription is inactive.
+ */
+public class EntryChangeBroadcaster<T extends Entry> implements AutoCloseable {
+
+    /**
+     * The default time window, in which changes are collected.
+     */
+    public static final Duration DEFAULT_WINDOW = Duration.ofMillis(250);
+
+    private final Duration window;
+    private final ScheduledExecutorService executor;
+    private final boolean ownExecutor;
+
+    private static final InstanceRegistry<EntryChangeBroadcaster<?>> REGISTRY = new InstanceRegistry<>();
+
+    private final String id = UUID.randomUUID().toString();
+    private final Set<FullCalendar> attachedCalendars = Collections.newSetFromMap(new WeakHashMap<>());
+
+    private final Object lock = new Object();
+    private Map<String, Change<T>> pendingChanges = new LinkedHashMap<>();
+    private boolean refreshAllPending;
+    private ScheduledFuture<?> scheduledFlush;
+
+    /**
+     * Creates a new instance with the default window, that uses its own single threaded executor. Please call
+     * {@link #close()}, when the instance is not needed anymore.
+     */
+    public EntryChangeBroadcaster() {
+        this(DEFAULT_WINDOW);
+    }
+
+    /**
+     * Creates a new instance with the given window, that uses its own single threaded executor. Please call
+     * {@link #close()}, when the instance is not needed anymore.
+     *
+     * @param window time window to collect changes
+     * @throws NullPointerException     when null is passed
+     * @throws IllegalArgumentException when the window is negative
+     */
+    public EntryChangeBroadcaster(@NotNull Duration window) {
+        this(window, Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "fullcalendar-entry-change-broadcaster");
+            thread.setDaemon(true);
+            return thread;
+        }), true);
+    }
+
+    /**
+     * Creates a new instance with the given window, that uses the given executor to deliver the changes.
+     *
+     * @param window   time window to collect changes
+     * @param executor executor to schedule the delivery
+     * @throws NullPointerException     when null is passed
+     * @throws IllegalArgumentException when the window is negative
+     */
+    public EntryChangeBroadcaster(@NotNull Duration window, @NotNull ScheduledExecutorService executor) {
+        this(window, executor, false);
+    }
+
+    private EntryChangeBroadcaster(Duration window, ScheduledExecutorService executor, boolean ownExecutor) {
+        if (Objects.requireNonNull(window).isNegative()) {
+            throw new IllegalArgumentException("Window must not be negative");
+        }
+        this.window = window;
+        this.executor = Objects.requireNonNull(executor);
+        this.ownExecutor = ownExecutor;
+        REGISTRY.register(id, this);
+    }
+
+    /**
+     * Subscribes the given calendar. The calendar receives changes as long as it is attached. Remove the returned
+     * registration to unsubscribe the calendar.
+     *
+     * @param calendar calendar to subscribe
+     * @return registration to unsubscribe
+     * @throws NullPointerException when null is passed
+     */
+    public Registration subscribe(@NotNull FullCalendar calendar) {
+        Objects.requireNonNull(calendar);
+
+        Subscription subscription = new Subscription(id, calendar);
+        subscription.attachRegistration = calendar.addAttachListener(event -> subscription.setAttached(true));
+        subscription.detachRegistration = calendar.addDetachListener(event -> subscription.setAttached(false));
+        if (calendar.isAttached()) {
+            subscription.setAttached(true);
+        }
+
+        return subscription::remove;
+    }
+
+    /**
+     * Returns the amount of subscribed calendars, that are currently attached and thus receive changes.
+     *
+     * @return amount of attached subscribers
+     */
+    public int getAttachedSubscriberCount() {
+        synchronized (attachedCalendars) {
+            return attachedCalendars.size();
+        }
+    }
+
+    private void connect(FullCalendar calendar) {
+        synchronized (attachedCalendars) {
+            attachedCalendars.add(calendar);
+        }
+    }
+
+    private void disconnect(FullCalendar calendar) {
+        synchronized (attachedCalendars) {
+            attachedCalendars.remove(calendar);
+        }
+    }
+
+    /**
+     * Publishes added entries.
+     *
+     * @param entries added entries
+     * @throws NullPointerException when null is passed
+     */
+    public void publishAdded(@NotNull Collection<T> entries) {
+        publish(entries, Collections.emptyList(), Collections.emptyList());
+    }
+
+    /**
+     * Publishes updated entries.
+     *
+     * @param entries updated entries
+     * @throws NullPointerException when null is passed
+     */
+    public void publishUpdated(@NotNull Collection<T> entries) {
+        publish(Collections.emptyList(), entries, Collections.emptyList());
+    }
+
+    /**
+     * Publishes removed entries.
+     *
+     * @param entries removed entries
+     * @throws NullPointerException when null is passed
+     */
+    public void publishRemoved(@NotNull Collection<T> entries) {
+        publish(Collections.emptyList(), Collections.emptyList(), entries);
+    }
+
+    /**
+     * Publishes the changes of the given event, for instance the event of an entry provider's batch. Events without
+     * change details lead to a refresh of all entries of the subscribed calendars.
+     *
+     * @param event event to publish
+     * @throws NullPointerException when null is passed
+     */
+    public void publish(@NotNull EntriesChangeEvent<T> event) {
+        Objects.requireNonNull(event);
+        if (event.hasChangeDetails()) {
+            publish(event.getAddedEntries(), event.getUpdatedEntries(), event.getRemovedEntries());
+        } else {
+            publishRefreshAll();
+        }
+    }
+
+    /**
+     * Publishes, that all entries may have changed. Subscribed calendars will refetch all entries. Supersedes
+     * any other pending changes.
+     */
+    public void publishRefreshAll() {
+        synchronized (lock) {
+            refreshAllPending = true;
+            pendingChanges.clear();
+        }
+        scheduleFlush();
+    }
+
+    /**
+     * Publishes the given changes.
+     *
+     * @param added   added entries
+     * @param updated updated entries
+     * @param removed removed entries
+     * @throws NullPointerException when null is passed
+     */
+    public void publish(@NotNull Collection<T> added, @NotNull Collection<T> updated, @NotNull Collection<T> removed) {
+        Objects.requireNonNull(added);
+        Objects.requireNonNull(updated);
+        Objects.requireNonNull(removed);
+
+        synchronized (lock) {
+            if (!refreshAllPending) {
+                added.forEach(entry -> merge(entry, ChangeType.ADD));
+                updated.forEach(entry -> merge(entry, ChangeType.UPDATE));
+                removed.forEach(entry -> merge(entry, ChangeType.REMOVE));
+            }
+        }
+        scheduleFlush();
+    }
+
+    /**
+     * Merges the given change into the pending changes of the entry.
+     */
+    private void merge(T entry, ChangeType type) {
+        String id = entry.getId();
+        Change<T> pending = pendingChanges.get(id);
+        if (pending == null) {
+            pendingChanges.put(id, new Change<>(type, entry));
+        } else if (pending.type == ChangeType.ADD && type == ChangeType.REMOVE) {
+            pendingChanges.remove(id);
+        } else if (pending.type == ChangeType.REMOVE && type == ChangeType.ADD) {
+            pendingChanges.put(id, new Change<>(ChangeType.UPDATE, entry));
+        } else if (pending.type == ChangeType.ADD) {
+            pendingChanges.put(id, new Change<>(ChangeType.ADD, entry));
+        } else {
+            pendingChanges.put(id, new Change<>(type, entry));
+        }
+    }
+
+    private void scheduleFlush() {
+        if (window.isZero()) {
+            flush();
+            return;
+        }
+
+        synchronized (lock) {
+            if (scheduledFlush == null) {
+                scheduledFlush = executor.schedule(this::flush, window.toMillis(), TimeUnit.MILLISECONDS);
+            }
+        }
+    }
+
+    /**
+     * Delivers all pending changes to the subscribed calendars immediately.
+     */
+    public void flush() {
+        Map<String, Change<T>> changes;
+        boolean refreshAll;
+        synchronized (lock) {
+            if (scheduledFlush != null) {
+                scheduledFlush.cancel(false);
+                scheduledFlush = null;
+            }
+
+            changes = pendingChanges;
+            refreshAll = refreshAllPending;
+            pendingChanges = new LinkedHashMap<>();
+            refreshAllPending = false;
+        }
+
+        if (!refreshAll && changes.isEmpty()) {
+            return;
+        }
+
+        List<T> added = new ArrayList<>();
+        List<T> updated = new ArrayList<>();
+        List<T> removed = new ArrayList<>();
+        for (Change<T> change : changes.values()) {
+            (change.type == ChangeType.ADD ? added : change.type == ChangeType.UPDATE ? updated : removed).add(change.entry);
+        }
+
+        List<FullCalendar> calendars;
+        synchronized (attachedCalendars) {
+            calendars = new ArrayList<>(attachedCalendars);
+        }
+
+        for (FullCalendar calendar : calendars) {
+            Optional<UI> ui = calendar.getUI();
+            if (!ui.isPresent()) {
+                deliver(calendar, refreshAll, added, updated, removed);
+                continue;
+            }
+
+            try {
+                ui.get().access(() -> deliver(calendar, refreshAll, added, updated, removed));
+            } catch (UIDetachedException e) {
+                // the ui has been detached in the meantime, so there is no client to update
+                disconnect(calendar);
+            }
+        }
+    }
+
+    /**
+     * Passes the changes to the given calendar's entry provider. Must be called with the calendar's ui lock.
+     *
+     * @param calendar   calendar
+     * @param refreshAll refresh all entries
+     * @param added      added entries
+     * @param updated    updated entries
+     * @param removed    removed entries
+     */
+    @SuppressWarnings("unchecked")
+    protected void deliver(FullCalendar calendar, boolean refreshAll, Collection<T> added, Collection<T> updated, Collection<T> removed) {
+        EntryProvider<T> entryProvider = calendar.getEntryProvider();
+        if (!refreshAll && entryProvider instanceof AbstractEntryProvider) {
+            ((AbstractEntryProvider<T>) entryProvider).onEntriesChangedExternally(added, updated, removed);
+        } else {
+            entryProvider.refreshAll();
+        }
+    }
+
+    /**
+     * Cancels any scheduled delivery. Pending changes are dropped. When the broadcaster uses its own
+     * executor, the executor is shut down.
+     */
+    @Override
+    public void close() {
+        synchronized (lock) {
+            if (scheduledFlush != null) {
+                scheduledFlush.cancel(false);
+                scheduledFlush = null;
+            }
+            pendingChanges.clear();
+            refreshAllPending = false;
+        }
+
+        if (ownExecutor) {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * The subscription of a calendar. Kept by the calendar's listeners, it references the broadcaster only by its id
+     * and thus can be serialized with the calendar. A deserialized subscription of an attached calendar
+     * reconnects the calendar with the broadcaster.
+     */
+    private static final class Subscription implements Serializable {
+        private final String broadcasterId;
+        private final FullCalendar calendar;
+        private Registration attachRegistration;
+        private Registration detachRegistration;
+        private boolean attached;
+
+        private Subscription(String broadcasterId, FullCalendar calendar) {
+            this.broadcasterId = broadcasterId;
+            this.calendar = calendar;
+        }
+
+        private void setAttached(boolean attached) {
+            this.attached = attached;
+            REGISTRY.lookup(broadcasterId).ifPresent(broadcaster -> {
+                if (attached) {
+                    broadcaster.connect(calendar);
+                } else {
+                    broadcaster.disconnect(calendar);
+                }
+            });
+        }
+
+        private void remove() {
+            attachRegistration.remove();
+            detachRegistration.remove();
+            setAttached(false);
+        }
+
+        private void readObject(ObjectInputStream in) throws IOException, ClassNotFoundException {
+            in.defaultReadObject();
+            if (attached) {
+                setAttached(true);
+            }
+        }
+    }
+
+    private enum ChangeType {
+        ADD, UPDATE, REMOVE
+    }
+
+    private static final class Change<T> {
+        private final ChangeType type;
+        private final T entry;
+
+        private Change(ChangeType type, T entry) {
+            this.type = type;
+            this.entry = entry;
+        }
+    }
+}
@@ -0,0 +1,317 @@
+package org.vaadin.stefan.fullcalendar.dataprovider;
+
+import lombok.Getter;
+import org.vaadin.stefan.fullcalendar.DisplayMode;
+import org.vaadin.stefan.fullcalendar.Entry;
+import org.vaadin.stefan.fullcalendar.NotNull;
+
+import java.io.Serializable;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.function.BiPredicate;
+import java.util.function.Predicate;
+import java.util.stream.Stream;
+
+/**
+ * Detects overlapping entries on the server side, e.g. to validate a dropped or resized entry before persisting
+ * it. The client side options {@code overlap} and {@code constraint} are only enforced by the browser, this
+ * class allows to check the same on the server.
+ * <p></p>
+ * The candidates of a check are fetched from the entry provider, so only entries overlapping the checked timespan
+ * are taken into account. Recurring entries are expanded into their occurrences by a {@link RecurrenceExpander}.
+ * The found occurrences are then checked by a sweep line, which sorts them by their start and keeps only the
+ * occurrences still running at the current start as "active". This way each occurrence is only compared with
+ * the occurrences overlapping it.
+ * <p></p>
+ * To answer checks in sub linear time, the entry provider should use an index, for instance the
+ * {@link IndexedInMemoryEntryProvider}, which fetches a timespan in O(log n + k). Checking a single entry
+ * against 100.000 indexed entries then stays well below a millisecond. Other in memory providers will filter
+ * all entries on each check.
+ * <p></p>
+ * Entries shown as background are ignored by default. Subclasses may override {@link #canConflict(Entry)} and
+ * {@link #isConflicting(Entry, Entry)} to define which entries are conflicting (e.g. only entries of the same resource).
+ *
+ * @param <T> entry type
+ */
+public class EntryConflictDetector<T extends Entry> implements Serializable {
+
+    private static final Comparator<Occurrence<?>> BY_START = Comparator.comparing(Occurrence::getStart);
+
+    @Getter
+    private final EntryProvider<T> entryProvider;
+
+    @Getter
+    private final RecurrenceExpander<T> recurrenceExpander;
+
+    /**
+     * Creates a new instance, that checks against the entries of the given provider. Recurring times are
+     * interpreted as UTC.
+     *
+     * @param entryProvider entry provider
+     * @throws NullPointerException when null is passed
+     */
+    public EntryConflictDetector(@NotNull EntryProvider<T> entryProvider) {
+        this(entryProvider, new RecurrenceExpander<>());
+    }
+
+    /**
+     * Creates a new instance, that checks against the entries of the given provider and uses the given
+     * expander for recurring entries. The expander should use the same timezone as the calendar.
+     *
+     * @param entryProvider      entry provider
+     * @param recurrenceExpander recurrence expander
+     * @throws NullPointerException when null is passed
+     */
+    public EntryConflictDetector(@NotNull EntryProvider<T> entryProvider, @NotNull RecurrenceExpander<T> recurrenceExpander) {
+        this.entryProvider = Objects.requireNonNull(entryProvider);
+        this.recurrenceExpander = Objects.requireNonNull(recurrenceExpander);
+    }
+
+    /**
+     * Checks, if the given non recurring entry overlaps any other entry at its current start and end. Any entry
+     * of the provider with the same id is ignored, so this method can also be used with a changed copy of an
+     * existing entry, e.g. the one created by {@link org.vaadin.stefan.fullcalendar.EntryDataEvent#createCopyBasedOnChanges()}
+     * of a drop or resize event.
+     * <p></p>
+     * Entries without a start have no conflicts.
+     *
+     * @param entry entry to check
+     * @return entry has conflicts
+     * @throws NullPointerException     when null is passed
+     * @throws IllegalArgumentException when the entry is recurring
+     */
+    public boolean hasConflict(@NotNull T entry) {
+        return !getConflicts(entry).isEmpty();
+    }
+
+    /**
+     * Returns all conflicts of the given non recurring entry at its current start and end. The first occurrence
+     * of each conflict is the one of the given entry. See {@link #hasConflict(Entry)}.
+     *
+     * @param entry entry to check
+     * @return conflicts
+     * @throws NullPointerException     when null is passed
+     * @throws IllegalArgumentException when the entry is recurring
+     */
+    public List<Conflict<T>> getConflicts(@NotNull T entry) {
+        if (entry.isRecurring()) {
+            throw new IllegalArgumentException("Recurring entries can only be checked for a timespan");
+        }
+
+        List<Occurrence<T>> occurrences = expand(entry, null, null);
+        if (occurrences.isEmpty()) {
+            return Collections.emptyList();
+        }
+
+        Occurrence<T> occurrence = occurrences.get(0);
+        return findConflicts(entry, occurrence.getStart(), occurrence.getEnd(), false);
+    }
+
+    /**
+     * Checks, if any occurrence of the given entry inside the given timespan (both borders exclusive) overlaps
+     * any other entry. Any entry of the provider with the same id is ignored. See {@link #hasConflict(Entry)}.
+     *
+     * @param entry       entry to check
+     * @param filterStart start
+     * @param filterEnd   end
+     * @return entry has conflicts
+     * @throws NullPointerException when null is passed
+     */
+    public boolean hasConflict(@NotNull T entry, @NotNull LocalDateTime filterStart, @NotNull LocalDateTime filterEnd) {
+        return !findConflicts(entry, filterStart, filterEnd, true).isEmpty();
+    }
+
+    /**
+     * Returns all conflicts of the occurrences of the given entry inside the given timespan (both borders
+     * exclusive). The first occurrence of each conflict is the one of the given entry. See {@link #hasConflict(Entry)}.
+     *
+     * @param entry       entry to check
+     * @param filterStart start
+     * @param filterEnd   end
+     * @return conflicts
+     * @throws NullPointerException when null is passed
+     */
+    public List<Conflict<T>> getConflicts(@NotNull T entry, @NotNull LocalDateTime filterStart, @NotNull LocalDateTime filterEnd) {
+        return findConflicts(entry, filterStart, filterEnd, false);
+    }
+
+    /**
+     * Checks, if any two entries of the provider overlap inside the given timespan (both borders exclusive).
+     *
+     * @param filterStart start
+     * @param filterEnd   end
+     * @return there are conflicts
+     * @throws NullPointerException when null is passed
+     */
+    public boolean hasConflicts(@NotNull LocalDateTime filterStart, @NotNull LocalDateTime filterEnd) {
+        Objects.requireNonNull(filterStart);
+        Objects.requireNonNull(filterEnd);
+        return !findConflicts(fetchCandidates(filterStart, filterEnd), filterStart, filterEnd, true).isEmpty();
+    }
+
+    /**
+     * Returns all conflicts between the entries of the provider inside the given timespan (both borders exclusive),
+     * ordered by the start of their second occurrence. Each pair of overlapping occurrences is reported once,
+     * where the first occurrence is the one starting earlier.
+     *
+     * @param filterStart start
+     * @param filterEnd   end
+     * @return conflicts
+     * @throws NullPointerException when null is passed
+     */
+    public List<Conflict<T>> getConflicts(@NotNull LocalDateTime filterStart, @NotNull LocalDateTime filterEnd) {
+        Objects.requireNonNull(filterStart);
+        Objects.requireNonNull(filterEnd);
+        return findConflicts(fetchCandidates(filterStart, filterEnd), filterStart, filterEnd, false);
+    }
+
+    /**
+     * Indicates, if the given entry can conflict with other entries at all. By default, entries shown as
+     * background cannot conflict.
+     *
+     * @param entry entry
+     * @return entry can conflict
+     */
+    protected boolean canConflict(T entry) {
+        DisplayMode displayMode = entry.getDisplayMode();
+        return displayMode != DisplayMode.BACKGROUND && displayMode != DisplayMode.INVERSE_BACKGROUND;
+    }
+
+    /**
+     * Indicates, if the two given (different) entries are conflicting, when their occurrences overlap.
+     * Returns true by default.
+     *
+     * @param first  first entry
+     * @param second second entry
+     * @return entries are conflicting
+     */
+    protected boolean isConflicting(T first, T second) {
+        return true;
+    }
+
+    /**
+     * Fetches all entries, that are candidates for a conflict with the given entry inside the given timespan.
+     * By default, all entries of the provider overlapping the timespan.
+     *
+     * @param entry entry to check
+     * @param start start
+     * @param end   end
+     * @return candidates
+     */
+    protected Stream<? extends T> fetchCandidates(T entry, LocalDateTime start, LocalDateTime end) {
+        return fetchCandidates(start, end);
+    }
+
+    /**
+     * Fetches all entries, that are candidates for conflicts inside the given timespan. By default, all entries
+     * of the provider overlapping the timespan.
+     *
+     * @param start start
+     * @param end   end
+     * @return candidates
+     */
+    protected Stream<? extends T> fetchCandidates(LocalDateTime start, LocalDateTime end) {
+        return entryProvider.fetch(start, end);
+    }
+
+    /**
+     * Checks the occurrences of the given entry inside the timespan against the candidates fetched for it.
+     */
+    private List<Conflict<T>> findConflicts(T entry, LocalDateTime filterStart, LocalDateTime filterEnd, boolean firstOnly) {
+        Objects.requireNonNull(entry);
+        if (!canConflict(entry)) {
+            return Collections.emptyList();
+        }
+
+        List<Occurrence<T>> occurrences = expand(entry, Objects.requireNonNull(filterStart), Objects.requireNonNull(filterEnd));
+        if (occurrences.isEmpty()) {
+            return Collections.emptyList();
+        }
+
+        // other occurrences only have to overlap one of the entry's occurrences, which may exceed the timespan
+        LocalDateTime start = occurrences.get(0).getStart();
+        LocalDateTime end = occurrences.stream().map(Occurrence::getEnd).max(Comparator.naturalOrder()).orElse(filterEnd);
+
+        String id = entry.getId();
+        fetchCandidates(entry, start, end)
+                .filter(candidate -> !candidate.getId().equals(id) && canConflict(candidate) && isConflicting(entry, candidate))
+                .forEach(candidate -> occurrences.addAll(expand(candidate, start, end)));
+
+        List<Conflict<T>> conflicts = new ArrayList<>();
+        sweep(occurrences, (a, b) -> a.getEntry().getId().equals(id) != b.getEntry().getId().equals(id), (a, b) -> {
+            conflicts.add(a.getEntry().getId().equals(id) ? new Conflict<>(a, b) : new Conflict<>(b, a));
+            return !firstOnly;
+        });
+
+        return conflicts;
+    }
+
+    /**
+     * Checks the occurrences of the given candidates inside the timespan (both borders exclusive) against each
+     * other. Candidates, that cannot conflict, are skipped.
+     *
+     * @param candidates  candidates to check
+     * @param filterStart start
+     * @param filterEnd   end
+     * @param firstOnly   stop after the first found conflict
+     * @return conflicts
+     */
+    protected List<Conflict<T>> findConflicts(Stream<? extends T> candidates, LocalDateTime filterStart, LocalDateTime filterEnd, boolean firstOnly) {
+        List<Occurrence<T>> occurrences = new ArrayList<>();
+        candidates.filter(this::canConflict).forEach(candidate -> occurrences.addAll(expand(candidate, filterStart, filterEnd)));
+
+        List<Conflict<T>> conflicts = new ArrayList<>();
+        sweep(occurrences, (a, b) -> !a.getEntry().getId().equals(b.getEntry().getId()) && isConflicting(a.getEntry(), b.getEntry()), (a, b) -> {
+            conflicts.add(new Conflict<>(a, b));
+            return !firstOnly;
+        });
+
+        return conflicts;
+    }
+
+    /**
+     * Expands the given entry. Null for the timespan means the span of the (non recurring) entry itself.
+     */
+    private List<Occurrence<T>> expand(T entry, LocalDateTime filterStart, LocalDateTime filterEnd) {
+        if (filterStart == null) {
+            LocalDateTime start = entry.getStart();
+            if (start == null) {
+                return new ArrayList<>();
+            }
+
+            // the expander defines the end of entries without an end, so we search the whole following day
+            filterStart = start;
+            filterEnd = entry.getEnd() != null && entry.getEnd().isAfter(start) ? entry.getEnd() : start.plusDays(1);
+        }
+
+        return recurrenceExpander.expand(entry, filterStart, filterEnd);
+    }
+
+    /**
+     * Sorts the given occurrences by start and passes each overlapping pair matching the filter to the consumer,
+     * the earlier starting one first. Stops, when the consumer returns false. Occurrences without a duration
+     * are ignored.
+     */
+    private void sweep(List<Occurrence<T>> occurrences, BiPredicate<Occurrence<T>, Occurrence<T>> filter, BiPredicate<Occurrence<T>, Occurrence<T>> consumer) {
+        occurrences.sort(BY_START);
+
+        List<Occurrence<T>> active = new ArrayList<>();
+        for (Occurrence<T> current : occurrences) {
+            LocalDateTime currentStart = current.getStart();
+            if (!current.getEnd().isAfter(currentStart)) {
+                continue;
+            }
+
+            Predicate<Occurrence<T>> ended = o -> !o.getEnd().isAfter(currentStart);
+            active.removeIf(ended);
+
+            for (Occurrence<T> other : active) {
+                if (filter.test(other, current) && !consumer.test(other, current)) {
+                    return;
+                }
+            }
+
+            active.add(current);
+        }
+    }
+}
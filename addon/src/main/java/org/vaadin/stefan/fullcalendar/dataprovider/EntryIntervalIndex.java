@@ -0,0 +1,345 @@
+package org.vaadin.stefan.fullcalendar.dataprovider;
+
+import lombok.NonNull;
+import org.vaadin.stefan.fullcalendar.Entry;
+
+import java.io.Serializable;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+
+/**
+ * An augmented interval tree over the start and end of entries. The tree is a self balancing (AVL) binary tree
+ * sorted by the entry's start, where each node additionally knows the maximum end of its subtree. This allows
+ * answering range queries in O(log n + k), where k is the number of matching entries.
+ * <p></p>
+ * The index stores the start and end of an entry at the time it has been added. Changing the start or end
+ * of an indexed entry afterwards therefore requires calling {@link #update(Entry)}, otherwise the index will
+ * still use the old values.
+ * <p></p>
+ * Only entries with a start and an end can be indexed. Recurring entries or entries with missing dates have
+ * to be handled by the caller. This class is not thread safe.
+ *
+ * @param <T> entry type
+ */
+public class EntryIntervalIndex<T extends Entry> implements Serializable {
+
+    private final Map<String, Node<T>> nodes = new HashMap<>();
+    private Node<T> root;
+
+    /**
+     * Indicates, if the given entry can be stored in this index, meaning that it is not recurring and has
+     * a start and an end.
+     *
+     * @param entry entry to check
+     * @return entry is indexable
+     */
+    public static boolean isIndexable(@NonNull Entry entry) {
+        return !entry.isRecurring() && entry.getStart() != null && entry.getEnd() != null;
+    }
+
+    /**
+     * Adds the given entry to the index. Noop and returning false, if the entry is not indexable or another entry
+     * with the same id has already been indexed.
+     *
+     * @param entry entry to add
+     * @return entry has been added
+     */
+    public boolean add(@NonNull T entry) {
+        if (!isIndexable(entry) || nodes.containsKey(entry.getId())) {
+            return false;
+        }
+
+        Node<T> node = new Node<>(entry);
+        nodes.put(entry.getId(), node);
+        root = insert(root, node);
+        return true;
+    }
+
+    /**
+     * Removes the entry with the given id from this index. Noop and returning false, if there is no such entry.
+     *
+     * @param id id of the entry to remove
+     * @return entry has been removed
+     */
+    public boolean remove(@NonNull String id) {
+        Node<T> node = nodes.remove(id);
+        if (node == null) {
+            return false;
+        }
+
+        root = delete(root, node);
+        return true;
+    }
+
+    /**
+     * Removes the given entry from this index. Noop and returning false, if the entry is not indexed.
+     *
+     * @param entry entry to remove
+     * @return entry has been removed
+     */
+    public boolean remove(@NonNull T entry) {
+        return remove(entry.getId());
+    }
+
+    /**
+     * Reindexes the given entry, using its current start and end. If the entry is not indexable anymore,
+     * it will be removed from this index.
+     *
+     * @param entry entry to update
+     * @return entry is indexed after the update
+     */
+    public boolean update(@NonNull T entry) {
+        remove(entry.getId());
+        return add(entry);
+    }
+
+    /**
+     * Indicates, if an entry with the given id is part of this index.
+     *
+     * @param id id
+     * @return is indexed
+     */
+    public boolean contains(@NonNull String id) {
+        return nodes.containsKey(id);
+    }
+
+    /**
+     * Returns the amount of indexed entries.
+     *
+     * @return size
+     */
+    public int size() {
+        return nodes.size();
+    }
+
+    /**
+     * Indicates, if this index is empty.
+     *
+     * @return is empty
+     */
+    public boolean isEmpty() {
+        return nodes.isEmpty();
+    }
+
+    /**
+     * Removes all entries from this index.
+     */
+    public void clear() {
+        nodes.clear();
+        root = null;
+    }
+
+    /**
+     * Passes all indexed entries to the consumer, that lay inside or cross the given timespan. Both borders
+     * are exclusive, so an entry ending at the filter start or starting at the filter end does not match (same
+     * as {@link EntryQuery#applyFilter}). Null for the start or end means an open border.
+     *
+     * @param filterStart start (exclusive) or null
+     * @param filterEnd   end (exclusive) or null
+     * @param consumer    consumer to receive matching entries
+     */
+    public void query(LocalDateTime filterStart, LocalDateTime filterEnd, @NonNull Consumer<? super T> consumer) {
+        query(root, filterStart, filterEnd, entry -> {
+            consumer.accept(entry);
+            return true;
+        });
+    }
+
+    /**
+     * Returns all indexed entries, that lay inside or cross the given timespan as a new list. See
+     * {@link #query(LocalDateTime, LocalDateTime, Consumer)} for details.
+     *
+     * @param filterStart start (exclusive) or null
+     * @param filterEnd   end (exclusive) or null
+     * @return matching entries
+     */
+    public List<T> query(LocalDateTime filterStart, LocalDateTime filterEnd) {
+        List<T> result = new ArrayList<>();
+        query(filterStart, filterEnd, result::add);
+        return result;
+    }
+
+    /**
+     * Indicates, if any indexed entry inside or crossing the given timespan matches the given predicate. Stops
+     * at the first match.
+     *
+     * @param filterStart start (exclusive) or null
+     * @param filterEnd   end (exclusive) or null
+     * @param predicate   predicate to test
+     * @return any entry matches
+     */
+    public boolean anyMatch(LocalDateTime filterStart, LocalDateTime filterEnd, @NonNull Predicate<? super T> predicate) {
+        return !query(root, filterStart, filterEnd, entry -> !predicate.test(entry));
+    }
+
+    /**
+     * Walks the matching nodes. Returns false, when the visitor requested to stop.
+     */
+    private boolean query(Node<T> node, LocalDateTime filterStart, LocalDateTime filterEnd, Predicate<T> visitor) {
+        if (node == null) {
+            return true;
+        }
+
+        // no entry in this subtree ends after the filter start
+        if (filterStart != null && !node.maxEnd.isAfter(filterStart)) {
+            return true;
+        }
+
+        if (!query(node.left, filterStart, filterEnd, visitor)) {
+            return false;
+        }
+
+        // this node and its right subtree start at or after the filter end
+        if (filterEnd != null && !node.start.isBefore(filterEnd)) {
+            return true;
+        }
+
+        if ((filterStart == null || node.end.isAfter(filterStart)) && !visitor.test(node.entry)) {
+            return false;
+        }
+
+        return query(node.right, filterStart, filterEnd, visitor);
+    }
+
+    private static <T extends Entry> int compare(Node<T> a, Node<T> b) {
+        int result = a.start.compareTo(b.start);
+        return result != 0 ? result : a.entry.getId().compareTo(b.entry.getId());
+    }
+
+    private static <T extends Entry> Node<T> insert(Node<T> node, Node<T> toInsert) {
+        if (node == null) {
+            return toInsert;
+        }
+
+        if (compare(toInsert, node) < 0) {
+            node.left = insert(node.left, toInsert);
+        } else {
+            node.right = insert(node.right, toInsert);
+        }
+
+        return balance(node);
+    }
+
+    private static <T extends Entry> Node<T> delete(Node<T> node, Node<T> toDelete) {
+        if (node == null) {
+            return null;
+        }
+
+        if (node == toDelete) {
+            if (node.left == null) {
+                return node.right;
+            }
+
+            if (node.right == null) {
+                return node.left;
+            }
+
+            // replace the node with the smallest node of its right subtree
+            Node<T> successor = node.right;
+            while (successor.left != null) {
+                successor = successor.left;
+            }
+
+            successor.right = deleteMin(node.right);
+            successor.left = node.left;
+            return balance(successor);
+        }
+
+        if (compare(toDelete, node) < 0) {
+            node.left = delete(node.left, toDelete);
+        } else {
+            node.right = delete(node.right, toDelete);
+        }
+
+        return balance(node);
+    }
+
+    private static <T extends Entry> Node<T> deleteMin(Node<T> node) {
+        if (node.left == null) {
+            return node.right;
+        }
+
+        node.left = deleteMin(node.left);
+        return balance(node);
+    }
+
+    private static <T extends Entry> Node<T> balance(Node<T> node) {
+        node.update();
+        int balance = height(node.left) - height(node.right);
+
+        if (balance > 1) {
+            if (height(node.left.left) < height(node.left.right)) {
+                node.left = rotateLeft(node.left);
+            }
+            return rotateRight(node);
+        }
+
+        if (balance < -1) {
+            if (height(node.right.right) < height(node.right.left)) {
+                node.right = rotateRight(node.right);
+            }
+            return rotateLeft(node);
+        }
+
+        return node;
+    }
+
+    private static <T extends Entry> Node<T> rotateRight(Node<T> node) {
+        Node<T> left = node.left;
+        node.left = left.right;
+        left.right = node;
+        node.update();
+        left.update();
+        return left;
+    }
+
+    private static <T extends Entry> Node<T> rotateLeft(Node<T> node) {
+        Node<T> right = node.right;
+        node.right = right.left;
+        right.left = node;
+        node.update();
+        right.update();
+        return right;
+    }
+
+    private static int height(Node<?> node) {
+        return node != null ? node.height : 0;
+    }
+
+    /**
+     * A tree node. Start and end are copied from the entry when the node is created, so that the tree
+     * stays consistent, even if the entry is modified afterwards.
+     */
+    private static final class Node<T extends Entry> implements Serializable {
+        private final T entry;
+        private final LocalDateTime start;
+        private final LocalDateTime end;
+
+        private LocalDateTime maxEnd;
+        private int height = 1;
+        private Node<T> left;
+        private Node<T> right;
+
+        private Node(T entry) {
+            this.entry = entry;
+            this.start = entry.getStart();
+            this.end = entry.getEnd();
+            this.maxEnd = end;
+        }
+
+        private void update() {
+            height = 1 + Math.max(height(left), height(right));
+
+            LocalDateTime max = end;
+            if (left != null && left.maxEnd.isAfter(max)) {
+                max = left.maxEnd;
+            }
+            if (right != null && right.maxEnd.isAfter(max)) {
+                max = right.maxEnd;
+            }
+            maxEnd = max;
+        }
+    }
+}
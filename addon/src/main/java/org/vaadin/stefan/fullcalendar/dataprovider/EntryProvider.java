@@ -5,6 +5,7 @@ import com.vaadin.flow.shared.Registration;
 import lombok.NonNull;
 import org.vaadin.stefan.fullcalendar.Entry;
 import org.vaadin.stefan.fullcalendar.FullCalendar;
+import org.vaadin.stefan.fullcalendar.Timezone;
 
 import java.time.Instant;
 import java.time.LocalDateTime;
@@ -100,6 +101,24 @@ public interface EntryProvider<T extends Entry> {
      */
     Stream<T> fetch(@NonNull EntryQuery query);
 
+    /**
+     * Fetches entries based on the given query, but keeps only the first entries of each day plus the amount
+     * of left out entries per day. Used by the calendar, when the shown entries per day are limited and aggregated
+     * (see {@link FullCalendar#setMaxEntriesPerDayAggregated(int)}).
+     * <p></p>
+     * By default aggregates the result of {@link #fetch(EntryQuery)} in one pass. Backend based providers
+     * may override this method to count the entries per day on the backend (e.g. with a grouped count query)
+     * and fetch only the first entries of each day, as long as the result matches the default aggregation.
+     * @param query query
+     * @param maxEntriesPerDay shown entries per day
+     * @param timezone timezone defining the days
+     * @return aggregated entries
+     * @see DailyEntryAggregation
+     */
+    default DailyEntryAggregation<T> fetchAggregated(@NonNull EntryQuery query, int maxEntriesPerDay, @NonNull Timezone timezone) {
+        return DailyEntryAggregation.aggregate(fetch(query), query, maxEntriesPerDay, timezone);
+    }
+
     /**
      * Returns a single entry represented by the given id or an empty optional, if there is no entry
      * with this id.
@@ -109,12 +128,10 @@ public interface EntryProvider<T extends Entry> {
     Optional<T> fetchById(@NonNull String id);
 
     /**
-     * Refreshes a single item.
-     * <p></p>
-     * <i>Please note, that this functionality is currently not directly supported by the client side. Therefore,
-     * in most cases calling this method will currently refetch all items of the currently shown interval.
-     * Also see <a href="https://github.com/fullcalendar/fullcalendar/issues/7215">related github issue.</a></i>
-     *
+     * Refreshes a single item. The item is refetched by its id using {@link #fetchById(String)} and only this
+     * item is sent to the client, where it replaces the existing one. If the item cannot be fetched anymore, it
+     * is removed from the client.
+     * @param item item to refresh
      */
     void refreshItem(T item);
 
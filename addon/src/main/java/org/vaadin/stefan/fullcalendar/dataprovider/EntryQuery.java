@@ -4,6 +4,7 @@ import lombok.*;
 import org.vaadin.stefan.fullcalendar.Entry;
 import org.vaadin.stefan.fullcalendar.Timezone;
 
+import java.io.Serializable;
 import java.time.Instant;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
@@ -19,7 +20,7 @@ import java.util.stream.Stream;
 @AllArgsConstructor
 @RequiredArgsConstructor
 @Builder
-public class EntryQuery {
+public class EntryQuery implements Serializable {
 
 //    private final FullCalendar source; // needed?
     private LocalDateTime start;
@@ -54,10 +55,6 @@ public class EntryQuery {
      * @return filtered stream
      */
     public <T extends Entry> Stream<T> applyFilter(Stream<T> stream) {
-        if (start == null && end == null && allDay == AllDay.BOTH) {
-            return stream;
-        }
-
         if (start != null) {
             stream = stream.filter(e -> {
                 if (e.isRecurring()) {
@@ -86,7 +83,21 @@ public class EntryQuery {
             });
         }
 
+        return applyNonTemporalFilter(stream);
+    }
 
+    /**
+     * Applies only the parts of this query, that are not related to the time range, for instance the all day
+     * filter. Intended to be used by entry providers, that resolve the time range by other means (e.g. an index).
+     * Subclasses, that add further filter criteria, should override this method.
+     * <p></p>
+     * Returns the same stream, when there is nothing to filter.
+     *
+     * @param stream stream
+     * @param <T>    type
+     * @return filtered stream
+     */
+    public <T extends Entry> Stream<T> applyNonTemporalFilter(Stream<T> stream) {
         if (allDay != AllDay.BOTH) {
             Predicate<T> allDayFilter = Entry::isAllDay;
             if (allDay == AllDay.TIMED_ONLY) {
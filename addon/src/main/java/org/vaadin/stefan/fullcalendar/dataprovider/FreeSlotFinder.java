@@ -0,0 +1,506 @@
+package org.vaadin.stefan.fullcalendar.dataprovider;
+
+import lombok.Getter;
+import org.vaadin.stefan.fullcalendar.BusinessHours;
+import org.vaadin.stefan.fullcalendar.DisplayMode;
+import org.vaadin.stefan.fullcalendar.Entry;
+import org.vaadin.stefan.fullcalendar.NotNull;
+import org.vaadin.stefan.fullcalendar.Timezone;
+
+import java.io.Serializable;
+import java.time.DayOfWeek;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.ZoneOffset;
+import java.util.*;
+import java.util.function.BiFunction;
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Finds free timespans, e.g. for booking flows ("the next 5 free slots of 30 minutes"). The free timespans are
+ * the business hours minus the timespans occupied by the entries of the entry provider. Without business hours
+ * the whole day is available.
+ * <p></p>
+ * The search is processed lazily week by week. For each week the business hours are turned into intervals, the
+ * occupying entries of that week are fetched from the entry provider (recurring entries are expanded by a
+ * {@link RecurrenceExpander}) and merged by a sweep line over their sorted starts and ends. Subtracting the merged
+ * intervals from the business hours results in the free windows of that week. So the search only touches the entries
+ * of the weeks, that are actually consumed from the returned stream. Using an entry provider with an index, like the
+ * {@link IndexedInMemoryEntryProvider}, makes each fetch sub linear.
+ * <p></p>
+ * Business hours are interpreted in the timezone of the recurrence expander (which should be the one of the
+ * calendar), while all timespans are based on UTC, the same way as the start and end of an entry. Entries shown as
+ * background do not occupy any time by default, see {@link #isOccupying(Entry)}.
+ *
+ * @param <T> entry type
+ */
+public class FreeSlotFinder<T extends Entry> implements Serializable {
+
+    private static final long SECONDS_PER_DAY = 24 * 60 * 60;
+    private static final int DAYS_PER_CHUNK = 7;
+
+    @Getter
+    private final EntryProvider<T> entryProvider;
+
+    @Getter
+    private final RecurrenceExpander<T> recurrenceExpander;
+
+    private final BusinessHours[] businessHours;
+
+    /**
+     * Creates a new instance, that searches free time inside the given business hours. Passing no business hours
+     * means, that the whole day is available. Business hours are interpreted as UTC.
+     *
+     * @param entryProvider entry provider
+     * @param businessHours business hours
+     * @throws NullPointerException when null is passed for the entry provider
+     */
+    public FreeSlotFinder(@NotNull EntryProvider<T> entryProvider, BusinessHours... businessHours) {
+        this(entryProvider, new RecurrenceExpander<>(), businessHours);
+    }
+
+    /**
+     * Creates a new instance, that searches free time inside the given business hours. Passing no business hours
+     * means, that the whole day is available. Business hours are interpreted in the timezone of the given
+     * expander, which is also used to expand recurring entries.
+     *
+     * @param entryProvider      entry provider
+     * @param recurrenceExpander recurrence expander
+     * @param businessHours      business hours
+     * @throws NullPointerException when null is passed for the entry provider or expander
+     */
+    public FreeSlotFinder(@NotNull EntryProvider<T> entryProvider, @NotNull RecurrenceExpander<T> recurrenceExpander, BusinessHours... businessHours) {
+        this.entryProvider = Objects.requireNonNull(entryProvider);
+        this.recurrenceExpander = Objects.requireNonNull(recurrenceExpander);
+        this.businessHours = businessHours == null || businessHours.length == 0 ? null : businessHours.clone();
+    }
+
+    /**
+     * Returns the business hours of this instance. Empty means, that the whole day is available.
+     *
+     * @return business hours
+     */
+    public List<BusinessHours> getBusinessHours() {
+        return businessHours == null ? Collections.emptyList() : Collections.unmodifiableList(Arrays.asList(businessHours));
+    }
+
+    /**
+     * Returns a lazy stream of all free windows between the given start and end, that are at least as long as the
+     * given duration. The windows are maximal, meaning that the time directly before and after a window is
+     * occupied or outside of the business hours.
+     *
+     * @param from        start of the search
+     * @param until       end of the search
+     * @param minDuration minimal duration of a window
+     * @return free windows
+     * @throws NullPointerException     when null is passed
+     * @throws IllegalArgumentException when the duration is zero or negative
+     */
+    public Stream<TimeSlot> streamFreeWindows(@NotNull LocalDateTime from, @NotNull LocalDateTime until, @NotNull Duration minDuration) {
+        return streamFreeWindows(Collections.singletonList(businessHours), this::fetchOccupyingEntries, from, until, minDuration);
+    }
+
+    /**
+     * Returns a lazy stream of consecutive free slots with the given duration between the given start and end.
+     * Each free window is split into as many slots as fit into it, starting at the begin of the window.
+     *
+     * @param from     start of the search
+     * @param until    end of the search
+     * @param duration duration of a slot
+     * @return free slots
+     * @throws NullPointerException     when null is passed
+     * @throws IllegalArgumentException when the duration is zero or negative
+     */
+    public Stream<TimeSlot> streamFreeSlots(@NotNull LocalDateTime from, @NotNull LocalDateTime until, @NotNull Duration duration) {
+        return toSlots(streamFreeWindows(from, until, duration), duration);
+    }
+
+    /**
+     * Returns the first free slots with the given duration between the given start and end. The search stops,
+     * when the given amount of slots has been found. See {@link #streamFreeSlots(LocalDateTime, LocalDateTime, Duration)}.
+     *
+     * @param from     start of the search
+     * @param until    end of the search
+     * @param duration duration of a slot
+     * @param maxSlots maximal amount of slots to return
+     * @return free slots
+     * @throws NullPointerException     when null is passed
+     * @throws IllegalArgumentException when the duration is zero or negative or the amount is negative
+     */
+    public List<TimeSlot> findFreeSlots(@NotNull LocalDateTime from, @NotNull LocalDateTime until, @NotNull Duration duration, int maxSlots) {
+        return streamFreeSlots(from, until, duration).limit(maxSlots).collect(Collectors.toList());
+    }
+
+    /**
+     * Indicates, if the given entry occupies its time. By default, entries shown as background do not.
+     *
+     * @param entry entry
+     * @return entry occupies its time
+     */
+    protected boolean isOccupying(T entry) {
+        DisplayMode displayMode = entry.getDisplayMode();
+        return displayMode != DisplayMode.BACKGROUND && displayMode != DisplayMode.INVERSE_BACKGROUND;
+    }
+
+    /**
+     * Fetches all entries, that might occupy time inside the given timespan. By default, all entries of the
+     * provider overlapping the timespan.
+     *
+     * @param start start
+     * @param end   end
+     * @return entries
+     */
+    protected Stream<? extends T> fetchOccupyingEntries(LocalDateTime start, LocalDateTime end) {
+        return entryProvider.fetch(start, end);
+    }
+
+    /**
+     * Returns a lazy stream of the free windows, that are inside all of the given business hours and not occupied by
+     * any of the entries returned by the given function. A null element of the business hours list means, that the
+     * whole day is available for that element. See {@link #streamFreeWindows(LocalDateTime, LocalDateTime, Duration)}.
+     *
+     * @param businessHours     business hours to intersect
+     * @param occupyingEntries  function to fetch the entries of a timespan
+     * @param from              start of the search
+     * @param until             end of the search
+     * @param minDuration       minimal duration of a window
+     * @return free windows
+     * @throws NullPointerException     when null is passed
+     * @throws IllegalArgumentException when the duration is zero or negative
+     */
+    protected Stream<TimeSlot> streamFreeWindows(@NotNull List<BusinessHours[]> businessHours,
+                                                 @NotNull BiFunction<LocalDateTime, LocalDateTime, Stream<? extends T>> occupyingEntries,
+                                                 @NotNull LocalDateTime from, @NotNull LocalDateTime until, @NotNull Duration minDuration) {
+        Objects.requireNonNull(businessHours);
+        Objects.requireNonNull(occupyingEntries);
+        Objects.requireNonNull(from);
+        Objects.requireNonNull(until);
+        requirePositive(minDuration);
+
+        FreeWindowIterator iterator = new FreeWindowIterator(businessHours, occupyingEntries, toEpochSecond(from), toEpochSecond(until), minDuration.getSeconds());
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(iterator, Spliterator.ORDERED | Spliterator.NONNULL), false);
+    }
+
+    /**
+     * Splits the given windows into consecutive slots of the given duration.
+     *
+     * @param windows  windows
+     * @param duration slot duration
+     * @return slots
+     */
+    protected static Stream<TimeSlot> toSlots(@NotNull Stream<TimeSlot> windows, @NotNull Duration duration) {
+        requirePositive(duration);
+        long millis = duration.toMillis();
+        return windows.flatMap(window -> LongStream.range(0, window.getDuration().toMillis() / millis)
+                .mapToObj(i -> {
+                    LocalDateTime start = window.getStart().plus(duration.multipliedBy(i));
+                    return new TimeSlot(start, start.plus(duration));
+                }));
+    }
+
+    private static void requirePositive(Duration duration) {
+        Objects.requireNonNull(duration);
+        if (duration.isNegative() || duration.isZero()) {
+            throw new IllegalArgumentException("Duration must be positive");
+        }
+    }
+
+    private static long toEpochSecond(LocalDateTime dateTime) {
+        return dateTime.toEpochSecond(ZoneOffset.UTC);
+    }
+
+    private static LocalDateTime ofEpochSecond(long epochSecond) {
+        return LocalDateTime.ofEpochSecond(epochSecond, 0, ZoneOffset.UTC);
+    }
+
+    /**
+     * Lazily computes the free windows week by week. Adjacent windows of two weeks are merged.
+     */
+    private final class FreeWindowIterator implements Iterator<TimeSlot> {
+        private final List<BusinessHours[]> businessHours;
+        private final BiFunction<LocalDateTime, LocalDateTime, Stream<? extends T>> occupyingEntries;
+        private final long from;
+        private final long until;
+        private final long minSeconds;
+        private final Timezone timezone;
+
+        private long nextDay;
+        private boolean exhausted;
+
+        private final Intervals ready = new Intervals();
+        private int readyIndex;
+
+        private boolean hasPending;
+        private long pendingStart;
+        private long pendingEnd;
+
+        private FreeWindowIterator(List<BusinessHours[]> businessHours, BiFunction<LocalDateTime, LocalDateTime, Stream<? extends T>> occupyingEntries,
+                                   long from, long until, long minSeconds) {
+            this.businessHours = businessHours;
+            this.occupyingEntries = occupyingEntries;
+            this.from = from;
+            this.until = until;
+            this.minSeconds = minSeconds;
+            this.timezone = recurrenceExpander.getTimezone();
+
+            // the local day of the start might differ, so we start a day earlier
+            nextDay = Math.floorDiv(toLocal(from), SECONDS_PER_DAY) - 1;
+            exhausted = from >= until;
+        }
+
+        @Override
+        public boolean hasNext() {
+            while (readyIndex >= ready.size() && !exhausted) {
+                ready.clear();
+                readyIndex = 0;
+                processChunk();
+            }
+
+            return readyIndex < ready.size();
+        }
+
+        @Override
+        public TimeSlot next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+
+            TimeSlot slot = new TimeSlot(ofEpochSecond(ready.start(readyIndex)), ofEpochSecond(ready.end(readyIndex)));
+            readyIndex++;
+            return slot;
+        }
+
+        private void processChunk() {
+            long firstDay = nextDay;
+            nextDay += DAYS_PER_CHUNK;
+
+            long chunkStart = toUtc(firstDay * SECONDS_PER_DAY);
+            long chunkEnd = toUtc(nextDay * SECONDS_PER_DAY);
+
+            Intervals available = Intervals.of(Math.max(from, chunkStart), Math.min(until, chunkEnd));
+            for (BusinessHours[] hours : businessHours) {
+                if (hours != null) {
+                    available = available.intersect(toIntervals(hours, firstDay));
+                }
+            }
+
+            if (available.size() > 0) {
+                Intervals occupied = fetchOccupied(available.start(0), available.end(available.size() - 1));
+                Intervals free = available.subtract(occupied);
+                for (int i = 0; i < free.size(); i++) {
+                    append(free.start(i), free.end(i));
+                }
+            }
+
+            // a pending window can only be continued by the next week, when it reaches its start
+            if (chunkEnd >= until || (hasPending && pendingEnd < chunkEnd)) {
+                flushPending();
+            }
+
+            if (chunkEnd >= until) {
+                exhausted = true;
+            }
+        }
+
+        private void append(long start, long end) {
+            if (hasPending && start <= pendingEnd) {
+                pendingEnd = Math.max(pendingEnd, end);
+                return;
+            }
+
+            flushPending();
+            hasPending = true;
+            pendingStart = start;
+            pendingEnd = end;
+        }
+
+        private void flushPending() {
+            if (hasPending && pendingEnd - pendingStart >= minSeconds) {
+                ready.add(pendingStart, pendingEnd);
+            }
+            hasPending = false;
+        }
+
+        /**
+         * Fetches the entries of the timespan and returns the merged intervals of their occurrences.
+         */
+        private Intervals fetchOccupied(long start, long end) {
+            LocalDateTime startDateTime = ofEpochSecond(start);
+            LocalDateTime endDateTime = ofEpochSecond(end);
+
+            Intervals occupied = new Intervals();
+            occupyingEntries.apply(startDateTime, endDateTime).forEach(entry -> {
+                if (isOccupying(entry)) {
+                    RecurrenceExpander.OccurrenceCursor<T> cursor = recurrenceExpander.cursor(entry, startDateTime, endDateTime);
+                    while (cursor.next()) {
+                        occupied.add(cursor.getStartEpochSecond(), cursor.getEndEpochSecond());
+                    }
+                }
+            });
+
+            return occupied.union();
+        }
+
+        /**
+         * Converts the given business hours for the week starting with the given local day into merged UTC intervals.
+         */
+        private Intervals toIntervals(BusinessHours[] hours, long firstDay) {
+            Intervals intervals = new Intervals();
+            for (long day = firstDay; day < firstDay + DAYS_PER_CHUNK; day++) {
+                // the epoch day 0 is a thursday
+                DayOfWeek dayOfWeek = DayOfWeek.of((int) Math.floorMod(day + 3, 7L) + 1);
+                long dayStart = day * SECONDS_PER_DAY;
+
+                for (BusinessHours hour : hours) {
+                    if (hour.getDayOfWeeks().contains(dayOfWeek)) {
+                        long start = hour.getStart().map(LocalTime::toSecondOfDay).orElse(0);
+                        long end = hour.getEnd().map(LocalTime::toSecondOfDay).map(Integer::longValue).orElse(SECONDS_PER_DAY);
+                        if (end > start) {
+                            intervals.add(toUtc(dayStart + start), toUtc(dayStart + end));
+                        }
+                    }
+                }
+            }
+
+            return intervals.union();
+        }
+
+        private long toUtc(long localSecond) {
+            return toEpochSecond(timezone.removeTimezoneOffset(ofEpochSecond(localSecond)));
+        }
+
+        private long toLocal(long utcSecond) {
+            return toEpochSecond(timezone.applyTimezoneOffset(ofEpochSecond(utcSecond)));
+        }
+    }
+
+    /**
+     * A list of intervals stored as pairs of start and (exclusive) end seconds.
+     */
+    private static final class Intervals {
+        private long[] values = new long[16];
+        private int size;
+
+        private static Intervals of(long start, long end) {
+            Intervals intervals = new Intervals();
+            if (end > start) {
+                intervals.add(start, end);
+            }
+            return intervals;
+        }
+
+        private void add(long start, long end) {
+            if (size * 2 == values.length) {
+                values = Arrays.copyOf(values, values.length * 2);
+            }
+            values[size * 2] = start;
+            values[size * 2 + 1] = end;
+            size++;
+        }
+
+        private long start(int index) {
+            return values[index * 2];
+        }
+
+        private long end(int index) {
+            return values[index * 2 + 1];
+        }
+
+        private int size() {
+            return size;
+        }
+
+        private void clear() {
+            size = 0;
+        }
+
+        /**
+         * Merges all overlapping or touching intervals by a sweep line over the separately sorted starts and
+         * ends. The result is sorted and disjoint.
+         */
+        private Intervals union() {
+            long[] starts = new long[size];
+            long[] ends = new long[size];
+            for (int i = 0; i < size; i++) {
+                starts[i] = start(i);
+                ends[i] = end(i);
+            }
+            Arrays.sort(starts);
+            Arrays.sort(ends);
+
+            Intervals result = new Intervals();
+            int depth = 0;
+            long segmentStart = 0;
+            for (int i = 0, j = 0; j < size; ) {
+                if (i < size && starts[i] <= ends[j]) {
+                    if (depth++ == 0) {
+                        segmentStart = starts[i];
+                    }
+                    i++;
+                } else {
+                    if (--depth == 0 && ends[j] > segmentStart) {
+                        result.add(segmentStart, ends[j]);
+                    }
+                    j++;
+                }
+            }
+
+            return result;
+        }
+
+        /**
+         * Intersects two sorted, disjoint lists of intervals.
+         */
+        private Intervals intersect(Intervals other) {
+            Intervals result = new Intervals();
+            for (int i = 0, j = 0; i < size && j < other.size; ) {
+                long start = Math.max(start(i), other.start(j));
+                long end = Math.min(end(i), other.end(j));
+                if (start < end) {
+                    result.add(start, end);
+                }
+
+                if (end(i) < other.end(j)) {
+                    i++;
+                } else {
+                    j++;
+                }
+            }
+
+            return result;
+        }
+
+        /**
+         * Removes the given sorted, disjoint intervals from this sorted, disjoint list.
+         */
+        private Intervals subtract(Intervals other) {
+            Intervals result = new Intervals();
+            int j = 0;
+            for (int i = 0; i < size; i++) {
+                long current = start(i);
+                long end = end(i);
+
+                while (j < other.size && other.end(j) <= current) {
+                    j++;
+                }
+
+                for (int k = j; k < other.size && other.start(k) < end && current < end; k++) {
+                    if (other.start(k) > current) {
+                        result.add(current, other.start(k));
+                    }
+                    current = Math.max(current, other.end(k));
+                }
+
+                if (current < end) {
+                    result.add(current, end);
+                }
+            }
+
+            return result;
+        }
+    }
+}
@@ -12,6 +12,7 @@ import java.time.Instant;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.*;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 import java.util.stream.StreamSupport;
@@ -28,15 +29,26 @@ public class InMemoryEntryProvider<T extends Entry> extends AbstractEntryProvide
      * to this instance.
      */
     @Getter(AccessLevel.PROTECTED)
-    private final Map<String, T> entriesMap = new HashMap<>();
+    private final Map<String, T> entriesMap;
 
     public InMemoryEntryProvider() {
+        this(new HashMap<>());
     }
 
     public InMemoryEntryProvider(Iterable<T> entries) {
+        this();
         addEntries(entries);
     }
 
+    /**
+     * Creates a new instance, that uses the given map to store its entries. Intended for subclasses, that
+     * need a different type of map (e.g. a concurrent one). The map should be empty.
+     * @param entriesMap backing map
+     */
+    protected InMemoryEntryProvider(@NotNull Map<String, T> entriesMap) {
+        this.entriesMap = Objects.requireNonNull(entriesMap);
+    }
+
     /**
      * Creates a lazy loading instance. The given entries are used as initial items. Leave empty, if there
      * are no initial entries.
@@ -98,8 +110,7 @@ public class InMemoryEntryProvider<T extends Entry> extends AbstractEntryProvide
         iterableEntries.forEach(entry -> {
             String id = entry.getId();
 
-            if (!entriesMap.containsKey(id)) {
-                entriesMap.put(id, entry);
+            if (entriesMap.putIfAbsent(id, entry) == null) {
                 entry.setCalendar(getCalendar());
                 onEntryAdd(entry);
             }
@@ -143,7 +154,7 @@ public class InMemoryEntryProvider<T extends Entry> extends AbstractEntryProvide
     public void updateEntries(@NotNull Iterable<T> iterableEntries) {
         Objects.requireNonNull(iterableEntries);
         Map<String, T> entriesMap = getEntriesMap();
-        StreamSupport.stream(iterableEntries.spliterator(), true)
+        StreamSupport.stream(iterableEntries.spliterator(), false)
                 .filter(entry -> entriesMap.containsKey(entry.getId()) && entry.isKnownToTheClient())
                 .forEach(this::onEntryUpdate);
     }
@@ -153,6 +164,85 @@ public class InMemoryEntryProvider<T extends Entry> extends AbstractEntryProvide
     }
 
 
+    /**
+     * Executes the given transaction as one batch. All additions, removals and updates registered on the given
+     * {@link Batch} are collected first and applied after the transaction has finished, followed by a single
+     * {@link EntriesChangeEvent}, that contains the net changes of the batch. For instance adding and removing the
+     * same entry inside one batch results in no change at all, while removing and re-adding an entry is treated
+     * as an update.
+     * <p></p>
+     * Listeners like the calendar can use the change details to only update the affected entries instead of
+     * refetching all of them. Therefore, there is no need to call {@link #refreshAll()} afterwards.
+     * <p></p>
+     * When the transaction throws an exception, none of the collected changes is applied. Please note, that
+     * the provider's entries are not modified while the transaction is running, so fetching entries from inside the
+     * transaction will not reflect the collected changes.
+     * <pre>
+     * provider.batch(batch -> {
+     *     batch.add(newEntry);
+     *     batch.remove(oldEntry);
+     *     batch.update(changedEntry);
+     * });
+     * </pre>
+     *
+     * @param transaction transaction to execute
+     * @throws NullPointerException when null is passed
+     */
+    public void batch(@NotNull Consumer<Batch> transaction) {
+        Objects.requireNonNull(transaction);
+
+        Batch batch = new Batch();
+        transaction.accept(batch);
+
+        List<T> added = new ArrayList<>();
+        List<T> updated = new ArrayList<>();
+        List<T> removed = new ArrayList<>();
+
+        batch.changes.values().forEach(change -> {
+            switch (change.type) {
+                case ADD:
+                    added.add(change.entry);
+                    break;
+                case UPDATE:
+                    updated.add(change.entry);
+                    break;
+                case REMOVE:
+                    removed.add(change.entry);
+                    break;
+            }
+        });
+
+        if (added.isEmpty() && updated.isEmpty() && removed.isEmpty()) {
+            return;
+        }
+
+        // replaced instances have to be removed first, so that the new instance can be registered
+        List<T> replaced = new ArrayList<>();
+        for (T entry : updated) {
+            T current = entriesMap.get(entry.getId());
+            if (current != null && current != entry) {
+                replaced.add(current);
+            }
+        }
+
+        removeEntries(removed);
+        removeEntries(replaced);
+        addEntries(added);
+        addEntries(updated);
+        updateEntries(updated);
+
+        onBatchApplied(new EntriesChangeEvent<>(this, added, updated, removed));
+    }
+
+    /**
+     * Called after the changes of a batch have been applied. By default fires the given event.
+     *
+     * @param event event containing the net changes of the batch
+     */
+    protected void onBatchApplied(EntriesChangeEvent<T> event) {
+        fireEvent(event);
+    }
+
     /**
      * Returns a single entry identified by the given id or an empty optional.
      * @param id id
@@ -268,4 +358,136 @@ public class InMemoryEntryProvider<T extends Entry> extends AbstractEntryProvide
     public void removeAllEntries() {
         removeEntries(fetchAll().collect(Collectors.toList())); // prevent concurrent mod exception
     }
+
+    /**
+     * Collects the changes of a batch. Changes are tracked per entry id, so that only the net change of each
+     * entry is applied. Instances are only valid during the transaction they have been created for.
+     *
+     * @see #batch(Consumer)
+     */
+    public class Batch {
+        private final Map<String, Change> changes = new LinkedHashMap<>();
+
+        private Batch() {
+        }
+
+        /**
+         * Adds the given entries. Noop for entries, that are already registered, except for those, that have
+         * been removed before in this batch. In that case the entry is treated as updated.
+         *
+         * @param entries entries to add
+         * @return this instance
+         * @throws NullPointerException when null is passed
+         */
+        public Batch add(@NotNull Iterable<T> entries) {
+            Objects.requireNonNull(entries);
+            entries.forEach(entry -> {
+                String id = entry.getId();
+                Change change = changes.get(id);
+                if (change != null) {
+                    if (change.type == ChangeType.REMOVE) {
+                        changes.put(id, new Change(ChangeType.UPDATE, entry));
+                    }
+                } else if (!entriesMap.containsKey(id)) {
+                    changes.put(id, new Change(ChangeType.ADD, entry));
+                }
+            });
+            return this;
+        }
+
+        /**
+         * Adds the given entries.
+         *
+         * @param entries entries to add
+         * @return this instance
+         * @see #add(Iterable)
+         */
+        @SafeVarargs
+        public final Batch add(@NotNull T... entries) {
+            return add(Arrays.asList(entries));
+        }
+
+        /**
+         * Marks the given entries as updated. Noop for entries, that are neither registered nor added in this batch.
+         *
+         * @param entries entries to update
+         * @return this instance
+         * @throws NullPointerException when null is passed
+         */
+        public Batch update(@NotNull Iterable<T> entries) {
+            Objects.requireNonNull(entries);
+            entries.forEach(entry -> {
+                String id = entry.getId();
+                Change change = changes.get(id);
+                if (change != null) {
+                    if (change.type != ChangeType.REMOVE) {
+                        changes.put(id, new Change(change.type, entry));
+                    }
+                } else if (entriesMap.containsKey(id)) {
+                    changes.put(id, new Change(ChangeType.UPDATE, entry));
+                }
+            });
+            return this;
+        }
+
+        /**
+         * Marks the given entries as updated.
+         *
+         * @param entries entries to update
+         * @return this instance
+         * @see #update(Iterable)
+         */
+        @SafeVarargs
+        public final Batch update(@NotNull T... entries) {
+            return update(Arrays.asList(entries));
+        }
+
+        /**
+         * Removes the given entries. Entries, that have been added in this batch, are simply dropped from it.
+         * Noop for entries, that are not registered.
+         *
+         * @param entries entries to remove
+         * @return this instance
+         * @throws NullPointerException when null is passed
+         */
+        public Batch remove(@NotNull Iterable<T> entries) {
+            Objects.requireNonNull(entries);
+            entries.forEach(entry -> {
+                String id = entry.getId();
+                Change change = changes.get(id);
+                if (change != null && change.type == ChangeType.ADD) {
+                    changes.remove(id);
+                } else if (entriesMap.containsKey(id)) {
+                    changes.put(id, new Change(ChangeType.REMOVE, entriesMap.get(id)));
+                }
+            });
+            return this;
+        }
+
+        /**
+         * Removes the given entries.
+         *
+         * @param entries entries to remove
+         * @return this instance
+         * @see #remove(Iterable)
+         */
+        @SafeVarargs
+        public final Batch remove(@NotNull T... entries) {
+            return remove(Arrays.asList(entries));
+        }
+    }
+
+    private enum ChangeType {
+        ADD, UPDATE, REMOVE
+    }
+
+    private final class Change {
+        private final ChangeType type;
+        private final T entry;
+
+        private Change(ChangeType type, T entry) {
+            this.type = type;
+            this.entry = entry;
+        }
+    }
 }
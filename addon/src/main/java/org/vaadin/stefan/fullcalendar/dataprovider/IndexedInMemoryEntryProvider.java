@@ -0,0 +1,164 @@
+package org.vaadin.stefan.fullcalendar.dataprovider;
+
+import lombok.NonNull;
+import org.vaadin.stefan.fullcalendar.Entry;
+import org.vaadin.stefan.fullcalendar.NotNull;
+
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.stream.Stream;
+
+/**
+ * An in memory entry provider, that keeps an {@link EntryIntervalIndex} over the start and end of its entries.
+ * Fetching a timespan is answered by the index in O(log n + k) instead of filtering all entries, which is
+ * useful for large amounts of entries.
+ * <p></p>
+ * Recurring entries are kept in a {@link RecurringEntryIndex}. Other than the {@link InMemoryEntryProvider}, which
+ * returns any recurring entry without a recurring end, this provider only returns recurring entries, that
+ * have an occurrence in the fetched timespan.
+ * <p></p>
+ * The index is updated automatically, when entries are added, removed or updated via {@link #updateEntries(Iterable)}
+ * or {@link #refreshItem(Entry)}. Calling {@link #refreshAll()} will lead to a full reindexing on the next fetch.
+ * So when modifying the start or end of an entry, please make sure to call one of these methods
+ * afterwards, otherwise the entry might not be found by the fetch.
+ * <p></p>
+ * Non-recurring entries without start or end are not part of any index and are filtered the same way as in
+ * the {@link InMemoryEntryProvider}.
+ */
+public class IndexedInMemoryEntryProvider<T extends Entry> extends InMemoryEntryProvider<T> {
+
+    private final EntryIntervalIndex<T> intervalIndex = new EntryIntervalIndex<>();
+    private final RecurringEntryIndex<T> recurringIndex = new RecurringEntryIndex<>();
+
+    /**
+     * Entries, that cannot be stored in any index (missing start / end).
+     */
+    private final Map<String, T> unindexedEntries = new HashMap<>();
+
+    private boolean reindexRequired;
+
+    public IndexedInMemoryEntryProvider() {
+    }
+
+    public IndexedInMemoryEntryProvider(Iterable<T> entries) {
+        addEntries(entries); // not passed to super, as the index is not initialized at that point
+    }
+
+    /**
+     * Creates an indexed instance. The given entries are used as initial items. Leave empty, if there
+     * are no initial entries.
+     * @param entries initial entries
+     * @param <T> type
+     * @return indexed in memory provider
+     */
+    @SafeVarargs
+    public static <T extends Entry> IndexedInMemoryEntryProvider<T> from(T... entries) {
+        return new IndexedInMemoryEntryProvider<>(Arrays.asList(entries));
+    }
+
+    /**
+     * Creates an indexed instance. The given entries are used as initial items, but the given iterable
+     * is not used as the backing collection or similar. It will never be modified by this provider.
+     * @param entries initial entries
+     * @param <T> type
+     * @return indexed in memory provider
+     */
+    public static <T extends Entry> IndexedInMemoryEntryProvider<T> from(Iterable<T> entries) {
+        return new IndexedInMemoryEntryProvider<>(entries);
+    }
+
+    @Override
+    public Stream<T> fetch(@NonNull EntryQuery query) {
+        LocalDateTime start = query.getStart();
+        LocalDateTime end = query.getEnd();
+
+        if (start == null && end == null) {
+            return super.fetch(query);
+        }
+
+        if (reindexRequired) {
+            reindex();
+        }
+
+        List<T> indexed = intervalIndex.query(start, end);
+        recurringIndex.query(start, end, indexed::add);
+        Stream<T> unindexed = query.applyFilter(new ArrayList<>(unindexedEntries.values()).stream());
+
+        // the indices take care of the time range, so only the non temporal filters are left
+        return Stream.concat(query.applyNonTemporalFilter(indexed.stream()), unindexed);
+    }
+
+    @Override
+    public void refreshItem(T item) {
+        T registered = getEntriesMap().get(item.getId());
+        if (registered != null) {
+            index(registered);
+        }
+        super.refreshItem(item);
+    }
+
+    @Override
+    public void refreshAll() {
+        reindexRequired = true;
+        super.refreshAll();
+    }
+
+    /**
+     * Rebuilds the index from scratch based on the current entries. Normally there is no need to call
+     * this method manually, but it may be used, when a lot of entries have been modified without
+     * informing the provider.
+     */
+    public void reindex() {
+        intervalIndex.clear();
+        recurringIndex.clear();
+        unindexedEntries.clear();
+        getEntriesMap().values().forEach(this::index);
+        reindexRequired = false;
+    }
+
+    @Override
+    protected void onEntryAdd(T entry) {
+        super.onEntryAdd(entry);
+        index(entry);
+    }
+
+    @Override
+    protected void onEntryRemove(T entry) {
+        super.onEntryRemove(entry);
+        intervalIndex.remove(entry.getId());
+        recurringIndex.remove(entry.getId());
+        unindexedEntries.remove(entry.getId());
+    }
+
+    /**
+     * Updates the given entries on the client side and reindexes them. Ignores non-registered entries.
+     *
+     * @param iterableEntries entries to update
+     * @throws NullPointerException when null is passed
+     */
+    @Override
+    public void updateEntries(@NotNull Iterable<T> iterableEntries) {
+        Objects.requireNonNull(iterableEntries);
+        Map<String, T> entriesMap = getEntriesMap();
+        for (T entry : iterableEntries) {
+            T registered = entriesMap.get(entry.getId());
+            if (registered != null) {
+                index(registered);
+            }
+        }
+
+        super.updateEntries(iterableEntries);
+    }
+
+    private void index(T entry) {
+        String id = entry.getId();
+        boolean indexed = intervalIndex.update(entry);
+        indexed |= recurringIndex.update(entry);
+
+        if (indexed) {
+            unindexedEntries.remove(id);
+        } else {
+            unindexedEntries.put(id, entry);
+        }
+    }
+}
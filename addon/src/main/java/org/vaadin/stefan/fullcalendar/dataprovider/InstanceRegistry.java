@@ -0,0 +1,50 @@
+package org.vaadin.stefan.fullcalendar.dataprovider;
+
+import java.lang.ref.WeakReference;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Registry of application scoped instances (e.g. a {@link SharedEntryStore}) by their id. Session scoped objects
+ * referencing such an instance keep only its id as serializable reference and look the instance up again after
+ * deserialization. Instances are referenced weakly, so that registering an instance does not prevent it from
+ * being garbage collected.
+ * <p></p>
+ * This class is intended for internal use of the addon only.
+ *
+ * @param <T> type of the registered instances
+ */
+public final class InstanceRegistry<T> {
+
+    private final Map<String, WeakReference<T>> instances = new ConcurrentHashMap<>();
+
+    /**
+     * Registers the given instance with the given id.
+     *
+     * @param id       id
+     * @param instance instance
+     * @throws IllegalStateException when another instance is already registered with the given id
+     */
+    public void register(String id, T instance) {
+        instances.values().removeIf(reference -> reference.get() == null);
+
+        WeakReference<T> reference = instances.putIfAbsent(id, new WeakReference<>(instance));
+        if (reference != null && reference.get() != instance) {
+            if (reference.get() != null || !instances.replace(id, reference, new WeakReference<>(instance))) {
+                throw new IllegalStateException("There is already an instance registered with the id " + id);
+            }
+        }
+    }
+
+    /**
+     * Returns the instance registered with the given id or an empty optional, if there is no such instance (anymore).
+     *
+     * @param id id
+     * @return instance
+     */
+    public Optional<T> lookup(String id) {
+        WeakReference<T> reference = instances.get(id);
+        return Optional.ofNullable(reference != null ? reference.get() : null);
+    }
+}
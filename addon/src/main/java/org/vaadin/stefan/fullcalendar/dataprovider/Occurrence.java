@@ -0,0 +1,72 @@
+package org.vaadin.stefan.fullcalendar.dataprovider;
+
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import org.vaadin.stefan.fullcalendar.Entry;
+import org.vaadin.stefan.fullcalendar.NotNull;
+
+import java.io.Serializable;
+import java.time.LocalDateTime;
+import java.util.Objects;
+
+/**
+ * A concrete occurrence of an entry, e.g. a single day of a recurring entry. For non recurring entries
+ * the occurrence is the timespan of the entry itself.
+ * <p></p>
+ * Start and end are based on UTC, the same way as the start and end of an {@link Entry}. The end is exclusive.
+ *
+ * @param <T> entry type
+ * @see RecurrenceExpander
+ */
+@Getter
+@EqualsAndHashCode
+public final class Occurrence<T extends Entry> implements Serializable {
+
+    private final T entry;
+    private final LocalDateTime start;
+    private final LocalDateTime end;
+    private final boolean allDay;
+
+    /**
+     * Creates a new occurrence of the given entry.
+     *
+     * @param entry  entry
+     * @param start  start (inclusive)
+     * @param end    end (exclusive)
+     * @param allDay occurrence is all day
+     * @throws NullPointerException     when null is passed
+     * @throws IllegalArgumentException when the end is before the start
+     */
+    public Occurrence(@NotNull T entry, @NotNull LocalDateTime start, @NotNull LocalDateTime end, boolean allDay) {
+        this.entry = Objects.requireNonNull(entry);
+        this.start = Objects.requireNonNull(start);
+        this.end = Objects.requireNonNull(end);
+        this.allDay = allDay;
+
+        if (end.isBefore(start)) {
+            throw new IllegalArgumentException("End must not be before start");
+        }
+    }
+
+    /**
+     * Indicates, if this occurrence overlaps the given timespan (both borders exclusive). Null for the start
+     * or end means an open border.
+     *
+     * @param filterStart start or null
+     * @param filterEnd   end or null
+     * @return occurrence overlaps the timespan
+     */
+    public boolean overlaps(LocalDateTime filterStart, LocalDateTime filterEnd) {
+        return (filterStart == null || end.isAfter(filterStart)) && (filterEnd == null || start.isBefore(filterEnd));
+    }
+
+    @Override
+    public String toString() {
+        return "Occurrence{" +
+                "entryId=" + entry.getId() +
+                ", start=" + start +
+                ", end=" + end +
+                ", allDay=" + allDay +
+                '}';
+    }
+}
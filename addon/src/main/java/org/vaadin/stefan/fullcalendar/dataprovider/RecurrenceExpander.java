@@ -0,0 +1,675 @@
+package org.vaadin.stefan.fullcalendar.dataprovider;
+
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import org.vaadin.stefan.fullcalendar.Entry;
+import org.vaadin.stefan.fullcalendar.NotNull;
+import org.vaadin.stefan.fullcalendar.RecurringTime;
+import org.vaadin.stefan.fullcalendar.Timezone;
+
+import java.io.Serializable;
+import java.time.*;
+import java.time.zone.ZoneRules;
+import java.util.*;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Expands entries into their concrete {@link Occurrence}s inside a timespan. Recurring entries are sent to the
+ * client as a template (recurring start and end date, days of week and recurring start and end time), which is
+ * expanded by the client. This class does the same on the server side, so that the occurrences of a series
+ * can be used for things like conflict checks, exports or aggregations. Non recurring entries are "expanded"
+ * to a single occurrence covering their start and end.
+ * <p></p>
+ * Occurrences are obtained by a lazy {@link OccurrenceCursor}, that does not create any objects per occurrence
+ * unless requested, or by the {@link #iterator(Entry, LocalDateTime, LocalDateTime) iterator} and
+ * {@link #stream(Entry, LocalDateTime, LocalDateTime) stream} methods built on top of it.
+ * <p></p>
+ * The expanded occurrences are cached per series (entry id) and week, so that repeated queries over the same
+ * weeks do not have to recompute them. Each cached series remembers the recurrence rule it has been expanded
+ * from, so changing any recurring property of an entry automatically discards its cached weeks on the next access.
+ * The amount of cached series and weeks per series is limited, the least recently used ones are evicted first.
+ * <p></p>
+ * Recurring times are interpreted in the timezone of this instance (which should be the one of the calendar),
+ * while all timespans and occurrences are based on UTC, the same way as the start and end of an entry.
+ * All day occurrences are not shifted by the timezone. The client treats the recurring end date as exclusive, so
+ * does this class. A missing recurring end time results in the {@link #getDefaultTimedDuration() default duration}.
+ * <p></p>
+ * Access to the cache is synchronized, so an instance may be shared between threads. A single cursor or iterator
+ * is not thread safe.
+ *
+ * @param <T> entry type
+ */
+public class RecurrenceExpander<T extends Entry> implements Serializable {
+
+    /**
+     * The default maximal amount of cached series.
+     */
+    public static final int DEFAULT_MAX_SERIES = 1024;
+
+    /**
+     * The default maximal amount of cached weeks per series.
+     */
+    public static final int DEFAULT_MAX_WEEKS_PER_SERIES = 16;
+
+    /**
+     * The default duration of timed occurrences without a recurring end time. Same as the client's default.
+     */
+    public static final Duration DEFAULT_TIMED_DURATION = Duration.ofHours(1);
+
+    private static final long SECONDS_PER_DAY = 24 * 60 * 60;
+    private static final int ALL_DAYS = 0b111_1111;
+    private static final long[] NO_OCCURRENCES = new long[0];
+
+    @Getter
+    private final Timezone timezone;
+
+    private final LinkedHashMap<String, Series> series = new LinkedHashMap<>(16, 0.75f, true);
+
+    @Getter
+    private int maxSeries = DEFAULT_MAX_SERIES;
+
+    @Getter
+    private int maxWeeksPerSeries = DEFAULT_MAX_WEEKS_PER_SERIES;
+
+    @Getter
+    private Duration defaultTimedDuration = DEFAULT_TIMED_DURATION;
+
+    /**
+     * Creates a new instance, that interprets recurring times as UTC.
+     */
+    public RecurrenceExpander() {
+        this(Timezone.UTC);
+    }
+
+    /**
+     * Creates a new instance, that interprets recurring times in the given timezone.
+     *
+     * @param timezone timezone
+     * @throws NullPointerException when null is passed
+     */
+    public RecurrenceExpander(@NotNull Timezone timezone) {
+        this.timezone = Objects.requireNonNull(timezone);
+    }
+
+    /**
+     * Sets the maximal amount of cached series. When exceeded, the least recently used series will be evicted.
+     *
+     * @param maxSeries maximal amount of series
+     * @throws IllegalArgumentException when the value is lower than 1
+     */
+    public void setMaxSeries(int maxSeries) {
+        if (maxSeries < 1) {
+            throw new IllegalArgumentException("Max series must be at least 1");
+        }
+
+        synchronized (series) {
+            this.maxSeries = maxSeries;
+            evictExceedingSeries();
+        }
+    }
+
+    /**
+     * Sets the maximal amount of cached weeks per series. When exceeded, the least recently used weeks of that
+     * series will be evicted.
+     *
+     * @param maxWeeksPerSeries maximal amount of weeks
+     * @throws IllegalArgumentException when the value is lower than 1
+     */
+    public void setMaxWeeksPerSeries(int maxWeeksPerSeries) {
+        if (maxWeeksPerSeries < 1) {
+            throw new IllegalArgumentException("Max weeks per series must be at least 1");
+        }
+
+        synchronized (series) {
+            this.maxWeeksPerSeries = maxWeeksPerSeries;
+            series.values().forEach(Series::evictExceedingWeeks);
+        }
+    }
+
+    /**
+     * Sets the duration of timed occurrences, that have no recurring end time (or one, that is not after the
+     * start time). Also used for non recurring timed entries without an end. Clears the cache.
+     *
+     * @param defaultTimedDuration duration
+     * @throws NullPointerException     when null is passed
+     * @throws IllegalArgumentException when the duration is zero or negative
+     */
+    public void setDefaultTimedDuration(@NotNull Duration defaultTimedDuration) {
+        Objects.requireNonNull(defaultTimedDuration);
+        if (defaultTimedDuration.isNegative() || defaultTimedDuration.isZero()) {
+            throw new IllegalArgumentException("Default timed duration must be positive");
+        }
+
+        synchronized (series) {
+            this.defaultTimedDuration = defaultTimedDuration;
+            series.clear();
+        }
+    }
+
+    /**
+     * Creates a cursor over all occurrences of the given entry, that overlap the given timespan (both borders
+     * exclusive). The occurrences are computed lazily while moving the cursor and returned in chronological order.
+     *
+     * @param entry       entry to expand
+     * @param filterStart start
+     * @param filterEnd   end
+     * @return cursor
+     * @throws NullPointerException when null is passed
+     */
+    public OccurrenceCursor<T> cursor(@NotNull T entry, @NotNull LocalDateTime filterStart, @NotNull LocalDateTime filterEnd) {
+        Objects.requireNonNull(entry);
+        return new OccurrenceCursor<>(this, entry, Objects.requireNonNull(filterStart), Objects.requireNonNull(filterEnd));
+    }
+
+    /**
+     * Returns a lazy iterator over all occurrences of the given entry, that overlap the given timespan (both
+     * borders exclusive). See {@link #cursor(Entry, LocalDateTime, LocalDateTime)}.
+     *
+     * @param entry       entry to expand
+     * @param filterStart start
+     * @param filterEnd   end
+     * @return iterator
+     * @throws NullPointerException when null is passed
+     */
+    public Iterator<Occurrence<T>> iterator(@NotNull T entry, @NotNull LocalDateTime filterStart, @NotNull LocalDateTime filterEnd) {
+        OccurrenceCursor<T> cursor = cursor(entry, filterStart, filterEnd);
+        return new Iterator<Occurrence<T>>() {
+            private boolean hasNext = cursor.next();
+
+            @Override
+            public boolean hasNext() {
+                return hasNext;
+            }
+
+            @Override
+            public Occurrence<T> next() {
+                if (!hasNext) {
+                    throw new NoSuchElementException();
+                }
+
+                Occurrence<T> occurrence = cursor.toOccurrence();
+                hasNext = cursor.next();
+                return occurrence;
+            }
+        };
+    }
+
+    /**
+     * Returns a lazy stream of all occurrences of the given entry, that overlap the given timespan (both
+     * borders exclusive). See {@link #cursor(Entry, LocalDateTime, LocalDateTime)}.
+     *
+     * @param entry       entry to expand
+     * @param filterStart start
+     * @param filterEnd   end
+     * @return stream of occurrences
+     * @throws NullPointerException when null is passed
+     */
+    public Stream<Occurrence<T>> stream(@NotNull T entry, @NotNull LocalDateTime filterStart, @NotNull LocalDateTime filterEnd) {
+        Iterator<Occurrence<T>> iterator = iterator(entry, filterStart, filterEnd);
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(iterator, Spliterator.ORDERED | Spliterator.NONNULL), false);
+    }
+
+    /**
+     * Returns a lazy stream of all occurrences of the given entries, that overlap the given timespan (both
+     * borders exclusive). The occurrences are grouped by entry, not sorted chronologically.
+     *
+     * @param entries     entries to expand
+     * @param filterStart start
+     * @param filterEnd   end
+     * @return stream of occurrences
+     * @throws NullPointerException when null is passed
+     */
+    public Stream<Occurrence<T>> stream(@NotNull Stream<? extends T> entries, @NotNull LocalDateTime filterStart, @NotNull LocalDateTime filterEnd) {
+        Objects.requireNonNull(filterStart);
+        Objects.requireNonNull(filterEnd);
+        return entries.flatMap(entry -> stream(entry, filterStart, filterEnd));
+    }
+
+    /**
+     * Fetches the entries of the given timespan from the entry provider and returns a lazy stream of their
+     * occurrences inside that timespan. See {@link #stream(Stream, LocalDateTime, LocalDateTime)}.
+     *
+     * @param entryProvider entry provider
+     * @param filterStart   start
+     * @param filterEnd     end
+     * @return stream of occurrences
+     * @throws NullPointerException when null is passed
+     */
+    public Stream<Occurrence<T>> stream(@NotNull EntryProvider<? extends T> entryProvider, @NotNull LocalDateTime filterStart, @NotNull LocalDateTime filterEnd) {
+        return stream(entryProvider.fetch(filterStart, filterEnd), filterStart, filterEnd);
+    }
+
+    /**
+     * Returns all occurrences of the given entry, that overlap the given timespan (both borders exclusive), as
+     * a new list.
+     *
+     * @param entry       entry to expand
+     * @param filterStart start
+     * @param filterEnd   end
+     * @return occurrences
+     * @throws NullPointerException when null is passed
+     */
+    public List<Occurrence<T>> expand(@NotNull T entry, @NotNull LocalDateTime filterStart, @NotNull LocalDateTime filterEnd) {
+        List<Occurrence<T>> occurrences = new ArrayList<>();
+        OccurrenceCursor<T> cursor = cursor(entry, filterStart, filterEnd);
+        while (cursor.next()) {
+            occurrences.add(cursor.toOccurrence());
+        }
+        return occurrences;
+    }
+
+    /**
+     * Removes the cached occurrences of the given entry.
+     *
+     * @param entry entry
+     * @throws NullPointerException when null is passed
+     */
+    public void invalidate(@NotNull T entry) {
+        invalidate(entry.getId());
+    }
+
+    /**
+     * Removes the cached occurrences of the entry with the given id.
+     *
+     * @param id entry id
+     * @throws NullPointerException when null is passed
+     */
+    public void invalidate(@NotNull String id) {
+        Objects.requireNonNull(id);
+        synchronized (series) {
+            series.remove(id);
+        }
+    }
+
+    /**
+     * Removes all cached occurrences.
+     */
+    public void invalidateAll() {
+        synchronized (series) {
+            series.clear();
+        }
+    }
+
+    /**
+     * Returns the amount of currently cached series.
+     *
+     * @return cached series
+     */
+    public int getCachedSeriesCount() {
+        synchronized (series) {
+            return series.size();
+        }
+    }
+
+    /**
+     * Returns the amount of currently cached weeks over all series.
+     *
+     * @return cached weeks
+     */
+    public int getCachedWeekCount() {
+        synchronized (series) {
+            return series.values().stream().mapToInt(s -> s.weeks.size()).sum();
+        }
+    }
+
+    /**
+     * Returns the local start and end seconds of all occurrences of the given week as a flat array of pairs.
+     * Computes and caches them, if necessary.
+     */
+    private long[] getOccurrences(String id, Rule rule, long week) {
+        synchronized (series) {
+            Series cached = series.get(id);
+            if (cached == null || !cached.rule.equals(rule)) {
+                cached = new Series(rule);
+                series.put(id, cached);
+                evictExceedingSeries();
+            }
+
+            long[] occurrences = cached.weeks.get(week);
+            if (occurrences == null) {
+                occurrences = rule.expandWeek(week);
+                cached.weeks.put(week, occurrences);
+                cached.evictExceedingWeeks();
+            }
+
+            return occurrences;
+        }
+    }
+
+    private void evictExceedingSeries() {
+        Iterator<Series> iterator = series.values().iterator();
+        while (series.size() > maxSeries && iterator.hasNext()) {
+            iterator.next();
+            iterator.remove();
+        }
+    }
+
+    /**
+     * Weeks start on monday. The epoch day 0 is a thursday.
+     */
+    private static long toWeek(long epochDay) {
+        return Math.floorDiv(epochDay + 3, 7);
+    }
+
+    private static long toFirstDayOfWeek(long week) {
+        return week * 7 - 3;
+    }
+
+    private static long toEpochSecond(LocalDateTime dateTime) {
+        return dateTime.toEpochSecond(ZoneOffset.UTC);
+    }
+
+    private static LocalDateTime ofEpochSecond(long epochSecond) {
+        return LocalDateTime.ofEpochSecond(epochSecond, 0, ZoneOffset.UTC);
+    }
+
+    /**
+     * A cursor over the occurrences of a single entry inside a timespan. Call {@link #next()} to move to the next
+     * occurrence, before reading it. Reading the start and end as epoch seconds does not create any objects.
+     * <p></p>
+     * Cursors are created by {@link RecurrenceExpander#cursor(Entry, LocalDateTime, LocalDateTime)} and are not
+     * thread safe.
+     *
+     * @param <T> entry type
+     */
+    public static final class OccurrenceCursor<T extends Entry> {
+        private final RecurrenceExpander<T> expander;
+
+        @Getter
+        private final T entry;
+        private final long filterStart;
+        private final long filterEnd;
+
+        // recurring entries only
+        private final Rule rule;
+        private final ZoneRules zoneRules;
+        private final long fixedOffset;
+        private long week;
+        private long lastWeek;
+        private long[] occurrences = NO_OCCURRENCES;
+        private int index;
+
+        // non recurring entries only
+        private boolean singleConsumed;
+
+        private boolean allDay;
+        private long currentStart;
+        private long currentEnd;
+        private boolean positioned;
+
+        private OccurrenceCursor(RecurrenceExpander<T> expander, T entry, LocalDateTime filterStart, LocalDateTime filterEnd) {
+            this.expander = expander;
+            this.entry = entry;
+            this.filterStart = toEpochSecond(filterStart);
+            this.filterEnd = toEpochSecond(filterEnd);
+
+            if (!entry.isRecurring()) {
+                rule = null;
+                zoneRules = null;
+                fixedOffset = 0;
+                return;
+            }
+
+            rule = new Rule(entry, expander.defaultTimedDuration);
+            allDay = rule.allDay;
+
+            ZoneRules rules = expander.timezone.getZoneId().getRules();
+            long localStart;
+            long localEnd;
+            if (rule.allDay || rules.isFixedOffset()) {
+                zoneRules = null;
+                fixedOffset = rule.allDay ? 0 : rules.getOffset(Instant.EPOCH).getTotalSeconds();
+                localStart = this.filterStart + fixedOffset;
+                localEnd = this.filterEnd + fixedOffset;
+            } else {
+                // the offset may change inside the timespan, so the local range is widened by a day and
+                // each occurrence is checked against the exact range
+                zoneRules = rules;
+                fixedOffset = 0;
+                localStart = toEpochSecond(expander.timezone.applyTimezoneOffset(filterStart)) - SECONDS_PER_DAY;
+                localEnd = toEpochSecond(expander.timezone.applyTimezoneOffset(filterEnd)) + SECONDS_PER_DAY;
+            }
+
+            // an occurrence on day d spans [d + start, d + end), so only days with d + end > start of the range
+            // and d + start < end of the range are relevant
+            long firstDay = Math.max(Math.floorDiv(localStart - rule.endSecond, SECONDS_PER_DAY) + 1, rule.firstDay);
+            long lastDay = Math.min(Math.floorDiv(localEnd - rule.startSecond - 1, SECONDS_PER_DAY), rule.lastDay);
+
+            if (firstDay > lastDay) {
+                week = 0;
+                lastWeek = -1;
+            } else {
+                week = toWeek(firstDay);
+                lastWeek = toWeek(lastDay);
+            }
+        }
+
+        /**
+         * Moves the cursor to the next occurrence.
+         *
+         * @return there has been another occurrence
+         */
+        public boolean next() {
+            positioned = false;
+            if (rule == null) {
+                if (!singleConsumed) {
+                    singleConsumed = true;
+                    positioned = positionOnEntry();
+                }
+                return positioned;
+            }
+
+            while (true) {
+                while (index < occurrences.length) {
+                    long start = toUtc(occurrences[index]);
+                    long end = toUtc(occurrences[index + 1]);
+                    index += 2;
+
+                    if (end > filterStart && start < filterEnd) {
+                        currentStart = start;
+                        currentEnd = end;
+                        positioned = true;
+                        return true;
+                    }
+                }
+
+                if (week > lastWeek) {
+                    return false;
+                }
+
+                occurrences = expander.getOccurrences(entry.getId(), rule, week++);
+                index = 0;
+            }
+        }
+
+        private boolean positionOnEntry() {
+            LocalDateTime start = entry.getStart();
+            if (start == null) {
+                return false;
+            }
+
+            allDay = entry.isAllDay();
+            currentStart = toEpochSecond(start);
+
+            LocalDateTime end = entry.getEnd();
+            if (end != null) {
+                currentEnd = Math.max(currentStart, toEpochSecond(end));
+            } else {
+                currentEnd = currentStart + (allDay ? SECONDS_PER_DAY : expander.defaultTimedDuration.getSeconds());
+            }
+
+            return currentEnd > filterStart && currentStart < filterEnd;
+        }
+
+        private long toUtc(long localSecond) {
+            if (zoneRules == null) {
+                return localSecond - fixedOffset;
+            }
+
+            return localSecond - zoneRules.getOffset(ofEpochSecond(localSecond)).getTotalSeconds();
+        }
+
+        private void checkPositioned() {
+            if (!positioned) {
+                throw new IllegalStateException("Cursor is not positioned on an occurrence, call next() first");
+            }
+        }
+
+        /**
+         * Returns the start of the current occurrence as UTC based epoch seconds.
+         *
+         * @return start
+         * @throws IllegalStateException when the cursor is not positioned on an occurrence
+         */
+        public long getStartEpochSecond() {
+            checkPositioned();
+            return currentStart;
+        }
+
+        /**
+         * Returns the (exclusive) end of the current occurrence as UTC based epoch seconds.
+         *
+         * @return end
+         * @throws IllegalStateException when the cursor is not positioned on an occurrence
+         */
+        public long getEndEpochSecond() {
+            checkPositioned();
+            return currentEnd;
+        }
+
+        /**
+         * Returns the start of the current occurrence (UTC based).
+         *
+         * @return start
+         * @throws IllegalStateException when the cursor is not positioned on an occurrence
+         */
+        public LocalDateTime getStart() {
+            return ofEpochSecond(getStartEpochSecond());
+        }
+
+        /**
+         * Returns the (exclusive) end of the current occurrence (UTC based).
+         *
+         * @return end
+         * @throws IllegalStateException when the cursor is not positioned on an occurrence
+         */
+        public LocalDateTime getEnd() {
+            return ofEpochSecond(getEndEpochSecond());
+        }
+
+        /**
+         * Indicates, if the current occurrence is all day.
+         *
+         * @return is all day
+         * @throws IllegalStateException when the cursor is not positioned on an occurrence
+         */
+        public boolean isAllDay() {
+            checkPositioned();
+            return allDay;
+        }
+
+        /**
+         * Creates an occurrence instance of the current position.
+         *
+         * @return occurrence
+         * @throws IllegalStateException when the cursor is not positioned on an occurrence
+         */
+        public Occurrence<T> toOccurrence() {
+            return new Occurrence<>(entry, getStart(), getEnd(), allDay);
+        }
+    }
+
+    /**
+     * The cached weeks of a single series together with the rule they have been expanded from.
+     */
+    private final class Series implements Serializable {
+        private final Rule rule;
+        private final LinkedHashMap<Long, long[]> weeks = new LinkedHashMap<>(16, 0.75f, true);
+
+        private Series(Rule rule) {
+            this.rule = rule;
+        }
+
+        private void evictExceedingWeeks() {
+            Iterator<long[]> iterator = weeks.values().iterator();
+            while (weeks.size() > maxWeeksPerSeries && iterator.hasNext()) {
+                iterator.next();
+                iterator.remove();
+            }
+        }
+    }
+
+    /**
+     * The recurrence rule of an entry. Times are local seconds relative to the start of the recurring day.
+     */
+    @EqualsAndHashCode
+    private static final class Rule implements Serializable {
+        private final long firstDay;
+        private final long lastDay;
+        private final int daysOfWeek;
+        private final long startSecond;
+        private final long endSecond;
+        private final boolean allDay;
+
+        private Rule(Entry entry, Duration defaultTimedDuration) {
+            LocalDate startDate = entry.getRecurringStartDate();
+            LocalDate endDate = entry.getRecurringEndDate();
+            firstDay = startDate != null ? startDate.toEpochDay() : Long.MIN_VALUE / 2;
+            lastDay = endDate != null ? endDate.toEpochDay() - 1 : Long.MAX_VALUE / 2; // end date is exclusive
+
+            Set<DayOfWeek> days = entry.getRecurringDaysOfWeek();
+            if (days == null || days.isEmpty()) {
+                daysOfWeek = ALL_DAYS;
+            } else {
+                int mask = 0;
+                for (DayOfWeek day : days) {
+                    mask |= 1 << day.ordinal();
+                }
+                daysOfWeek = mask;
+            }
+
+            allDay = entry.isAllDay();
+            if (allDay) {
+                startSecond = 0;
+                endSecond = SECONDS_PER_DAY;
+            } else {
+                RecurringTime startTime = entry.getRecurringStartTime();
+                RecurringTime endTime = entry.getRecurringEndTime();
+                startSecond = startTime != null ? toSeconds(startTime) : 0;
+
+                long end = endTime != null ? toSeconds(endTime) : -1;
+                endSecond = end > startSecond ? end : startSecond + defaultTimedDuration.getSeconds();
+            }
+        }
+
+        /**
+         * Returns the local start and end seconds of all occurrences, that recur on a day of the given week.
+         */
+        private long[] expandWeek(long week) {
+            long from = Math.max(toFirstDayOfWeek(week), firstDay);
+            long to = Math.min(toFirstDayOfWeek(week) + 6, lastDay);
+            if (from > to) {
+                return NO_OCCURRENCES;
+            }
+
+            long[] occurrences = new long[(int) (to - from + 1) * 2];
+            int size = 0;
+            for (long day = from; day <= to; day++) {
+                // monday has the ordinal 0
+                int dayOfWeek = (int) Math.floorMod(day + 3, 7L);
+                if ((daysOfWeek & (1 << dayOfWeek)) != 0) {
+                    long dayStart = day * SECONDS_PER_DAY;
+                    occurrences[size++] = dayStart + startSecond;
+                    occurrences[size++] = dayStart + endSecond;
+                }
+            }
+
+            return size == occurrences.length ? occurrences : Arrays.copyOf(occurrences, size);
+        }
+
+        private static long toSeconds(RecurringTime time) {
+            return (time.getHour() * 60L + time.getMinute()) * 60;
+        }
+    }
+}
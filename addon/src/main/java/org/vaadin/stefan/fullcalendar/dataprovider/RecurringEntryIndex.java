@@ -0,0 +1,301 @@
+package org.vaadin.stefan.fullcalendar.dataprovider;
+
+import lombok.NonNull;
+import org.vaadin.stefan.fullcalendar.Entry;
+import org.vaadin.stefan.fullcalendar.RecurringTime;
+
+import java.io.Serializable;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.*;
+import java.util.function.Consumer;
+
+/**
+ * An index for recurring entries. Other than {@link EntryQuery#applyFilter} this index evaluates the recurring
+ * start and end date, the days of week and the recurring start and end time of an entry against a
+ * timespan and only returns entries, that produce at least one occurrence inside that timespan.
+ * <p></p>
+ * Entries are grouped by their days of week, so that for timespans shorter than a week only the series
+ * recurring on one of the covered days have to be checked.
+ * <p></p>
+ * Recurring times are interpreted by the client in the calendar's timezone, while the timespan is
+ * based on UTC. Therefore the timespan is widened by the maximal possible timezone offset, so that
+ * the index might return some entries, that are not shown by the client, but never misses one. The recurring
+ * end date is treated as inclusive for the same reason.
+ * <p></p>
+ * The index stores the recurrence rule of an entry at the time it has been added. Changing any recurring
+ * property of an indexed entry afterwards therefore requires calling {@link #update(Entry)}.
+ * This class is not thread safe.
+ *
+ * @param <T> entry type
+ */
+public class RecurringEntryIndex<T extends Entry> implements Serializable {
+
+    /**
+     * The maximal offset of a timezone to UTC.
+     */
+    private static final long MAX_OFFSET_MINUTES = 18 * 60;
+    private static final long MINUTES_PER_DAY = 24 * 60;
+    private static final int ALL_DAYS = 0b111_1111;
+
+    private final Map<String, Recurrence<T>> recurrences = new LinkedHashMap<>();
+    private final Map<DayOfWeek, Map<String, Recurrence<T>>> recurrencesByDay = new EnumMap<>(DayOfWeek.class);
+
+    /**
+     * Indicates, if the given entry can be stored in this index, meaning that it is recurring.
+     *
+     * @param entry entry to check
+     * @return entry is indexable
+     */
+    public static boolean isIndexable(@NonNull Entry entry) {
+        return entry.isRecurring();
+    }
+
+    /**
+     * Checks, if the given recurring entry produces at least one occurrence inside the given timespan
+     * (both borders exclusive). See the class documentation regarding timezones.
+     *
+     * @param entry       recurring entry
+     * @param filterStart start
+     * @param filterEnd   end
+     * @return entry has an occurrence in the timespan
+     */
+    public static boolean hasOccurrence(@NonNull Entry entry, @NonNull LocalDateTime filterStart, @NonNull LocalDateTime filterEnd) {
+        return new Recurrence<>(entry).hasOccurrence(filterStart, filterEnd);
+    }
+
+    /**
+     * Adds the given entry to the index. Noop and returning false, if the entry is not recurring or another
+     * entry with the same id has already been indexed.
+     *
+     * @param entry entry to add
+     * @return entry has been added
+     */
+    public boolean add(@NonNull T entry) {
+        if (!isIndexable(entry) || recurrences.containsKey(entry.getId())) {
+            return false;
+        }
+
+        Recurrence<T> recurrence = new Recurrence<>(entry);
+        recurrences.put(entry.getId(), recurrence);
+        for (DayOfWeek dayOfWeek : DayOfWeek.values()) {
+            if (recurrence.touches(dayOfWeek)) {
+                recurrencesByDay.computeIfAbsent(dayOfWeek, d -> new LinkedHashMap<>()).put(entry.getId(), recurrence);
+            }
+        }
+
+        return true;
+    }
+
+    /**
+     * Removes the entry with the given id from this index. Noop and returning false, if there is no such entry.
+     *
+     * @param id id of the entry to remove
+     * @return entry has been removed
+     */
+    public boolean remove(@NonNull String id) {
+        if (recurrences.remove(id) == null) {
+            return false;
+        }
+
+        recurrencesByDay.values().forEach(map -> map.remove(id));
+        return true;
+    }
+
+    /**
+     * Reindexes the given entry, using its current recurring properties. If the entry is not recurring anymore,
+     * it will be removed from this index.
+     *
+     * @param entry entry to update
+     * @return entry is indexed after the update
+     */
+    public boolean update(@NonNull T entry) {
+        remove(entry.getId());
+        return add(entry);
+    }
+
+    /**
+     * Indicates, if an entry with the given id is part of this index.
+     *
+     * @param id id
+     * @return is indexed
+     */
+    public boolean contains(@NonNull String id) {
+        return recurrences.containsKey(id);
+    }
+
+    /**
+     * Returns the amount of indexed entries.
+     *
+     * @return size
+     */
+    public int size() {
+        return recurrences.size();
+    }
+
+    /**
+     * Removes all entries from this index.
+     */
+    public void clear() {
+        recurrences.clear();
+        recurrencesByDay.clear();
+    }
+
+    /**
+     * Passes all indexed entries to the consumer, that have at least one occurrence inside the given timespan.
+     * Null for the start or end means an open border. In that case only the recurring start or end date is
+     * taken into account.
+     *
+     * @param filterStart start (exclusive) or null
+     * @param filterEnd   end (exclusive) or null
+     * @param consumer    consumer to receive matching entries
+     */
+    public void query(LocalDateTime filterStart, LocalDateTime filterEnd, @NonNull Consumer<? super T> consumer) {
+        if (filterStart == null || filterEnd == null) {
+            for (Recurrence<T> recurrence : recurrences.values()) {
+                if (recurrence.isInRange(filterStart, filterEnd)) {
+                    consumer.accept(recurrence.entry);
+                }
+            }
+            return;
+        }
+
+        Collection<Recurrence<T>> candidates;
+        LocalDate firstDay = filterStart.minusMinutes(MAX_OFFSET_MINUTES).toLocalDate();
+        LocalDate lastDay = filterEnd.plusMinutes(MAX_OFFSET_MINUTES).toLocalDate();
+
+        if (ChronoUnit.DAYS.between(firstDay, lastDay) >= 6) {
+            candidates = recurrences.values();
+        } else {
+            // the time range covers only some days of the week, so we only check series recurring on these
+            Map<String, Recurrence<T>> byDay = new LinkedHashMap<>();
+            for (LocalDate day = firstDay; !day.isAfter(lastDay); day = day.plusDays(1)) {
+                byDay.putAll(recurrencesByDay.getOrDefault(day.getDayOfWeek(), Collections.emptyMap()));
+            }
+            candidates = byDay.values();
+        }
+
+        for (Recurrence<T> recurrence : candidates) {
+            if (recurrence.hasOccurrence(filterStart, filterEnd)) {
+                consumer.accept(recurrence.entry);
+            }
+        }
+    }
+
+    /**
+     * Returns all indexed entries, that have at least one occurrence inside the given timespan as a new list.
+     * See {@link #query(LocalDateTime, LocalDateTime, Consumer)} for details.
+     *
+     * @param filterStart start (exclusive) or null
+     * @param filterEnd   end (exclusive) or null
+     * @return matching entries
+     */
+    public List<T> query(LocalDateTime filterStart, LocalDateTime filterEnd) {
+        List<T> result = new ArrayList<>();
+        query(filterStart, filterEnd, result::add);
+        return result;
+    }
+
+    /**
+     * The recurrence rule of an entry, copied at the time of indexing.
+     */
+    private static final class Recurrence<T extends Entry> implements Serializable {
+        private final T entry;
+        private final LocalDate startDate;
+        private final LocalDate endDate;
+        private final int daysOfWeek;
+        private final long startMinutes;
+        private final long endMinutes;
+
+        private Recurrence(T entry) {
+            this.entry = entry;
+            this.startDate = entry.getRecurringStartDate();
+            this.endDate = entry.getRecurringEndDate();
+
+            Set<DayOfWeek> days = entry.getRecurringDaysOfWeek();
+            if (days == null || days.isEmpty()) {
+                daysOfWeek = ALL_DAYS;
+            } else {
+                int mask = 0;
+                for (DayOfWeek day : days) {
+                    mask |= 1 << day.ordinal();
+                }
+                daysOfWeek = mask;
+            }
+
+            RecurringTime startTime = entry.getRecurringStartTime();
+            RecurringTime endTime = entry.getRecurringEndTime();
+            startMinutes = startTime != null ? toMinutes(startTime) : 0;
+
+            long end = endTime != null ? toMinutes(endTime) : -1;
+            // without a valid end time, the client uses a default duration, which is at most a day
+            endMinutes = end > startMinutes ? end : startMinutes + MINUTES_PER_DAY;
+        }
+
+        private boolean isRecurringOn(DayOfWeek dayOfWeek) {
+            return (daysOfWeek & (1 << dayOfWeek.ordinal())) != 0;
+        }
+
+        /**
+         * Indicates, if an occurrence of this series might cover the given day of week. Since recurring times
+         * may be 24h or above, an occurrence can also cover one of the days following its recurring day.
+         */
+        private boolean touches(DayOfWeek dayOfWeek) {
+            long coveredDays = Math.min(7, (endMinutes - 1) / MINUTES_PER_DAY + 1);
+            for (int i = 0; i < coveredDays; i++) {
+                if (isRecurringOn(dayOfWeek.minus(i))) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        private boolean isInRange(LocalDateTime filterStart, LocalDateTime filterEnd) {
+            if (filterStart != null && endDate != null
+                    && !endDate.atStartOfDay().plusMinutes(endMinutes + MAX_OFFSET_MINUTES).isAfter(filterStart)) {
+                return false;
+            }
+
+            return filterEnd == null || startDate == null
+                    || startDate.atStartOfDay().plusMinutes(startMinutes - MAX_OFFSET_MINUTES).isBefore(filterEnd);
+        }
+
+        private boolean hasOccurrence(LocalDateTime filterStart, LocalDateTime filterEnd) {
+            // widen the range to respect any timezone offset
+            LocalDateTime start = filterStart.minusMinutes(MAX_OFFSET_MINUTES);
+            LocalDateTime end = filterEnd.plusMinutes(MAX_OFFSET_MINUTES);
+
+            // an occurrence on day d spans [d + startMinutes, d + endMinutes), so the possible days are
+            // all days d with d + endMinutes > start and d + startMinutes < end
+            LocalDate firstDay = start.minusMinutes(endMinutes).toLocalDate();
+            LocalDate lastDay = end.minusMinutes(startMinutes).toLocalDate();
+
+            if (startDate != null && firstDay.isBefore(startDate)) {
+                firstDay = startDate;
+            }
+
+            if (endDate != null && lastDay.isAfter(endDate)) {
+                lastDay = endDate;
+            }
+
+            // all days between the first and last day are inside the range, so this loop will end
+            // after at most 8 iterations, if the range is large
+            for (LocalDate day = firstDay; !day.isAfter(lastDay); day = day.plusDays(1)) {
+                if (isRecurringOn(day.getDayOfWeek())) {
+                    LocalDateTime dayStart = day.atStartOfDay();
+                    if (dayStart.plusMinutes(endMinutes).isAfter(start) && dayStart.plusMinutes(startMinutes).isBefore(end)) {
+                        return true;
+                    }
+                }
+            }
+
+            return false;
+        }
+
+        private static long toMinutes(RecurringTime time) {
+            return time.getHour() * 60L + time.getMinute();
+        }
+    }
+}
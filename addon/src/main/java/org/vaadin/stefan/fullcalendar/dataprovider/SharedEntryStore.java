@@ -0,0 +1,303 @@
+package org.vaadin.stefan.fullcalendar.dataprovider;
+
+import com.vaadin.flow.function.SerializablePredicate;
+import lombok.NonNull;
+import org.vaadin.stefan.fullcalendar.Entry;
+import org.vaadin.stefan.fullcalendar.NotNull;
+
+import java.io.Serializable;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Stream;
+
+/**
+ * An application scoped, thread safe store of entries, that can be shared by any number of calendars, e.g. a team
+ * calendar, that is opened by a lot of users at the same time. Each calendar uses its own lightweight
+ * {@link SharedEntryStoreView} as entry provider, which references this store and may filter its entries.
+ * <p></p>
+ * The store keeps immutable snapshots of the entries. Any entry passed to the store is copied, so later modifications
+ * of the passed instance do not affect the store. To modify an entry, modify an instance (e.g. one obtained by
+ * a view or {@link #getEntryById(String)}) and pass it to {@link #updateEntries(Iterable)} afterwards. Views hand out
+ * copies of the snapshots, when the calendar fetches them, so the memory of the store scales with the
+ * distinct entries, while each session only holds the entries, that the calendar keeps from its last fetch
+ * (see {@link org.vaadin.stefan.fullcalendar.FetchedEntriesStrategy}).
+ * <p></p>
+ * Every change is applied once to the store and is then passed to all views, that are connected to an attached calendar.
+ * The views forward the changes to their calendars with the calendar's UI lock, so the application needs to
+ * have server push enabled to see the changes without any user interaction.
+ * <p></p>
+ * Views are tracked weakly, so views of sessions, that end without detaching their calendar, do not leak. When a
+ * session is serialized, its views do not serialize this store, but only its id, and look the store up again after
+ * deserialization. When sessions are deserialized in another JVM (e.g. in a cluster or after a restart), the
+ * application has to create the store there with the same id (see {@link #SharedEntryStore(String)}) before
+ * the deserialized calendars access it.
+ *
+ * @see SharedEntryStoreView
+ */
+public class SharedEntryStore<T extends Entry> implements Serializable {
+
+    private static final InstanceRegistry<SharedEntryStore<?>> REGISTRY = new InstanceRegistry<>();
+
+    private final String id;
+    private final Map<String, T> snapshots = new ConcurrentHashMap<>();
+    private transient Set<SharedEntryStoreView<T>> views = createViewSet();
+
+    /**
+     * Creates a new store with a generated id.
+     */
+    public SharedEntryStore() {
+        this(UUID.randomUUID().toString());
+    }
+
+    /**
+     * Creates a new store with the given id. The id is used by views to look up the store after their
+     * session has been deserialized and thus must be unique in the application. Use a fixed id, when sessions
+     * may be deserialized in another JVM.
+     *
+     * @param id id
+     * @throws NullPointerException  when null is passed
+     * @throws IllegalStateException when there is already another store with the given id
+     */
+    public SharedEntryStore(@NotNull String id) {
+        this.id = Objects.requireNonNull(id);
+        REGISTRY.register(id, this);
+    }
+
+    /**
+     * Returns the store with the given id, or an empty optional, if no such store exists in this JVM.
+     *
+     * @param id id
+     * @return store
+     */
+    static Optional<SharedEntryStore<?>> lookup(String id) {
+        return REGISTRY.lookup(id);
+    }
+
+    /**
+     * Returns the id of this store.
+     *
+     * @return id
+     */
+    public String getId() {
+        return id;
+    }
+
+    /**
+     * Creates a new view on this store, that shows all entries. Each calendar needs its own view.
+     *
+     * @return new view
+     */
+    public SharedEntryStoreView<T> createView() {
+        return new SharedEntryStoreView<>(this, null);
+    }
+
+    /**
+     * Creates a new view on this store, that shows only the entries matching the given filter. Each calendar
+     * needs its own view.
+     *
+     * @param filter filter
+     * @return new view
+     * @throws NullPointerException when null is passed
+     */
+    public SharedEntryStoreView<T> createView(@NotNull SerializablePredicate<T> filter) {
+        return new SharedEntryStoreView<>(this, Objects.requireNonNull(filter));
+    }
+
+    /**
+     * Adds the given entries to the store. Noop for already existing ids.
+     *
+     * @param entries entries to add
+     * @throws NullPointerException when null is passed
+     */
+    public void addEntries(@NotNull Iterable<T> entries) {
+        Objects.requireNonNull(entries);
+
+        List<T> added = new ArrayList<>();
+        synchronized (this) {
+            for (T entry : entries) {
+                T snapshot = createSnapshot(entry);
+                if (snapshots.putIfAbsent(snapshot.getId(), snapshot) == null) {
+                    added.add(snapshot);
+                }
+            }
+        }
+
+        notifyViews(added, Collections.emptyList(), Collections.emptyList());
+    }
+
+    /**
+     * Adds the given entries to the store. Noop for already existing ids.
+     *
+     * @param entries entries to add
+     * @throws NullPointerException when null is passed
+     */
+    @SafeVarargs
+    public final void addEntries(@NotNull T... entries) {
+        addEntries(Arrays.asList(entries));
+    }
+
+    /**
+     * Replaces the snapshots of the given entries with the current state of the given instances. Ignores
+     * not existing ids.
+     *
+     * @param entries entries to update
+     * @throws NullPointerException when null is passed
+     */
+    public void updateEntries(@NotNull Iterable<T> entries) {
+        Objects.requireNonNull(entries);
+
+        List<T> updated = new ArrayList<>();
+        synchronized (this) {
+            for (T entry : entries) {
+                T snapshot = createSnapshot(entry);
+                if (snapshots.replace(snapshot.getId(), snapshot) != null) {
+                    updated.add(snapshot);
+                }
+            }
+        }
+
+        notifyViews(Collections.emptyList(), updated, Collections.emptyList());
+    }
+
+    /**
+     * Replaces the snapshots of the given entries with the current state of the given instances. Ignores
+     * not existing ids.
+     *
+     * @param entries entries to update
+     * @throws NullPointerException when null is passed
+     */
+    @SafeVarargs
+    public final void updateEntries(@NotNull T... entries) {
+        updateEntries(Arrays.asList(entries));
+    }
+
+    /**
+     * Removes the entries with the ids of the given entries. Ignores not existing ids.
+     *
+     * @param entries entries to remove
+     * @throws NullPointerException when null is passed
+     */
+    public void removeEntries(@NotNull Iterable<T> entries) {
+        Objects.requireNonNull(entries);
+
+        List<T> removed = new ArrayList<>();
+        synchronized (this) {
+            for (T entry : entries) {
+                T snapshot = snapshots.remove(entry.getId());
+                if (snapshot != null) {
+                    removed.add(snapshot);
+                }
+            }
+        }
+
+        notifyViews(Collections.emptyList(), Collections.emptyList(), removed);
+    }
+
+    /**
+     * Removes the entries with the ids of the given entries. Ignores not existing ids.
+     *
+     * @param entries entries to remove
+     * @throws NullPointerException when null is passed
+     */
+    @SafeVarargs
+    public final void removeEntries(@NotNull T... entries) {
+        removeEntries(Arrays.asList(entries));
+    }
+
+    /**
+     * Returns a copy of the entry with the given id or an empty optional. The copy can be modified and passed
+     * to {@link #updateEntries(Iterable)}.
+     *
+     * @param id id
+     * @return copy of the entry
+     */
+    public Optional<T> getEntryById(@NonNull String id) {
+        return Optional.ofNullable(snapshots.get(id)).map(Entry::copy);
+    }
+
+    /**
+     * Returns the amount of entries in this store.
+     *
+     * @return amount of entries
+     */
+    public int size() {
+        return snapshots.size();
+    }
+
+    /**
+     * Returns the amount of views, that are currently connected with an attached calendar and thus receive changes.
+     *
+     * @return amount of connected views
+     */
+    public int getConnectedViewCount() {
+        synchronized (views) {
+            return views.size();
+        }
+    }
+
+    /**
+     * Streams the snapshots matching the given query. The snapshots must not be modified or passed to a calendar.
+     */
+    Stream<T> streamSnapshots(EntryQuery query) {
+        return query.applyFilter(snapshots.values().stream());
+    }
+
+    /**
+     * Returns the snapshot with the given id. The snapshot must not be modified or passed to a calendar.
+     */
+    T getSnapshot(String id) {
+        return snapshots.get(id);
+    }
+
+    void connect(SharedEntryStoreView<T> view) {
+        synchronized (views) {
+            views.add(view);
+        }
+    }
+
+    void disconnect(SharedEntryStoreView<T> view) {
+        synchronized (views) {
+            views.remove(view);
+        }
+    }
+
+    private void notifyViews(List<T> added, List<T> updated, List<T> removed) {
+        if (!added.isEmpty() || !updated.isEmpty() || !removed.isEmpty()) {
+            List<SharedEntryStoreView<T>> connectedViews;
+            synchronized (views) {
+                connectedViews = new ArrayList<>(views);
+            }
+
+            for (SharedEntryStoreView<T> view : connectedViews) {
+                view.onStoreChange(added, updated, removed);
+            }
+        }
+    }
+
+    /**
+     * Resolves a deserialized store to the store with the same id, if there is one in this JVM. Otherwise the
+     * deserialized store is registered.
+     */
+    private Object readResolve() {
+        Optional<SharedEntryStore<?>> existing = lookup(id);
+        if (existing.isPresent()) {
+            return existing.get();
+        }
+
+        views = createViewSet();
+        REGISTRY.register(id, this);
+        return this;
+    }
+
+    private static <T extends Entry> Set<SharedEntryStoreView<T>> createViewSet() {
+        return Collections.newSetFromMap(new WeakHashMap<>());
+    }
+
+    private T createSnapshot(T entry) {
+        Objects.requireNonNull(entry);
+        T snapshot = entry.copy();
+        snapshot.setCalendar(null);
+        snapshot.setKnownToTheClient(false);
+        return snapshot;
+    }
+}
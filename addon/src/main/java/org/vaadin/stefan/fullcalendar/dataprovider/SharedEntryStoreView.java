@@ -0,0 +1,136 @@
+package org.vaadin.stefan.fullcalendar.dataprovider;
+
+import com.vaadin.flow.component.UI;
+import com.vaadin.flow.component.UIDetachedException;
+import com.vaadin.flow.function.SerializablePredicate;
+import com.vaadin.flow.shared.Registration;
+import lombok.NonNull;
+import org.vaadin.stefan.fullcalendar.Entry;
+import org.vaadin.stefan.fullcalendar.FullCalendar;
+
+import java.util.*;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * A lightweight, per calendar entry provider, that shows the entries of a {@link SharedEntryStore}. The view itself
+ * does not hold any entries. Fetched entries are copies of the store's snapshots, so they can be modified and
+ * passed to the store to update it.
+ * <p></p>
+ * As long as the calendar is attached, the view receives the changes of the store and forwards them as
+ * {@link EntriesChangeEvent} containing the changed entries, so the calendar only updates these entries on the client.
+ * The event is fired inside the calendar's UI via {@link UI#access(com.vaadin.flow.server.Command)}.
+ * <p></p>
+ * The view references the store only by its id, when serialized, and looks the store up again on the next access
+ * after deserialization. A view of a calendar, that has been attached while being serialized, reconnects itself
+ * to the store with that access (e.g. the next fetch of the calendar).
+ * <p></p>
+ * Create instances via {@link SharedEntryStore#createView()}.
+ */
+public class SharedEntryStoreView<T extends Entry> extends AbstractEntryProvider<T> {
+
+    private final String storeId;
+    private transient SharedEntryStore<T> store;
+    private final SerializablePredicate<T> filter;
+    private final List<Registration> calendarRegistrations = new ArrayList<>();
+
+    SharedEntryStoreView(SharedEntryStore<T> store, SerializablePredicate<T> filter) {
+        this.storeId = store.getId();
+        this.store = store;
+        this.filter = filter;
+    }
+
+    /**
+     * Returns the store of this view.
+     *
+     * @return store
+     * @throws IllegalStateException when the view has been deserialized and the store does not exist in this JVM
+     */
+    @SuppressWarnings("unchecked")
+    public SharedEntryStore<T> getStore() {
+        if (store == null) {
+            store = (SharedEntryStore<T>) SharedEntryStore.lookup(storeId).orElseThrow(() ->
+                    new IllegalStateException("There is no shared entry store with the id " + storeId + ". Please create it before accessing deserialized views."));
+
+            FullCalendar calendar = getCalendar();
+            if (calendar != null && calendar.isAttached()) {
+                store.connect(this);
+            }
+        }
+        return store;
+    }
+
+    @Override
+    public Stream<T> fetch(@NonNull EntryQuery query) {
+        return getStore().streamSnapshots(query)
+                .filter(this::matches)
+                .map(Entry::copy);
+    }
+
+    @Override
+    public Optional<T> fetchById(@NonNull String id) {
+        return Optional.ofNullable(getStore().getSnapshot(id))
+                .filter(this::matches)
+                .map(Entry::copy);
+    }
+
+    /**
+     * Connects this view with the calendar. The view receives changes of the store, as long as the calendar
+     * is attached.
+     *
+     * @param calendar calendar to "connect" to.
+     */
+    @Override
+    public void setCalendar(FullCalendar calendar) {
+        FullCalendar oldCalendar = getCalendar();
+        super.setCalendar(calendar);
+
+        if (oldCalendar != calendar) {
+            calendarRegistrations.forEach(Registration::remove);
+            calendarRegistrations.clear();
+            getStore().disconnect(this);
+
+            if (calendar != null) {
+                calendarRegistrations.add(calendar.addAttachListener(event -> getStore().connect(this)));
+                calendarRegistrations.add(calendar.addDetachListener(event -> getStore().disconnect(this)));
+                if (calendar.isAttached()) {
+                    getStore().connect(this);
+                }
+            }
+        }
+    }
+
+    /**
+     * Called by the store, when entries have been changed. Changes of entries, that do not match the filter,
+     * are ignored (for removed entries the last state is checked), updated entries, that do not match the filter anymore, are treated as removed.
+     */
+    void onStoreChange(List<T> added, List<T> updated, List<T> removed) {
+        List<T> viewAdded = added.stream().filter(this::matches).collect(Collectors.toList());
+        List<T> viewUpdated = new ArrayList<>();
+        List<T> viewRemoved = removed.stream().filter(this::matches).collect(Collectors.toList());
+        for (T entry : updated) {
+            (matches(entry) ? viewUpdated : viewRemoved).add(entry);
+        }
+
+        if (viewAdded.isEmpty() && viewUpdated.isEmpty() && viewRemoved.isEmpty()) {
+            return;
+        }
+
+        EntriesChangeEvent<T> event = new EntriesChangeEvent<>(this, viewAdded, viewUpdated, viewRemoved);
+        Optional<UI> ui = Optional.ofNullable(getCalendar()).flatMap(FullCalendar::getUI);
+        if (ui.isPresent()) {
+            try {
+                ui.get().access(() -> fireEvent(event));
+            } catch (UIDetachedException e) {
+                // the ui has been detached in the meantime, so there is no client to update
+                getStore().disconnect(this);
+            }
+        } else {
+            fireEvent(event);
+        }
+    }
+
+    private boolean matches(T entry) {
+        return filter == null || filter.test(entry);
+    }
+}
@@ -0,0 +1,50 @@
+package org.vaadin.stefan.fullcalendar.dataprovider;
+
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.ToString;
+import org.vaadin.stefan.fullcalendar.NotNull;
+
+import java.io.Serializable;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Objects;
+
+/**
+ * A timespan without any entry data, e.g. a free slot found by the {@link FreeSlotFinder}. Start and end are
+ * based on UTC, the same way as the start and end of an entry. The end is exclusive.
+ */
+@Getter
+@EqualsAndHashCode
+@ToString
+public final class TimeSlot implements Serializable {
+
+    private final LocalDateTime start;
+    private final LocalDateTime end;
+
+    /**
+     * Creates a new instance.
+     *
+     * @param start start (inclusive)
+     * @param end   end (exclusive)
+     * @throws NullPointerException     when null is passed
+     * @throws IllegalArgumentException when the end is before the start
+     */
+    public TimeSlot(@NotNull LocalDateTime start, @NotNull LocalDateTime end) {
+        this.start = Objects.requireNonNull(start);
+        this.end = Objects.requireNonNull(end);
+
+        if (end.isBefore(start)) {
+            throw new IllegalArgumentException("End must not be before start");
+        }
+    }
+
+    /**
+     * Returns the duration of this slot.
+     *
+     * @return duration
+     */
+    public Duration getDuration() {
+        return Duration.between(start, end);
+    }
+}
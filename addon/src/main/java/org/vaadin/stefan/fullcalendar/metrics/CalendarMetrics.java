@@ -0,0 +1,100 @@
+package org.vaadin.stefan.fullcalendar.metrics;
+
+import org.vaadin.stefan.fullcalendar.FullCalendar;
+import org.vaadin.stefan.fullcalendar.dataprovider.EntryQuery;
+
+import java.io.Serializable;
+
+/**
+ * Receives measurements from the calendar's hot paths, e.g. fetching entries or updating options. Implementations
+ * can be used to collect these metrics and pass them to a monitoring system. All methods are noop by default, so
+ * implementations only need to override the methods they are interested in.
+ * <p></p>
+ * The same instance may be shared by multiple calendars of different sessions, therefore implementations must be
+ * thread safe. Methods are called inside the calendar's request handling, so they should be fast.
+ *
+ * @see FullCalendar#setMetrics(CalendarMetrics)
+ * @see InMemoryCalendarMetrics
+ */
+public interface CalendarMetrics extends Serializable {
+
+    /**
+     * Returns an instance, that ignores all measurements. This is the default of any calendar.
+     *
+     * @return noop metrics
+     */
+    static CalendarMetrics noop() {
+        return NoopCalendarMetrics.INSTANCE;
+    }
+
+    /**
+     * Called, after the client fetched entries from the server.
+     *
+     * @param calendar      calendar
+     * @param query         query containing the fetched timespan
+     * @param entryCount    amount of returned entries
+     * @param durationNanos time needed to fetch the entries from the entry provider and to serialize them
+     * @param jsonLength    length of the returned json string in characters
+     */
+    default void onEntriesFetched(FullCalendar calendar, EntryQuery query, int entryCount, long durationNanos, int jsonLength) {
+    }
+
+    /**
+     * Called, when a fetch requested by the client is skipped, since it has been superseded by a newer one.
+     *
+     * @param calendar     calendar
+     * @param skippedCount amount of skipped fetches
+     */
+    default void onEntriesFetchSkipped(FullCalendar calendar, int skippedCount) {
+    }
+
+    /**
+     * Called, after single entries have been refreshed on the client side.
+     *
+     * @param calendar       calendar
+     * @param requestedCount amount of entries, that have been requested to be refreshed
+     * @param sentCount      amount of entries, that have actually been sent to the client (unchanged entries are skipped)
+     * @param durationNanos  time needed to fetch and serialize the entries
+     */
+    default void onEntriesRefreshed(FullCalendar calendar, int requestedCount, int sentCount, long durationNanos) {
+    }
+
+    /**
+     * Called, when a refetch of all entries is sent to the client. Multiple requests in one roundtrip
+     * are reported once.
+     *
+     * @param calendar calendar
+     */
+    default void onRefreshAllRequested(FullCalendar calendar) {
+    }
+
+    /**
+     * Called, after an option has been updated.
+     *
+     * @param calendar      calendar
+     * @param option        option key
+     * @param durationNanos time needed to update the option on the server side and to schedule the client side update
+     */
+    default void onOptionUpdated(FullCalendar calendar, String option, long durationNanos) {
+    }
+
+    /**
+     * Called, after resources have been added to a scheduler.
+     *
+     * @param calendar      calendar
+     * @param resourceCount amount of added top level resources
+     * @param durationNanos time needed to register and serialize the resources
+     */
+    default void onResourcesAdded(FullCalendar calendar, int resourceCount, long durationNanos) {
+    }
+
+    /**
+     * Called, after resources have been removed from a scheduler.
+     *
+     * @param calendar      calendar
+     * @param resourceCount amount of removed resources
+     * @param durationNanos time needed to remove the resources, including their removal from the entries
+     */
+    default void onResourcesRemoved(FullCalendar calendar, int resourceCount, long durationNanos) {
+    }
+}
@@ -0,0 +1,149 @@
+package org.vaadin.stefan.fullcalendar.metrics;
+
+import java.io.Serializable;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A simple, thread safe histogram for non-negative long values. Values are counted in buckets with exponentially
+ * growing bounds (powers of two), so percentiles are approximations, that are at most twice as large as the
+ * real value. Count, sum, min and max are exact.
+ */
+public class Histogram implements Serializable {
+
+    private static final int BUCKET_COUNT = 64;
+
+    private final AtomicLongArray buckets = new AtomicLongArray(BUCKET_COUNT);
+    private final LongAdder count = new LongAdder();
+    private final LongAdder sum = new LongAdder();
+    private final AtomicLong min = new AtomicLong(Long.MAX_VALUE);
+    private final AtomicLong max = new AtomicLong(Long.MIN_VALUE);
+
+    /**
+     * Records the given value. Negative values are treated as 0.
+     *
+     * @param value value to record
+     */
+    public void record(long value) {
+        value = Math.max(0, value);
+
+        buckets.incrementAndGet(bucketIndex(value));
+        count.increment();
+        sum.add(value);
+        min.accumulateAndGet(value, Math::min);
+        max.accumulateAndGet(value, Math::max);
+    }
+
+    /**
+     * Returns the amount of recorded values.
+     *
+     * @return count
+     */
+    public long getCount() {
+        return count.sum();
+    }
+
+    /**
+     * Returns the sum of all recorded values.
+     *
+     * @return sum
+     */
+    public long getSum() {
+        return sum.sum();
+    }
+
+    /**
+     * Returns the smallest recorded value or 0, if nothing has been recorded yet.
+     *
+     * @return min
+     */
+    public long getMin() {
+        return getCount() == 0 ? 0 : min.get();
+    }
+
+    /**
+     * Returns the largest recorded value or 0, if nothing has been recorded yet.
+     *
+     * @return max
+     */
+    public long getMax() {
+        return getCount() == 0 ? 0 : max.get();
+    }
+
+    /**
+     * Returns the mean of all recorded values or 0, if nothing has been recorded yet.
+     *
+     * @return mean
+     */
+    public double getMean() {
+        long count = getCount();
+        return count == 0 ? 0 : (double) getSum() / count;
+    }
+
+    /**
+     * Returns an approximation of the given percentile, which is the upper bound of the bucket containing
+     * the percentile (but never more than the max value). Returns 0, if nothing has been recorded yet.
+     *
+     * @param percentile percentile between 0 and 100
+     * @return approximated value at the given percentile
+     * @throws IllegalArgumentException when the percentile is out of range
+     */
+    public long getPercentile(double percentile) {
+        if (percentile < 0 || percentile > 100) {
+            throw new IllegalArgumentException("Percentile must be between 0 and 100");
+        }
+
+        long total = 0;
+        long[] counts = new long[BUCKET_COUNT];
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            counts[i] = buckets.get(i);
+            total += counts[i];
+        }
+
+        if (total == 0) {
+            return 0;
+        }
+
+        long rank = Math.max(1, (long) Math.ceil(total * percentile / 100));
+        long seen = 0;
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            seen += counts[i];
+            if (seen >= rank) {
+                return Math.min(bucketUpperBound(i), getMax());
+            }
+        }
+
+        return getMax();
+    }
+
+    /**
+     * Removes all recorded values.
+     */
+    public void reset() {
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            buckets.set(i, 0);
+        }
+        count.reset();
+        sum.reset();
+        min.set(Long.MAX_VALUE);
+        max.set(Long.MIN_VALUE);
+    }
+
+    @Override
+    public String toString() {
+        return "Histogram{count=" + getCount() + ", mean=" + getMean() + ", min=" + getMin() + ", max=" + getMax()
+               + ", p50=" + getPercentile(50) + ", p99=" + getPercentile(99) + "}";
+    }
+
+    /**
+     * Bucket 0 contains the value 0, bucket i contains the values from 2^(i-1) to 2^i - 1.
+     */
+    private static int bucketIndex(long value) {
+        return Math.min(BUCKET_COUNT - 1, 64 - Long.numberOfLeadingZeros(value));
+    }
+
+    private static long bucketUpperBound(int index) {
+        return index >= BUCKET_COUNT - 1 ? Long.MAX_VALUE : (1L << index) - 1;
+    }
+}
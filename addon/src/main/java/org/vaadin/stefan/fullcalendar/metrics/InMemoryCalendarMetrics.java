@@ -0,0 +1,230 @@
+package org.vaadin.stefan.fullcalendar.metrics;
+
+import com.vaadin.flow.function.SerializableFunction;
+import org.vaadin.stefan.fullcalendar.FullCalendar;
+import org.vaadin.stefan.fullcalendar.NotNull;
+import org.vaadin.stefan.fullcalendar.dataprovider.EntryQuery;
+import org.vaadin.stefan.fullcalendar.dataprovider.InstanceRegistry;
+
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Collects the measurements of calendars in {@link Histogram}s, that can be read at any time, e.g. by a monitoring
+ * endpoint. Durations are recorded in nanoseconds.
+ * <p></p>
+ * Every measurement is recorded globally and additionally for the calendar it belongs to, if the calendar key provider
+ * returns a key for that calendar. By default, the key is the calendar's component id, so calendars without an id
+ * are only recorded globally. This allows to find the calendars, that are the most expensive ones.
+ * <p></p>
+ * This class is thread safe and intended to be shared by all calendars of an application. When a session is
+ * serialized, only the id of the instance is serialized with its calendars and the recorded values are not.
+ * After deserialization, the calendars record their measurements again in the instance with the same id. When
+ * sessions are deserialized in another JVM (e.g. in a cluster or after a restart), the application has to create
+ * the instance there with the same id (see {@link #InMemoryCalendarMetrics(String, SerializableFunction)}) before
+ * the sessions are deserialized, otherwise a new, empty instance is created.
+ */
+public class InMemoryCalendarMetrics implements CalendarMetrics {
+
+    public static final String FETCH_DURATION = "fetch.duration";
+    public static final String FETCH_ENTRIES = "fetch.entries";
+    public static final String FETCH_JSON_LENGTH = "fetch.jsonLength";
+    public static final String FETCH_RANGE_HOURS = "fetch.rangeHours";
+    public static final String FETCH_SKIPPED = "fetch.skipped";
+    public static final String REFRESH_DURATION = "refresh.duration";
+    public static final String REFRESH_REQUESTED_ENTRIES = "refresh.requestedEntries";
+    public static final String REFRESH_SENT_ENTRIES = "refresh.sentEntries";
+    public static final String REFRESH_ALL = "refreshAll";
+    public static final String OPTION_DURATION = "option.duration";
+    public static final String RESOURCES_ADD_DURATION = "resources.add.duration";
+    public static final String RESOURCES_ADDED = "resources.added";
+    public static final String RESOURCES_REMOVE_DURATION = "resources.remove.duration";
+    public static final String RESOURCES_REMOVED = "resources.removed";
+
+    private static final InstanceRegistry<InMemoryCalendarMetrics> REGISTRY = new InstanceRegistry<>();
+
+    private final String id;
+    private final SerializableFunction<FullCalendar, String> calendarKeyProvider;
+    private transient Map<String, Histogram> histograms = new ConcurrentHashMap<>();
+    private transient Map<String, Map<String, Histogram>> calendarHistograms = new ConcurrentHashMap<>();
+
+    /**
+     * Creates a new instance with a generated id, that uses the calendar's component id as calendar key.
+     */
+    public InMemoryCalendarMetrics() {
+        this(calendar -> calendar.getId().orElse(null));
+    }
+
+    /**
+     * Creates a new instance with a generated id, that uses the given provider to obtain the key of a calendar.
+     * Measurements of calendars with a null key are only recorded globally.
+     *
+     * @param calendarKeyProvider calendar key provider
+     * @throws NullPointerException when null is passed
+     */
+    public InMemoryCalendarMetrics(@NotNull SerializableFunction<FullCalendar, String> calendarKeyProvider) {
+        this(UUID.randomUUID().toString(), calendarKeyProvider);
+    }
+
+    /**
+     * Creates a new instance with the given id, that uses the given provider to obtain the key of a calendar.
+     * The id is used to look up the instance after a session has been deserialized and thus must be unique in the
+     * application. Use a fixed id, when sessions may be deserialized in another JVM.
+     *
+     * @param id                  id
+     * @param calendarKeyProvider calendar key provider
+     * @throws NullPointerException  when null is passed
+     * @throws IllegalStateException when there is already another instance with the given id
+     */
+    public InMemoryCalendarMetrics(@NotNull String id, @NotNull SerializableFunction<FullCalendar, String> calendarKeyProvider) {
+        this.id = Objects.requireNonNull(id);
+        this.calendarKeyProvider = Objects.requireNonNull(calendarKeyProvider);
+        REGISTRY.register(id, this);
+    }
+
+    /**
+     * Returns the id of this instance.
+     *
+     * @return id
+     */
+    public String getId() {
+        return id;
+    }
+
+    @Override
+    public void onEntriesFetched(FullCalendar calendar, EntryQuery query, int entryCount, long durationNanos, int jsonLength) {
+        record(calendar, FETCH_DURATION, durationNanos);
+        record(calendar, FETCH_ENTRIES, entryCount);
+        record(calendar, FETCH_JSON_LENGTH, jsonLength);
+        if (query.getStart() != null && query.getEnd() != null) {
+            record(calendar, FETCH_RANGE_HOURS, Duration.between(query.getStart(), query.getEnd()).toHours());
+        }
+    }
+
+    @Override
+    public void onEntriesFetchSkipped(FullCalendar calendar, int skippedCount) {
+        record(calendar, FETCH_SKIPPED, skippedCount);
+    }
+
+    @Override
+    public void onEntriesRefreshed(FullCalendar calendar, int requestedCount, int sentCount, long durationNanos) {
+        record(calendar, REFRESH_DURATION, durationNanos);
+        record(calendar, REFRESH_REQUESTED_ENTRIES, requestedCount);
+        record(calendar, REFRESH_SENT_ENTRIES, sentCount);
+    }
+
+    @Override
+    public void onRefreshAllRequested(FullCalendar calendar) {
+        record(calendar, REFRESH_ALL, 1);
+    }
+
+    @Override
+    public void onOptionUpdated(FullCalendar calendar, String option, long durationNanos) {
+        record(calendar, OPTION_DURATION, durationNanos);
+    }
+
+    @Override
+    public void onResourcesAdded(FullCalendar calendar, int resourceCount, long durationNanos) {
+        record(calendar, RESOURCES_ADD_DURATION, durationNanos);
+        record(calendar, RESOURCES_ADDED, resourceCount);
+    }
+
+    @Override
+    public void onResourcesRemoved(FullCalendar calendar, int resourceCount, long durationNanos) {
+        record(calendar, RESOURCES_REMOVE_DURATION, durationNanos);
+        record(calendar, RESOURCES_REMOVED, resourceCount);
+    }
+
+    /**
+     * Records the given value in the global histogram with the given name and in the histogram of the calendar.
+     *
+     * @param calendar calendar
+     * @param name     histogram name
+     * @param value    value to record
+     */
+    protected void record(FullCalendar calendar, String name, long value) {
+        histograms.computeIfAbsent(name, key -> new Histogram()).record(value);
+
+        String calendarKey = calendarKeyProvider.apply(calendar);
+        if (calendarKey != null) {
+            calendarHistograms.computeIfAbsent(calendarKey, key -> new ConcurrentHashMap<>())
+                    .computeIfAbsent(name, key -> new Histogram())
+                    .record(value);
+        }
+    }
+
+    /**
+     * Returns the global histogram with the given name. Empty, if nothing has been recorded for that name yet.
+     *
+     * @param name histogram name, e.g. {@link #FETCH_DURATION}
+     * @return histogram
+     */
+    public Optional<Histogram> getHistogram(@NotNull String name) {
+        return Optional.ofNullable(histograms.get(Objects.requireNonNull(name)));
+    }
+
+    /**
+     * Returns the histogram with the given name of the given calendar.
+     *
+     * @param calendarKey calendar key
+     * @param name        histogram name
+     * @return histogram
+     */
+    public Optional<Histogram> getHistogram(@NotNull String calendarKey, @NotNull String name) {
+        return Optional.ofNullable(getHistograms(calendarKey).get(Objects.requireNonNull(name)));
+    }
+
+    /**
+     * Returns all global histograms mapped by their names.
+     *
+     * @return histograms
+     */
+    public Map<String, Histogram> getHistograms() {
+        return Collections.unmodifiableMap(new TreeMap<>(histograms));
+    }
+
+    /**
+     * Returns all histograms of the given calendar mapped by their names.
+     *
+     * @param calendarKey calendar key
+     * @return histograms
+     */
+    public Map<String, Histogram> getHistograms(@NotNull String calendarKey) {
+        Map<String, Histogram> map = calendarHistograms.get(Objects.requireNonNull(calendarKey));
+        return map != null ? Collections.unmodifiableMap(new TreeMap<>(map)) : Collections.emptyMap();
+    }
+
+    /**
+     * Returns the keys of all calendars, for which measurements have been recorded.
+     *
+     * @return calendar keys
+     */
+    public Set<String> getCalendarKeys() {
+        return Collections.unmodifiableSet(new TreeSet<>(calendarHistograms.keySet()));
+    }
+
+    /**
+     * Removes all recorded values.
+     */
+    public void reset() {
+        histograms.clear();
+        calendarHistograms.clear();
+    }
+
+    /**
+     * Resolves a deserialized instance to the instance with the same id, if there is one in this JVM. Otherwise the
+     * deserialized instance is registered.
+     */
+    protected Object readResolve() {
+        Optional<InMemoryCalendarMetrics> existing = REGISTRY.lookup(id);
+        if (existing.isPresent()) {
+            return existing.get();
+        }
+
+        histograms = new ConcurrentHashMap<>();
+        calendarHistograms = new ConcurrentHashMap<>();
+        REGISTRY.register(id, this);
+        return this;
+    }
+}
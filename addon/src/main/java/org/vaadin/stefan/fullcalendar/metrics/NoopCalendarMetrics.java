@@ -0,0 +1,16 @@
+package org.vaadin.stefan.fullcalendar.metrics;
+
+/**
+ * Ignores all measurements.
+ */
+final class NoopCalendarMetrics implements CalendarMetrics {
+
+    static final NoopCalendarMetrics INSTANCE = new NoopCalendarMetrics();
+
+    private NoopCalendarMetrics() {
+    }
+
+    private Object readResolve() {
+        return INSTANCE;
+    }
+}
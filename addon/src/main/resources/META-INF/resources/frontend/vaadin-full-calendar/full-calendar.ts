@@ -41,6 +41,18 @@ export class FullCalendar extends HTMLElement {
     protected moreLinkClickAction = "popover"
     protected prefetchEnabled = false;
 
+    // the raw event data of the last fetch, used to apply incremental updates
+    private fetchedEventData = new Map<string, any>();
+
+    // sequence number of the latest fetch and the callbacks of fetches, that wait for their response
+    private fetchSequence = 0;
+    private pendingFetches = new Map<number, { successCallback: any, failureCallback: any }>();
+
+    // amount of entries per day (iso date), that have not been sent by the server due to an aggregated fetch
+    private hiddenEntryCounts: { [date: string]: number } = {};
+    private moreLinkUpdateScheduled = false;
+    private _entryAggregationEnabled = false;
+
     // contains any json based initial options (not the ones set via setOption). might be empty in most cases
     protected initialOptions = {};
     protected customViews: any = {};
@@ -162,9 +174,99 @@ export class FullCalendar extends HTMLElement {
 
         this.applyCustomPropertiesApi(options);
 
+        // @ts-ignore
+        if (this._entryAggregationEnabled && !options.moreLinkContent) {
+            // @ts-ignore
+            options.moreLinkContent = (arg: any) => this.createMoreLinkContent(arg);
+        }
+
         return options;
     }
 
+    /**
+     * Indicates, if the server aggregates the fetched entries per day. In this case the "more" links
+     * show also the amount of entries, that the server has not sent (see setHiddenEntryCounts).
+     */
+    get entryAggregationEnabled(): boolean {
+        return this._entryAggregationEnabled;
+    }
+
+    set entryAggregationEnabled(enabled: boolean) {
+        enabled = !!enabled;
+        if (this._entryAggregationEnabled === enabled) {
+            return;
+        }
+
+        this._entryAggregationEnabled = enabled;
+        this.hiddenEntryCounts = {};
+
+        // the content hook is only needed while aggregating. Custom content hooks of the initial options are kept
+        // @ts-ignore
+        if (this._calendar && !this.initialOptions?.moreLinkContent) {
+            this._calendar.setOption("moreLinkContent", enabled ? (arg: any) => this.createMoreLinkContent(arg) : undefined);
+        }
+    }
+
+    /**
+     * Creates the content of a "more" link, while the entries are aggregated. The link text is wrapped, so that
+     * the amount of entries, that have not been sent by the server for the link's day, can be added after
+     * rendering (the content hook does not know the day of the link).
+     * @param arg more link content arg
+     */
+    protected createMoreLinkContent(arg: any) {
+        let span = document.createElement("span");
+        span.classList.add("fc-more-link-text");
+        span.dataset.num = String(arg.num);
+        span.textContent = arg.text;
+
+        this.scheduleMoreLinkUpdate();
+        return {domNodes: [span]};
+    }
+
+    private scheduleMoreLinkUpdate() {
+        if (this._entryAggregationEnabled && !this.moreLinkUpdateScheduled) {
+            this.moreLinkUpdateScheduled = true;
+            requestAnimationFrame(() => {
+                this.moreLinkUpdateScheduled = false;
+                this.updateMoreLinks();
+            });
+        }
+    }
+
+    /**
+     * Adds the hidden entry counts to the rendered "more" links.
+     */
+    protected updateMoreLinks() {
+        this.querySelectorAll<HTMLElement>(".fc-more-link-text").forEach(span => {
+            let num = Number(span.dataset.num);
+            let date = span.closest<HTMLElement>("[data-date]")?.dataset.date;
+            let hidden = date ? this.hiddenEntryCounts[date] ?? 0 : 0;
+            span.textContent = this.createMoreLinkText(num + hidden);
+        });
+    }
+
+    /**
+     * Creates the text of a "more" link for the given amount of entries the same way as the calendar does,
+     * based on the configured (or localized) "moreLinkText" option.
+     * @param num amount of entries
+     */
+    protected createMoreLinkText(num: number): string {
+        // the current data contains the refined options including the locale's texts
+        // @ts-ignore
+        let moreLinkText = this.calendar.getCurrentData?.().options?.moreLinkText ?? this.calendar.getOption("moreLinkText") ?? "more";
+        return typeof moreLinkText === "function" ? moreLinkText.call(null, num) : `+${num} ${moreLinkText}`;
+    }
+
+    /**
+     * Sets the amount of entries per day (iso date), that the server has not sent yet. These are added
+     * to the "more" links of the respective days.
+     * @param hiddenEntryCounts hidden entry counts
+     */
+    setHiddenEntryCounts(hiddenEntryCounts: { [date: string]: number }) {
+        this.hiddenEntryCounts = hiddenEntryCounts ?? {};
+        this.scheduleMoreLinkUpdate();
+    }
+
     /**
      * Creates an object that maps client side event information to server side information.
      * The returned object contains keys, that will be interpreted as client and server side event names.
@@ -425,17 +527,17 @@ export class FullCalendar extends HTMLElement {
                 }
             }
 
+            // each fetch is tagged, so that the server can skip fetches superseded by newer ones. the result
+            // is sent back via receiveEntries
+            let sequence = ++this.fetchSequence;
+            this.pendingFetches.set(sequence, {successCallback, failureCallback});
+
             // @ts-ignore
-            this.$server.fetchEntriesFromServer({
+            this.$server.requestEntriesFromServer({
                 start: this.formatDate(info.start),
-                end: this.formatDate(info.end)
-            }).then((array: any | any[]) => {
-                if (Array.isArray(array)) {
-                    successCallback(array);
-                } else {
-                    failureCallback("could not fetch");
-                }
-            })
+                end: this.formatDate(info.end),
+                sequence: sequence
+            });
         };
         this.calendar?.setOption("events", callback);
     }
@@ -580,13 +682,180 @@ export class FullCalendar extends HTMLElement {
         this.calendar.scrollToTime(duration);
     }
 
+    /**
+     * Receives the result of a fetch. Any pending fetch with the same or a lower sequence number is resolved
+     * by this call, since the server skips fetches, that are superseded by newer ones. Responses to fetches, that
+     * have been superseded on the client side in the meantime, are dropped.
+     * @param sequence sequence number of the fetch
+     * @param json the entries as a single pre-serialized json array string or columnar json object string. Null,
+     * if the fetch failed on the server side
+     * @param hiddenEntryCounts amount of entries per day, that have been left out by an aggregated fetch
+     */
+    receiveEntries(sequence: number, json: string | null, hiddenEntryCounts?: { [date: string]: number }) {
+        let pending = this.pendingFetches.get(sequence);
+        Array.from(this.pendingFetches.keys())
+            .filter(key => key <= sequence)
+            .forEach(key => this.pendingFetches.delete(key));
+
+        if (!pending || sequence !== this.fetchSequence) {
+            // stale, the calendar waits for a newer fetch. The calendar ignores superseded fetches, so there
+            // is no need to call their callbacks
+            return;
+        }
+
+        if (json == null) {
+            pending.failureCallback("could not fetch");
+            return;
+        }
+
+        let array = typeof json === "string" ? JSON.parse(json) : json;
+        if (array && Array.isArray(array.columns)) {
+            array = this.decodeColumnarEvents(array);
+        }
+
+        if (Array.isArray(array)) {
+            this.fetchedEventData = new Map(array.map((eventData: any) => [eventData.id, eventData]));
+            this.setHiddenEntryCounts(hiddenEntryCounts ?? {});
+            pending.successCallback(array);
+        } else {
+            pending.failureCallback("could not fetch");
+        }
+    }
+
+    /**
+     * Decodes the columnar format of fetched entries (see the server side ColumnarEntryWriter) into the
+     * event inputs, that the server would have sent in the non columnar format. Each column contains either a
+     * constant value for all events, offsets to the base epoch second, indices of a dictionary or plain values.
+     * Null values are skipped.
+     * @param data columnar data
+     */
+    protected decodeColumnarEvents(data: { count: number, base: number, columns: Array<any> }): Array<any> {
+        let count = data.count;
+        let events: Array<any> = [];
+        for (let i = 0; i < count; i++) {
+            events.push({});
+        }
+
+        // objects (e.g. class names or extended props) are copied, so that events do not share them
+        let copy = (value: any) => Array.isArray(value) ? value.slice() : (value !== null && typeof value === "object" ? {...value} : value);
+
+        for (let column of data.columns) {
+            let name = column.name;
+            if ("value" in column) {
+                events.forEach(event => event[name] = copy(column.value));
+                continue;
+            }
+
+            let values = column.values;
+            let dictionary = column.dictionary;
+            let unit = column.unit;
+            for (let i = 0; i < count; i++) {
+                let value = values[i];
+                if (value === null || value === undefined) {
+                    continue;
+                }
+
+                if (dictionary) {
+                    value = copy(dictionary[value]);
+                } else if (unit) {
+                    value = new Date((data.base + value * unit) * 1000).toISOString();
+                }
+
+                events[i][name] = value;
+            }
+        }
+
+        return events;
+    }
+
     refreshAllEvents() {
         this.calendar.refetchEvents();
     }
 
-    refreshSingleEvent(id: string) {
-        console.debug(`refetch all events due to unsupported refresh single event ${id}`);
-        this.calendar.refetchEvents();
+    /**
+     * Refreshes multiple events at once. Each item contains the id, the event data and the delta flag as
+     * described in refreshSingleEvent. All events are rendered at once. When any of the events cannot be
+     * refreshed due to missing event data, all events are refetched once afterwards.
+     * @param refreshes events to refresh
+     */
+    refreshEvents(refreshes: Array<{ id: string, data?: any, delta?: boolean }>) {
+        let refetch = false;
+        this.calendar.batchRendering(() => {
+            refreshes.forEach(refresh => {
+                if (!this.applyEventRefresh(refresh.id, refresh.data, refresh.delta)) {
+                    refetch = true;
+                }
+            });
+        });
+
+        if (refetch) {
+            this.calendar.refetchEvents();
+        }
+    }
+
+    /**
+     * Replaces the event with the given id by the given event data. When the event data is null, the event will
+     * be removed. When there is no event data at all, all events are refetched.
+     * <p></p>
+     * When the event data only contains the changed properties (delta), they are merged into the previously fetched
+     * event data. Properties with a null value are removed.
+     * @param id id of the event to refresh
+     * @param eventData updated event data, null to remove the event
+     * @param delta event data contains only changed properties
+     */
+    refreshSingleEvent(id: string, eventData?: any, delta = false) {
+        if (!this.applyEventRefresh(id, eventData, delta)) {
+            this.calendar.refetchEvents();
+        }
+    }
+
+    /**
+     * Applies a single event refresh as described in refreshSingleEvent. Returns false, when the refresh
+     * could not be applied due to missing event data, so that the caller has to refetch the events.
+     * @param id id of the event to refresh
+     * @param eventData updated event data, null to remove the event
+     * @param delta event data contains only changed properties
+     * @private
+     */
+    private applyEventRefresh(id: string, eventData?: any, delta = false): boolean {
+        if (delta && eventData) {
+            let previousData = this.fetchedEventData.get(id);
+            if (previousData) {
+                eventData = {...previousData, ...eventData};
+                Object.keys(eventData).filter(key => eventData[key] === null).forEach(key => delete eventData[key]);
+            } else {
+                eventData = undefined; // not known, so we cannot apply the changes
+            }
+        }
+
+        if (eventData === undefined) {
+            console.debug(`refetch all events due to missing event data for ${id}`);
+            return false;
+        }
+
+        let calendar = this.calendar;
+        let event = calendar.getEventById(id);
+        if (!eventData) {
+            this.fetchedEventData.delete(id);
+            event?.remove();
+            return true;
+        }
+
+        this.fetchedEventData.set(id, eventData);
+
+        calendar.batchRendering(() => {
+            if (event) {
+                // keep the source, so that the event is replaced on the next refetch
+                let source = event.source;
+                event.remove();
+                calendar.addEvent(eventData, source ?? undefined);
+            } else {
+                let sources = calendar.getEventSources();
+                calendar.addEvent(eventData, sources.length > 0 ? sources[0] : undefined);
+            }
+        });
+
+        return true;
     }
 
     /**
@@ -0,0 +1,108 @@
+package org.vaadin.stefan.fullcalendar;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class BeanPropertiesTest {
+
+    @Test
+    void test_accessors() {
+        Map<String, BeanProperties<TestBean>> properties = BeanProperties.read(TestBean.class).stream()
+                .collect(Collectors.toMap(BeanProperties::getName, Function.identity()));
+
+        // no getter, no property
+        assertFalse(properties.containsKey("noGetter"));
+
+        TestBean bean = new TestBean();
+
+        BeanProperties<TestBean> name = properties.get("name");
+        name.getSetter().orElseThrow(IllegalStateException::new).accept(bean, "test");
+        assertEquals("test", name.getGetter().apply(bean));
+
+        // primitives are boxed and unboxed
+        BeanProperties<TestBean> active = properties.get("active");
+        active.getSetter().orElseThrow(IllegalStateException::new).accept(bean, true);
+        assertEquals(Boolean.TRUE, active.getGetter().apply(bean));
+
+        BeanProperties<TestBean> count = properties.get("count");
+        count.getSetter().orElseThrow(IllegalStateException::new).accept(bean, 5);
+        assertEquals(5, count.getGetter().apply(bean));
+
+        // optional getter values are unwrapped when passed to the setter
+        BeanProperties<TestBean> description = properties.get("description");
+        description.getSetter().orElseThrow(IllegalStateException::new).accept(bean, Optional.of("desc"));
+        assertEquals(Optional.of("desc"), description.getGetter().apply(bean));
+
+        // read only
+        assertFalse(properties.get("readOnly").getSetter().isPresent());
+        assertEquals("readOnly", properties.get("readOnly").getGetter().apply(bean));
+    }
+
+    @Test
+    void test_entryProperties() {
+        Set<String> names = BeanProperties.read(Entry.class).stream().map(BeanProperties::getName).collect(Collectors.toSet());
+        assertTrue(names.contains(Entry.Fields.START));
+        assertTrue(names.contains(Entry.Fields.ALL_DAY));
+        assertTrue(names.contains(Entry.Fields.CUSTOM_PROPERTIES));
+
+        Entry entry = new Entry();
+        Entry copy = entry.copy();
+        assertEquals(entry.toJson().toJson(), copy.toJson().toJson());
+    }
+
+    public static class TestBean {
+        private String name;
+        private boolean active;
+        private int count;
+        private String description;
+        private String readOnly = "readOnly";
+        private String noGetter;
+
+        public String getName() {
+            return name;
+        }
+
+        public void setName(String name) {
+            this.name = name;
+        }
+
+        public boolean isActive() {
+            return active;
+        }
+
+        public void setActive(boolean active) {
+            this.active = active;
+        }
+
+        public int getCount() {
+            return count;
+        }
+
+        public void setCount(int count) {
+            this.count = count;
+        }
+
+        public Optional<String> getDescription() {
+            return Optional.ofNullable(description);
+        }
+
+        public void setDescription(String description) {
+            this.description = description;
+        }
+
+        public String getReadOnly() {
+            return readOnly;
+        }
+
+        public void setNoGetter(String noGetter) {
+            this.noGetter = noGetter;
+        }
+    }
+}
@@ -0,0 +1,313 @@
+package org.vaadin.stefan.fullcalendar;
+
+import com.vaadin.flow.component.ComponentUtil;
+import elemental.json.Json;
+import elemental.json.JsonObject;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.vaadin.stefan.fullcalendar.dataprovider.CachingEntryProvider;
+import org.vaadin.stefan.fullcalendar.dataprovider.CallbackEntryProvider;
+import org.vaadin.stefan.fullcalendar.dataprovider.EntryProvider;
+import org.vaadin.stefan.fullcalendar.dataprovider.EntryQuery;
+import org.vaadin.stefan.fullcalendar.dataprovider.InMemoryEntryProvider;
+
+import java.time.*;
+import java.util.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class CachingEntryProviderTest {
+
+    // 2000-01-03 is a monday
+    private static final LocalDateTime MONDAY = LocalDate.of(2000, 1, 3).atStartOfDay();
+
+    private InMemoryEntryProvider<Entry> backend;
+    private List<EntryQuery> backendQueries;
+    private CallbackEntryProvider<Entry> callbackProvider;
+    private Runnable onBackendFetch;
+
+    @BeforeEach
+    void init() {
+        backend = InMemoryEntryProvider.from();
+        for (int i = 0; i < 60; i++) {
+            Entry entry = new Entry(String.valueOf(i));
+            entry.setStart(MONDAY.plusDays(i).plusHours(10));
+            entry.setEnd(MONDAY.plusDays(i).plusHours(11));
+            backend.addEntry(entry);
+        }
+
+        // spans the first two weeks
+        Entry longEntry = new Entry("long");
+        longEntry.setStart(MONDAY.plusDays(5));
+        longEntry.setEnd(MONDAY.plusDays(9));
+        backend.addEntry(longEntry);
+
+        backendQueries = new ArrayList<>();
+        onBackendFetch = () -> {};
+        callbackProvider = EntryProvider.fromCallbacks(query -> {
+            backendQueries.add(query);
+            onBackendFetch.run();
+            return backend.fetch(query);
+        }, id -> backend.getEntryById(id).orElse(null));
+    }
+
+    @Test
+    void test_cachedFetchMatchesDelegate() {
+        CachingEntryProvider<Entry> provider = new CachingEntryProvider<>(callbackProvider, CachingEntryProvider.BucketSize.WEEK);
+
+        LocalDateTime start = MONDAY.plusDays(3);
+        LocalDateTime end = MONDAY.plusDays(17);
+        assertEquals(toIds(backend.getEntries(start, end)), toIds(provider.fetch(start, end).collect(Collectors.toList())));
+
+        // the whole three weeks are fetched with one query
+        assertEquals(1, backendQueries.size());
+        assertEquals(MONDAY, backendQueries.get(0).getStart());
+        assertEquals(MONDAY.plusWeeks(3), backendQueries.get(0).getEnd());
+
+        // served from the cache, including the all day filter
+        assertEquals(toIds(backend.getEntries(MONDAY, MONDAY.plusDays(7))), toIds(provider.fetch(MONDAY, MONDAY.plusDays(7)).collect(Collectors.toList())));
+        assertEquals(Collections.emptySet(), toIds(provider.fetch(new EntryQuery(MONDAY, MONDAY.plusDays(7), EntryQuery.AllDay.ALL_DAY_ONLY)).collect(Collectors.toList())));
+        assertEquals(1, backendQueries.size());
+
+        // only the missing sub range is fetched
+        provider.fetch(MONDAY.plusDays(10), MONDAY.plusDays(30)).count();
+        assertEquals(2, backendQueries.size());
+        assertEquals(MONDAY.plusWeeks(3), backendQueries.get(1).getStart());
+        assertEquals(MONDAY.plusWeeks(5), backendQueries.get(1).getEnd());
+
+        // open ranges are never cached
+        provider.fetch(null, MONDAY.plusDays(3)).count();
+        assertEquals(3, backendQueries.size());
+    }
+
+    @Test
+    void test_eviction() {
+        CachingEntryProvider<Entry> provider = new CachingEntryProvider<>(callbackProvider, CachingEntryProvider.BucketSize.DAY);
+        provider.setMaxBuckets(2);
+
+        provider.fetch(MONDAY, MONDAY.plusDays(1)).count();
+        provider.fetch(MONDAY.plusDays(1), MONDAY.plusDays(2)).count();
+        provider.fetch(MONDAY, MONDAY.plusDays(1)).count(); // touch first day
+        assertEquals(2, backendQueries.size());
+
+        provider.fetch(MONDAY.plusDays(2), MONDAY.plusDays(3)).count(); // evicts the second day
+        assertEquals(2, provider.getCachedBucketCount());
+        provider.fetch(MONDAY, MONDAY.plusDays(1)).count();
+        assertEquals(3, backendQueries.size());
+        provider.fetch(MONDAY.plusDays(1), MONDAY.plusDays(2)).count();
+        assertEquals(4, backendQueries.size());
+
+        // time to live
+        MutableClock clock = new MutableClock();
+        provider.setClock(clock);
+        provider.setTimeToLive(Duration.ofMinutes(5));
+        provider.invalidateAll();
+
+        provider.fetch(MONDAY, MONDAY.plusDays(1)).count();
+        clock.instant = clock.instant.plus(Duration.ofMinutes(4));
+        provider.fetch(MONDAY, MONDAY.plusDays(1)).count();
+        assertEquals(5, backendQueries.size());
+
+        clock.instant = clock.instant.plus(Duration.ofMinutes(1));
+        provider.fetch(MONDAY, MONDAY.plusDays(1)).count();
+        assertEquals(6, backendQueries.size());
+    }
+
+    @Test
+    void test_invalidation() {
+        CachingEntryProvider<Entry> provider = new CachingEntryProvider<>(callbackProvider, CachingEntryProvider.BucketSize.WEEK);
+        AtomicInteger refreshAllEvents = new AtomicInteger();
+        AtomicInteger refreshItemEvents = new AtomicInteger();
+        provider.addEntriesChangeListener(event -> refreshAllEvents.incrementAndGet());
+        provider.addEntryRefreshListener(event -> refreshItemEvents.incrementAndGet());
+
+        provider.fetch(MONDAY, MONDAY.plusWeeks(3)).count();
+        assertEquals(3, provider.getCachedBucketCount());
+
+        // moving the entry from the first week into the third invalidates both
+        Entry entry = backend.getEntryById("0").orElseThrow(IllegalStateException::new);
+        entry.setStart(MONDAY.plusDays(15));
+        entry.setEnd(MONDAY.plusDays(15).plusHours(1));
+        provider.refreshItem(entry);
+        assertEquals(1, provider.getCachedBucketCount());
+        assertEquals(1, refreshItemEvents.get());
+
+        assertTrue(toIds(provider.fetch(MONDAY.plusWeeks(2), MONDAY.plusWeeks(3)).collect(Collectors.toList())).contains("0"));
+        assertFalse(toIds(provider.fetch(MONDAY, MONDAY.plusWeeks(1)).collect(Collectors.toList())).contains("0"));
+
+        provider.refreshAll();
+        assertEquals(0, provider.getCachedBucketCount());
+        assertEquals(1, refreshAllEvents.get());
+
+        // events of the delegate are forwarded
+        provider.fetch(MONDAY, MONDAY.plusWeeks(1)).count();
+        callbackProvider.refreshAll();
+        assertEquals(0, provider.getCachedBucketCount());
+        assertEquals(2, refreshAllEvents.get());
+    }
+
+    @Test
+    void test_prefetch() {
+        CachingEntryProvider<Entry> provider = new CachingEntryProvider<>(callbackProvider, CachingEntryProvider.BucketSize.WEEK);
+
+        provider.prefetch(MONDAY, MONDAY.plusWeeks(2));
+        assertEquals(1, backendQueries.size());
+        assertEquals(2, provider.getCachedBucketCount());
+
+        // served from the prefetched buckets
+        assertEquals(toIds(backend.getEntries(MONDAY, MONDAY.plusDays(10))), toIds(provider.fetch(MONDAY, MONDAY.plusDays(10)).collect(Collectors.toList())));
+        assertEquals(1, backendQueries.size());
+
+        // asynchronous prefetch
+        List<Runnable> tasks = new ArrayList<>();
+        provider.setPrefetchExecutor(tasks::add);
+        provider.prefetchAsync(MONDAY.plusWeeks(2), MONDAY.plusWeeks(3));
+        assertEquals(1, tasks.size());
+        tasks.remove(0).run();
+        assertEquals(2, backendQueries.size());
+        assertEquals(3, provider.getCachedBucketCount());
+
+        // prefetched data, that has been invalidated during the fetch, is not stored
+        onBackendFetch = provider::invalidateAll;
+        provider.prefetchAsync(MONDAY.plusWeeks(3), MONDAY.plusWeeks(4));
+        tasks.remove(0).run();
+        assertEquals(3, backendQueries.size());
+        assertEquals(0, provider.getCachedBucketCount());
+    }
+
+    @Test
+    void test_prefetchOnDatesRendered() {
+        CachingEntryProvider<Entry> provider = new CachingEntryProvider<>(callbackProvider, CachingEntryProvider.BucketSize.WEEK);
+        provider.setPrefetchExecutor(Runnable::run);
+
+        FullCalendar calendar = new FullCalendar();
+        calendar.setEntryProvider(provider);
+
+        // february 2000, rendered from 2000-01-31 to 2000-03-13
+        JsonObject eventData = Json.createObject();
+        eventData.put("name", "dayGridMonth");
+        eventData.put("intervalStart", "2000-02-01");
+        eventData.put("intervalEnd", "2000-03-01");
+        eventData.put("start", "2000-01-31");
+        eventData.put("end", "2000-03-13");
+        ComponentUtil.fireEvent(calendar, new DatesRenderedEvent(calendar, true, eventData));
+
+        // january and march are prefetched, the shown range itself not
+        assertEquals(2, backendQueries.size());
+        backendQueries.clear();
+        provider.fetch(LocalDate.of(2000, 1, 3).atStartOfDay(), LocalDate.of(2000, 1, 31).atStartOfDay()).count();
+        provider.fetch(LocalDate.of(2000, 3, 13).atStartOfDay(), LocalDate.of(2000, 4, 3).atStartOfDay()).count();
+        assertEquals(0, backendQueries.size());
+
+        provider.fetch(LocalDate.of(2000, 2, 7).atStartOfDay(), LocalDate.of(2000, 2, 14).atStartOfDay()).count();
+        assertEquals(1, backendQueries.size());
+    }
+
+    @Test
+    void test_prefetchExecutorDisablesClientPrefetch() {
+        CachingEntryProvider<Entry> provider = new CachingEntryProvider<>(callbackProvider, CachingEntryProvider.BucketSize.WEEK);
+
+        FullCalendar calendar = new FullCalendar();
+        assertTrue(calendar.isPrefetchEnabled());
+
+        calendar.setEntryProvider(provider);
+        assertTrue(calendar.isPrefetchEnabled());
+
+        provider.setPrefetchExecutor(Runnable::run);
+        assertFalse(calendar.isPrefetchEnabled());
+
+        provider.setPrefetchExecutor(null);
+        assertTrue(calendar.isPrefetchEnabled());
+
+        // disabled, when connected with an executor, and restored, when disconnected
+        provider.setPrefetchExecutor(Runnable::run);
+        calendar.setEntryProvider(EntryProvider.emptyInMemory());
+        assertTrue(calendar.isPrefetchEnabled());
+        calendar.setEntryProvider(provider);
+        assertFalse(calendar.isPrefetchEnabled());
+
+        // a client side prefetch, that has been disabled by the application, stays disabled
+        calendar.setEntryProvider(EntryProvider.emptyInMemory());
+        calendar.setPrefetchEnabled(false);
+        calendar.setEntryProvider(provider);
+        calendar.setEntryProvider(EntryProvider.emptyInMemory());
+        assertFalse(calendar.isPrefetchEnabled());
+    }
+
+    @Test
+    void test_clientPrefetchRestoredWithoutExecutorAfterDeserialization() throws Exception {
+        CachingEntryProvider<Entry> provider = new CachingEntryProvider<>(EntryProvider.emptyInMemory());
+        provider.setPrefetchExecutor(Runnable::run);
+
+        FullCalendar calendar = new FullCalendar();
+        calendar.setEntryProvider(provider);
+        assertFalse(calendar.isPrefetchEnabled());
+
+        // the executor is not serialized, therefore the client takes over prefetching with the next rendered dates
+        FullCalendar deserialized = TestUtils.serializeAndDeserialize(calendar);
+        CachingEntryProvider<Entry> deserializedProvider = deserialized.getEntryProvider();
+        assertNull(deserializedProvider.getPrefetchExecutor());
+
+        JsonObject eventData = Json.createObject();
+        eventData.put("name", "dayGridMonth");
+        eventData.put("intervalStart", "2000-02-01");
+        eventData.put("intervalEnd", "2000-03-01");
+        eventData.put("start", "2000-01-31");
+        eventData.put("end", "2000-03-13");
+        ComponentUtil.fireEvent(deserialized, new DatesRenderedEvent(deserialized, true, eventData));
+        assertTrue(deserialized.isPrefetchEnabled());
+
+        deserializedProvider.setPrefetchExecutor(Runnable::run);
+        assertFalse(deserialized.isPrefetchEnabled());
+    }
+
+    @Test
+    void test_prefetchOnDatesRenderedUsesCalendarTimezone() {
+        CachingEntryProvider<Entry> provider = new CachingEntryProvider<>(callbackProvider, CachingEntryProvider.BucketSize.WEEK);
+        provider.setPrefetchExecutor(Runnable::run);
+
+        FullCalendar calendar = new FullCalendar();
+        calendar.setTimezone(new Timezone(ZoneId.of("Asia/Tokyo")));
+        calendar.setEntryProvider(provider);
+
+        JsonObject eventData = Json.createObject();
+        eventData.put("name", "dayGridMonth");
+        eventData.put("intervalStart", "2000-02-01");
+        eventData.put("intervalEnd", "2000-03-01");
+        eventData.put("start", "2000-01-31");
+        eventData.put("end", "2000-03-13");
+        ComponentUtil.fireEvent(calendar, new DatesRenderedEvent(calendar, true, eventData));
+
+        // the rendered local dates start 9 hours earlier in UTC
+        assertEquals(2, backendQueries.size());
+        backendQueries.clear();
+        provider.fetch(LocalDate.of(2000, 1, 2).atTime(15, 0), LocalDate.of(2000, 1, 30).atTime(15, 0)).count();
+        provider.fetch(LocalDate.of(2000, 3, 12).atTime(15, 0), LocalDate.of(2000, 4, 2).atTime(15, 0)).count();
+        assertEquals(0, backendQueries.size());
+    }
+
+    private static Set<String> toIds(Collection<Entry> entries) {
+        return entries.stream().map(Entry::getId).collect(Collectors.toSet());
+    }
+
+    private static class MutableClock extends Clock {
+        private Instant instant = Instant.EPOCH;
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return instant;
+        }
+    }
+}
@@ -0,0 +1,102 @@
+package org.vaadin.stefan.fullcalendar;
+
+import elemental.json.Json;
+import elemental.json.JsonObject;
+import org.junit.jupiter.api.Test;
+import org.vaadin.stefan.fullcalendar.dataprovider.InMemoryEntryProvider;
+import org.vaadin.stefan.fullcalendar.metrics.CalendarMetrics;
+import org.vaadin.stefan.fullcalendar.metrics.Histogram;
+import org.vaadin.stefan.fullcalendar.metrics.InMemoryCalendarMetrics;
+
+import java.time.LocalDate;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class CalendarMetricsTest {
+
+    @Test
+    void test_histogram() {
+        Histogram histogram = new Histogram();
+        assertEquals(0, histogram.getCount());
+        assertEquals(0, histogram.getMax());
+        assertEquals(0, histogram.getPercentile(50));
+
+        for (int i = 1; i <= 100; i++) {
+            histogram.record(i);
+        }
+
+        assertEquals(100, histogram.getCount());
+        assertEquals(5050, histogram.getSum());
+        assertEquals(1, histogram.getMin());
+        assertEquals(100, histogram.getMax());
+        assertEquals(50.5, histogram.getMean());
+
+        // percentiles are approximated by the upper bound of power of two buckets
+        long median = histogram.getPercentile(50);
+        assertTrue(median >= 50 && median < 100, String.valueOf(median));
+        assertEquals(100, histogram.getPercentile(100));
+        assertThrows(IllegalArgumentException.class, () -> histogram.getPercentile(101));
+
+        histogram.reset();
+        assertEquals(0, histogram.getCount());
+    }
+
+    @Test
+    void test_calendarMeasurements() {
+        FullCalendar calendar = new FullCalendar();
+        assertSame(CalendarMetrics.noop(), calendar.getMetrics());
+
+        InMemoryCalendarMetrics metrics = new InMemoryCalendarMetrics();
+        calendar.setMetrics(metrics);
+        calendar.setId("calendar");
+
+        Entry entry = new Entry("1");
+        entry.setStart(LocalDate.of(2000, 1, 1).atTime(10, 0));
+        entry.setEnd(LocalDate.of(2000, 1, 1).atTime(11, 0));
+        calendar.setEntryProvider(InMemoryEntryProvider.from(entry, new Entry("2")));
+
+        JsonObject query = Json.createObject();
+        query.put("start", JsonUtils.formatClientSideDateTimeString(LocalDate.of(2000, 1, 1).atStartOfDay()));
+        query.put("end", JsonUtils.formatClientSideDateTimeString(LocalDate.of(2000, 1, 2).atStartOfDay()));
+        String json = calendar.fetchEntriesFromServerAsString(query);
+
+        Histogram entries = metrics.getHistogram(InMemoryCalendarMetrics.FETCH_ENTRIES).orElseThrow(AssertionError::new);
+        assertEquals(1, entries.getCount());
+        assertEquals(1, entries.getSum());
+        assertEquals(json.length(), metrics.getHistogram(InMemoryCalendarMetrics.FETCH_JSON_LENGTH).orElseThrow(AssertionError::new).getSum());
+        assertEquals(24, metrics.getHistogram(InMemoryCalendarMetrics.FETCH_RANGE_HOURS).orElseThrow(AssertionError::new).getSum());
+        assertEquals(1, metrics.getHistogram(InMemoryCalendarMetrics.FETCH_DURATION).orElseThrow(AssertionError::new).getCount());
+
+        calendar.setOption(FullCalendar.Option.WEEK_NUMBERS, true);
+        assertEquals(1, metrics.getHistogram(InMemoryCalendarMetrics.OPTION_DURATION).orElseThrow(AssertionError::new).getCount());
+
+        // recorded per calendar id
+        assertTrue(metrics.getCalendarKeys().contains("calendar"));
+        assertEquals(1, metrics.getHistogram("calendar", InMemoryCalendarMetrics.FETCH_ENTRIES).orElseThrow(AssertionError::new).getCount());
+
+        metrics.reset();
+        assertTrue(metrics.getHistograms().isEmpty());
+    }
+
+    @Test
+    void test_serializedCalendarReferencesMetricsById() throws Exception {
+        InMemoryCalendarMetrics metrics = new InMemoryCalendarMetrics();
+        FullCalendar calendar = new FullCalendar();
+        calendar.setMetrics(metrics);
+        calendar.setEntryProvider(InMemoryEntryProvider.from(new Entry("1")));
+
+        // the recorded values are not serialized with the calendar
+        calendar.fetchEntriesFromServerAsString(Json.createObject());
+        int size = TestUtils.serialize(calendar).length;
+        calendar.fetchEntriesFromServerAsString(Json.createObject());
+        assertEquals(size, TestUtils.serialize(calendar).length);
+
+        // a deserialized calendar records into the same instance
+        FullCalendar deserialized = TestUtils.serializeAndDeserialize(calendar);
+        assertSame(metrics, deserialized.getMetrics());
+        deserialized.fetchEntriesFromServerAsString(Json.createObject());
+        assertEquals(3, metrics.getHistogram(InMemoryCalendarMetrics.FETCH_ENTRIES).orElseThrow(AssertionError::new).getCount());
+
+        assertThrows(IllegalStateException.class, () -> new InMemoryCalendarMetrics(metrics.getId(), c -> null));
+    }
+}
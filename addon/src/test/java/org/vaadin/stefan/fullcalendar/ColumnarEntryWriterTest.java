@@ -0,0 +1,130 @@
+package org.vaadin.stefan.fullcalendar;
+
+import elemental.json.*;
+import org.junit.jupiter.api.Test;
+import org.vaadin.stefan.fullcalendar.dataprovider.InMemoryEntryProvider;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ColumnarEntryWriterTest {
+
+    private static final LocalDateTime BASE = LocalDateTime.of(2000, 1, 1, 0, 0);
+    private static final String[] COLORS = {"red", "green", "blue", "#ff8800"};
+
+    private static List<Entry> createEntries(int count) {
+        List<Entry> entries = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            Entry entry = new Entry(String.valueOf(i));
+            entry.setTitle("Entry " + i);
+            entry.setStart(BASE.plusHours(i));
+            entry.setEnd(BASE.plusHours(i).plusMinutes(45));
+            entry.setColor(COLORS[i % COLORS.length]);
+            entry.setGroupId("group-" + (i % 3));
+            entry.addClassNames("entry", "entry-" + (i % 2));
+            entries.add(entry);
+        }
+        return entries;
+    }
+
+    /**
+     * Decodes the columnar json the same way as the client does.
+     */
+    private static List<JsonObject> decode(String json) {
+        JsonObject data = Json.parse(json);
+        int count = (int) data.getNumber("count");
+        long base = (long) data.getNumber("base");
+
+        List<JsonObject> objects = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            objects.add(Json.createObject());
+        }
+
+        JsonArray columns = data.getArray("columns");
+        for (int c = 0; c < columns.length(); c++) {
+            JsonObject column = columns.getObject(c);
+            String name = column.getString("name");
+            for (int i = 0; i < count; i++) {
+                JsonValue value;
+                if (column.hasKey("value")) {
+                    value = column.get("value");
+                } else {
+                    value = column.getArray("values").get(i);
+                    if (value instanceof JsonNull) {
+                        continue;
+                    }
+
+                    if (column.hasKey("dictionary")) {
+                        value = column.getArray("dictionary").get((int) value.asNumber());
+                    } else if (column.hasKey("unit")) {
+                        long epochSecond = base + (long) value.asNumber() * (long) column.getNumber("unit");
+                        value = Json.create(JsonUtils.formatClientSideDateTimeString(LocalDateTime.ofEpochSecond(epochSecond, 0, ZoneOffset.UTC)));
+                    }
+                }
+
+                objects.get(i).put(name, value);
+            }
+        }
+
+        return objects;
+    }
+
+    private static void assertJsonEquals(JsonObject expected, JsonObject actual) {
+        assertEquals(new HashSet<>(Arrays.asList(expected.keys())), new HashSet<>(Arrays.asList(actual.keys())));
+        for (String key : expected.keys()) {
+            assertEquals(expected.get(key).toJson(), actual.get(key).toJson(), key);
+        }
+    }
+
+    @Test
+    void test_roundtrip() {
+        List<Entry> entries = createEntries(10);
+        entries.get(3).setEnd((LocalDateTime) null);
+        entries.get(4).setStart(BASE.minusSeconds(30)); // not full minutes
+        entries.get(5).setCustomProperty("key", "value");
+        entries.get(6).setEnd(BASE.plusNanos(1)); // not representable as offset
+
+        Entry recurring = new Entry("recurring");
+        recurring.setRecurringStartTime(RecurringTime.of(10));
+        entries.add(recurring);
+
+        ColumnarEntryWriter writer = new ColumnarEntryWriter(BASE);
+        for (Entry entry : entries) {
+            writer.write(entry);
+        }
+        assertEquals(entries.size(), writer.getCount());
+
+        List<JsonObject> decoded = decode(writer.toJson());
+        for (int i = 0; i < entries.size(); i++) {
+            assertJsonEquals(entries.get(i).toJson(), decoded.get(i));
+        }
+    }
+
+    @Test
+    void test_calendarFetch() {
+        List<Entry> entries = createEntries(1000);
+
+        FullCalendar calendar = new FullCalendar();
+        calendar.setEntryProvider(InMemoryEntryProvider.from(entries));
+
+        JsonObject query = Json.createObject();
+        query.put("start", JsonUtils.formatClientSideDateTimeString(BASE));
+        query.put("end", JsonUtils.formatClientSideDateTimeString(BASE.plusYears(1)));
+
+        String json = calendar.fetchEntriesFromServerAsString(query);
+
+        assertFalse(calendar.isColumnarEntryEncoding());
+        calendar.setColumnarEntryEncoding(true);
+        entries.forEach(entry -> entry.setTitle(entry.getTitle() + "!"));
+
+        String columnarJson = calendar.fetchEntriesFromServerAsString(query);
+        assertTrue(columnarJson.length() * 3 < json.length(), columnarJson.length() + " / " + json.length());
+        assertEquals(1000, decode(columnarJson).size());
+
+        // entries sent in the columnar format count as synchronized
+        assertEquals(0, calendar.createEntryRefreshes(entries).length());
+    }
+}
@@ -0,0 +1,111 @@
+package org.vaadin.stefan.fullcalendar;
+
+import org.junit.jupiter.api.Test;
+import org.vaadin.stefan.fullcalendar.dataprovider.ConcurrentInMemoryEntryProvider;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ConcurrentInMemoryEntryProviderTest {
+
+    @Test
+    void test_parallelMutationAndFetch() throws Exception {
+        ConcurrentInMemoryEntryProvider<Entry> provider = new ConcurrentInMemoryEntryProvider<>();
+        LocalDateTime ref = LocalDate.of(2000, 1, 1).atStartOfDay();
+
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int t = 0; t < 4; t++) {
+                int thread = t;
+                futures.add(executor.submit(() -> {
+                    for (int i = 0; i < 1000; i++) {
+                        Entry entry = new Entry(thread + "-" + i);
+                        entry.setStart(ref.plusHours(i));
+                        entry.setEnd(ref.plusHours(i + 1));
+                        provider.addEntry(entry);
+
+                        // readers must not fail while other threads are writing
+                        provider.fetch(ref, ref.plusDays(1)).count();
+
+                        if (i % 2 == 0) {
+                            provider.removeEntry(entry);
+                        }
+                    }
+                }));
+            }
+
+            for (Future<?> future : futures) {
+                future.get(30, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertEquals(2000, provider.getEntries().size());
+    }
+
+    @Test
+    void test_refreshesWithoutUi() {
+        ConcurrentInMemoryEntryProvider<Entry> provider = new ConcurrentInMemoryEntryProvider<>();
+
+        AtomicInteger refreshAllCount = new AtomicInteger();
+        List<Entry> refreshedItems = new ArrayList<>();
+        provider.addEntriesChangeListener(event -> refreshAllCount.incrementAndGet());
+        provider.addEntryRefreshListener(event -> refreshedItems.add(event.getItemToRefresh()));
+
+        // without an attached calendar, refreshes are handled directly
+        Entry entry = new Entry();
+        provider.refreshItem(entry);
+        assertEquals(Collections.singletonList(entry), refreshedItems);
+        assertEquals(0, refreshAllCount.get());
+
+        provider.refreshAll();
+        assertEquals(1, refreshAllCount.get());
+        assertEquals(1, refreshedItems.size());
+    }
+
+    @Test
+    void test_parallelRefreshesWithoutUiAreNotifiedSequentially() throws Exception {
+        ConcurrentInMemoryEntryProvider<Entry> provider = new ConcurrentInMemoryEntryProvider<>();
+
+        AtomicInteger notifying = new AtomicInteger();
+        AtomicInteger maxNotifying = new AtomicInteger();
+        Set<Entry> refreshedItems = ConcurrentHashMap.newKeySet();
+        provider.addEntryRefreshListener(event -> {
+            maxNotifying.accumulateAndGet(notifying.incrementAndGet(), Math::max);
+            refreshedItems.add(event.getItemToRefresh());
+            Thread.yield();
+            notifying.decrementAndGet();
+        });
+
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        List<Entry> entries = new ArrayList<>();
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int t = 0; t < 4; t++) {
+                List<Entry> threadEntries = new ArrayList<>();
+                for (int i = 0; i < 1000; i++) {
+                    threadEntries.add(new Entry());
+                }
+                entries.addAll(threadEntries);
+                futures.add(executor.submit(() -> threadEntries.forEach(provider::refreshItem)));
+            }
+
+            for (Future<?> future : futures) {
+                future.get(30, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        // only one thread notifies the listeners at a time and no refresh is lost
+        assertEquals(1, maxNotifying.get());
+        assertEquals(new HashSet<>(entries), refreshedItems);
+    }
+}
@@ -0,0 +1,128 @@
+package org.vaadin.stefan.fullcalendar;
+
+import elemental.json.Json;
+import elemental.json.JsonObject;
+import org.junit.jupiter.api.Test;
+import org.vaadin.stefan.fullcalendar.dataprovider.DailyEntryAggregation;
+import org.vaadin.stefan.fullcalendar.dataprovider.EntryQuery;
+import org.vaadin.stefan.fullcalendar.dataprovider.InMemoryEntryProvider;
+
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.*;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.vaadin.stefan.fullcalendar.TestUtils.createEntry;
+
+public class DailyEntryAggregationTest {
+
+    private static final LocalDate DAY = LocalDate.of(2000, 1, 3);
+
+    private static Set<String> ids(Collection<? extends Entry> entries) {
+        return entries.stream().map(Entry::getId).collect(Collectors.toSet());
+    }
+
+    private static long countFetched(FullCalendar calendar) {
+        return Stream.concat(Stream.iterate(0, i -> i + 1).limit(50).map(String::valueOf), Stream.of("other day"))
+                .filter(id -> calendar.getCachedEntryFromFetch(id).isPresent())
+                .count();
+    }
+
+    @Test
+    void test_aggregate() {
+        List<Entry> entries = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            entries.add(createEntry("day-" + i, DAY.atTime(8 + i, 0), DAY.atTime(9 + i, 0)));
+        }
+
+        // covers both days, is kept for the first day and thus not counted as hidden for the second day
+        entries.add(createEntry("multi", DAY.atStartOfDay(), DAY.plusDays(2).atStartOfDay()));
+
+        Entry allDay = createEntry("allDay", DAY.plusDays(1).atStartOfDay(), DAY.plusDays(2).atStartOfDay());
+        allDay.setAllDay(true);
+        entries.add(allDay);
+
+        Entry recurring = new Entry("recurring");
+        recurring.setRecurringStartTime(RecurringTime.of(10));
+        recurring.setRecurringEndTime(RecurringTime.of(11));
+        entries.add(recurring);
+
+        EntryQuery query = new EntryQuery(DAY.atStartOfDay(), DAY.plusDays(7).atStartOfDay());
+        DailyEntryAggregation<Entry> aggregation = DailyEntryAggregation.aggregate(entries.stream(), query, 2, Timezone.UTC);
+
+        assertEquals(new HashSet<>(Arrays.asList("multi", "day-0", "day-1", "allDay", "recurring")), ids(aggregation.getEntries()));
+        assertEquals(Collections.singletonMap(DAY, 8), aggregation.getHiddenEntryCounts());
+
+        // days are based on the timezone, the late entries of the day move to the next one
+        Timezone tokyo = new Timezone(ZoneId.of("Asia/Tokyo"));
+        aggregation = DailyEntryAggregation.aggregate(entries.stream(), query, 2, tokyo);
+        Map<LocalDate, Integer> expected = new HashMap<>();
+        expected.put(DAY, 5);
+        expected.put(DAY.plusDays(1), 2);
+        assertEquals(expected, aggregation.getHiddenEntryCounts());
+        assertTrue(DailyEntryAggregation.covers(entries.get(9), DAY.plusDays(1), tokyo));
+        assertFalse(DailyEntryAggregation.covers(entries.get(9), DAY, tokyo));
+        assertFalse(DailyEntryAggregation.covers(recurring, DAY, tokyo));
+    }
+
+    @Test
+    void test_orderFollowsTimezone() {
+        Timezone tokyo = new Timezone(ZoneId.of("Asia/Tokyo"));
+
+        Entry allDay = createEntry("allDay", DAY.plusDays(1).atStartOfDay(), DAY.plusDays(2).atStartOfDay());
+        allDay.setAllDay(true);
+
+        // starts and ends at the same local time as the all day entry, but starts earlier in utc
+        Entry timed = createEntry("timed", DAY.atTime(15, 0), DAY.plusDays(1).atTime(15, 0));
+
+        // starts on the previous local day
+        Entry overnight = createEntry("overnight", DAY.atTime(14, 0), DAY.atTime(16, 0));
+
+        List<Entry> entries = Arrays.asList(timed, allDay, overnight);
+        List<Entry> sorted = new ArrayList<>(entries);
+        sorted.sort(DailyEntryAggregation.createOrder(tokyo));
+        assertEquals(Arrays.asList(overnight, allDay, timed), sorted);
+
+        EntryQuery query = new EntryQuery(DAY.atStartOfDay(), DAY.plusDays(7).atStartOfDay());
+        DailyEntryAggregation<Entry> aggregation = DailyEntryAggregation.aggregate(entries.stream(), query, 1, tokyo);
+        assertEquals(new HashSet<>(Arrays.asList("overnight", "allDay")), ids(aggregation.getEntries()));
+        assertEquals(Collections.singletonMap(DAY.plusDays(1), 1), aggregation.getHiddenEntryCounts());
+    }
+
+    @Test
+    void test_calendarFetchesHiddenEntriesOnDemand() {
+        InMemoryEntryProvider<Entry> provider = InMemoryEntryProvider.from(Stream.iterate(0, i -> i + 1)
+                .limit(50)
+                .map(i -> createEntry(String.valueOf(i), DAY.atTime(8, i), DAY.atTime(9, i)))
+                .collect(Collectors.toList()));
+        provider.addEntry(createEntry("other day", DAY.plusDays(1).atTime(8, 0), DAY.plusDays(1).atTime(9, 0)));
+
+        FullCalendar calendar = new FullCalendar();
+        calendar.setTimezone(Timezone.UTC);
+        calendar.setEntryProvider(provider);
+        calendar.setMaxEntriesPerDayAggregated(3);
+        assertEquals(Optional.of(3), calendar.getMaxEntriesPerDayAggregated());
+        assertTrue(calendar.getElement().getProperty("entryAggregationEnabled", false));
+
+        JsonObject query = Json.createObject();
+        query.put("start", JsonUtils.formatClientSideDateTimeString(DAY.atStartOfDay()));
+        query.put("end", JsonUtils.formatClientSideDateTimeString(DAY.plusDays(7).atStartOfDay()));
+
+        String aggregatedJson = calendar.fetchEntriesFromServerAsString(query);
+        assertEquals(5, countFetched(calendar));
+        assertEquals(Collections.singletonMap(DAY, 46), calendar.getHiddenEntryCounts());
+
+        calendar.fetchHiddenEntries(DAY);
+        assertEquals(51, countFetched(calendar));
+        assertTrue(calendar.getHiddenEntryCounts().isEmpty());
+
+        calendar.setMaxEntriesPerDay(3);
+        assertFalse(calendar.getMaxEntriesPerDayAggregated().isPresent());
+        assertFalse(calendar.getElement().getProperty("entryAggregationEnabled", true));
+        String json = calendar.fetchEntriesFromServerAsString(query);
+        assertEquals(51, countFetched(calendar));
+        assertTrue(aggregatedJson.length() * 5 < json.length());
+    }
+}
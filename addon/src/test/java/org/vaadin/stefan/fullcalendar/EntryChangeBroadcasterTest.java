@@ -0,0 +1,137 @@
+package org.vaadin.stefan.fullcalendar;
+
+import com.vaadin.flow.component.ComponentUtil;
+import com.vaadin.flow.shared.Registration;
+import org.junit.jupiter.api.Test;
+import org.vaadin.stefan.fullcalendar.dataprovider.CallbackEntryProvider;
+import org.vaadin.stefan.fullcalendar.dataprovider.EntriesChangeEvent;
+import org.vaadin.stefan.fullcalendar.dataprovider.EntryChangeBroadcaster;
+import org.vaadin.stefan.fullcalendar.dataprovider.EntryProvider;
+
+import java.time.Duration;
+import java.util.*;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class EntryChangeBroadcasterTest {
+
+    private final Map<String, Entry> backend = new HashMap<>();
+
+    @Test
+    void test_coalescedDelivery() {
+        try (EntryChangeBroadcaster<Entry> broadcaster = new EntryChangeBroadcaster<>(Duration.ofHours(1))) {
+            List<EntriesChangeEvent<Entry>> events1 = new ArrayList<>();
+            List<EntriesChangeEvent<Entry>> events2 = new ArrayList<>();
+            FullCalendar calendar1 = createSubscribedCalendar(broadcaster, events1);
+            FullCalendar calendar2 = createSubscribedCalendar(broadcaster, events2);
+
+            Entry entry1 = new Entry("1");
+            Entry entry2 = new Entry("2");
+            Entry entry3 = new Entry("3");
+
+            broadcaster.publishAdded(Arrays.asList(entry1, entry2));
+            broadcaster.publishRemoved(Collections.singletonList(entry2)); // added and removed, nothing to deliver
+            broadcaster.publishUpdated(Collections.singletonList(entry1)); // added and updated, still added
+            broadcaster.publishUpdated(Collections.singletonList(entry3));
+            broadcaster.publishUpdated(Collections.singletonList(entry3));
+
+            // nothing is delivered before the window has passed
+            assertTrue(events1.isEmpty());
+
+            broadcaster.flush();
+            for (List<EntriesChangeEvent<Entry>> events : Arrays.asList(events1, events2)) {
+                assertEquals(1, events.size());
+                EntriesChangeEvent<Entry> event = events.get(0);
+                assertEquals(Collections.singleton("1"), toIds(event.getAddedEntries()));
+                assertEquals(Collections.singleton("3"), toIds(event.getUpdatedEntries()));
+                assertTrue(event.getRemovedEntries().isEmpty());
+            }
+
+            // nothing pending
+            broadcaster.flush();
+            assertEquals(1, events1.size());
+
+            // detached calendars do not receive changes
+            ComponentUtil.onComponentDetach(calendar2);
+            assertEquals(1, broadcaster.getAttachedSubscriberCount());
+
+            broadcaster.publishUpdated(Collections.singletonList(entry3));
+            broadcaster.publishRefreshAll(); // supersedes other changes
+            broadcaster.flush();
+            assertEquals(2, events1.size());
+            assertFalse(events1.get(1).hasChangeDetails());
+            assertEquals(1, events2.size());
+        }
+    }
+
+    @Test
+    void test_directDelivery() {
+        try (EntryChangeBroadcaster<Entry> broadcaster = new EntryChangeBroadcaster<>(Duration.ZERO)) {
+            List<EntriesChangeEvent<Entry>> events = new ArrayList<>();
+            createSubscribedCalendar(broadcaster, events);
+
+            broadcaster.publishRemoved(Collections.singletonList(new Entry("1")));
+            assertEquals(1, events.size());
+            assertEquals(Collections.singleton("1"), toIds(events.get(0).getRemovedEntries()));
+        }
+    }
+
+    @Test
+    void test_unsubscribe() {
+        try (EntryChangeBroadcaster<Entry> broadcaster = new EntryChangeBroadcaster<>(Duration.ZERO)) {
+            FullCalendar calendar = new FullCalendar();
+            Registration registration = broadcaster.subscribe(calendar);
+            ComponentUtil.onComponentAttach(calendar, true);
+            assertEquals(1, broadcaster.getAttachedSubscriberCount());
+
+            registration.remove();
+            assertEquals(0, broadcaster.getAttachedSubscriberCount());
+
+            // the attach listener has been removed, too
+            ComponentUtil.onComponentAttach(calendar, false);
+            assertEquals(0, broadcaster.getAttachedSubscriberCount());
+        }
+    }
+
+    @Test
+    void test_serializeSubscribedCalendar() throws Exception {
+        try (EntryChangeBroadcaster<Entry> broadcaster = new EntryChangeBroadcaster<>(Duration.ZERO)) {
+            FullCalendar calendar = new FullCalendar();
+            calendar.setEntryProvider(EntryProvider.inMemoryFrom(new Entry("1")));
+            Registration registration = broadcaster.subscribe(calendar);
+            ComponentUtil.onComponentAttach(calendar, true);
+
+            // the broadcaster is not serialized with the calendar, the deserialized calendar is subscribed, too
+            FullCalendar deserialized = TestUtils.serializeAndDeserialize(calendar);
+            assertEquals(2, broadcaster.getAttachedSubscriberCount());
+
+            List<EntriesChangeEvent<Entry>> events = new ArrayList<>();
+            EntryProvider<Entry> provider = deserialized.getEntryProvider();
+            provider.addEntriesChangeListener(events::add);
+            broadcaster.publishUpdated(Collections.singletonList(new Entry("1")));
+            assertEquals(1, events.size());
+            assertEquals(Collections.singleton("1"), toIds(events.get(0).getUpdatedEntries()));
+
+            registration.remove();
+            assertEquals(1, broadcaster.getAttachedSubscriberCount());
+            ComponentUtil.onComponentDetach(deserialized);
+            assertEquals(0, broadcaster.getAttachedSubscriberCount());
+        }
+    }
+
+    private FullCalendar createSubscribedCalendar(EntryChangeBroadcaster<Entry> broadcaster, List<EntriesChangeEvent<Entry>> events) {
+        CallbackEntryProvider<Entry> provider = EntryProvider.fromCallbacks(query -> query.applyFilter(backend.values().stream()), backend::get);
+        provider.addEntriesChangeListener(events::add);
+
+        FullCalendar calendar = new FullCalendar();
+        calendar.setEntryProvider(provider);
+        broadcaster.subscribe(calendar);
+        ComponentUtil.onComponentAttach(calendar, true);
+        return calendar;
+    }
+
+    private static Set<String> toIds(Collection<Entry> entries) {
+        return entries.stream().map(Entry::getId).collect(Collectors.toSet());
+    }
+}
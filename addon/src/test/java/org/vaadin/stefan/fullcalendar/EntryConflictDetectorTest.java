@@ -0,0 +1,96 @@
+package org.vaadin.stefan.fullcalendar;
+
+import org.junit.jupiter.api.Test;
+import org.vaadin.stefan.fullcalendar.dataprovider.Conflict;
+import org.vaadin.stefan.fullcalendar.dataprovider.EntryConflictDetector;
+import org.vaadin.stefan.fullcalendar.dataprovider.IndexedInMemoryEntryProvider;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.vaadin.stefan.fullcalendar.TestUtils.createEntry;
+
+public class EntryConflictDetectorTest {
+
+    // 2000-01-03 is a monday
+    private static final LocalDateTime MONDAY = LocalDate.of(2000, 1, 3).atStartOfDay();
+
+    @Test
+    void test_singleEntry() {
+        Entry morning = createEntry("morning", MONDAY.plusHours(8), MONDAY.plusHours(10));
+        Entry noon = createEntry("noon", MONDAY.plusHours(12), MONDAY.plusHours(13));
+        Entry background = createEntry("background", MONDAY, MONDAY.plusDays(1));
+        background.setDisplayMode(DisplayMode.BACKGROUND);
+
+        EntryConflictDetector<Entry> detector = new EntryConflictDetector<>(IndexedInMemoryEntryProvider.from(morning, noon, background));
+
+        // a changed copy of an existing entry does not conflict with itself
+        assertFalse(detector.hasConflict(createEntry("morning", MONDAY.plusHours(9), MONDAY.plusHours(11))));
+        assertFalse(detector.hasConflict(createEntry("new", MONDAY.plusHours(10), MONDAY.plusHours(12))));
+
+        List<Conflict<Entry>> conflicts = detector.getConflicts(createEntry("new", MONDAY.plusHours(9), MONDAY.plusHours(12).plusMinutes(30)));
+        assertEquals(2, conflicts.size());
+        assertEquals("new", conflicts.get(0).getFirst().getEntry().getId());
+        assertEquals("morning", conflicts.get(0).getSecond().getEntry().getId());
+        assertEquals(MONDAY.plusHours(9), conflicts.get(0).getOverlapStart());
+        assertEquals(MONDAY.plusHours(10), conflicts.get(0).getOverlapEnd());
+        assertEquals("noon", conflicts.get(1).getSecond().getEntry().getId());
+
+        // recurring entries need a timespan
+        Entry series = new Entry("series");
+        series.setRecurringDaysOfWeek(DayOfWeek.MONDAY);
+        series.setRecurringStartTime(RecurringTime.of(12, 30));
+        series.setRecurringEndTime(RecurringTime.of(14));
+        assertThrows(IllegalArgumentException.class, () -> detector.hasConflict(series));
+        assertTrue(detector.hasConflict(series, MONDAY, MONDAY.plusWeeks(1)));
+        assertFalse(detector.hasConflict(series, MONDAY.plusDays(1), MONDAY.plusWeeks(1)));
+    }
+
+    @Test
+    void test_conflictsInRange() {
+        Entry series = new Entry("series");
+        series.setRecurringDaysOfWeek(DayOfWeek.MONDAY, DayOfWeek.TUESDAY);
+        series.setRecurringStartTime(RecurringTime.of(9));
+        series.setRecurringEndTime(RecurringTime.of(10));
+
+        IndexedInMemoryEntryProvider<Entry> provider = IndexedInMemoryEntryProvider.from(
+                series,
+                createEntry("a", MONDAY.plusHours(8), MONDAY.plusHours(12)),
+                createEntry("b", MONDAY.plusHours(11), MONDAY.plusHours(13)),
+                createEntry("c", MONDAY.plusDays(1).plusHours(10), MONDAY.plusDays(1).plusHours(11)), // touches only
+                createEntry("d", MONDAY.plusDays(2).plusHours(9), MONDAY.plusDays(2).plusHours(10))
+        );
+
+        EntryConflictDetector<Entry> detector = new EntryConflictDetector<>(provider);
+
+        List<String> pairs = detector.getConflicts(MONDAY, MONDAY.plusWeeks(1)).stream()
+                .map(c -> c.getFirst().getEntry().getId() + "-" + c.getSecond().getEntry().getId())
+                .collect(Collectors.toList());
+        assertEquals(2, pairs.size());
+        assertTrue(pairs.contains("a-series"));
+        assertTrue(pairs.contains("a-b"));
+
+        assertTrue(detector.hasConflicts(MONDAY, MONDAY.plusDays(1)));
+        assertFalse(detector.hasConflicts(MONDAY.plusDays(1), MONDAY.plusWeeks(1)));
+    }
+
+    @Test
+    void test_largeAmountOfEntries() {
+        List<Entry> entries = new ArrayList<>();
+        for (int i = 0; i < 100_000; i++) {
+            LocalDateTime start = MONDAY.plusHours(i);
+            entries.add(createEntry(String.valueOf(i), start, start.plusMinutes(30)));
+        }
+
+        EntryConflictDetector<Entry> detector = new EntryConflictDetector<>(IndexedInMemoryEntryProvider.from(entries));
+
+        LocalDateTime start = MONDAY.plusHours(50_000);
+        assertFalse(detector.hasConflict(createEntry("new", start.plusMinutes(30), start.plusMinutes(60))));
+        assertEquals(3, detector.getConflicts(createEntry("new", start, start.plusHours(2).plusMinutes(15))).size());
+    }
+}
@@ -556,4 +556,97 @@ public class EntryTest {
         assertEquals(DisplayMode.AUTO, entry.getDisplayMode());
     }
 
-}
\ No newline at end of file
+    @Test
+    void testToJsonChanges() {
+        FullCalendar calendar = new FullCalendar();
+
+        Entry entry = new Entry("1");
+        entry.setTitle(DEFAULT_TITLE);
+        entry.setStart(DEFAULT_START);
+        entry.setColor(DEFAULT_COLOR);
+        entry.setCustomProperty("key", "value");
+
+        // not yet synchronized
+        assertNull(entry.toJsonChanges(calendar));
+
+        entry.markAsSynchronized(calendar);
+        assertEquals(Collections.singletonList(Fields.ID), Arrays.asList(entry.toJsonChanges(calendar).keys()));
+
+        entry.setTitle(DEFAULT_STRING);
+        entry.setColor(null);
+        entry.setEnd(DEFAULT_END);
+        entry.getCustomProperties().put("key", "changed"); // untracked, detected by its content
+
+        JsonObject changes = entry.toJsonChanges(calendar);
+        assertEquals(new HashSet<>(Arrays.asList(Fields.ID, Fields.TITLE, Fields.COLOR, Fields.END, "extendedProps")), new HashSet<>(Arrays.asList(changes.keys())));
+        assertEquals("1", changes.getString(Fields.ID));
+        assertEquals(DEFAULT_STRING, changes.getString(Fields.TITLE));
+        assertEquals(JsonUtils.formatClientSideDateTimeString(DEFAULT_END), changes.getString(Fields.END));
+        assertEquals(Json.createNull().getType(), changes.get(Fields.COLOR).getType());
+        assertEquals("changed", changes.getObject("extendedProps").getString("key"));
+
+        // other calendars may have missed changes
+        assertNull(entry.toJsonChanges(new FullCalendar()));
+
+        // values updated from the client are synchronized already
+        entry.markAsSynchronized(calendar);
+        JsonObject clientUpdate = Json.createObject();
+        clientUpdate.put(Fields.ID, "1");
+        clientUpdate.put(Fields.START, JsonUtils.formatClientSideDateTimeString(DEFAULT_START.plusHours(1)));
+        entry.updateFromClientJson(clientUpdate, calendar);
+
+        assertEquals(DEFAULT_START.plusHours(1), entry.getStart());
+        assertEquals(Collections.singletonList(Fields.ID), Arrays.asList(entry.toJsonChanges(calendar).keys()));
+    }
+
+    @Test
+    void testApplyJsonReturnsUpdatedKeys() {
+        Entry entry = new Entry("1");
+        entry.setStart(DEFAULT_START);
+
+        JsonObject clientUpdate = Json.createObject();
+        clientUpdate.put(Fields.ID, "1");
+        clientUpdate.put(Fields.START, JsonUtils.formatClientSideDateTimeString(DEFAULT_START.plusHours(1)));
+        clientUpdate.put(Fields.TITLE, "not updateable");
+
+        assertEquals(Collections.singleton(Fields.START), entry.applyJson(clientUpdate, true));
+        assertEquals(DEFAULT_START.plusHours(1), entry.getStart());
+        assertNull(entry.getTitle());
+    }
+
+    @Test
+    void testUpdateableProperties() {
+        Entry entry = new Entry();
+        Set<String> names = entry.streamUpdateableProperties().map(BeanProperties::getName).collect(Collectors.toSet());
+        assertEquals(new HashSet<>(Arrays.asList(Fields.START, Fields.END, Fields.ALL_DAY)), names);
+
+        // the codec is shared between instances of the same type
+        assertSame(EntryJsonCodec.of(entry), EntryJsonCodec.of(new Entry()));
+    }
+
+    @Test
+    void testAppendJsonMatchesToJson() {
+        Entry entry = new Entry("1");
+        entry.setTitle("Title with \"quotes\" and \\ backslash\n");
+        entry.setStart(DEFAULT_START);
+        entry.setEnd(DEFAULT_END);
+        entry.setColor(DEFAULT_COLOR);
+        entry.setDisplayMode(DisplayMode.BACKGROUND);
+        entry.setRecurringDaysOfWeek(DayOfWeek.MONDAY, DayOfWeek.FRIDAY);
+        entry.setRecurringStartTime(RecurringTime.of(10, 30));
+        entry.addClassNames("a", "b");
+        entry.setCustomProperty("number", 5);
+        entry.setCustomProperty("text", "value");
+
+        StringBuilder builder = new StringBuilder();
+        entry.appendJson(builder);
+
+        JsonObject parsed = Json.parse(builder.toString());
+        JsonObject expected = entry.toJson();
+        assertEquals(new HashSet<>(Arrays.asList(expected.keys())), new HashSet<>(Arrays.asList(parsed.keys())));
+        for (String key : expected.keys()) {
+            assertEquals(expected.get(key).toJson(), parsed.get(key).toJson(), key);
+        }
+    }
+
+}
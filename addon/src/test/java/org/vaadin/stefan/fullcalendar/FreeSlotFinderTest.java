@@ -0,0 +1,98 @@
+package org.vaadin.stefan.fullcalendar;
+
+import org.junit.jupiter.api.Test;
+import org.vaadin.stefan.fullcalendar.dataprovider.FreeSlotFinder;
+import org.vaadin.stefan.fullcalendar.dataprovider.IndexedInMemoryEntryProvider;
+import org.vaadin.stefan.fullcalendar.dataprovider.RecurrenceExpander;
+import org.vaadin.stefan.fullcalendar.dataprovider.TimeSlot;
+
+import java.time.*;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.vaadin.stefan.fullcalendar.TestUtils.createEntry;
+
+public class FreeSlotFinderTest {
+
+    // 2000-01-03 is a monday
+    private static final LocalDateTime MONDAY = LocalDate.of(2000, 1, 3).atStartOfDay();
+
+    private static TimeSlot slot(LocalDateTime start, LocalDateTime end) {
+        return new TimeSlot(start, end);
+    }
+
+    @Test
+    void test_freeWindowsInsideBusinessHours() {
+        Entry lunch = new Entry("lunch");
+        lunch.setRecurringStartTime(RecurringTime.of(12));
+        lunch.setRecurringEndTime(RecurringTime.of(13));
+
+        Entry background = createEntry("background", MONDAY, MONDAY.plusWeeks(1));
+        background.setDisplayMode(DisplayMode.BACKGROUND);
+
+        IndexedInMemoryEntryProvider<Entry> provider = IndexedInMemoryEntryProvider.from(
+                lunch,
+                background,
+                createEntry("meeting", MONDAY.plusHours(9), MONDAY.plusHours(10)),
+                createEntry("overlapping", MONDAY.plusHours(9).plusMinutes(30), MONDAY.plusHours(11))
+        );
+
+        FreeSlotFinder<Entry> finder = new FreeSlotFinder<>(provider, new BusinessHours(LocalTime.of(8, 0), LocalTime.of(17, 0), BusinessHours.DEFAULT_BUSINESS_WEEK));
+
+        List<TimeSlot> windows = finder.streamFreeWindows(MONDAY, MONDAY.plusDays(2), Duration.ofMinutes(30)).collect(Collectors.toList());
+        assertEquals(Arrays.asList(
+                slot(MONDAY.plusHours(8), MONDAY.plusHours(9)),
+                slot(MONDAY.plusHours(11), MONDAY.plusHours(12)),
+                slot(MONDAY.plusHours(13), MONDAY.plusHours(17)),
+                slot(MONDAY.plusDays(1).plusHours(8), MONDAY.plusDays(1).plusHours(12)),
+                slot(MONDAY.plusDays(1).plusHours(13), MONDAY.plusDays(1).plusHours(17))
+        ), windows);
+
+        // the weekend is skipped
+        List<TimeSlot> slots = finder.findFreeSlots(MONDAY.plusDays(4).plusHours(16), MONDAY.plusWeeks(2), Duration.ofHours(2), 3);
+        assertEquals(Arrays.asList(
+                slot(MONDAY.plusWeeks(1).plusHours(8), MONDAY.plusWeeks(1).plusHours(10)),
+                slot(MONDAY.plusWeeks(1).plusHours(10), MONDAY.plusWeeks(1).plusHours(12)),
+                slot(MONDAY.plusWeeks(1).plusHours(13), MONDAY.plusWeeks(1).plusHours(15))
+        ), slots);
+    }
+
+    @Test
+    void test_lazySearch() {
+        IndexedInMemoryEntryProvider<Entry> backend = IndexedInMemoryEntryProvider.from(
+                createEntry("1", MONDAY.plusHours(1), MONDAY.plusHours(2))
+        );
+
+        // without business hours, the windows of adjacent days and weeks are merged
+        List<TimeSlot> windows = new FreeSlotFinder<>(backend).streamFreeWindows(MONDAY, MONDAY.plusYears(1), Duration.ofHours(1)).collect(Collectors.toList());
+        assertEquals(Arrays.asList(slot(MONDAY, MONDAY.plusHours(1)), slot(MONDAY.plusHours(2), MONDAY.plusYears(1))), windows);
+
+        AtomicInteger fetches = new AtomicInteger();
+        FreeSlotFinder<Entry> finder = new FreeSlotFinder<Entry>(backend, new BusinessHours(LocalTime.of(8, 0), LocalTime.of(17, 0))) {
+            @Override
+            protected Stream<? extends Entry> fetchOccupyingEntries(LocalDateTime start, LocalDateTime end) {
+                fetches.incrementAndGet();
+                return super.fetchOccupyingEntries(start, end);
+            }
+        };
+
+        // the search stops with the first found slots
+        assertEquals(3, finder.findFreeSlots(MONDAY, MONDAY.plusYears(1), Duration.ofHours(1), 3).size());
+        assertEquals(1, fetches.get());
+    }
+
+    @Test
+    void test_timezone() {
+        Timezone berlin = new Timezone(ZoneId.of("Europe/Berlin"));
+        FreeSlotFinder<Entry> finder = new FreeSlotFinder<>(IndexedInMemoryEntryProvider.from(),
+                new RecurrenceExpander<>(berlin),
+                new BusinessHours(LocalTime.of(8, 0), LocalTime.of(17, 0), DayOfWeek.MONDAY));
+
+        List<TimeSlot> windows = finder.streamFreeWindows(MONDAY, MONDAY.plusDays(1), Duration.ofHours(1)).collect(Collectors.toList());
+        assertEquals(Arrays.asList(slot(MONDAY.plusHours(7), MONDAY.plusHours(16))), windows);
+    }
+}
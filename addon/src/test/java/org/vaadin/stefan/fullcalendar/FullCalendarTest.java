@@ -1,13 +1,24 @@
 package org.vaadin.stefan.fullcalendar;
 
 import com.vaadin.flow.component.ComponentEventBusUtil;
+import com.vaadin.flow.component.UI;
+import com.vaadin.flow.component.internal.PendingJavaScriptInvocation;
+import com.vaadin.flow.component.internal.UIInternals.JavaScriptInvocation;
 import com.vaadin.flow.dom.Element;
+import com.vaadin.flow.server.Command;
+import com.vaadin.flow.server.VaadinSession;
 import elemental.json.Json;
+import elemental.json.JsonArray;
 import elemental.json.JsonObject;
+import elemental.json.JsonType;
 import org.junit.jupiter.api.BeforeAll;
 import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mockito;
 import org.vaadin.stefan.fullcalendar.FullCalendar.Option;
+import org.vaadin.stefan.fullcalendar.dataprovider.EntryProvider;
 import org.vaadin.stefan.fullcalendar.dataprovider.InMemoryEntryProvider;
+import org.vaadin.stefan.fullcalendar.metrics.InMemoryCalendarMetrics;
 
 import java.io.Serializable;
 import java.lang.reflect.Constructor;
@@ -613,4 +624,232 @@ public class FullCalendarTest {
 //        assertFalse(calendar.getCachedEntryFromFetch("3").isPresent());
 //    }
 
-}
\ No newline at end of file
+    @Test
+    void testFetchedEntriesStrategy() {
+        FullCalendar calendar = createTestCalendar();
+        InMemoryEntryProvider<Entry> provider = InMemoryEntryProvider.from(new Entry("1"), new Entry("2"), new Entry("3"));
+        calendar.setEntryProvider(provider);
+        assertEquals(FetchedEntriesStrategy.keepAll(), calendar.getFetchedEntriesStrategy());
+
+        calendar.fetchEntriesFromServerAsString(Json.createObject());
+        assertSame(provider.getEntryById("1").get(), calendar.getCachedEntryFromFetch("1").get());
+
+        // ids are kept, entries are resolved via the provider
+        calendar.setFetchedEntriesStrategy(FetchedEntriesStrategy.keepIdsOnly());
+        assertSame(provider.getEntryById("2").get(), calendar.getCachedEntryFromFetch("2").get());
+
+        calendar.setFetchedEntriesStrategy(FetchedEntriesStrategy.keepRecentlyUsed(1));
+        calendar.fetchEntriesFromServerAsString(Json.createObject());
+        assertTrue(calendar.getCachedEntryFromFetch("1").isPresent());
+        assertTrue(calendar.getCachedEntryFromFetch("2").isPresent());
+        assertTrue(calendar.getCachedEntryFromFetch("3").isPresent());
+
+        // unknown ids are not resolved
+        provider.addEntry(new Entry("4"));
+        assertFalse(calendar.getCachedEntryFromFetch("4").isPresent());
+
+        assertThrows(IllegalArgumentException.class, () -> FetchedEntriesStrategy.keepRecentlyUsed(0));
+    }
+
+    @Test
+    @SuppressWarnings("deprecation")
+    void testFetchEntriesFromServerAsJsonArray() {
+        Entry entry = new Entry("1");
+        entry.setStart(LocalDate.of(2000, 1, 1).atTime(10, 0));
+        entry.setTitle("Title");
+
+        FullCalendar calendar = createTestCalendar();
+        calendar.setEntryProvider(InMemoryEntryProvider.from(entry));
+        calendar.setColumnarEntryEncoding(true);
+
+        // the deprecated variant always returns the json array format
+        JsonArray array = calendar.fetchEntriesFromServer(Json.createObject());
+        assertEquals(1, array.length());
+        assertEquals(entry.toJson().toJson(), array.getObject(0).toJson());
+        assertSame(entry, calendar.getCachedEntryFromFetch("1").get());
+
+        calendar.setColumnarEntryEncoding(false);
+        assertEquals(array.toJson(), calendar.fetchEntriesFromServerAsString(Json.createObject()));
+    }
+
+    @Test
+    void testEntryRefreshes() {
+        LocalDateTime start = LocalDate.of(2000, 1, 1).atStartOfDay();
+
+        Entry shown = new Entry("shown");
+        shown.setStart(start.plusHours(10));
+        shown.setEnd(start.plusHours(11));
+        shown.setTitle("Title");
+
+        Entry removed = new Entry("removed");
+        removed.setStart(start.plusHours(12));
+        removed.setEnd(start.plusHours(13));
+
+        InMemoryEntryProvider<Entry> provider = InMemoryEntryProvider.from(shown, removed);
+
+        FullCalendar calendar = createTestCalendar();
+        calendar.setEntryProvider(provider);
+
+        JsonObject query = Json.createObject();
+        query.put("start", JsonUtils.formatClientSideDateTimeString(start));
+        query.put("end", JsonUtils.formatClientSideDateTimeString(start.plusDays(1)));
+        calendar.fetchEntriesFromServerAsString(query);
+
+        // nothing changed, nothing to send
+        assertEquals(0, calendar.createEntryRefreshes(Collections.singletonList(shown)).length());
+
+        // only the changes of a known instance are sent
+        shown.setTitle("Changed");
+        shown.setColor("red");
+        JsonArray refreshes = calendar.createEntryRefreshes(Collections.singletonList(shown));
+        assertEquals(1, refreshes.length());
+        JsonObject refresh = refreshes.getObject(0);
+        assertEquals("shown", refresh.getString("id"));
+        assertTrue(refresh.getBoolean("delta"));
+        assertEquals(new HashSet<>(Arrays.asList("id", "title", "color")), new HashSet<>(Arrays.asList(refresh.getObject("data").keys())));
+        assertEquals("Changed", refresh.getObject("data").getString("title"));
+
+        // entries unknown to the provider are removed
+        provider.removeEntry(removed);
+        refreshes = calendar.createEntryRefreshes(Collections.singletonList(removed));
+        assertEquals(1, refreshes.length());
+        assertEquals(JsonType.NULL, refreshes.getObject(0).get("data").getType());
+
+        // unknown entries are sent completely, when they are inside the fetched range, otherwise they are skipped
+        Entry added = new Entry("added");
+        added.setStart(start.plusHours(14));
+        added.setEnd(start.plusHours(15));
+        Entry outside = new Entry("outside");
+        outside.setStart(start.plusDays(5));
+        outside.setEnd(start.plusDays(5).plusHours(1));
+        provider.addEntries(added, outside);
+
+        refreshes = calendar.createEntryRefreshes(Arrays.asList(added, outside, new Entry("unknown")));
+        assertEquals(1, refreshes.length());
+        assertEquals("added", refreshes.getObject(0).getString("id"));
+        assertFalse(refreshes.getObject(0).getBoolean("delta"));
+        assertEquals(added.toJson().toJson(), refreshes.getObject(0).getObject("data").toJson());
+    }
+
+    @Test
+    void testEntryRefreshesOfCalendarsSharingAProvider() {
+        LocalDateTime start = LocalDate.of(2000, 1, 1).atStartOfDay();
+
+        Entry entry = new Entry("shared");
+        entry.setStart(start.plusHours(10));
+        entry.setEnd(start.plusHours(11));
+        entry.setTitle("Title");
+
+        InMemoryEntryProvider<Entry> provider = InMemoryEntryProvider.from(entry);
+
+        JsonObject query = Json.createObject();
+        query.put("start", JsonUtils.formatClientSideDateTimeString(start));
+        query.put("end", JsonUtils.formatClientSideDateTimeString(start.plusDays(1)));
+
+        FullCalendar calendar1 = createTestCalendar();
+        FullCalendar calendar2 = createTestCalendar();
+
+        // the provider is handed over between the calendars, as a provider is connected to one calendar at a time
+        calendar1.setEntryProvider(provider);
+        calendar1.fetchEntriesFromServerAsString(query);
+        calendar1.setEntryProvider(EntryProvider.emptyInMemory());
+        calendar2.setEntryProvider(provider);
+        calendar2.fetchEntriesFromServerAsString(query);
+
+        entry.setTitle("Changed");
+        JsonArray refreshes = calendar2.createEntryRefreshes(Collections.singletonList(entry));
+        assertEquals(1, refreshes.length());
+        assertTrue(refreshes.getObject(0).getBoolean("delta"));
+        assertEquals("Changed", refreshes.getObject(0).getObject("data").getString("title"));
+
+        // the entry has been synchronized with the second calendar in the meantime, so the first one cannot
+        // rely on the tracked changes and gets the whole entry
+        calendar2.setEntryProvider(EntryProvider.emptyInMemory());
+        calendar1.setEntryProvider(provider);
+        refreshes = calendar1.createEntryRefreshes(Collections.singletonList(entry));
+        assertEquals(1, refreshes.length());
+        assertFalse(refreshes.getObject(0).getBoolean("delta"));
+        assertEquals(entry.toJson().toJson(), refreshes.getObject(0).getObject("data").toJson());
+
+        // changes from the client are not sent back to the calendar, that sent them, but to the other one
+        JsonObject clientUpdate = Json.createObject();
+        clientUpdate.put("id", "shared");
+        clientUpdate.put("start", JsonUtils.formatClientSideDateTimeString(start.plusHours(12)));
+        JsonObject delta = Json.createObject();
+        delta.put("years", 0);
+        delta.put("months", 0);
+        delta.put("days", 0);
+        delta.put("milliseconds", 2 * 60 * 60 * 1000);
+        new EntryDroppedEvent(calendar1, true, clientUpdate, delta).applyChangesOnEntry();
+        assertEquals(start.plusHours(12), entry.getStart());
+        assertEquals(0, calendar1.createEntryRefreshes(Collections.singletonList(entry)).length());
+
+        calendar1.setEntryProvider(EntryProvider.emptyInMemory());
+        calendar2.setEntryProvider(provider);
+        refreshes = calendar2.createEntryRefreshes(Collections.singletonList(entry));
+        assertEquals(1, refreshes.length());
+        assertFalse(refreshes.getObject(0).getBoolean("delta"));
+        assertEquals(JsonUtils.formatClientSideDateTimeString(start.plusHours(12)), refreshes.getObject(0).getObject("data").getString("start"));
+    }
+
+    @Test
+    void testSupersededFetchesAreSkipped() {
+        FullCalendar calendar = createTestCalendar();
+        InMemoryCalendarMetrics metrics = new InMemoryCalendarMetrics();
+        calendar.setMetrics(metrics);
+
+        for (int sequence = 1; sequence <= 3; sequence++) {
+            JsonObject query = Json.createObject();
+            query.put("sequence", sequence);
+            calendar.requestEntriesFromServer(query);
+        }
+
+        // only the latest fetch is executed
+        calendar.handlePendingFetch();
+        assertEquals(1, metrics.getHistogram(InMemoryCalendarMetrics.FETCH_ENTRIES).get().getCount());
+        assertEquals(2, metrics.getHistogram(InMemoryCalendarMetrics.FETCH_SKIPPED).get().getSum());
+
+        // fetches older than the last executed one are ignored
+        JsonObject query = Json.createObject();
+        query.put("sequence", 2);
+        calendar.requestEntriesFromServer(query);
+        calendar.handlePendingFetch();
+        assertEquals(1, metrics.getHistogram(InMemoryCalendarMetrics.FETCH_ENTRIES).get().getCount());
+        assertEquals(3, metrics.getHistogram(InMemoryCalendarMetrics.FETCH_SKIPPED).get().getSum());
+    }
+
+    @Test
+    void testFailedFetchIsSentToTheClient() {
+        VaadinSession session = Mockito.mock(VaadinSession.class);
+
+        UI ui = new UI();
+        ui.getInternals().setSession(session);
+        FullCalendar calendar = createTestCalendar();
+        ui.add(calendar);
+        IllegalStateException exception = new IllegalStateException("backend not available");
+        calendar.setEntryProvider(EntryProvider.fromCallbacks(query -> {
+            throw exception;
+        }, id -> null));
+
+        JsonObject query = Json.createObject();
+        query.put("sequence", 1);
+        calendar.requestEntriesFromServer(query);
+        calendar.handlePendingFetch();
+
+        // the client receives no entries for the sequence and fails the fetch instead of waiting for it
+        ui.getInternals().getStateTree().runExecutionsBeforeClientResponse();
+        List<JavaScriptInvocation> invocations = ui.getInternals().dumpPendingJavaScriptInvocations().stream()
+                .map(PendingJavaScriptInvocation::getInvocation)
+                .filter(invocation -> invocation.getExpression().contains("receiveEntries"))
+                .collect(Collectors.toList());
+        assertEquals(1, invocations.size());
+        assertEquals(Arrays.asList(calendar.getElement(), 1.0, null, null), invocations.get(0).getParameters());
+
+        // the exception is not swallowed, but rethrown in an access command, whose exceptions are passed to the
+        // session's error handler
+        ArgumentCaptor<Command> command = ArgumentCaptor.forClass(Command.class);
+        Mockito.verify(session).access(command.capture());
+        assertSame(exception, assertThrows(IllegalStateException.class, () -> command.getValue().execute()));
+    }
+
+}
@@ -7,6 +7,7 @@ import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Disabled;
 import org.junit.jupiter.api.Test;
+import org.vaadin.stefan.fullcalendar.dataprovider.EntriesChangeEvent;
 import org.vaadin.stefan.fullcalendar.dataprovider.EntryProvider;
 import org.vaadin.stefan.fullcalendar.dataprovider.EntryQuery;
 import org.vaadin.stefan.fullcalendar.dataprovider.InMemoryEntryProvider;
@@ -173,6 +174,51 @@ public class InMemoryEntryProviderTest {
         assertTrue(entries.contains(entry3));
     }
 
+    @Test
+    void test_Batch() {
+        InMemoryEntryProvider<Entry> provider = EntryProvider.emptyInMemory();
+        provider.addEntries(entry1, entry2);
+
+        List<EntriesChangeEvent<Entry>> events = new ArrayList<>();
+        provider.addEntriesChangeListener(events::add);
+
+        Entry entry4 = new Entry("4");
+        Entry replacement2 = new Entry("2");
+        provider.batch(batch -> batch
+                .add(entry3, entry4)
+                .remove(entry4) // added and removed, no change
+                .update(entry1)
+                .remove(entry1) // updated and removed, net removal
+                .remove(entry2)
+                .add(replacement2)); // removed and added again, net update
+
+        assertEquals(1, events.size());
+        EntriesChangeEvent<Entry> event = events.get(0);
+        assertTrue(event.hasChangeDetails());
+        assertEquals(Collections.singletonList(entry3), new ArrayList<>(event.getAddedEntries()));
+        assertEquals(Collections.singletonList(replacement2), new ArrayList<>(event.getUpdatedEntries()));
+        assertEquals(Collections.singletonList(entry1), new ArrayList<>(event.getRemovedEntries()));
+
+        assertEquals(new HashSet<>(Arrays.asList(entry3, replacement2)), new HashSet<>(provider.getEntries()));
+        assertSame(replacement2, provider.getEntryById("2").orElse(null));
+
+        // empty batches do not fire an event
+        provider.batch(batch -> batch.add(entry3).remove(entry1));
+        assertEquals(1, events.size());
+
+        // changes are not applied, when the transaction fails
+        assertThrows(IllegalStateException.class, () -> provider.batch(batch -> {
+            batch.add(entry1);
+            throw new IllegalStateException();
+        }));
+        assertFalse(provider.getEntryById("1").isPresent());
+        assertEquals(1, events.size());
+
+        // plain refreshes do not contain change details
+        provider.refreshAll();
+        assertFalse(events.get(1).hasChangeDetails());
+    }
+
     @Test
     void test_FetchEntriesByClosedDateTimeInterval() {
         InMemoryEntryProvider<Entry> provider = EntryProvider.emptyInMemory();
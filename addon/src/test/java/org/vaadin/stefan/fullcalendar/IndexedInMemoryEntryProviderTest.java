@@ -0,0 +1,157 @@
+package org.vaadin.stefan.fullcalendar;
+
+import org.junit.jupiter.api.Test;
+import org.vaadin.stefan.fullcalendar.dataprovider.EntryIntervalIndex;
+import org.vaadin.stefan.fullcalendar.dataprovider.EntryQuery;
+import org.vaadin.stefan.fullcalendar.dataprovider.IndexedInMemoryEntryProvider;
+import org.vaadin.stefan.fullcalendar.dataprovider.InMemoryEntryProvider;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.vaadin.stefan.fullcalendar.TestUtils.createEntry;
+
+public class IndexedInMemoryEntryProviderTest {
+
+    private static final LocalDateTime REF = LocalDate.of(2000, 1, 1).atStartOfDay();
+
+    @Test
+    void test_indexMatchesLinearFilter() {
+        Random random = new Random(42);
+        List<Entry> entries = new ArrayList<>();
+        for (int i = 0; i < 2000; i++) {
+            Entry entry = new Entry(String.valueOf(i));
+            LocalDateTime start = REF.plusHours(random.nextInt(24 * 365));
+            entry.setStart(start);
+            entry.setEnd(start.plusHours(random.nextInt(24 * 10)));
+            entry.setAllDay(random.nextBoolean());
+            entries.add(entry);
+        }
+
+        // some special cases
+        Entry noEnd = new Entry("noEnd");
+        noEnd.setStart(REF.plusDays(10));
+        entries.add(noEnd);
+
+        InMemoryEntryProvider<Entry> linear = InMemoryEntryProvider.from(entries);
+        IndexedInMemoryEntryProvider<Entry> indexed = IndexedInMemoryEntryProvider.from(entries);
+
+        for (int i = 0; i < 200; i++) {
+            LocalDateTime start = random.nextInt(10) == 0 ? null : REF.plusHours(random.nextInt(24 * 365));
+            LocalDateTime end = random.nextInt(10) == 0 ? null : (start != null ? start : REF).plusHours(random.nextInt(24 * 40));
+            EntryQuery.AllDay allDay = EntryQuery.AllDay.values()[random.nextInt(3)];
+
+            EntryQuery query = new EntryQuery(start, end, allDay);
+            assertEquals(toIds(linear.fetch(query).collect(Collectors.toList())), toIds(indexed.fetch(query).collect(Collectors.toList())), "Query " + start + " - " + end + " " + allDay);
+        }
+    }
+
+    @Test
+    void test_recurringEntries() {
+        // 2000-01-03 is a monday
+        LocalDate monday = LocalDate.of(2000, 1, 3);
+
+        Entry weekly = new Entry("weekly");
+        weekly.setRecurringDaysOfWeek(DayOfWeek.MONDAY);
+        weekly.setRecurringStartTime(RecurringTime.of(10));
+        weekly.setRecurringEndTime(RecurringTime.of(11));
+
+        Entry daily = new Entry("daily");
+        daily.setRecurringStartDate(monday.plusDays(7));
+
+        Entry ended = new Entry("ended");
+        ended.setRecurringDaysOfWeek(DayOfWeek.TUESDAY);
+        ended.setRecurringEndDate(monday.minusDays(7));
+
+        Entry overnight = new Entry("overnight");
+        overnight.setRecurringDaysOfWeek(DayOfWeek.FRIDAY);
+        overnight.setRecurringStartTime(RecurringTime.of(70));
+        overnight.setRecurringEndTime(RecurringTime.of(71));
+
+        IndexedInMemoryEntryProvider<Entry> provider = IndexedInMemoryEntryProvider.from(weekly, daily, ended, overnight);
+
+        // wednesday to thursday, no monday or weekend in range
+        assertTrue(provider.getEntries(monday.plusDays(2).atStartOfDay(), monday.plusDays(3).atStartOfDay()).isEmpty());
+
+        // monday, the overnight entry of the previous friday ends on sunday at 23:00 utc, but is still returned,
+        // since the index widens the range by the maximum timezone offset of 18 hours
+        // (it might be shown on monday in the client's timezone)
+        assertEquals(new HashSet<>(Arrays.asList("weekly", "overnight")), toIds(provider.getEntries(monday)));
+
+        // a full month contains all, except for the already ended
+        assertEquals(new HashSet<>(Arrays.asList("weekly", "daily", "overnight")), toIds(provider.getEntries(monday.atStartOfDay(), monday.plusMonths(1).atStartOfDay())));
+
+        // mutations need an update
+        weekly.setRecurringDaysOfWeek(DayOfWeek.THURSDAY);
+        provider.updateEntries(Collections.singletonList(weekly));
+        assertEquals(Collections.singleton("weekly"), toIds(provider.getEntries(monday.plusDays(3))));
+
+        weekly.clearRecurringStart();
+        weekly.clearRecurringEnd();
+        weekly.setRecurringDaysOfWeek((Set<DayOfWeek>) null);
+        weekly.setStart(monday.atStartOfDay());
+        weekly.setEnd(monday.atStartOfDay().plusHours(1));
+        provider.refreshItem(weekly);
+        assertTrue(toIds(provider.getEntries(monday)).contains("weekly"));
+        assertFalse(toIds(provider.getEntries(monday.plusDays(3))).contains("weekly"));
+    }
+
+    @Test
+    void test_indexFollowsMutations() {
+        Entry entry1 = createEntry("1", REF, REF.plusHours(1));
+        Entry entry2 = createEntry("2", REF.plusDays(1), REF.plusDays(1).plusHours(1));
+
+        IndexedInMemoryEntryProvider<Entry> provider = IndexedInMemoryEntryProvider.from(entry1, entry2);
+        assertEquals(Collections.singleton("1"), toIds(provider.getEntries(REF, REF.plusHours(2))));
+
+        // not yet reindexed
+        entry2.setStart(REF);
+        entry2.setEnd(REF.plusHours(1));
+        assertEquals(Collections.singleton("1"), toIds(provider.getEntries(REF, REF.plusHours(2))));
+
+        provider.updateEntries(Collections.singletonList(entry2));
+        assertEquals(new HashSet<>(Arrays.asList("1", "2")), toIds(provider.getEntries(REF, REF.plusHours(2))));
+
+        entry1.setStart(REF.plusDays(5));
+        entry1.setEnd(REF.plusDays(5).plusHours(1));
+        provider.refreshItem(entry1);
+        assertEquals(Collections.singleton("2"), toIds(provider.getEntries(REF, REF.plusHours(2))));
+
+        entry1.setStart(REF);
+        entry1.setEnd(REF.plusHours(1));
+        provider.refreshAll();
+        assertEquals(new HashSet<>(Arrays.asList("1", "2")), toIds(provider.getEntries(REF, REF.plusHours(2))));
+
+        provider.removeEntry(entry1);
+        assertEquals(Collections.singleton("2"), toIds(provider.getEntries(REF, REF.plusHours(2))));
+
+        provider.removeAllEntries();
+        assertTrue(provider.getEntries(REF, REF.plusHours(2)).isEmpty());
+    }
+
+    @Test
+    void test_intervalIndexBorders() {
+        EntryIntervalIndex<Entry> index = new EntryIntervalIndex<>();
+        assertTrue(index.add(createEntry("1", REF, REF.plusHours(1))));
+        assertFalse(index.add(createEntry("1", REF, REF.plusHours(1))));
+        assertFalse(index.add(new Entry("2")));
+
+        // borders are exclusive
+        assertTrue(index.query(REF.plusHours(1), REF.plusHours(2)).isEmpty());
+        assertTrue(index.query(REF.minusHours(1), REF).isEmpty());
+        assertEquals(1, index.query(REF.plusMinutes(59), null).size());
+        assertEquals(1, index.query(null, REF.plusMinutes(1)).size());
+        assertTrue(index.anyMatch(null, null, e -> e.getId().equals("1")));
+
+        assertTrue(index.remove("1"));
+        assertTrue(index.isEmpty());
+    }
+
+    private static Set<String> toIds(Collection<Entry> entries) {
+        return entries.stream().map(Entry::getId).collect(Collectors.toSet());
+    }
+}
@@ -0,0 +1,119 @@
+package org.vaadin.stefan.fullcalendar;
+
+import org.junit.jupiter.api.Test;
+import org.vaadin.stefan.fullcalendar.dataprovider.Occurrence;
+import org.vaadin.stefan.fullcalendar.dataprovider.RecurrenceExpander;
+
+import java.time.*;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class RecurrenceExpanderTest {
+
+    // 2000-01-03 is a monday
+    private static final LocalDate MONDAY = LocalDate.of(2000, 1, 3);
+
+    @Test
+    void test_expandRecurring() {
+        Entry entry = new Entry("series");
+        entry.setRecurringDaysOfWeek(DayOfWeek.MONDAY, DayOfWeek.WEDNESDAY);
+        entry.setRecurringStartTime(RecurringTime.of(10));
+        entry.setRecurringEndTime(RecurringTime.of(11, 30));
+        entry.setRecurringStartDate(MONDAY.plusDays(2));
+        entry.setRecurringEndDate(MONDAY.plusWeeks(3)); // exclusive
+
+        RecurrenceExpander<Entry> expander = new RecurrenceExpander<>();
+        List<Occurrence<Entry>> occurrences = expander.expand(entry, MONDAY.atStartOfDay(), MONDAY.plusWeeks(5).atStartOfDay());
+
+        assertEquals(Arrays.asList(
+                MONDAY.plusDays(2),
+                MONDAY.plusDays(7),
+                MONDAY.plusDays(9),
+                MONDAY.plusDays(14),
+                MONDAY.plusDays(16)
+        ), occurrences.stream().map(o -> o.getStart().toLocalDate()).collect(Collectors.toList()));
+
+        Occurrence<Entry> first = occurrences.get(0);
+        assertSame(entry, first.getEntry());
+        assertEquals(MONDAY.plusDays(2).atTime(10, 0), first.getStart());
+        assertEquals(MONDAY.plusDays(2).atTime(11, 30), first.getEnd());
+        assertFalse(first.isAllDay());
+
+        // borders are exclusive
+        assertEquals(1, expander.expand(entry, MONDAY.plusDays(7).atTime(11, 0), MONDAY.plusDays(9).atTime(10, 0)).size());
+
+        // times above 24h bleed into the next day
+        entry.setRecurringEndTime(RecurringTime.of(26));
+        List<Occurrence<Entry>> bleeding = expander.expand(entry, MONDAY.plusDays(8).atTime(1, 0), MONDAY.plusDays(8).atTime(2, 0));
+        assertEquals(1, bleeding.size());
+        assertEquals(MONDAY.plusDays(8).atTime(2, 0), bleeding.get(0).getEnd());
+
+        // all day series without days of week recur daily
+        Entry allDay = new Entry("allDay");
+        allDay.setAllDay(true);
+        allDay.setRecurringStartDate(MONDAY);
+        List<Occurrence<Entry>> days = expander.expand(allDay, MONDAY.minusDays(3).atStartOfDay(), MONDAY.plusDays(3).atStartOfDay());
+        assertEquals(3, days.size());
+        assertTrue(days.get(0).isAllDay());
+        assertEquals(MONDAY.plusDays(1).atStartOfDay(), days.get(0).getEnd());
+
+        // non recurring entries are a single occurrence
+        Entry single = new Entry("single");
+        single.setStart(MONDAY.atTime(8, 0));
+        single.setEnd(MONDAY.atTime(9, 0));
+        assertEquals(1, expander.expand(single, MONDAY.atStartOfDay(), MONDAY.plusDays(1).atStartOfDay()).size());
+        assertEquals(0, expander.expand(single, MONDAY.atTime(9, 0), MONDAY.plusDays(1).atStartOfDay()).size());
+    }
+
+    @Test
+    void test_timezone() {
+        Entry entry = new Entry("series");
+        entry.setRecurringDaysOfWeek(DayOfWeek.SUNDAY);
+        entry.setRecurringStartTime(RecurringTime.of(10));
+        entry.setRecurringEndTime(RecurringTime.of(11));
+
+        // daylight saving time in Berlin starts on 2000-03-26
+        RecurrenceExpander<Entry> expander = new RecurrenceExpander<>(new Timezone(ZoneId.of("Europe/Berlin")));
+        List<Occurrence<Entry>> occurrences = expander.expand(entry, LocalDate.of(2000, 3, 19).atStartOfDay(), LocalDate.of(2000, 3, 27).atStartOfDay());
+
+        assertEquals(2, occurrences.size());
+        assertEquals(LocalDate.of(2000, 3, 19).atTime(9, 0), occurrences.get(0).getStart());
+        assertEquals(LocalDate.of(2000, 3, 26).atTime(8, 0), occurrences.get(1).getStart());
+    }
+
+    @Test
+    void test_lazyIterationAndCache() {
+        Entry entry = new Entry("series");
+        entry.setRecurringStartTime(RecurringTime.of(10));
+
+        RecurrenceExpander<Entry> expander = new RecurrenceExpander<>();
+        expander.setMaxWeeksPerSeries(4);
+
+        // an unbounded daily series over a large window is only expanded as far as it is iterated
+        Iterator<Occurrence<Entry>> iterator = expander.iterator(entry, MONDAY.atStartOfDay(), MONDAY.plusYears(10).atStartOfDay());
+        assertEquals(MONDAY.atTime(10, 0), iterator.next().getStart());
+        assertEquals(MONDAY.atTime(11, 0), iterator.next().getEnd().minusDays(1)); // default duration
+        assertEquals(1, expander.getCachedWeekCount());
+
+        RecurrenceExpander.OccurrenceCursor<Entry> cursor = expander.cursor(entry, MONDAY.atStartOfDay(), MONDAY.plusWeeks(8).atStartOfDay());
+        int count = 0;
+        while (cursor.next()) {
+            count++;
+        }
+        assertEquals(56, count);
+        assertEquals(4, expander.getCachedWeekCount());
+        assertThrows(IllegalStateException.class, cursor::getStart);
+
+        // changing the rule discards the cached weeks of the series
+        entry.setRecurringDaysOfWeek(DayOfWeek.FRIDAY);
+        assertEquals(MONDAY.plusDays(4).atTime(10, 0), expander.expand(entry, MONDAY.atStartOfDay(), MONDAY.plusWeeks(1).atStartOfDay()).get(0).getStart());
+        assertEquals(1, expander.getCachedWeekCount());
+
+        expander.invalidate(entry);
+        assertEquals(0, expander.getCachedSeriesCount());
+    }
+}
@@ -0,0 +1,147 @@
+package org.vaadin.stefan.fullcalendar;
+
+import com.vaadin.flow.component.ComponentUtil;
+import elemental.json.Json;
+import org.junit.jupiter.api.Test;
+import org.vaadin.stefan.fullcalendar.dataprovider.EntriesChangeEvent;
+import org.vaadin.stefan.fullcalendar.dataprovider.SharedEntryStore;
+import org.vaadin.stefan.fullcalendar.dataprovider.SharedEntryStoreView;
+
+import java.time.LocalDate;
+import java.util.*;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class SharedEntryStoreTest {
+
+    @Test
+    void test_sharedEntries() {
+        SharedEntryStore<Entry> store = new SharedEntryStore<>();
+
+        Entry entry1 = new Entry("1");
+        entry1.setTitle("Team meeting");
+        entry1.setStart(LocalDate.of(2000, 1, 1).atTime(10, 0));
+        entry1.setEnd(LocalDate.of(2000, 1, 1).atTime(11, 0));
+        Entry entry2 = new Entry("2");
+        entry2.setTitle("Private");
+        store.addEntries(entry1, entry2);
+
+        // the store keeps its own snapshot
+        entry1.setTitle("Changed");
+        assertEquals("Team meeting", store.getEntryById("1").get().getTitle());
+
+        // each calendar gets its own copies, so entries can be fetched by multiple calendars
+        FullCalendar calendar1 = new FullCalendar();
+        FullCalendar calendar2 = new FullCalendar();
+        SharedEntryStoreView<Entry> view1 = store.createView();
+        SharedEntryStoreView<Entry> view2 = store.createView(entry -> !"Private".equals(entry.getTitle()));
+        calendar1.setEntryProvider(view1);
+        calendar2.setEntryProvider(view2);
+
+        calendar1.fetchEntriesFromServerAsString(Json.createObject());
+        calendar2.fetchEntriesFromServerAsString(Json.createObject());
+        assertSame(calendar1, calendar1.getCachedEntryFromFetch("1").get().getCalendar().get());
+        assertSame(calendar2, calendar2.getCachedEntryFromFetch("1").get().getCalendar().get());
+        assertFalse(calendar2.getCachedEntryFromFetch("2").isPresent());
+        assertEquals(2, view1.fetchAll().count());
+        assertEquals(1, view2.fetchAll().count());
+        assertFalse(view2.fetchById("2").isPresent());
+    }
+
+    @Test
+    void test_changesAreFannedOut() {
+        SharedEntryStore<Entry> store = new SharedEntryStore<>();
+        Entry entry1 = new Entry("1");
+        store.addEntries(entry1);
+
+        FullCalendar calendar1 = new FullCalendar();
+        FullCalendar calendar2 = new FullCalendar();
+        SharedEntryStoreView<Entry> view1 = store.createView();
+        SharedEntryStoreView<Entry> view2 = store.createView(entry -> !"Private".equals(entry.getTitle()));
+        calendar1.setEntryProvider(view1);
+        calendar2.setEntryProvider(view2);
+
+        List<EntriesChangeEvent<Entry>> events1 = new ArrayList<>();
+        List<EntriesChangeEvent<Entry>> events2 = new ArrayList<>();
+        view1.addEntriesChangeListener(events1::add);
+        view2.addEntriesChangeListener(events2::add);
+
+        // only views of attached calendars receive changes
+        store.addEntries(new Entry("2"));
+        assertTrue(events1.isEmpty());
+
+        ComponentUtil.onComponentAttach(calendar1, true);
+        ComponentUtil.onComponentAttach(calendar2, true);
+        assertEquals(2, store.getConnectedViewCount());
+
+        Entry update = store.getEntryById("1").get();
+        update.setTitle("Private");
+        store.updateEntries(update);
+
+        assertEquals(1, events1.size());
+        assertEquals(Collections.singleton("1"), toIds(events1.get(0).getUpdatedEntries()));
+
+        // not matching the filter anymore
+        assertEquals(1, events2.size());
+        assertEquals(Collections.singleton("1"), toIds(events2.get(0).getRemovedEntries()));
+
+        // changes, that are not relevant for the filtered view, are not forwarded
+        Entry privateEntry = new Entry("3");
+        privateEntry.setTitle("Private");
+        store.addEntries(privateEntry);
+        assertEquals(2, events1.size());
+        assertEquals(1, events2.size());
+
+        store.removeEntries(privateEntry);
+        assertEquals(3, events1.size());
+        assertEquals(1, events2.size());
+
+        ComponentUtil.onComponentDetach(calendar1);
+        assertEquals(1, store.getConnectedViewCount());
+        store.removeEntries(new Entry("2"));
+        assertEquals(3, events1.size());
+        assertEquals(2, events2.size());
+        assertEquals(Collections.singleton("2"), toIds(events2.get(1).getRemovedEntries()));
+    }
+
+    @Test
+    void test_serializedViewReferencesStoreById() throws Exception {
+        SharedEntryStore<Entry> store = new SharedEntryStore<>();
+        store.addEntries(new Entry("1"), new Entry("2"));
+
+        FullCalendar calendar = new FullCalendar();
+        SharedEntryStoreView<Entry> view = store.createView(entry -> !"2".equals(entry.getId()));
+        calendar.setEntryProvider(view);
+        calendar.fetchEntriesFromServerAsString(Json.createObject());
+
+        // the store is not serialized with the calendar, but looked up again
+        FullCalendar deserialized = TestUtils.serializeAndDeserialize(calendar);
+        SharedEntryStoreView<Entry> deserializedView = deserialized.getEntryProvider();
+        assertNotSame(view, deserializedView);
+        assertSame(store, deserializedView.getStore());
+        assertEquals(Collections.singleton("1"), toIds(deserializedView.fetchAll().collect(Collectors.toList())));
+
+        // the serialized calendar does not grow with the store
+        int size = TestUtils.serialize(calendar).length;
+        for (int i = 0; i < 100; i++) {
+            store.addEntries(new Entry("added " + i));
+        }
+        assertEquals(size, TestUtils.serialize(calendar).length);
+
+        // a deserialized store resolves to the existing one
+        assertSame(store, TestUtils.serializeAndDeserialize(store));
+    }
+
+    @Test
+    void test_storeIds() {
+        SharedEntryStore<Entry> store = new SharedEntryStore<>("test_storeIds");
+        assertEquals("test_storeIds", store.getId());
+        assertThrows(IllegalStateException.class, () -> new SharedEntryStore<>("test_storeIds"));
+        assertNotEquals(new SharedEntryStore<>().getId(), new SharedEntryStore<>().getId());
+    }
+
+    private static Set<String> toIds(Collection<Entry> entries) {
+        return entries.stream().map(Entry::getId).collect(Collectors.toSet());
+    }
+}
@@ -5,6 +5,8 @@ import elemental.json.*;
 import org.junit.jupiter.api.Assertions;
 
 import org.vaadin.stefan.fullcalendar.NotNull;
+
+import java.io.*;
 import java.time.LocalDateTime;
 import java.util.*;
 import java.util.function.Consumer;
@@ -122,6 +124,13 @@ public class TestUtils {
         return entry;
     }
 
+    public static Entry createEntry(String id, LocalDateTime start, LocalDateTime end) {
+        Entry entry = new Entry(id);
+        entry.setStart(start);
+        entry.setEnd(end);
+        return entry;
+    }
+
     public static String buildListBasedErrorString(List<Entry> entriesMatching, Collection<Entry> entriesFound) {
         StringBuffer sb = new StringBuffer("Searched for:");
         entriesMatching.stream().map(Entry::getTitle).forEach(s -> sb.append(s).append("\n"));
@@ -174,4 +183,25 @@ public class TestUtils {
     public static <T> Set<T> toSet(JsonArray array, SerializableFunction<JsonValue, Object> converter) {
         return JsonUtils.ofJsonValue(array, converter, null, HashSet.class);
     }
+
+    /**
+     * Serializes the given object like a session is serialized.
+     */
+    public static byte[] serialize(Serializable object) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+            out.writeObject(object);
+        }
+        return bytes.toByteArray();
+    }
+
+    /**
+     * Serializes and deserializes the given object like a session is serialized.
+     */
+    @SuppressWarnings("unchecked")
+    public static <T extends Serializable> T serializeAndDeserialize(T object) throws IOException, ClassNotFoundException {
+        try (ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(serialize(object)))) {
+            return (T) in.readObject();
+        }
+    }
 }